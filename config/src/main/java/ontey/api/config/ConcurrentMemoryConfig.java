@@ -0,0 +1,62 @@
+package ontey.api.config;
+
+import lombok.NonNull;
+import ontey.api.config.util.ConcurrentLinkedMap;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * A {@link MemoryConfig} that can be read and modified by multiple threads at once.
+ * <br>
+ * All sections of this configuration are {@link ConcurrentMemorySection}s.
+ * See there for the guarantees that are given.
+ * <br>
+ * The options and the defaults of this configuration should be set up before it is shared between threads.
+ */
+
+public class ConcurrentMemoryConfig extends MemoryConfig {
+	
+	/**
+	 * Creates an empty {@link ConcurrentMemoryConfig} with no default values.
+	 */
+	
+	public ConcurrentMemoryConfig() {
+		this.options();
+	}
+	
+	/**
+	 * Creates an empty {@link ConcurrentMemoryConfig} using the specified
+	 * {@link Config} as a source for all default values.
+	 *
+	 * @param defaults Default value provider
+	 */
+	
+	public ConcurrentMemoryConfig(Config defaults) {
+		super(defaults);
+		this.options();
+	}
+	
+	@Override
+	public synchronized void addDefault(@NonNull String path, @Nullable Object value) {
+		if(this.defaults == null)
+			this.defaults = new ConcurrentMemoryConfig();
+		
+		this.defaults.set(path, value);
+	}
+	
+	@Override
+	protected Map<String, Object> createMap() {
+		return new ConcurrentLinkedMap<>();
+	}
+	
+	@Override
+	protected MemorySection createChild(@NonNull String name) {
+		return new ConcurrentMemorySection(this, name);
+	}
+	
+	@Override
+	protected Object getOrCreateSection(Object section, ConfigPath path, int i) {
+		return ConcurrentMemorySection.getOrCreateSection(this, section, path, i);
+	}
+}
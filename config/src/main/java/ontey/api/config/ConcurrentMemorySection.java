@@ -0,0 +1,80 @@
+package ontey.api.config;
+
+import lombok.NonNull;
+import ontey.api.config.util.ConcurrentLinkedMap;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Map;
+
+/**
+ * A {@link MemorySection} that can be read and modified by multiple threads at once.
+ * <br>
+ * The children of every section are stored in a {@link ConcurrentLinkedMap}, so reading values does not lock
+ * and modifications only lock the section that is modified. Missing sections along a path are created atomically,
+ * so two threads setting values below the same new section never orphan each other's values.
+ * {@link #getKeys(boolean)} and {@link #getValues(boolean)} iterate over copies of the children.
+ * <br>
+ * Lists stored in a section are not guarded, modifying them through list indices like {@code list[0]}
+ * from multiple threads at once is not safe.
+ * <br>
+ * Sections of this type are created by a {@link ConcurrentMemoryConfig}.
+ */
+
+public class ConcurrentMemorySection extends MemorySection {
+	
+	/**
+	 * Creates an empty section with the specified parent and name.
+	 *
+	 * @param parent Parent section that contains this own section.
+	 * @param name Name of this section within its parent.
+	 * @throws IllegalArgumentException Thrown if parent contains no root Configuration.
+	 */
+	
+	public ConcurrentMemorySection(@NonNull ConfigSection parent, @NonNull String name) {
+		super(parent, name);
+	}
+	
+	@Override
+	protected Map<String, Object> createMap() {
+		return new ConcurrentLinkedMap<>();
+	}
+	
+	@Override
+	protected MemorySection createChild(@NonNull String name) {
+		return new ConcurrentMemorySection(this, name);
+	}
+	
+	@Override
+	protected Object getOrCreateSection(Object section, ConfigPath path, int i) {
+		return ConcurrentMemorySection.getOrCreateSection(this, section, path, i);
+	}
+	
+	/**
+	 * Gets the section at a node of a path, creating it while holding the lock of the containing section if it
+	 * does not exist yet. This is shared by all concurrent sections and roots.
+	 *
+	 * @param owner the section walking the path
+	 * @param section the section, map or serializable containing the node
+	 * @param path the path being walked
+	 * @param i the position of the node
+	 * @return the existing or newly created section, or null if no section can be created at the node
+	 */
+	
+	@ApiStatus.Internal
+	public static Object getOrCreateSection(@NonNull MemorySection owner, Object section, ConfigPath path, int i) {
+		var subSection = owner.getSubSection(section, path, i);
+		
+		if(subSection != null)
+			return subSection;
+		
+		synchronized(section) {
+			// another thread may have created it while waiting for the lock
+			subSection = owner.getSubSection(section, path, i);
+			
+			if(subSection != null)
+				return subSection;
+			
+			return section instanceof ConfigSection configSection ? configSection.createSection(path.node(i)) : null;
+		}
+	}
+}
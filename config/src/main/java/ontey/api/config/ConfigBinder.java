@@ -0,0 +1,304 @@
+package ontey.api.config;
+
+import lombok.NonNull;
+import ontey.api.config.file.FileConfig;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binds an interface or a record to a {@link ConfigSection}, so its values can be read like fields.
+ * <br>
+ * Every accessor (the abstract methods of an interface without parameters, or the components of a record)
+ * is mapped to the path of its name, or the path given by {@link ConfigKey}. The paths and the converters of the
+ * accessor types (see {@link ValueConverters}) are resolved once. All values are read and converted when binding and
+ * every time the root of the section is loaded again, and are then published at once, so a read never
+ * mixes values of two loads. Reading an accessor costs an array access instead of walking the section and
+ * converting the value.
+ * <br>
+ * Example usage:
+ * <pre>{@code
+ * public interface Settings {
+ *     @ConfigKey("max-players")
+ *     int maxPlayers();
+ *
+ *     default String motd() {
+ *         return "Welcome!"; // used if the path is not set
+ *     }
+ * }
+ *
+ * ConfigBinder<Settings> binder = ConfigBinder.bind(config.getSection("settings"), Settings.class);
+ * Settings settings = binder.get(); // always returns the values of the last load
+ * int max = settings.maxPlayers();
+ * }</pre>
+ * <br>
+ * Records are immutable, so a new record is created on every load and {@link #get()} has to be called again
+ * to read the new values. The proxy of an interface always reads the latest values.
+ * <br>
+ * Values that are missing or cannot be converted are null, or zero ({@code false}) for primitive types.
+ * Default methods of interfaces are called instead if the value is missing or cannot be converted, record components
+ * get the value of their {@link ConfigDefault}.
+ * <br>
+ * Values that are {@link ConfigSection#set(String, Object) set} on the section are only seen after {@link #refresh()}.
+ * If the root is a {@link FileConfig}, every load refreshes the binder automatically until it is {@link #close() closed}.
+ *
+ * @param <T> the bound interface or record
+ */
+
+public final class ConfigBinder<T> implements AutoCloseable {
+	
+	/**
+	 * Marks a value of an interface accessor that is provided by its default method.
+	 */
+	
+	private static final Object USE_DEFAULT = new Object();
+	
+	private final Class<T> type;
+	
+	private final Config root;
+	
+	private final String path;
+	
+	private final Accessor[] accessors;
+	
+	/**
+	 * The index of each accessor of an interface by its method.
+	 */
+	
+	private final Map<Method, Integer> indices;
+	
+	/**
+	 * The proxy of an interface, or null for records.
+	 */
+	
+	private final T proxy;
+	
+	/**
+	 * The canonical constructor of a record of type {@code (Object[])Object}, or null for interfaces.
+	 */
+	
+	private final MethodHandle constructor;
+	
+	private final Runnable loadListener = this::refresh;
+	
+	private volatile Bound<T> bound;
+	
+	private ConfigBinder(ConfigSection section, Class<T> type) {
+		this.type = type;
+		this.root = section.getRoot();
+		this.path = section.getPath();
+		
+		if(this.root == null)
+			throw new IllegalArgumentException("Cannot bind a section without a root");
+		
+		var separator = this.root.options().pathSeparator();
+		
+		if(type.isRecord()) {
+			var components = type.getRecordComponents();
+			var parameterTypes = new Class<?>[components.length];
+			
+			this.accessors = new Accessor[components.length];
+			this.indices = Map.of();
+			this.proxy = null;
+			
+			for(var i = 0; i < components.length; i++) {
+				var component = components[i];
+				var key = component.getAnnotation(ConfigKey.class);
+				var def = component.getAnnotation(ConfigDefault.class);
+				var accessor = Accessor.of(key != null ? key.value() : component.getName(), separator, component.getGenericType(), component.getType(), false);
+				
+				parameterTypes[i] = component.getType();
+				this.accessors[i] = def != null ? accessor.withDefault(def.value()) : accessor;
+			}
+			
+			try {
+				var canonical = type.getDeclaredConstructor(parameterTypes);
+				canonical.trySetAccessible();
+				
+				this.constructor = MethodHandles.lookup().unreflectConstructor(canonical)
+				  .asSpreader(Object[].class, parameterTypes.length)
+				  .asType(MethodType.methodType(Object.class, Object[].class));
+			} catch(ReflectiveOperationException ex) {
+				throw new IllegalArgumentException("Cannot access the canonical constructor of " + type, ex);
+			}
+		} else if(type.isInterface()) {
+			var accessors = new ArrayList<Accessor>();
+			var indices = new HashMap<Method, Integer>();
+			
+			for(var method : type.getMethods()) {
+				if(Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0 || method.getReturnType() == void.class) {
+					if(Modifier.isAbstract(method.getModifiers()))
+						throw new IllegalArgumentException("Cannot bind " + method + ", accessors must have no parameters and return a value");
+					
+					continue;
+				}
+				
+				var key = method.getAnnotation(ConfigKey.class);
+				
+				indices.put(method, accessors.size());
+				accessors.add(Accessor.of(key != null ? key.value() : method.getName(), separator, method.getGenericReturnType(), method.getReturnType(), method.isDefault()));
+			}
+			
+			this.accessors = accessors.toArray(new Accessor[0]);
+			this.indices = indices;
+			this.constructor = null;
+			this.proxy = type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, this::invoke));
+		} else
+			throw new IllegalArgumentException(type + " is neither an interface nor a record");
+	}
+	
+	/**
+	 * Binds an interface or record to a section and reads its values.
+	 * <br>
+	 * If the root of the section is a {@link FileConfig}, the values are read again every time it is loaded.
+	 *
+	 * @param section the section the paths of the accessors are relative to
+	 * @param type the interface or record
+	 * @return the binder
+	 * @throws IllegalArgumentException if the type is neither an interface nor a record, an interface has abstract
+	 * methods that are not accessors, or the section has no root
+	 */
+	
+	public static <T> @NonNull ConfigBinder<T> bind(@NonNull ConfigSection section, @NonNull Class<T> type) {
+		var binder = new ConfigBinder<>(section, type);
+		binder.refresh();
+		
+		if(binder.root instanceof FileConfig file)
+			file.addLoadListener(binder.loadListener);
+		
+		return binder;
+	}
+	
+	/**
+	 * Gets the bound values.
+	 *
+	 * @return the proxy for interfaces, or the record of the last load
+	 */
+	
+	public @NonNull T get() {
+		return this.bound.instance();
+	}
+	
+	/**
+	 * Gets the bound type.
+	 *
+	 * @return the interface or record
+	 */
+	
+	public @NonNull Class<T> type() {
+		return this.type;
+	}
+	
+	/**
+	 * Reads and converts all values again and publishes them at once.
+	 * <br>
+	 * The section is looked up again by its path, as loading may replace the sections of a config.
+	 * If the section does not exist anymore, all values are missing.
+	 */
+	
+	public void refresh() {
+		var section = this.path.isEmpty() ? this.root : this.root.getSection(this.path);
+		var values = new Object[this.accessors.length];
+		
+		for(var i = 0; i < values.length; i++)
+			values[i] = this.accessors[i].read(section);
+		
+		this.bound = new Bound<>(values, this.proxy != null ? this.proxy : this.construct(values));
+	}
+	
+	/**
+	 * Stops refreshing the values when the root is loaded.
+	 * The last values can still be read.
+	 */
+	
+	@Override
+	public void close() {
+		if(this.root instanceof FileConfig file)
+			file.removeLoadListener(this.loadListener);
+	}
+	
+	private T construct(Object[] values) {
+		try {
+			return this.type.cast(this.constructor.invokeExact(values.clone()));
+		} catch(Throwable ex) {
+			throw new IllegalStateException("Could not create " + this.type + " from the values at '" + this.path + "'", ex);
+		}
+	}
+	
+	private Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		var index = this.indices.get(method);
+		
+		if(index != null) {
+			var value = this.bound.values()[index];
+			return value != USE_DEFAULT ? value : InvocationHandler.invokeDefault(proxy, method);
+		}
+		
+		if(method.isDefault())
+			return InvocationHandler.invokeDefault(proxy, method, args);
+		
+		return switch(method.getName()) {
+			case "equals" -> proxy == args[0];
+			case "hashCode" -> System.identityHashCode(proxy);
+			case "toString" -> this.type.getSimpleName() + "[path='" + this.path + "']";
+			default -> throw new UnsupportedOperationException(method.toString());
+		};
+	}
+	
+	/**
+	 * The values of one load, published together.
+	 *
+	 * @param values the converted values by accessor index
+	 * @param instance the proxy or record
+	 */
+	
+	private record Bound<T>(Object[] values, T instance) {
+		
+	}
+	
+	/**
+	 * An accessor resolved to its path and converter.
+	 *
+	 * @param path the path relative to the bound section
+	 * @param converter converts the raw value to the type of the accessor
+	 * @param missing the value if the raw value is missing or cannot be converted
+	 */
+	
+	private record Accessor(ConfigPath path, ValueConverter<?> converter, Object missing) {
+		
+		private static Accessor of(String path, char separator, Type genericType, Class<?> type, boolean hasDefault) {
+			Object missing = null;
+			
+			if(hasDefault)
+				missing = USE_DEFAULT;
+			else if(type.isPrimitive())
+				missing = Array.get(Array.newInstance(type, 1), 0);
+			
+			return new Accessor(ConfigPath.of(path, separator), ValueConverters.of(genericType), missing);
+		}
+		
+		private Accessor withDefault(String def) {
+			var value = this.converter.convert(def);
+			return value != null ? new Accessor(this.path, this.converter, value) : this;
+		}
+		
+		private Object read(ConfigSection section) {
+			if(section == null)
+				return this.missing;
+			
+			var value = section.getConverted(this.path, this.converter, null);
+			
+			if(value == null) {
+				// getConverted doesn't look at the defaults of the root
+				var def = section.get(this.path);
+				value = def != null ? this.converter.convert(def) : null;
+			}
+			
+			return value != null ? value : this.missing;
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package ontey.api.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sets the value of a record component that is missing or cannot be converted, when the record is bound by
+ * {@link ConfigBinder} or deserialized by its components.
+ * <br>
+ * The value is converted to the type of the component like a value of the config, once per record class.
+ * <br>
+ * Example usage:
+ * <pre>{@code
+ * public record Command(String name, @ConfigDefault("true") boolean enabled) implements RecordSerializable {
+ * }
+ * }</pre>
+ */
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.RECORD_COMPONENT)
+public @interface ConfigDefault {
+	
+	/**
+	 * The value, as it would be written in the config.
+	 *
+	 * @return the value
+	 */
+	
+	String value();
+}
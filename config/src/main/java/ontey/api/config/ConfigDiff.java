@@ -0,0 +1,334 @@
+package ontey.api.config;
+
+import lombok.NonNull;
+import ontey.api.config.serialization.ConfigSerializable;
+
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * The differences between two {@link ConfigSection}s, as a list of added, removed and changed paths.
+ * <br>
+ * Both sections are walked together, looking up the keys of one section in the other, so a diff takes time linear
+ * in the size of the sections. Subtrees that are the same instance in both sections are skipped without walking
+ * them, other subtrees are always walked: sections keep no structural hash to skip equal copies, as it would have
+ * to be invalidated up to the root on every change of a value. Values are compared by {@link Object#equals(Object)}, except for sections, maps and lists, which are
+ * compared element by element, and {@link ConfigSerializable}s without an own {@code equals}, which are compared by
+ * their {@link ConfigSerializable#serialize() serialized} form.
+ * <br>
+ * Only the values set in the sections are compared, not their defaults. A section that has been added or removed
+ * as a whole is a single entry, with the values of the section as a {@link Map}. Values are unwrapped as they are
+ * returned by {@link ConfigSection#get(String)}, with lists and maps copied so entries don't change with the sections.
+ * <br>
+ * Example usage:
+ * <pre>{@code
+ * ConfigSnapshot before = config.snapshot();
+ * config.load();
+ *
+ * ConfigDiff diff = ConfigDiff.between(before, config);
+ *
+ * if(diff.affects("messages"))
+ *     messageCache.clear();
+ * }</pre>
+ */
+
+public final class ConfigDiff {
+	
+	/**
+	 * Whether a class overrides {@link Object#equals(Object)}.
+	 */
+	
+	private static final ClassValue<Boolean> hasEquals = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(@NonNull Class<?> type) {
+			try {
+				return type.getMethod("equals", Object.class).getDeclaringClass() != Object.class;
+			} catch(NoSuchMethodException e) {
+				return false;
+			}
+		}
+	};
+	
+	private final List<Entry> entries;
+	
+	private final char separator;
+	
+	private ConfigDiff(List<Entry> entries, char separator) {
+		this.entries = Collections.unmodifiableList(entries);
+		this.separator = separator;
+	}
+	
+	/**
+	 * Computes the differences between two sections.
+	 * <br>
+	 * Paths of the diff are relative to the sections and use the path separator of the newer section.
+	 *
+	 * @param oldSection the older section
+	 * @param newSection the newer section
+	 * @return the changes that turn the older section into the newer one
+	 */
+	
+	public static @NonNull ConfigDiff between(@NonNull ConfigSection oldSection, @NonNull ConfigSection newSection) {
+		var root = newSection.getRoot();
+		var separator = root != null ? root.options().pathSeparator() : '.';
+		var walker = new Walker(separator, unwrapper(oldSection), unwrapper(newSection));
+		
+		if(oldSection != newSection)
+			walker.compare(Walker.children(oldSection), Walker.children(newSection), "");
+		
+		return new ConfigDiff(walker.entries, separator);
+	}
+	
+	/**
+	 * Computes the changes of a configuration since it had the given children, which must not have been modified
+	 * since, such as a copy of its top level values taken before it has been loaded.
+	 */
+	
+	static ConfigDiff between(Map<String, Object> oldChildren, MemoryConfig config) {
+		var separator = config.options().pathSeparator();
+		var walker = new Walker(separator, config::unwrap, config::unwrap);
+		
+		walker.compare(oldChildren, config.map, "");
+		
+		return new ConfigDiff(walker.entries, separator);
+	}
+	
+	/**
+	 * Gets the changes, parents before their children.
+	 *
+	 * @return an unmodifiable list of the changes
+	 */
+	
+	public @NonNull List<Entry> getEntries() {
+		return this.entries;
+	}
+	
+	/**
+	 * @return true if the sections are equal
+	 */
+	
+	public boolean isEmpty() {
+		return this.entries.isEmpty();
+	}
+	
+	/**
+	 * Checks whether a path has been affected by the changes, which is the case if the path, one of its
+	 * parents or one of its children has changed.
+	 *
+	 * @param path the path to check
+	 * @return true if the value at the path may have changed
+	 */
+	
+	public boolean affects(@NonNull String path) {
+		for(var entry : this.entries)
+			if(isParentOrSelf(entry.path(), path) || isParentOrSelf(path, entry.path()))
+				return true;
+		
+		return false;
+	}
+	
+	private boolean isParentOrSelf(String parent, String path) {
+		return path.startsWith(parent) && (path.length() == parent.length() || path.charAt(parent.length()) == this.separator);
+	}
+	
+	/**
+	 * Applies the changes to a section, which usually is a copy of the older section.
+	 * <br>
+	 * The section should use the path separator of the diff.
+	 *
+	 * @param target the section to apply the changes to
+	 */
+	
+	public void apply(@NonNull ConfigSection target) {
+		for(var entry : this.entries) {
+			if(entry.type() == Type.REMOVED)
+				target.set(entry.path(), null);
+			else if(entry.newValue() instanceof Map<?, ?> map)
+				target.createSection(entry.path(), map);
+			else
+				target.set(entry.path(), entry.newValue());
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return "ConfigDiff" + this.entries;
+	}
+	
+	private static UnaryOperator<Object> unwrapper(ConfigSection section) {
+		return section.getRoot() instanceof MemoryConfig config ? config::unwrap : UnaryOperator.identity();
+	}
+	
+	/**
+	 * The kind of change of a path.
+	 */
+	
+	public enum Type {
+		
+		/**
+		 * The path has only been set in the newer section.
+		 */
+		
+		ADDED,
+		
+		/**
+		 * The path has only been set in the older section.
+		 */
+		
+		REMOVED,
+		
+		/**
+		 * The path has been set to different values.
+		 */
+		
+		CHANGED
+	}
+	
+	/**
+	 * A changed path.
+	 *
+	 * @param path the path, relative to the compared sections
+	 * @param type the kind of change
+	 * @param oldValue the value in the older section, or null if it has been added
+	 * @param newValue the value in the newer section, or null if it has been removed
+	 */
+	
+	public record Entry(@NonNull String path, @NonNull Type type, Object oldValue, Object newValue) {
+		
+	}
+	
+	private static final class Walker {
+		
+		private final List<Entry> entries = new ArrayList<>();
+		
+		private final char separator;
+		
+		private final UnaryOperator<Object> oldUnwrap;
+		
+		private final UnaryOperator<Object> newUnwrap;
+		
+		private Walker(char separator, UnaryOperator<Object> oldUnwrap, UnaryOperator<Object> newUnwrap) {
+			this.separator = separator;
+			this.oldUnwrap = oldUnwrap;
+			this.newUnwrap = newUnwrap;
+		}
+		
+		private void compare(Map<String, Object> oldChildren, Map<String, Object> newChildren, String prefix) {
+			for(var entry : oldChildren.entrySet())
+				if(!newChildren.containsKey(entry.getKey()))
+					this.entries.add(new Entry(prefix + entry.getKey(), Type.REMOVED, this.export(entry.getValue(), this.oldUnwrap), null));
+			
+			for(var entry : newChildren.entrySet()) {
+				var key = entry.getKey();
+				var path = prefix + key;
+				var newValue = entry.getValue();
+				
+				if(!oldChildren.containsKey(key)) {
+					this.entries.add(new Entry(path, Type.ADDED, null, this.export(newValue, this.newUnwrap)));
+					continue;
+				}
+				
+				var oldValue = oldChildren.get(key);
+				
+				if(oldValue == newValue) // unchanged subtree
+					continue;
+				
+				if(oldValue instanceof ConfigSection oldChild && newValue instanceof ConfigSection newChild)
+					this.compare(children(oldChild), children(newChild), path + this.separator);
+				else if(!this.equal(oldValue, newValue))
+					this.entries.add(new Entry(path, Type.CHANGED, this.export(oldValue, this.oldUnwrap), this.export(newValue, this.newUnwrap)));
+			}
+		}
+		
+		private boolean equal(Object oldValue, Object newValue) {
+			if(oldValue == newValue)
+				return true;
+			
+			oldValue = this.oldUnwrap.apply(oldValue);
+			newValue = this.newUnwrap.apply(newValue);
+			
+			if(oldValue == newValue)
+				return true;
+			
+			if(oldValue == null || newValue == null)
+				return false;
+			
+			if(oldValue instanceof ConfigSection oldSection && newValue instanceof ConfigSection newSection)
+				return this.equal(children(oldSection), children(newSection));
+			
+			if(oldValue instanceof Map<?, ?> oldMap && newValue instanceof Map<?, ?> newMap) {
+				if(oldMap.size() != newMap.size())
+					return false;
+				
+				for(var entry : oldMap.entrySet())
+					if(!newMap.containsKey(entry.getKey()) || !this.equal(entry.getValue(), newMap.get(entry.getKey())))
+						return false;
+				
+				return true;
+			}
+			
+			if(oldValue instanceof List<?> oldList && newValue instanceof List<?> newList) {
+				if(oldList.size() != newList.size())
+					return false;
+				
+				var oldIterator = oldList.iterator();
+				var newIterator = newList.iterator();
+				
+				while(oldIterator.hasNext())
+					if(!this.equal(oldIterator.next(), newIterator.next()))
+						return false;
+				
+				return true;
+			}
+			
+			if(oldValue instanceof ConfigSerializable oldSerializable && newValue instanceof ConfigSerializable newSerializable && !hasEquals.get(oldValue.getClass()))
+				return oldValue.getClass() == newValue.getClass() && this.equal(oldSerializable.serialize(), newSerializable.serialize());
+			
+			return oldValue.equals(newValue);
+		}
+		
+		/**
+		 * Unwraps a value for an entry, copying sections into maps and copying lists and maps, so the entry does not
+		 * change with the section.
+		 */
+		
+		private Object export(Object value, UnaryOperator<Object> unwrap) {
+			if(value instanceof ConfigSection section) {
+				var children = children(section);
+				var map = LinkedHashMap.<String, Object>newLinkedHashMap(children.size());
+				
+				for(var entry : children.entrySet())
+					map.put(entry.getKey(), this.export(entry.getValue(), unwrap));
+				
+				return map;
+			}
+			
+			var unwrapped = unwrap.apply(value);
+			
+			return switch(unwrapped) {
+				case List<?> list -> {
+					var copy = new ArrayList<>(list.size());
+					
+					for(var element : list)
+						copy.add(this.export(element, UnaryOperator.identity()));
+					
+					yield copy;
+				}
+				case Map<?, ?> map -> {
+					var copy = LinkedHashMap.<Object, Object>newLinkedHashMap(map.size());
+					
+					for(var entry : map.entrySet())
+						copy.put(entry.getKey(), this.export(entry.getValue(), UnaryOperator.identity()));
+					
+					yield copy;
+				}
+				case null, default -> unwrapped;
+			};
+		}
+		
+		private static Map<String, Object> children(ConfigSection section) {
+			// sections of other implementations are copied, as their children can't be accessed otherwise
+			return section instanceof MemorySection mem ? mem.map : section.getValues(false);
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package ontey.api.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sets the path an accessor of a type bound by {@link ConfigBinder} is read from.
+ * <br>
+ * Records serialized by their components (see {@link ontey.api.config.serialization.RecordSerializable}) store
+ * the component under this key instead of its name. The key is a single key there, not a path.
+ * <br>
+ * Without this annotation, the name of the method or record component is used as the path.
+ * <br>
+ * Example usage:
+ * <pre>{@code
+ * public interface Settings {
+ *     @ConfigKey("limits.max-players")
+ *     int maxPlayers();
+ * }
+ * }</pre>
+ */
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.RECORD_COMPONENT})
+public @interface ConfigKey {
+	
+	/**
+	 * The path relative to the bound section, using the path separator of its root.
+	 *
+	 * @return the path
+	 */
+	
+	String value();
+}
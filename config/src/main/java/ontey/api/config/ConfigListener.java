@@ -0,0 +1,24 @@
+package ontey.api.config;
+
+import lombok.NonNull;
+
+import java.util.Set;
+
+/**
+ * Listens to changes of the values of a {@link MemoryConfig} matching a path pattern,
+ * see {@link MemoryConfig#addChangeListener(String, ConfigListener)}.
+ */
+
+@FunctionalInterface
+public interface ConfigListener {
+	
+	/**
+	 * Called on the modifying thread after values matching the pattern of this listener have been changed.
+	 * <br>
+	 * A changed path may also be a parent of the pattern, if a whole section has been replaced or removed.
+	 *
+	 * @param paths the changed full paths, all changes of a batch or load at once
+	 */
+	
+	void changed(@NonNull Set<String> paths);
+}
@@ -0,0 +1,317 @@
+package ontey.api.config;
+
+import lombok.NonNull;
+import ontey.api.config.util.StringUtils;
+import org.jetbrains.annotations.Contract;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A precompiled path to a value of a {@link ConfigSection}.
+ * <br>
+ * The path is split into its nodes once, honoring escaped separators and {@code [n]} list indices
+ * exactly like the string based accessors of {@link MemorySection} do.
+ * Reading a value through a {@code ConfigPath} does not have to scan the path again,
+ * so paths that are read very often should be compiled once and kept in a constant:
+ * <pre>{@code
+ * private static final ConfigPath MAX_PLAYERS = ConfigPath.of("limits.max-players");
+ *
+ * int max = config.getInt(MAX_PLAYERS, 20);
+ * }</pre>
+ * <br>
+ * A path is bound to the separator it was compiled with. If it is used on a section whose root uses
+ * another {@link ConfigOptions#pathSeparator() path separator}, it is compiled again for that separator.
+ * <br>
+ * Instances are immutable and may be shared between threads.
+ */
+
+public final class ConfigPath {
+	
+	/**
+	 * The value of {@link #index(int)} for nodes that are not indexed.
+	 */
+	
+	public static final int NO_INDEX = Integer.MIN_VALUE;
+	
+	private final String path;
+	
+	private final char separator;
+	
+	/**
+	 * The raw nodes, as they are used as keys of a section.
+	 */
+	
+	private final String[] nodes;
+	
+	/**
+	 * For indexed nodes such as {@code list[0]}, the node without the index ({@code list}), otherwise {@code null}.
+	 */
+	
+	private final String[] iterableNodes;
+	
+	/**
+	 * For indexed nodes such as {@code list[0]}, the index ({@code 0}), otherwise {@link #NO_INDEX}.
+	 */
+	
+	private final int[] indices;
+	
+	private final boolean hasIndices;
+	
+	private ConfigPath(String path, char separator, String[] nodes, String[] iterableNodes, int[] indices, boolean hasIndices) {
+		this.path = path;
+		this.separator = separator;
+		this.nodes = nodes;
+		this.iterableNodes = iterableNodes;
+		this.indices = indices;
+		this.hasIndices = hasIndices;
+	}
+	
+	/**
+	 * Compiles a path using the default path separator ({@code '.'}).
+	 *
+	 * @param path the path to compile
+	 * @return the compiled path
+	 * @throws NumberFormatException if a list index of the path does not fit into an int
+	 */
+	
+	@Contract(pure = true)
+	public static @NonNull ConfigPath of(@NonNull String path) {
+		return of(path, '.');
+	}
+	
+	/**
+	 * Compiles a path using the path separator of the root of the given section.
+	 *
+	 * @param section the section the path will be used with
+	 * @param path the path to compile
+	 * @return the compiled path
+	 * @throws NumberFormatException if a list index of the path does not fit into an int
+	 */
+	
+	@Contract(pure = true)
+	public static @NonNull ConfigPath of(@NonNull ConfigSection section, @NonNull String path) {
+		var root = section.getRoot();
+		return of(path, root == null ? '.' : root.options().pathSeparator());
+	}
+	
+	/**
+	 * Compiles a path.
+	 * <br>
+	 * Separators preceded by {@link StringUtils#ESCAPE_CHAR} are not treated as separators
+	 * and stay part of the node, just like they do for the string based accessors.
+	 *
+	 * @param path the path to compile
+	 * @param separator the path separator
+	 * @return the compiled path
+	 * @throws NumberFormatException if a list index of the path does not fit into an int
+	 */
+	
+	@Contract(pure = true)
+	public static @NonNull ConfigPath of(@NonNull String path, char separator) {
+		var nodes = new ArrayList<String>();
+		
+		// i1 is the leading (higher) index
+		// i2 is the trailing (lower) index
+		int i1 = -1, i2;
+		while((i1 = StringUtils.firstSeparatorIndex(path, separator, i2 = i1 + 1)) != -1)
+			nodes.add(path.substring(i2, i1));
+		
+		nodes.add(path.substring(i2));
+		
+		var size = nodes.size();
+		var nodeArray = nodes.toArray(new String[0]);
+		var iterableNodes = new String[size];
+		var indices = new int[size];
+		var hasIndices = false;
+		
+		for(var i = 0; i < size; i++) {
+			var node = nodeArray[i];
+			var bracket = listIndexStart(node);
+			
+			if(bracket < 0) {
+				indices[i] = NO_INDEX;
+				continue;
+			}
+			
+			iterableNodes[i] = node.substring(0, bracket);
+			indices[i] = Integer.parseInt(node, bracket + 1, node.length() - 1, 10);
+			hasIndices = true;
+		}
+		
+		return new ConfigPath(path, separator, nodeArray, iterableNodes, indices, hasIndices);
+	}
+	
+	/**
+	 * Finds the start of a list index such as {@code [-1]} at the end of a node,
+	 * matching the same nodes as {@link StringUtils#LIST_INDEX}.
+	 *
+	 * @param node the node
+	 * @return the index of the opening bracket, or -1 if the node is not indexed
+	 */
+	
+	private static int listIndexStart(String node) {
+		var end = node.length() - 1;
+		
+		if(end < 0 || node.charAt(end) != ']')
+			return -1;
+		
+		var bracket = node.lastIndexOf('[', end);
+		
+		if(bracket < 0)
+			return -1;
+		
+		var start = bracket + 1;
+		
+		if(start < end && node.charAt(start) == '-')
+			start++;
+		
+		if(start == end)
+			return -1;
+		
+		for(var i = start; i < end; i++) {
+			var c = node.charAt(i);
+			
+			if(c < '0' || c > '9')
+				return -1;
+		}
+		
+		return bracket;
+	}
+	
+	/**
+	 * Gets the path this was compiled from.
+	 *
+	 * @return the string path
+	 */
+	
+	public @NonNull String path() {
+		return this.path;
+	}
+	
+	/**
+	 * Gets the separator this path was compiled with.
+	 *
+	 * @return the path separator
+	 */
+	
+	public char separator() {
+		return this.separator;
+	}
+	
+	/**
+	 * Gets the amount of nodes of this path.
+	 *
+	 * @return the amount of nodes, at least 1
+	 */
+	
+	public int size() {
+		return this.nodes.length;
+	}
+	
+	/**
+	 * Checks if this is the empty path, which points to the section itself.
+	 *
+	 * @return true if this path is empty
+	 */
+	
+	public boolean isEmpty() {
+		return this.path.isEmpty();
+	}
+	
+	/**
+	 * Gets a node of this path, as it is used as a key of a section.
+	 *
+	 * @param i the position of the node
+	 * @return the raw node, including a list index if present
+	 */
+	
+	public @NonNull String node(int i) {
+		return this.nodes[i];
+	}
+	
+	/**
+	 * Gets the last node of this path.
+	 *
+	 * @return the last node
+	 */
+	
+	public @NonNull String lastNode() {
+		return this.nodes[this.nodes.length - 1];
+	}
+	
+	/**
+	 * Checks if a node of this path is a list index such as {@code list[0]}.
+	 *
+	 * @param i the position of the node
+	 * @return true if the node is indexed
+	 */
+	
+	public boolean isIndexed(int i) {
+		return this.iterableNodes[i] != null;
+	}
+	
+	/**
+	 * Checks if any node of this path is a list index.
+	 *
+	 * @return true if at least one node is indexed
+	 */
+	
+	public boolean hasIndices() {
+		return this.hasIndices;
+	}
+	
+	/**
+	 * Gets the node of an indexed node without its index, for example {@code list} for {@code list[0]}.
+	 *
+	 * @param i the position of the node
+	 * @return the node without the index, or null if the node is not indexed
+	 */
+	
+	public String iterableNode(int i) {
+		return this.iterableNodes[i];
+	}
+	
+	/**
+	 * Gets the list index of an indexed node, for example {@code 0} for {@code list[0]}.
+	 * Negative indices count from the end of the list.
+	 *
+	 * @param i the position of the node
+	 * @return the index, or {@link #NO_INDEX} if the node is not indexed
+	 */
+	
+	public int index(int i) {
+		return this.indices[i];
+	}
+	
+	/**
+	 * Gets this path compiled for another separator.
+	 *
+	 * @param separator the path separator
+	 * @return this if the separator is the same, otherwise a newly compiled path
+	 */
+	
+	public @NonNull ConfigPath withSeparator(char separator) {
+		return separator == this.separator ? this : of(this.path, separator);
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		if(this == o)
+			return true;
+		
+		return o instanceof ConfigPath other
+		  && this.separator == other.separator
+		  && this.path.equals(other.path);
+	}
+	
+	@Override
+	public int hashCode() {
+		return 31 * this.path.hashCode() + this.separator;
+	}
+	
+	@Override
+	public String toString() {
+		return "ConfigPath[path='" + this.path + "', nodes=" + Arrays.toString(this.nodes) + "]";
+	}
+}
@@ -4,15 +4,18 @@ import lombok.NonNull;
 import ontey.api.check.Nullity;
 import ontey.api.config.serialization.ConfigSerializable;
 import ontey.api.config.serialization.ConfigSerialization;
+import ontey.api.config.util.EnumUtils;
+import ontey.api.config.util.NumberUtils;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnknownNullability;
 
-import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.*;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Represents a section of a {@link Config}.
@@ -154,6 +157,59 @@ public interface ConfigSection {
 		  .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
 	}
 	
+	/**
+	 * Visits all values of this section and its child sections, depth first.
+	 * <br>
+	 * Unlike {@link #getKeys(boolean)} and {@link #getValues(boolean)}, this does not copy the keys and values,
+	 * it traverses the sections directly. If the root {@link ConfigOptions#copyDefaults() copies defaults},
+	 * the values of {@link #getSectionInDefaults()} are visited as well: the keys of the defaults come first,
+	 * followed by the keys that are only set in this section. Values set in this section replace default values.
+	 * <br>
+	 * The sections must not be modified while walking, unless they support concurrent modification.
+	 * <br>
+	 * Example usage:
+	 * <pre>{@code
+	 * section.walk((path, value) -> {
+	 *     System.out.println(path + " = " + value);
+	 *     return ConfigVisitor.Result.CONTINUE;
+	 * });
+	 * }</pre>
+	 *
+	 * @param visitor the visitor, which decides whether to visit the children of a section
+	 * @throws IllegalStateException if this section has no root
+	 */
+	
+	default void walk(@NonNull ConfigVisitor visitor) {
+		SectionTraversal.walk(this, visitor);
+	}
+	
+	/**
+	 * Gets a lazy stream of all keys and their values for this section, in the same order as
+	 * {@link #walk(ConfigVisitor)}.
+	 * <br>
+	 * The entries are created while the stream is consumed, so short-circuiting operations such as
+	 * {@link Stream#findFirst()} stop the traversal early. The stream may be made {@link Stream#parallel() parallel},
+	 * in which case the children of this section are split between threads.
+	 * <br>
+	 * The sections must not be modified while the stream is consumed, unless they support concurrent modification.
+	 * <br>
+	 * Example usage:
+	 * <pre>{@code
+	 * long enabled = config.stream(true)
+	 *     .filter(entry -> entry.getKey().endsWith(".enabled") && Boolean.TRUE.equals(entry.getValue()))
+	 *     .count();
+	 * }</pre>
+	 *
+	 * @param deep Whether or not to include the children of child sections.
+	 * @return a stream of paths relative to this section and their values
+	 * @throws IllegalStateException if this section has no root
+	 */
+	
+	@NonNull
+	default Stream<Map.Entry<@NonNull String, @NonNull Object>> stream(boolean deep) {
+		return SectionTraversal.stream(this, deep);
+	}
+	
 	/**
 	 * Checks if this {@link ConfigSection} contains the given path.
 	 * <br>
@@ -222,6 +278,23 @@ public interface ConfigSection {
 		return this.size() == 0;
 	}
 	
+	/**
+	 * Takes a frozen, deeply immutable snapshot of this section.
+	 * <br>
+	 * The snapshot can be read from any thread while this section keeps being modified,
+	 * and looks up values by their full path in a flattened index instead of walking through sections.
+	 * <br>
+	 * This must be called from the thread that modifies this section.
+	 *
+	 * @return the snapshot, with this section as its root
+	 * @see SnapshotPublisher
+	 */
+	
+	@NonNull
+	default ConfigSnapshot snapshot() {
+		return ConfigSnapshot.of(this);
+	}
+	
 	/**
 	 * Gets the path of this {@link ConfigSection} from its root {@link Config}.
 	 * <br>
@@ -315,6 +388,43 @@ public interface ConfigSection {
 	@Contract("_, !null -> !null")
 	Object get(@NonNull String path, @Nullable Object def);
 	
+	/**
+	 * Gets the requested Object by a precompiled path.
+	 * <br>
+	 * If the Object does not exist but a default value has been specified, this will return the default value.
+	 * If the Object does not exist and no default value was specified, this will return null.
+	 *
+	 * @param path Precompiled path of the Object to get.
+	 * @return Requested Object.
+	 * @see #get(String)
+	 */
+	
+	@Nullable
+	default Object get(@NonNull ConfigPath path) {
+		return this.get(path.path());
+	}
+	
+	/**
+	 * Gets the requested Object by a precompiled path, returning a default value if not found.
+	 * <br>
+	 * Example usage:
+	 * <pre>{@code
+	 * private static final ConfigPath VALUE = ConfigPath.of("path.to.value");
+	 *
+	 * Object value = section.get(VALUE, "default");
+	 * }</pre>
+	 *
+	 * @param path Precompiled path of the Object to get.
+	 * @param def The default value to return if the path is not found.
+	 * @return Requested Object.
+	 * @see #get(String, Object)
+	 */
+	
+	@Contract("_, !null -> !null")
+	default Object get(@NonNull ConfigPath path, @Nullable Object def) {
+		return this.get(path.path(), def);
+	}
+	
 	/**
 	 * Sets the specified path to the given value.
 	 * <br>
@@ -337,6 +447,18 @@ public interface ConfigSection {
 	
 	void set(@NonNull String path, @Nullable Object value);
 	
+	/**
+	 * Sets the specified precompiled path to the given value.
+	 *
+	 * @param path Precompiled path of the object to set.
+	 * @param value New value to set the path to.
+	 * @see #set(String, Object)
+	 */
+	
+	default void set(@NonNull ConfigPath path, @Nullable Object value) {
+		this.set(path.path(), value);
+	}
+	
 	/**
 	 * Sets a {@link ConfigSerializable} object at the given path.
 	 *
@@ -396,6 +518,19 @@ public interface ConfigSection {
 	@UnknownNullability
 	ConfigSection createSection(@NonNull String path);
 	
+	/**
+	 * Creates an empty {@link ConfigSection} at the specified precompiled path.
+	 *
+	 * @param path Precompiled path to create the section at.
+	 * @return Newly created section.
+	 * @see #createSection(String)
+	 */
+	
+	@UnknownNullability
+	default ConfigSection createSection(@NonNull ConfigPath path) {
+		return this.createSection(path.path());
+	}
+	
 	/**
 	 * Creates a {@link ConfigSection} at the specified path, with specified values.
 	 * <br>
@@ -464,6 +599,21 @@ public interface ConfigSection {
 		return val != null ? val.toString() : null;
 	}
 	
+	/**
+	 * Gets the requested String by a precompiled path, returning a default value if not found.
+	 *
+	 * @param path Precompiled path of the String to get.
+	 * @param def The default value to return if the path is not found or is not a String.
+	 * @return Requested String.
+	 * @see #getString(String, String)
+	 */
+	
+	@Contract("_, !null -> !null")
+	default String getString(@NonNull ConfigPath path, @Nullable String def) {
+		var val = this.get(path, def);
+		return val != null ? val.toString() : null;
+	}
+	
 	/**
 	 * Checks if the specified path is a String.
 	 * <br>
@@ -502,10 +652,8 @@ public interface ConfigSection {
 	
 	@Nullable
 	default Number getNumber(@NonNull String path) {
-		var defaultSection = getSectionInDefaults();
-		var def = defaultSection != null ? defaultSection.getNumber(path) : null;
-		
-		return getNumber(path, def);
+		var number = this.getNumber(path, null);
+		return number != null ? number : this.getDefaultConverted(path, Storage.NUMBER);
 	}
 	
 	/**
@@ -527,31 +675,13 @@ public interface ConfigSection {
 	 *    <li>BigDecimal</li>
 	 * </ul>
 	 * <br>
-	 * If the path doesn't exist, this will return {@code def}.
+	 * If the path doesn't exist or its value is not a number, this will return {@code def}.
+	 * The parsed number is {@link #getConverted(String, ValueConverter, Object) cached} until the value changes.
 	 */
 	
 	@Contract("_, !null -> !null")
 	default Number getNumber(@NonNull String path, @Nullable Number def) {
-		String stringValue = getString(path, def != null ? def.toString() : null);
-		
-		if(stringValue == null)
-			return null;
-		
-		Number numberValue = null;
-		
-		if(stringValue.contains(".")) {
-			for(var decimalNumberParser : Storage.decimalNumberParsers)
-				if(numberValue == null)
-					numberValue = decimalNumberParser.apply(stringValue);
-			
-			return numberValue != null ? numberValue : def;
-		}
-		
-		for(var numberParser : Storage.numberParsers)
-			if(numberValue == null)
-				numberValue = tryParsingNumber(stringValue, numberParser);
-		
-		return numberValue != null ? numberValue : def;
+		return this.getConverted(path, Storage.NUMBER, def);
 	}
 	
 	/**
@@ -567,26 +697,9 @@ public interface ConfigSection {
 		if(!isPrimitiveWrapper(get(path)))
 			return false;
 		
-		String value = getString(path);
-		
-		if(value == null)
-			return false;
+		var value = getString(path);
 		
-		return testParsingNumber(value, Storage.numberParsers.getLast())
-		  || testParsingNumber(value, Storage.decimalNumberParsers.getLast());
-	}
-	
-	@Nullable
-	private <T extends Number> T tryParsingNumber(@NonNull String number, @NonNull Function<@NonNull String, @NonNull T> parser) {
-		try {
-			return parser.apply(number);
-		} catch(Exception e) {
-			return null;
-		}
-	}
-	
-	private boolean testParsingNumber(@NonNull String number, @NonNull Function<@NonNull String, ? extends @NonNull Number> parser) {
-		return tryParsingNumber(number, parser) != null;
+		return NumberUtils.isInteger(value) || NumberUtils.isDecimal(value);
 	}
 	
 	/**
@@ -619,6 +732,19 @@ public interface ConfigSection {
 		return this.get(path, def) instanceof Number num ? num.intValue() : def;
 	}
 	
+	/**
+	 * Gets the requested int by a precompiled path, returning a default value if not found.
+	 *
+	 * @param path Precompiled path of the int to get.
+	 * @param def The default value to return if the path is not found or is not an int.
+	 * @return Requested int.
+	 * @see #getInt(String, int)
+	 */
+	
+	default int getInt(@NonNull ConfigPath path, int def) {
+		return this.get(path, null) instanceof Number num ? num.intValue() : def;
+	}
+	
 	/**
 	 * Checks if the specified path is an int.
 	 * <br>
@@ -664,6 +790,19 @@ public interface ConfigSection {
 		return this.get(path, def) instanceof Boolean b ? b : def;
 	}
 	
+	/**
+	 * Gets the requested boolean by a precompiled path, returning a default value if not found.
+	 *
+	 * @param path Precompiled path of the boolean to get.
+	 * @param def The default value to return if the path is not found or is not a boolean.
+	 * @return Requested boolean.
+	 * @see #getBoolean(String, boolean)
+	 */
+	
+	default boolean getBoolean(@NonNull ConfigPath path, boolean def) {
+		return this.get(path, null) instanceof Boolean b ? b : def;
+	}
+	
 	/**
 	 * Checks if the specified path is a boolean.
 	 * <br>
@@ -696,10 +835,8 @@ public interface ConfigSection {
 	 */
 	
 	default float getFloat(@NonNull String path) {
-		var defaultSection = getSectionInDefaults();
-		var def = defaultSection != null ? defaultSection.getFloat(path) : 1.0f;
-		
-		return getFloat(path, def);
+		var number = this.getNumber(path);
+		return number != null ? number.floatValue() : 1.0f;
 	}
 	
 	/**
@@ -711,9 +848,7 @@ public interface ConfigSection {
 	 */
 	
 	default boolean isFloat(@NonNull String path) {
-		var value = getString(path);
-		
-		return value != null && testParsingNumber(value, Float::parseFloat);
+		return NumberUtils.isFloatingPoint(getString(path));
 	}
 	
 	/**
@@ -746,6 +881,19 @@ public interface ConfigSection {
 		return this.get(path, def) instanceof Number num ? num.doubleValue() : def;
 	}
 	
+	/**
+	 * Gets the requested double by a precompiled path, returning a default value if not found.
+	 *
+	 * @param path Precompiled path of the double to get.
+	 * @param def The default value to return if the path is not found or is not a double.
+	 * @return Requested double.
+	 * @see #getDouble(String, double)
+	 */
+	
+	default double getDouble(@NonNull ConfigPath path, double def) {
+		return this.get(path, null) instanceof Number num ? num.doubleValue() : def;
+	}
+	
 	/**
 	 * Checks if the specified path is a double.
 	 * <br>
@@ -791,6 +939,19 @@ public interface ConfigSection {
 		return this.get(path, def) instanceof Number num ? num.longValue() : def;
 	}
 	
+	/**
+	 * Gets the requested long by a precompiled path, returning a default value if not found.
+	 *
+	 * @param path Precompiled path of the long to get.
+	 * @param def The default value to return if the path is not found or is not a long.
+	 * @return Requested long.
+	 * @see #getLong(String, long)
+	 */
+	
+	default long getLong(@NonNull ConfigPath path, long def) {
+		return this.get(path, null) instanceof Number num ? num.longValue() : def;
+	}
+	
 	/**
 	 * Checks if the specified path is a long.
 	 * <br>
@@ -828,10 +989,14 @@ public interface ConfigSection {
 	 */
 	
 	default BigInteger getBigInteger(@NonNull String path) {
-		var defaultSection = getSectionInDefaults();
-		var def = defaultSection != null ? defaultSection.getBigInteger(path) : null;
+		var number = this.getNumber(path);
+		
+		if(number == null)
+			return null;
 		
-		return getBigInteger(path, def);
+		return number instanceof BigInteger bigInteger
+		  ? bigInteger
+		  : new BigInteger(number.toString());
 	}
 	
 	/**
@@ -843,9 +1008,7 @@ public interface ConfigSection {
 	 */
 	
 	default boolean isBigInteger(@NonNull String path) {
-		var value = getString(path);
-		
-		return value != null && testParsingNumber(value, BigInteger::new);
+		return NumberUtils.isInteger(getString(path));
 	}
 	
 	/**
@@ -854,8 +1017,10 @@ public interface ConfigSection {
 	 */
 	
 	@Nullable
+	@SuppressWarnings("unchecked")
 	default <T extends Enum<T>> T getEnum(@NonNull String path, @NonNull Class<T> clazz) {
-		return this.getEnum(path, clazz, getSectionInDefaults() == null ? null : getSectionInDefaults().getEnum(path, clazz));
+		var value = this.getEnum(path, clazz, null);
+		return value != null ? value : this.getDefaultConverted(path, (ValueConverter<T>) Storage.enumConverters.get(clazz));
 	}
 	
 	/**
@@ -863,23 +1028,10 @@ public interface ConfigSection {
 	 * Replaces dashes and spaces with underscores and replaces all lowercase letters with uppercase letters.
 	 */
 	
+	@SuppressWarnings("unchecked")
 	@Contract("_, _, !null -> !null")
 	default <T extends Enum<T>> T getEnum(@NonNull String path, @NonNull Class<T> clazz, @Nullable T def) {
-		try {
-			return getEnumEntry(getString(path, ""), clazz);
-		} catch(IllegalArgumentException e) {
-			return def;
-		}
-	}
-	
-	@NonNull
-	private <T extends Enum<T>> T getEnumEntry(@NonNull String entry, @NonNull Class<T> clazz) throws IllegalArgumentException {
-		String str = entry
-		  .replace('-', '_')
-		  .replace(' ', '_')
-		  .toUpperCase(Locale.ENGLISH);
-		
-		return Enum.valueOf(clazz, str);
+		return this.getConverted(path, (ValueConverter<T>) Storage.enumConverters.get(clazz), def);
 	}
 	
 	/**
@@ -987,23 +1139,7 @@ public interface ConfigSection {
 	
 	@NonNull
 	default List<@NonNull Boolean> getBooleanList(@NonNull String path) {
-		var list = getListOrDefault(path);
-		
-		var result = new ArrayList<Boolean>();
-		
-		for(var object : list) {
-			result.add(switch(object) {
-				case Boolean b -> b;
-				case String str -> switch(str.toLowerCase()) {
-					case "true" -> true;
-					case "false" -> false;
-					default -> null;
-				};
-				default -> null;
-			});
-		}
-		
-		return Nullity.filterNull(result);
+		return this.getConvertedList(path, Storage.BOOLEAN_LIST);
 	}
 	
 	/**
@@ -1052,7 +1188,7 @@ public interface ConfigSection {
 	
 	@NonNull
 	default List<@NonNull Integer> getIntegerList(@NonNull String path) {
-		return getNumberList(path, Number::intValue, Integer::parseInt, c -> (int) c);
+		return this.getConvertedList(path, Storage.INTEGER_LIST);
 	}
 	
 	/**
@@ -1070,7 +1206,7 @@ public interface ConfigSection {
 	
 	@NonNull
 	default List<@NonNull Double> getDoubleList(@NonNull String path) {
-		return getNumberList(path, Number::doubleValue, Double::parseDouble, c -> (double) c);
+		return this.getConvertedList(path, Storage.DOUBLE_LIST);
 	}
 	
 	/**
@@ -1088,7 +1224,7 @@ public interface ConfigSection {
 	
 	@NonNull
 	default List<@NonNull Float> getFloatList(@NonNull String path) {
-		return getNumberList(path, Number::floatValue, Float::parseFloat, c -> (float) c);
+		return this.getConvertedList(path, Storage.FLOAT_LIST);
 	}
 	
 	/**
@@ -1106,7 +1242,7 @@ public interface ConfigSection {
 	
 	@NonNull
 	default List<@NonNull Long> getLongList(@NonNull String path) {
-		return getNumberList(path, Number::longValue, Long::parseLong, c -> (long) c);
+		return this.getConvertedList(path, Storage.LONG_LIST);
 	}
 	
 	/**
@@ -1124,7 +1260,7 @@ public interface ConfigSection {
 	
 	@NonNull
 	default List<@NonNull Byte> getByteList(@NonNull String path) {
-		return getNumberList(path, Number::byteValue, Byte::parseByte, c -> (byte) c.charValue());
+		return this.getConvertedList(path, Storage.BYTE_LIST);
 	}
 	
 	/**
@@ -1142,39 +1278,83 @@ public interface ConfigSection {
 	
 	@NonNull
 	default List<@NonNull Short> getShortList(@NonNull String path) {
-		return getNumberList(path, Number::shortValue, Short::parseShort, c -> (short) c.charValue());
+		return this.getConvertedList(path, Storage.SHORT_LIST);
+	}
+	
+	/**
+	 * Gets the requested List by path as an int array.
+	 * <br>
+	 * If the List does not exist but a default value has been specified, the default value will be used.
+	 * If the List does not exist and no default value was specified, this will return an empty array.
+	 * <br>
+	 * The values are converted like {@link #getIntegerList(String)} does, but without boxing them.
+	 *
+	 * @param path Path of the List to get.
+	 * @return A new array with the values of the requested List.
+	 */
+	
+	default int[] getIntArray(@NonNull String path) {
+		var array = this.getConvertedOrDefault(path, Storage.INT_ARRAY);
+		return array == null ? new int[0] : array;
+	}
+	
+	/**
+	 * Gets the requested List by path as an long array.
+	 * <br>
+	 * If the List does not exist but a default value has been specified, the default value will be used.
+	 * If the List does not exist and no default value was specified, this will return an empty array.
+	 * <br>
+	 * The values are converted like {@link #getLongList(String)} does, but without boxing them.
+	 *
+	 * @param path Path of the List to get.
+	 * @return A new array with the values of the requested List.
+	 */
+	
+	default long[] getLongArray(@NonNull String path) {
+		var array = this.getConvertedOrDefault(path, Storage.LONG_ARRAY);
+		return array == null ? new long[0] : array;
+	}
+	
+	/**
+	 * Gets the requested List by path as an double array.
+	 * <br>
+	 * If the List does not exist but a default value has been specified, the default value will be used.
+	 * If the List does not exist and no default value was specified, this will return an empty array.
+	 * <br>
+	 * The values are converted like {@link #getDoubleList(String)} does, but without boxing them.
+	 *
+	 * @param path Path of the List to get.
+	 * @return A new array with the values of the requested List.
+	 */
+	
+	default double[] getDoubleArray(@NonNull String path) {
+		var array = this.getConvertedOrDefault(path, Storage.DOUBLE_ARRAY);
+		return array == null ? new double[0] : array;
 	}
 	
+	/**
+	 * Gets the list at the path converted by a list converter as a new modifiable list, or an empty list.
+	 */
+	
 	@NonNull
-	private <@NonNull T extends Number> List<T> getNumberList(
-	  @NonNull String path,
-	  @NonNull Function<@NonNull Number, T> numberConverter,
-	  @NonNull Function<@NonNull String, T> stringConverter,
-	  @NonNull Function<@NonNull Character, T> charConverter
-	) {
-		var list = getListOrDefault(path);
-		
-		var result = new ArrayList<T>();
-		
-		for(var object : list) {
-			result.add(switch(object) {
-				case Number num -> numberConverter.apply(num);
-				case String str -> parseNumber(str, stringConverter);
-				case Character c -> charConverter.apply(c);
-				default -> null;
-			});
-		}
-		
-		return Nullity.filterNull(result);
+	private <T> List<T> getConvertedList(@NonNull String path, @NonNull ValueConverter<List<T>> converter) {
+		var list = this.getConvertedOrDefault(path, converter);
+		return list == null ? new ArrayList<>(0) : list;
 	}
 	
+	/**
+	 * Gets the list at the path {@link #getConverted(String, ValueConverter, Object) converted} by a list converter,
+	 * falling back to the default list like {@link #getList(String)} does.
+	 */
+	
 	@Nullable
-	private <T extends Number> T parseNumber(@NonNull String value, @NonNull Function<@NonNull String, @NonNull T> stringConverter) {
-		try {
-			return stringConverter.apply(value);
-		} catch(NumberFormatException e) {
-			return null;
-		}
+	private <T> T getConvertedOrDefault(@NonNull String path, @NonNull ValueConverter<T> converter) {
+		var converted = this.getConverted(path, converter, null);
+		
+		if(converted == null && this.getDefault(path) instanceof List<?> def)
+			converted = converter.convert(def);
+		
+		return converted;
 	}
 	
 	// Bukkit
@@ -1214,19 +1394,10 @@ public interface ConfigSection {
 	 * @see #getEnumSet(String, Class)
 	 */
 	
+	@SuppressWarnings("unchecked")
 	@NonNull
 	default <T extends Enum<T>> List<@NonNull T> getEnumList(@NonNull String path, @NonNull Class<T> clazz) {
-		var list = this.getStringList(path);
-		var result = new ArrayList<T>();
-		
-		for(var entry : list) {
-			try {
-				result.add(getEnumEntry(entry, clazz));
-			} catch(Exception _) {
-			}
-		}
-		
-		return result;
+		return this.getConvertedList(path, (ValueConverter<List<T>>) (ValueConverter<?>) Storage.enumListConverters.get(clazz));
 	}
 	
 	@NonNull
@@ -1282,6 +1453,57 @@ public interface ConfigSection {
 		return clazz.isInstance(val) ? clazz.cast(val) : def;
 	}
 	
+	/**
+	 * Gets the value at the path converted by the given converter, returning a default value if not found.
+	 * <br>
+	 * Implementations may cache the converted value alongside the raw value, so repeated reads of the same
+	 * unchanged value don't convert it again. The cache of a value is invalidated when the value is set.
+	 * Lists, maps and other collections are converted on every call, as they can be modified in place.
+	 * As the converter instance is part of the cache key, converters should be kept in a constant.
+	 * <br>
+	 * Like {@link #get(String, Object)}, this does not consider the default value of the root {@link Config}.
+	 * <br>
+	 * Example usage:
+	 * <pre>{@code
+	 * private static final ValueConverter<UUID> UUID_CONVERTER = value -> UUID.fromString(value.toString());
+	 *
+	 * UUID owner = section.getConverted("owner", UUID_CONVERTER, null);
+	 * }</pre>
+	 *
+	 * @param <T> The type of the converted value.
+	 * @param path Path of the value to convert.
+	 * @param converter The converter, which must not modify the value.
+	 * @param def The default value to return if the path is not found or its value cannot be converted.
+	 * @return The converted value, which must not be modified.
+	 */
+	
+	@Contract("_, _, !null -> !null")
+	default <T> T getConverted(@NonNull String path, @NonNull ValueConverter<T> converter, @Nullable T def) {
+		var value = this.get(path, null);
+		var converted = value != null ? converter.convert(value) : null;
+		
+		return converted != null ? converted : def;
+	}
+	
+	/**
+	 * Gets the value at a precompiled path converted by the given converter, returning a default value if not found.
+	 *
+	 * @param <T> The type of the converted value.
+	 * @param path Precompiled path of the value to convert.
+	 * @param converter The converter, which must not modify the value.
+	 * @param def The default value to return if the path is not found or its value cannot be converted.
+	 * @return The converted value, which must not be modified.
+	 * @see #getConverted(String, ValueConverter, Object)
+	 */
+	
+	@Contract("_, _, !null -> !null")
+	default <T> T getConverted(@NonNull ConfigPath path, @NonNull ValueConverter<T> converter, @Nullable T def) {
+		var value = this.get(path, null);
+		var converted = value != null ? converter.convert(value) : null;
+		
+		return converted != null ? converted : def;
+	}
+	
 	/**
 	 * Gets the requested {@link ConfigSerializable} object at the given path.
 	 * <br>
@@ -1299,7 +1521,7 @@ public interface ConfigSection {
 	default <T extends ConfigSerializable> T getSerializable(@NonNull String path, @NonNull Class<T> clazz) {
 		return switch(get(path)) {
 			case Map<?, ?> map -> toSerializable((Map<String, ?>) map, clazz);
-			case ConfigSection section -> toSerializable(section.getMapValues(true), clazz);
+			case ConfigSection section -> toSerializable(section, clazz);
 			case null, default -> getObject(path, clazz);
 		};
 	}
@@ -1322,7 +1544,7 @@ public interface ConfigSection {
 	default <T extends ConfigSerializable> T getSerializable(@NonNull String path, @NonNull Class<T> clazz, @Nullable T def) {
 		return switch(get(path)) {
 			case Map<?, ?> map -> toSerializable((Map<String, Object>) map, clazz);
-			case ConfigSection section -> toSerializable(section.getMapValues(true), clazz);
+			case ConfigSection section -> toSerializable(section, clazz);
 			case null, default -> getObject(path, clazz, def);
 		};
 	}
@@ -1333,6 +1555,12 @@ public interface ConfigSection {
 		return (T) ConfigSerialization.deserializeObject(map, clazz);
 	}
 	
+	@SuppressWarnings("unchecked")
+	@UnknownNullability
+	private <T extends ConfigSerializable> T toSerializable(@NonNull ConfigSection section, @NonNull Class<T> clazz) {
+		return (T) ConfigSerialization.deserializeObject(section, clazz);
+	}
+	
 	/**
 	 * Gets the requested ConfigurationSection by path.
 	 * <br>
@@ -1426,32 +1654,161 @@ public interface ConfigSection {
 	
 	@Nullable
 	private Object getDefault(@NonNull String path) {
+		if(this instanceof MemorySection mem)
+			return mem.getDefault(path);
+		
 		var defaults = getRoot() == null ? null : getRoot().getDefaults();
 		return defaults == null ? null : defaults.get(createPath(this, path));
 	}
 	
+	@Nullable
+	private <T> T getDefaultConverted(@NonNull String path, @NonNull ValueConverter<T> converter) {
+		var def = this.getDefault(path);
+		return def != null ? converter.convert(def) : null;
+	}
+	
 	@Contract(value = "null -> false", pure = true)
 	private boolean isPrimitiveWrapper(@Nullable Object input) {
-		return input instanceof Integer || input instanceof Boolean ||
-		  input instanceof Character || input instanceof Byte ||
-		  input instanceof Short || input instanceof Double ||
-		  input instanceof Long || input instanceof Float;
+		return Storage.isPrimitiveWrapper(input);
 	}
 	
 	class Storage {
 		
-		private static final List<Function<String, Number>> numberParsers = List.of(
-		  Byte::parseByte,
-		  Short::parseShort,
-		  Integer::parseInt,
-		  Long::parseLong,
-		  BigInteger::new
-		);
+		private static final ValueConverter<Number> NUMBER = value -> NumberUtils.parseNumber(value.toString());
+		
+		private static final ValueConverter<List<Boolean>> BOOLEAN_LIST = list(object -> switch(object) {
+			case Boolean b -> b;
+			case String str -> switch(str.toLowerCase()) {
+				case "true" -> true;
+				case "false" -> false;
+				default -> null;
+			};
+			default -> null;
+		});
+		
+		private static final ValueConverter<List<Integer>> INTEGER_LIST = numberList(Number::intValue, NumberUtils::parseInt, c -> (int) c);
+		
+		private static final ValueConverter<List<Double>> DOUBLE_LIST = numberList(Number::doubleValue, NumberUtils::parseDouble, c -> (double) c);
+		
+		private static final ValueConverter<List<Float>> FLOAT_LIST = numberList(Number::floatValue, NumberUtils::parseFloat, c -> (float) c);
+		
+		private static final ValueConverter<List<Long>> LONG_LIST = numberList(Number::longValue, NumberUtils::parseLong, c -> (long) c);
+		
+		private static final ValueConverter<List<Byte>> BYTE_LIST = numberList(Number::byteValue, NumberUtils::parseByte, c -> (byte) c.charValue());
 		
-		private static final List<Function<String, Number>> decimalNumberParsers = List.of(
-		  Float::parseFloat,
-		  Double::parseDouble,
-		  BigDecimal::new
-		);
+		private static final ValueConverter<List<Short>> SHORT_LIST = numberList(Number::shortValue, NumberUtils::parseShort, c -> (short) c.charValue());
+		
+		private static final ValueConverter<int[]> INT_ARRAY = numberArray(int[]::new, NumberUtils::parseInt, (array, i, num) -> array[i] = num.intValue());
+		
+		private static final ValueConverter<long[]> LONG_ARRAY = numberArray(long[]::new, NumberUtils::parseLong, (array, i, num) -> array[i] = num.longValue());
+		
+		private static final ValueConverter<double[]> DOUBLE_ARRAY = numberArray(double[]::new,
+		  str -> NumberUtils.isFloatingPoint(str) ? Double.parseDouble(str) : null, (array, i, num) -> array[i] = num.doubleValue());
+		
+		private static final ClassValue<ValueConverter<Enum<?>>> enumConverters = new ClassValue<>() {
+			@Override
+			protected ValueConverter<Enum<?>> computeValue(@NonNull Class<?> type) {
+				return value -> EnumUtils.getEntryUnchecked(type, value.toString());
+			}
+		};
+		
+		private static final ClassValue<ValueConverter<List<Enum<?>>>> enumListConverters = new ClassValue<>() {
+			@Override
+			protected ValueConverter<List<Enum<?>>> computeValue(@NonNull Class<?> type) {
+				return list(object -> object instanceof String || isPrimitiveWrapper(object) ? EnumUtils.getEntryUnchecked(type, String.valueOf(object)) : null);
+			}
+		};
+		
+		/**
+		 * Creates a converter that converts every element of a list, leaving out elements that cannot be converted.
+		 */
+		
+		private static <T> ValueConverter<List<T>> list(@NonNull Function<@NonNull Object, @Nullable T> elementConverter) {
+			return value -> {
+				if(!(value instanceof List<?> list))
+					return null;
+				
+				var result = new ArrayList<T>(list.size());
+				
+				for(var object : list) {
+					var converted = object != null ? elementConverter.apply(object) : null;
+					
+					if(converted != null)
+						result.add(converted);
+				}
+				
+				return result;
+			};
+		}
+		
+		@Contract(value = "null -> false", pure = true)
+		private static boolean isPrimitiveWrapper(@Nullable Object input) {
+			return input instanceof Integer || input instanceof Boolean ||
+			  input instanceof Character || input instanceof Byte ||
+			  input instanceof Short || input instanceof Double ||
+			  input instanceof Long || input instanceof Float;
+		}
+		
+		/**
+		 * Creates a converter of a list to a primitive array, leaving out elements that cannot be converted.
+		 *
+		 * @param factory creates an array of a length
+		 * @param stringConverter parses a string element, or returns null if it is not a number
+		 * @param store stores a number at an index of an array
+		 * @param <A> the type of the array
+		 * @return the converter
+		 */
+		
+		private static <A> ValueConverter<A> numberArray(
+		  @NonNull IntFunction<A> factory,
+		  @NonNull Function<@NonNull String, @Nullable Number> stringConverter,
+		  @NonNull ArrayStore<A> store
+		) {
+			return value -> {
+				if(!(value instanceof List<?> list))
+					return null;
+				
+				var result = factory.apply(list.size());
+				var size = 0;
+				
+				for(var object : list) {
+					Number num = switch(object) {
+						case Number n -> n;
+						case String str -> stringConverter.apply(str);
+						case Character c -> (int) c;
+						case null, default -> null;
+					};
+					
+					if(num != null)
+						store.store(result, size++, num);
+				}
+				
+				if(size == list.size())
+					return result;
+				
+				var trimmed = factory.apply(size);
+				System.arraycopy(result, 0, trimmed, 0, size);
+				return trimmed;
+			};
+		}
+		
+		@FunctionalInterface
+		private interface ArrayStore<A> {
+			
+			void store(A array, int index, Number value);
+		}
+		
+		private static <T extends Number> ValueConverter<List<T>> numberList(
+		  @NonNull Function<@NonNull Number, T> numberConverter,
+		  @NonNull Function<@NonNull String, @Nullable T> stringConverter,
+		  @NonNull Function<@NonNull Character, T> charConverter
+		) {
+			return list(object -> switch(object) {
+				case Number num -> numberConverter.apply(num);
+				case String str -> stringConverter.apply(str);
+				case Character c -> charConverter.apply(c);
+				default -> null;
+			});
+		}
 	}
 }
@@ -0,0 +1,184 @@
+package ontey.api.config;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * A frozen, deeply immutable copy of a {@link ConfigSection}.
+ * <br>
+ * A snapshot can be read from any thread without synchronization, while the section it was taken from
+ * keeps being modified by another thread. All values are kept in a flattened index of their full path,
+ * so {@link #get(String)} is a single hash lookup and does not walk through the sections.
+ * <br>
+ * If the source section has defaults, they are copied into a snapshot as well, available with {@link #getDefaults()}.
+ * The snapshot of {@link MemoryConfig} defaults is shared by all snapshots until the defaults are modified.
+ * <br>
+ * Example usage:
+ * <pre>{@code
+ * // main thread, after a batch of modifications
+ * ConfigSnapshot snapshot = config.snapshot();
+ *
+ * // any thread
+ * int max = snapshot.getInt("limits.max-players");
+ * }</pre>
+ * To share the latest snapshot between threads, use a {@link SnapshotPublisher}.
+ *
+ * @see ConfigSection#snapshot()
+ */
+
+public final class ConfigSnapshot extends SnapshotSection implements Config {
+	
+	/**
+	 * All values of the snapshot by their full path.
+	 */
+	
+	final Map<String, Object> index;
+	
+	final char separator;
+	
+	final ConfigSnapshot defaults;
+	
+	private final ConfigOptions options;
+	
+	private ConfigSnapshot(ConfigSection source, Map<String, Object> index, ConfigOptions sourceOptions, UnaryOperator<Object> unwrap, ConfigSnapshot defaults) {
+		super(source, sourceOptions.pathSeparator(), index, unwrap);
+		
+		this.index = index;
+		this.separator = sourceOptions.pathSeparator();
+		this.defaults = defaults;
+		this.options = new FrozenOptions(this, sourceOptions);
+	}
+	
+	/**
+	 * Takes a snapshot of a section.
+	 * <br>
+	 * The section becomes the root of the snapshot, so paths of the snapshot are relative to the section.
+	 * <br>
+	 * This must be called from the thread that modifies the section.
+	 *
+	 * @param section the section to take a snapshot of
+	 * @return the snapshot, or the section itself if it is a snapshot already
+	 */
+	
+	public static @NonNull ConfigSnapshot of(@NonNull ConfigSection section) {
+		return of(section, true);
+	}
+	
+	/**
+	 * Takes a snapshot of a section, keeping its values as they are stored instead of unwrapping them,
+	 * such as the quote styles of a YAML configuration.
+	 * <br>
+	 * This is meant for serializing the snapshot in place of the section, for example to save a file on another
+	 * thread. Values read from the snapshot may still be wrapped.
+	 * <br>
+	 * This must be called from the thread that modifies the section.
+	 *
+	 * @param section the section to take a snapshot of
+	 * @return the snapshot, or the section itself if it is a snapshot already
+	 */
+	
+	public static @NonNull ConfigSnapshot ofStored(@NonNull ConfigSection section) {
+		return of(section, false);
+	}
+	
+	private static ConfigSnapshot of(ConfigSection section, boolean unwrapValues) {
+		if(section instanceof ConfigSnapshot snapshot)
+			return snapshot;
+		
+		var root = section.getRoot();
+		var options = root != null ? root.options() : new ConfigOptions(null);
+		UnaryOperator<Object> unwrap = unwrapValues && root instanceof MemoryConfig config ? config::unwrap : UnaryOperator.identity();
+		
+		var defaultsSource = section instanceof Config config ? config.getDefaults() : section.getSectionInDefaults();
+		var defaults = defaultsSource == null ? null
+		  : defaultsSource instanceof MemoryConfig config ? config.sharedSnapshot(unwrapValues)
+		  : of(defaultsSource, unwrapValues);
+		
+		return new ConfigSnapshot(section, new HashMap<>(), options, unwrap, defaults);
+	}
+	
+	@Override
+	public @NonNull ConfigSnapshot snapshot() {
+		return this;
+	}
+	
+	@Override
+	public @Nullable ConfigSnapshot getDefaults() {
+		return this.defaults;
+	}
+	
+	@Override
+	public ConfigOptions options() {
+		return this.options;
+	}
+	
+	@Override
+	public void addDefaults(Map<String, Object> defaults) {
+		throw new UnsupportedOperationException("Snapshots cannot be modified");
+	}
+	
+	@Override
+	public void addDefaults(Config defaults) {
+		throw new UnsupportedOperationException("Snapshots cannot be modified");
+	}
+	
+	@Override
+	public void setDefaults(Config defaults) {
+		throw new UnsupportedOperationException("Snapshots cannot be modified");
+	}
+	
+	/**
+	 * The options of the source at the time of the snapshot, which cannot be changed.
+	 */
+	
+	private static final class FrozenOptions extends ConfigOptions {
+		
+		private final char pathSeparator;
+		
+		private final boolean copyDefaults;
+		
+		private final int indent;
+		
+		private FrozenOptions(ConfigSnapshot snapshot, ConfigOptions source) {
+			super(snapshot);
+			
+			this.pathSeparator = source.pathSeparator();
+			this.copyDefaults = source.copyDefaults();
+			this.indent = source.indent();
+		}
+		
+		@Override
+		public char pathSeparator() {
+			return this.pathSeparator;
+		}
+		
+		@Override
+		public ConfigOptions pathSeparator(char value) {
+			throw new UnsupportedOperationException("Snapshots cannot be modified");
+		}
+		
+		@Override
+		public boolean copyDefaults() {
+			return this.copyDefaults;
+		}
+		
+		@Override
+		public ConfigOptions copyDefaults(boolean value) {
+			throw new UnsupportedOperationException("Snapshots cannot be modified");
+		}
+		
+		@Override
+		public int indent() {
+			return this.indent;
+		}
+		
+		@Override
+		public ConfigOptions indent(int value) {
+			throw new UnsupportedOperationException("Snapshots cannot be modified");
+		}
+	}
+}
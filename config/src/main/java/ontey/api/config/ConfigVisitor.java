@@ -0,0 +1,59 @@
+package ontey.api.config;
+
+import lombok.NonNull;
+
+/**
+ * Visits the values of a {@link ConfigSection} and its child sections, see {@link ConfigSection#walk(ConfigVisitor)}.
+ * <br>
+ * Example usage:
+ * <pre>{@code
+ * config.walk((path, value) -> {
+ *     if(path.equals("internal"))
+ *         return ConfigVisitor.Result.SKIP_CHILDREN;
+ *
+ *     System.out.println(path + " = " + value);
+ *     return ConfigVisitor.Result.CONTINUE;
+ * });
+ * }</pre>
+ */
+
+@FunctionalInterface
+public interface ConfigVisitor {
+	
+	/**
+	 * Visits a value.
+	 *
+	 * @param path the path of the value, relative to the walked section
+	 * @param value the value, a {@link ConfigSection} for child sections
+	 * @return how to continue the walk
+	 */
+	
+	@NonNull
+	Result visit(@NonNull String path, @NonNull Object value);
+	
+	/**
+	 * Determines how a walk continues after a value has been visited.
+	 */
+	
+	enum Result {
+		
+		/**
+		 * Continues with the children of the visited section, or the next value.
+		 */
+		
+		CONTINUE,
+		
+		/**
+		 * Continues with the next value without visiting the children of the visited section.
+		 * For values that are not sections, this is the same as {@link #CONTINUE}.
+		 */
+		
+		SKIP_CHILDREN,
+		
+		/**
+		 * Stops the walk.
+		 */
+		
+		TERMINATE
+	}
+}
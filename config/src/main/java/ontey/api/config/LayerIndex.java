@@ -0,0 +1,83 @@
+package ontey.api.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A lazily built index of all values of a layer of a {@link MemoryConfig}, such as its defaults, by their full path.
+ * <br>
+ * The index is built on the first lookup and built again on the first lookup after the layer has been
+ * {@link MemoryConfig#modCount() modified} or replaced, so a lookup usually is a single hash probe
+ * instead of walking the sections of the layer.
+ * <br>
+ * Layers that are not a {@link MemoryConfig} can't tell whether they have been modified, they are not indexed.
+ */
+
+final class LayerIndex {
+	
+	private static final Object NOT_FOUND = new Object();
+	
+	private volatile Snapshot snapshot;
+	
+	/**
+	 * Looks up a value of a layer.
+	 *
+	 * @param layer the layer, may be null
+	 * @param path the full path, using the given separator
+	 * @param separator the path separator of the config the layer belongs to
+	 * @param def the value if the layer has no value at the path
+	 * @return the value as returned by {@link ConfigSection#get(String)} of the layer, or def
+	 */
+	
+	Object get(Config layer, String path, char separator, Object def) {
+		if(layer == null)
+			return def;
+		
+		if(!(layer instanceof MemoryConfig config)) {
+			var value = layer.get(path);
+			return value != null ? value : def;
+		}
+		
+		var snapshot = this.snapshot;
+		var modCount = config.modCount();
+		
+		if(snapshot == null || snapshot.layer() != layer || snapshot.modCount() != modCount || snapshot.separator() != separator)
+			this.snapshot = snapshot = new Snapshot(config, modCount, separator, index(config, separator));
+		
+		var value = snapshot.values().getOrDefault(path, NOT_FOUND);
+		
+		if(value != NOT_FOUND)
+			return value;
+		
+		// list indices are not indexed, and the layer may have defaults itself
+		if(config.getDefaults() != null || path.indexOf('[') >= 0) {
+			value = config.get(path);
+			return value != null ? value : def;
+		}
+		
+		return def;
+	}
+	
+	private static Map<String, Object> index(MemoryConfig layer, char separator) {
+		var index = new HashMap<String, Object>();
+		index(index, layer, layer, "", separator);
+		return index;
+	}
+	
+	private static void index(Map<String, Object> index, MemoryConfig layer, ConfigSection section, String prefix, char separator) {
+		for(var entry : SectionTraversal.children(section)) {
+			var path = prefix + entry.getKey();
+			var value = entry.getValue();
+			
+			if(value instanceof ConfigSection child) {
+				index.put(path, child);
+				index(index, layer, child, path + separator, separator);
+			} else
+				index.put(path, layer.unwrap(value));
+		}
+	}
+	
+	private record Snapshot(MemoryConfig layer, long modCount, char separator, Map<String, Object> values) {
+		
+	}
+}
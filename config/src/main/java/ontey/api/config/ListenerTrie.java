@@ -0,0 +1,132 @@
+package ontey.api.config;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The {@link ConfigListener}s of a configuration, in a trie of the nodes of their patterns.
+ * <br>
+ * A pattern is a path whose nodes may be {@code *}, matching any single node. A listener is notified of changes of
+ * the paths matching its pattern, their children and their parents. Finding the listeners of a changed path walks
+ * one branch of the trie per wildcard, so it takes time proportional to the depth of the path instead of the number
+ * of listeners, plus the listeners below the path if a whole section has been changed.
+ * <br>
+ * Patterns and paths are split into nodes by {@link ConfigPath}, so escaped separators stay part of a node.
+ */
+
+final class ListenerTrie {
+	
+	static final String WILDCARD = "*";
+	
+	private final Node root = new Node();
+	
+	private volatile int size;
+	
+	boolean isEmpty() {
+		return this.size == 0;
+	}
+	
+	synchronized void add(String pattern, char separator, ConfigListener listener) {
+		var node = this.root;
+		var names = ConfigPath.of(pattern, separator);
+		
+		for(var i = 0; i < size(names); i++)
+			node = node.children.computeIfAbsent(names.node(i), key -> new Node());
+		
+		node.listeners.add(listener);
+		this.size++;
+	}
+	
+	synchronized boolean remove(String pattern, char separator, ConfigListener listener) {
+		var removed = remove(this.root, ConfigPath.of(pattern, separator), 0, listener);
+		
+		if(removed)
+			this.size--;
+		
+		return removed;
+	}
+	
+	private static boolean remove(Node node, ConfigPath names, int i, ConfigListener listener) {
+		if(i == size(names))
+			return node.listeners.remove(listener);
+		
+		var child = node.children.get(names.node(i));
+		
+		if(child == null || !remove(child, names, i + 1, listener))
+			return false;
+		
+		if(child.isEmpty()) // prune empty branches
+			node.children.remove(names.node(i), child);
+		
+		return true;
+	}
+	
+	/**
+	 * Adds the listeners affected by a change of a path to the output, mapped to the changed paths.
+	 *
+	 * @param path the full path that has been changed
+	 * @param separator the path separator
+	 * @param output the listeners and their changed paths
+	 */
+	
+	void collect(String path, char separator, Map<ConfigListener, Set<String>> output) {
+		collect(this.root, ConfigPath.of(path, separator), 0, path, output);
+	}
+	
+	private static void collect(Node node, ConfigPath names, int i, String path, Map<ConfigListener, Set<String>> output) {
+		add(node.listeners, path, output); // the pattern is a parent of the path
+		
+		if(i == size(names)) {
+			for(var child : node.children.values())
+				collectAll(child, path, output); // the path is a parent of the pattern
+			
+			return;
+		}
+		
+		// list elements are changed through their list
+		var child = node.children.get(names.isIndexed(i) ? names.iterableNode(i) : names.node(i));
+		
+		if(child != null)
+			collect(child, names, i + 1, path, output);
+		
+		var wildcard = node.children.get(WILDCARD);
+		
+		if(wildcard != null && wildcard != child)
+			collect(wildcard, names, i + 1, path, output);
+	}
+	
+	private static void collectAll(Node node, String path, Map<ConfigListener, Set<String>> output) {
+		add(node.listeners, path, output);
+		
+		for(var child : node.children.values())
+			collectAll(child, path, output);
+	}
+	
+	private static void add(List<ConfigListener> listeners, String path, Map<ConfigListener, Set<String>> output) {
+		for(var listener : listeners)
+			output.computeIfAbsent(listener, key -> new LinkedHashSet<>()).add(path);
+	}
+	
+	/**
+	 * Gets the number of nodes of a path, none for the empty path.
+	 */
+	
+	private static int size(ConfigPath path) {
+		return path.isEmpty() ? 0 : path.size();
+	}
+	
+	private static final class Node {
+		
+		private final Map<String, Node> children = new ConcurrentHashMap<>();
+		
+		private final List<ConfigListener> listeners = new CopyOnWriteArrayList<>();
+		
+		private boolean isEmpty() {
+			return this.children.isEmpty() && this.listeners.isEmpty();
+		}
+	}
+}
@@ -0,0 +1,290 @@
+package ontey.api.config;
+
+import lombok.NonNull;
+import ontey.api.config.util.ValueCodec;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * A read-only configuration backed by a memory-mapped file, for large static data such as item catalogs or
+ * translation tables.
+ * <br>
+ * The file is written once from any {@link ConfigSection} with {@link #export(ConfigSection, Path)} and mapped with
+ * {@link #open(Path)}. Nothing is read into memory when it is opened: a path is resolved through a hash index of all
+ * full paths in the file, and only the value found is decoded, every time it is accessed. A mapped configuration
+ * therefore costs almost no heap, no matter how large the file is, and the operating system keeps the parts in use
+ * in its page cache.
+ * <br>
+ * Values are decoded into new objects on each access, so lists and maps are returned as unmodifiable copies and
+ * it is cheaper to keep a value that is read often than to get it again. A mapped configuration can be read from
+ * any thread. All methods that modify it throw an {@link UnsupportedOperationException}.
+ * <br>
+ * Example usage:
+ * <pre>{@code
+ * // when the data changes
+ * MappedConfig.export(YamlFile.loadConfiguration(new File("items.yml")), Path.of("items.bin"));
+ *
+ * // on startup
+ * MappedConfig items = MappedConfig.open(Path.of("items.bin"));
+ * String name = items.getString("swords.diamond.name");
+ * }</pre>
+ * Files are limited to 2 GB.
+ */
+
+public final class MappedConfig extends MappedSection implements Config {
+	
+	static final int MAGIC = 0x4F594D43; // OYMC
+	
+	static final int VERSION = 1;
+	
+	/**
+	 * The length of the header, which only holds {@link #MAGIC} and {@link #VERSION} so the records can be streamed.
+	 * The positions of the root record and of the index are in the trailer at the end of the file.
+	 */
+	
+	static final int HEADER = 8;
+	
+	static final int TRAILER = 24;
+	
+	static final byte SECTION = ValueCodec.EXTENSION;
+	
+	/**
+	 * Decodes the values, whose lists, sets and maps can't be modified.
+	 */
+	
+	private static final ValueCodec CODEC = new ValueCodec() {
+		
+		@Override
+		protected Object collected(Object collection) {
+			return switch(collection) {
+				case List<?> list -> Collections.unmodifiableList(list);
+				case Set<?> set -> Collections.unmodifiableSet(set);
+				case Map<?, ?> map -> Collections.unmodifiableMap(map);
+				default -> collection;
+			};
+		}
+	};
+	
+	private final ByteBuffer buffer;
+	
+	final char separator;
+	
+	private final int index;
+	
+	private final int mask;
+	
+	private final ConfigOptions options;
+	
+	private MappedConfig(ByteBuffer buffer, int trailer) {
+		super(buffer.getInt(trailer + 4));
+		
+		this.buffer = buffer;
+		this.separator = buffer.getChar(trailer);
+		this.index = buffer.getInt(trailer + 8);
+		this.mask = buffer.getInt(trailer + 12) - 1;
+		this.options = new MappedOptions(this);
+	}
+	
+	/**
+	 * Maps a file written by {@link #export(ConfigSection, Path)}.
+	 * <br>
+	 * The file must not be written to while it is mapped. {@link #export(ConfigSection, Path)} replaces it with a new
+	 * file instead, so a configuration that is still mapped keeps reading the previous contents.
+	 *
+	 * @param file the file to map
+	 * @return the mapped configuration
+	 * @throws IOException if the file cannot be mapped or is not an exported configuration
+	 */
+	
+	public static @NonNull MappedConfig open(@NonNull Path file) throws IOException {
+		ByteBuffer buffer;
+		
+		try(var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			var size = channel.size();
+			
+			if(size > Integer.MAX_VALUE)
+				throw new IOException("Mapped configurations are limited to 2 GB: " + file);
+			
+			if(size < HEADER + TRAILER)
+				throw new StreamCorruptedException("Not a mapped configuration: " + file);
+			
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		}
+		
+		var trailer = buffer.limit() - TRAILER;
+		
+		if(buffer.getInt(0) != MAGIC || buffer.getInt(trailer + 20) != MAGIC)
+			throw new StreamCorruptedException("Not a mapped configuration: " + file);
+		
+		if(buffer.getInt(4) != VERSION)
+			throw new StreamCorruptedException("Unsupported version " + buffer.getInt(4) + " of mapped configuration " + file);
+		
+		return new MappedConfig(buffer, trailer);
+	}
+	
+	/**
+	 * Writes all values of a section to a file that can be mapped with {@link #open(Path)}.
+	 * <br>
+	 * The section becomes the root of the file, so paths of the mapped configuration are relative to the section.
+	 * Values are exported as returned by {@link ConfigSection#getValues(boolean)}, including defaults if they are
+	 * copied. {@link ontey.api.config.serialization.ConfigSerializable ConfigSerializable} values are exported in
+	 * their serialized form and deserialized when they are read.
+	 * <br>
+	 * The file is written next to the target and moved over it when it is complete, so configurations that have
+	 * mapped the previous file are not affected.
+	 *
+	 * @param section the section to export
+	 * @param file the file to write
+	 * @throws IOException if the file cannot be written, or a value is of a type that cannot be exported
+	 */
+	
+	public static void export(@NonNull ConfigSection section, @NonNull Path file) throws IOException {
+		MappedConfigWriter.write(section, file);
+	}
+	
+	/**
+	 * Finds the value at a full path through the index.
+	 *
+	 * @param path the full path
+	 * @return the decoded value, or {@code null} if there is none
+	 */
+	
+	Object lookup(String path) {
+		var bytes = path.getBytes(StandardCharsets.UTF_8);
+		var hash = hash(bytes);
+		
+		for(var slot = hash & this.mask; ; slot = (slot + 1) & this.mask) {
+			var position = this.index + slot * 8;
+			var record = this.buffer.getInt(position + 4);
+			
+			if(record == 0)
+				return null;
+			
+			if(this.buffer.getInt(position) == hash && this.matches(record, bytes))
+				return this.read(record, path);
+		}
+	}
+	
+	private boolean matches(int record, byte[] path) {
+		if(this.buffer.getInt(record) != path.length)
+			return false;
+		
+		for(var i = 0; i < path.length; i++)
+			if(this.buffer.get(record + 4 + i) != path[i])
+				return false;
+		
+		return true;
+	}
+	
+	/**
+	 * Hashes a full path for the index, with 32 bit FNV-1a.
+	 *
+	 * @param path the UTF-8 bytes of the path
+	 * @return the hash
+	 */
+	
+	static int hash(byte[] path) {
+		var hash = 0x811C9DC5;
+		
+		for(var b : path) {
+			hash ^= b & 0xFF;
+			hash *= 0x01000193;
+		}
+		
+		return hash ^ (hash >>> 16);
+	}
+	
+	String readPath(int record) {
+		var bytes = new byte[this.buffer.getInt(record)];
+		this.buffer.get(record + 4, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	private int valueOf(int record) {
+		return record + 4 + this.buffer.getInt(record);
+	}
+	
+	boolean isSection(int record) {
+		return this.buffer.get(this.valueOf(record)) == SECTION;
+	}
+	
+	int childCount(int section) {
+		return this.buffer.getInt(this.valueOf(section) + 1);
+	}
+	
+	int child(int section, int i) {
+		return this.buffer.getInt(this.valueOf(section) + 5 + i * 4);
+	}
+	
+	/**
+	 * Decodes the value of a record.
+	 *
+	 * @param record the position of the record
+	 * @param path the full path of the record
+	 * @return the decoded value, or a {@link MappedSection} if the record is a section
+	 */
+	
+	Object read(int record, String path) {
+		if(this.isSection(record))
+			return new MappedSection(this, path, record);
+		
+		try {
+			return CODEC.read(ValueCodec.input(this.buffer.duplicate().position(this.valueOf(record))));
+		} catch(IOException e) {
+			throw new IllegalStateException("Cannot read the value of " + path, e);
+		}
+	}
+	
+	@Override
+	public Config getDefaults() {
+		return null;
+	}
+	
+	@Override
+	public ConfigOptions options() {
+		return this.options;
+	}
+	
+	@Override
+	public void addDefaults(Map<String, Object> defaults) {
+		throw new UnsupportedOperationException("Mapped configurations cannot be modified");
+	}
+	
+	@Override
+	public void addDefaults(Config defaults) {
+		throw new UnsupportedOperationException("Mapped configurations cannot be modified");
+	}
+	
+	@Override
+	public void setDefaults(Config defaults) {
+		throw new UnsupportedOperationException("Mapped configurations cannot be modified");
+	}
+	
+	/**
+	 * The options of a mapped configuration, whose path separator is the one it has been exported with.
+	 */
+	
+	private static final class MappedOptions extends ConfigOptions {
+		
+		private MappedOptions(MappedConfig config) {
+			super(config);
+		}
+		
+		@Override
+		public char pathSeparator() {
+			return ((MappedConfig) this.configuration()).separator;
+		}
+		
+		@Override
+		public ConfigOptions pathSeparator(char value) {
+			throw new UnsupportedOperationException("Mapped configurations cannot be modified");
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package ontey.api.config;
+
+import ontey.api.config.util.ValueCodec;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+import static ontey.api.config.MappedConfig.*;
+
+/**
+ * Writes the file of a {@link MappedConfig}.
+ * <br>
+ * The file starts with a header, followed by one record per value: the UTF-8 full path and the encoded value.
+ * The record of a section holds the positions of the records of its children, which are written before it, so the
+ * records are streamed to the file in a single pass. The open addressing hash index of the full paths and the
+ * trailer pointing to it and to the root record follow the records.
+ */
+
+final class MappedConfigWriter {
+	
+	private final DataOutputStream out;
+	
+	private final char separator;
+	
+	private final UnaryOperator<Object> unwrap;
+	
+	private final ValueCodec codec = new ValueCodec() {
+		
+		@Override
+		protected Object unwrap(Object value) {
+			return MappedConfigWriter.this.unwrap.apply(value);
+		}
+	};
+	
+	private int[] hashes = new int[64];
+	
+	private int[] records = new int[64];
+	
+	private int count;
+	
+	private MappedConfigWriter(DataOutputStream out, char separator, UnaryOperator<Object> unwrap) {
+		this.out = out;
+		this.separator = separator;
+		this.unwrap = unwrap;
+	}
+	
+	static void write(ConfigSection section, Path file) throws IOException {
+		var root = section.getRoot();
+		var separator = root != null ? root.options().pathSeparator() : '.';
+		UnaryOperator<Object> unwrap = root instanceof MemoryConfig config ? config::unwrap : UnaryOperator.identity();
+		
+		var target = file.toAbsolutePath();
+		var temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+		
+		try {
+			try(var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				new MappedConfigWriter(out, separator, unwrap).write(section);
+			}
+			
+			move(temp, target);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+	
+	private static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch(AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	
+	private void write(ConfigSection section) throws IOException {
+		var root = this.writeSection(section, "");
+		var slots = Integer.highestOneBit(Math.max(2, this.count * 2 - 1)) << 1; // at most half full
+		var index = this.position();
+		var table = new int[slots * 2];
+		
+		for(var i = 0; i < this.count; i++) {
+			var slot = this.hashes[i] & (slots - 1);
+			
+			while(table[slot * 2 + 1] != 0)
+				slot = (slot + 1) & (slots - 1);
+			
+			table[slot * 2] = this.hashes[i];
+			table[slot * 2 + 1] = this.records[i];
+		}
+		
+		for(var value : table)
+			this.out.writeInt(value);
+		
+		this.out.writeChar(this.separator);
+		this.out.writeChar(0);
+		this.out.writeInt(root);
+		this.out.writeInt(index);
+		this.out.writeInt(slots);
+		this.out.writeInt(this.count);
+		this.out.writeInt(MAGIC);
+		this.position(); // the whole file must be mappable
+	}
+	
+	private int writeSection(ConfigSection section, String path) throws IOException {
+		var values = section.getValues(false);
+		var children = new int[values.size()];
+		var size = 0;
+		
+		for(var entry : values.entrySet()) {
+			var value = entry.getValue() instanceof ConfigSection child ? child : this.unwrap.apply(entry.getValue());
+			
+			if(value == null)
+				continue;
+			
+			var childPath = path.isEmpty() ? entry.getKey() : path + this.separator + entry.getKey();
+			var bytes = childPath.getBytes(StandardCharsets.UTF_8);
+			var record = value instanceof ConfigSection child ? this.writeSection(child, childPath) : this.writeRecord(bytes, value);
+			
+			this.index(MappedConfig.hash(bytes), record);
+			children[size++] = record;
+		}
+		
+		var record = this.position();
+		this.writePath(path.getBytes(StandardCharsets.UTF_8));
+		this.out.writeByte(SECTION);
+		this.out.writeInt(size);
+		
+		for(var i = 0; i < size; i++)
+			this.out.writeInt(children[i]);
+		
+		return record;
+	}
+	
+	private int writeRecord(byte[] path, Object value) throws IOException {
+		var record = this.position();
+		this.writePath(path);
+		this.codec.write(this.out, value);
+		return record;
+	}
+	
+	private void index(int hash, int record) {
+		if(this.count == this.records.length) {
+			this.hashes = Arrays.copyOf(this.hashes, this.count * 2);
+			this.records = Arrays.copyOf(this.records, this.count * 2);
+		}
+		
+		this.hashes[this.count] = hash;
+		this.records[this.count++] = record;
+	}
+	
+	private int position() throws IOException {
+		var position = this.out.size();
+		
+		// DataOutputStream stops counting at Integer.MAX_VALUE
+		if(position < 0 || position == Integer.MAX_VALUE)
+			throw new IOException("Mapped configurations are limited to 2 GB");
+		
+		return position;
+	}
+	
+	private void writePath(byte[] path) throws IOException {
+		this.out.writeInt(path.length);
+		this.out.write(path);
+	}
+}
@@ -0,0 +1,264 @@
+package ontey.api.config;
+
+import lombok.NonNull;
+import ontey.api.config.serialization.ConfigSerializable;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnknownNullability;
+
+import java.util.*;
+
+/**
+ * A read-only {@link ConfigSection} of a {@link MappedConfig}.
+ * <br>
+ * A section only holds the position of its record in the mapped file. Its children are read from the file whenever
+ * they are accessed, so sections are created on demand and don't stay in memory.
+ * <br>
+ * All methods that modify the section throw an {@link UnsupportedOperationException}.
+ */
+
+public class MappedSection implements ConfigSection {
+	
+	final MappedConfig root;
+	
+	private final String name;
+	
+	private final String path;
+	
+	/**
+	 * The position of the record of this section in the mapped file.
+	 */
+	
+	final int record;
+	
+	/**
+	 * Creates the root section of a {@link MappedConfig}.
+	 *
+	 * @param record the position of the record of the root section
+	 */
+	
+	MappedSection(int record) {
+		if(!(this instanceof MappedConfig config))
+			throw new IllegalStateException("Cannot construct a root MappedSection when not a MappedConfig");
+		
+		this.root = config;
+		this.name = "";
+		this.path = "";
+		this.record = record;
+	}
+	
+	MappedSection(MappedConfig root, String path, int record) {
+		this.root = root;
+		this.name = path.substring(path.lastIndexOf(root.separator) + 1);
+		this.path = path;
+		this.record = record;
+	}
+	
+	@Override
+	public @NonNull Set<String> getKeys(boolean deep) {
+		var result = new LinkedHashSet<String>();
+		this.mapKeys(result, this.path.isEmpty() ? 0 : this.path.length() + 1, deep);
+		return result;
+	}
+	
+	private void mapKeys(Set<String> output, int prefix, boolean deep) {
+		for(int i = 0, size = this.size(); i < size; i++) {
+			var child = this.root.child(this.record, i);
+			var path = this.root.readPath(child);
+			output.add(path.substring(prefix));
+			
+			if(deep && this.root.isSection(child))
+				new MappedSection(this.root, path, child).mapKeys(output, prefix, true);
+		}
+	}
+	
+	@Override
+	public @NonNull Map<String, Object> getValues(boolean deep) {
+		var result = new LinkedHashMap<String, Object>();
+		this.mapValues(result, this.path.isEmpty() ? 0 : this.path.length() + 1, deep);
+		return result;
+	}
+	
+	private void mapValues(Map<String, Object> output, int prefix, boolean deep) {
+		for(int i = 0, size = this.size(); i < size; i++) {
+			var child = this.root.child(this.record, i);
+			var path = this.root.readPath(child);
+			var value = this.root.read(child, path);
+			output.put(path.substring(prefix), value);
+			
+			if(deep && value instanceof MappedSection section)
+				section.mapValues(output, prefix, true);
+		}
+	}
+	
+	@Override
+	public int size() {
+		return this.root.childCount(this.record);
+	}
+	
+	@Override
+	public String getPath() {
+		return this.path;
+	}
+	
+	@Override
+	public @NonNull String getName() {
+		return this.name;
+	}
+	
+	@Override
+	public MappedConfig getRoot() {
+		return this.root;
+	}
+	
+	@Override
+	public @Nullable MappedSection getParent() {
+		if(this.path.isEmpty())
+			return null;
+		
+		var end = this.path.lastIndexOf(this.root.separator);
+		return end < 0 ? this.root : (MappedSection) this.root.get(this.path.substring(0, end));
+	}
+	
+	@Override
+	public Object get(@NonNull String path) {
+		return this.get(path, null);
+	}
+	
+	@Override
+	public Object get(@NonNull String path, Object def) {
+		if(path.isEmpty())
+			return this;
+		
+		if(path.indexOf('[') >= 0) {
+			var compiled = ConfigPath.of(path, this.root.separator);
+			
+			if(compiled.hasIndices()) {
+				var value = this.find(compiled);
+				return value != null ? value : def;
+			}
+		}
+		
+		var value = this.root.lookup(this.fullPath(path));
+		return value != null ? value : def;
+	}
+	
+	@Override
+	public Object get(@NonNull ConfigPath path) {
+		return this.get(path, null);
+	}
+	
+	@Override
+	public Object get(@NonNull ConfigPath path, Object def) {
+		if(path.isEmpty())
+			return this;
+		
+		path = path.withSeparator(this.root.separator);
+		
+		var value = path.hasIndices() ? this.find(path) : this.root.lookup(this.fullPath(path.path()));
+		return value != null ? value : def;
+	}
+	
+	private String fullPath(String path) {
+		return this.path.isEmpty() ? path : this.path + this.root.separator + path;
+	}
+	
+	private Object find(ConfigPath path) {
+		Object current = this;
+		
+		for(var i = 0; i < path.size() && current != null; i++) {
+			if(!path.isIndexed(i)) {
+				current = child(current, path.node(i));
+				continue;
+			}
+			
+			var iterableNode = path.iterableNode(i);
+			var iterable = iterableNode.isEmpty() ? current : child(current, iterableNode);
+			current = indexed(iterable, path.index(i));
+		}
+		
+		return current;
+	}
+	
+	private static Object child(Object section, String key) {
+		return switch(section) {
+			case MappedSection mapped -> mapped.root.lookup(mapped.fullPath(key));
+			case ConfigSerializable serializable -> serializable.serialize().get(key);
+			case Map<?, ?> map -> map.get(key);
+			default -> null;
+		};
+	}
+	
+	private static Object indexed(Object iterable, int index) {
+		Collection<?> collection = switch(iterable) {
+			case MappedSection mapped -> mapped.getValues(false).values();
+			case Collection<?> c -> c;
+			case null, default -> null;
+		};
+		
+		if(collection == null)
+			return null;
+		
+		var size = collection.size();
+		
+		if(index < 0)
+			index += size;
+		
+		if(index < 0 || index >= size)
+			return null;
+		
+		if(collection instanceof List<?> list)
+			return list.get(index);
+		
+		var it = collection.iterator();
+		
+		for(var i = 0; i < index; i++)
+			it.next();
+		
+		return it.next();
+	}
+	
+	@Override
+	public ConfigSection getSection(@NonNull String path) {
+		return this.get(path) instanceof ConfigSection section ? section : null;
+	}
+	
+	@Override
+	public void set(@NonNull String path, Object value) {
+		throw new UnsupportedOperationException("Mapped configurations cannot be modified");
+	}
+	
+	@Override
+	public void set(@NonNull ConfigPath path, Object value) {
+		throw new UnsupportedOperationException("Mapped configurations cannot be modified");
+	}
+	
+	@Override
+	public @UnknownNullability ConfigSection createSection(@NonNull String path) {
+		throw new UnsupportedOperationException("Mapped configurations cannot be modified");
+	}
+	
+	@Override
+	public @UnknownNullability ConfigSection createSection(@NonNull ConfigPath path) {
+		throw new UnsupportedOperationException("Mapped configurations cannot be modified");
+	}
+	
+	@Override
+	public void addDefault(@NonNull String path, Object value) {
+		throw new UnsupportedOperationException("Mapped configurations cannot be modified");
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof MappedSection section && section.root == this.root && section.record == this.record;
+	}
+	
+	@Override
+	public int hashCode() {
+		return this.record;
+	}
+	
+	@Override
+	public String toString() {
+		return this.getClass().getSimpleName() + "[path='" + this.path + "']";
+	}
+}
@@ -1,9 +1,14 @@
 package ontey.api.config;
 
 import lombok.NonNull;
+import ontey.api.lambda.ThrowingRunnable;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This is a {@link Config} implementation that does not save or load
@@ -18,8 +23,44 @@ public class MemoryConfig extends MemorySection implements Config {
 	
 	protected Config defaults;
 	
+	protected Config overrides;
+	
 	protected MemoryConfigOptions options;
 	
+	private final LayerIndex defaultsIndex = new LayerIndex();
+	
+	private final LayerIndex overridesIndex = new LayerIndex();
+	
+	private final AtomicLong modCount = new AtomicLong();
+	
+	/**
+	 * The last snapshots of this configuration taken as the defaults of other snapshots, with unwrapped
+	 * and with stored values.
+	 */
+	
+	private volatile SharedSnapshot sharedSnapshot, sharedStoredSnapshot;
+	
+	private final ListenerTrie changeListeners = new ListenerTrie();
+	
+	/**
+	 * The listeners to notify at the end of the batch of the current thread, unset if there is none.
+	 * Per thread, so changes of other threads are not held back or notified by the batch.
+	 */
+	
+	private final ThreadLocal<Map<ConfigListener, Set<String>>> batch = new ThreadLocal<>();
+	
+	/**
+	 * Set while the current thread loads values, which replaces the changes of the loaded paths with a single change.
+	 */
+	
+	private final ThreadLocal<Boolean> loading = new ThreadLocal<>();
+	
+	/**
+	 * The number of threads loading values, so changes are only looked up in {@link #loading} during a load.
+	 */
+	
+	private final AtomicInteger loaders = new AtomicInteger();
+	
 	/**
 	 * Creates an empty {@link MemoryConfig} with no default values.
 	 */
@@ -67,6 +108,78 @@ public class MemoryConfig extends MemorySection implements Config {
 		this.defaults = defaults;
 	}
 	
+	/**
+	 * Gets the runtime overrides of this configuration.
+	 *
+	 * @return the overrides, or null if there are none
+	 * @see #setOverrides(Config)
+	 */
+	
+	public @Nullable Config getOverrides() {
+		return this.overrides;
+	}
+	
+	/**
+	 * Sets the runtime overrides of this configuration.
+	 * <br>
+	 * Values of the overrides take precedence over the values of this configuration, which take precedence over
+	 * the {@link #getDefaults() defaults}: {@code defaults < this configuration < overrides}.
+	 * Overrides are only used when reading single values through {@link #get(String)} and the typed getters,
+	 * they are neither part of {@link #getKeys(boolean)}, {@link #getValues(boolean)} and {@link #walk(ConfigVisitor)},
+	 * nor are they saved. Setting a value that is overridden changes this configuration, but not the value that is read.
+	 * <br>
+	 * Like the defaults, the overrides are looked up in an index of their full paths that is built again
+	 * after they have been modified.
+	 *
+	 * @param overrides the overrides, or null to remove them
+	 * @throws IllegalArgumentException if the overrides are this configuration
+	 */
+	
+	public void setOverrides(@Nullable Config overrides) {
+		if(overrides == this)
+			throw new IllegalArgumentException("The overrides can't be the config object!");
+		
+		this.overrides = overrides;
+	}
+	
+	/**
+	 * Overrides the value at a path, creating the {@link #getOverrides() overrides} if there are none.
+	 *
+	 * @param path the path to override
+	 * @param value the value, or null to remove the override
+	 * @see #setOverrides(Config)
+	 */
+	
+	public void addOverride(@NonNull String path, @Nullable Object value) {
+		if(this.overrides == null)
+			this.overrides = new MemoryConfig();
+		
+		this.overrides.set(path, value);
+	}
+	
+	/**
+	 * Gets a value of the defaults by its full path.
+	 *
+	 * @param path the full path
+	 * @return the default value, or null
+	 */
+	
+	Object findDefault(String path) {
+		return this.defaultsIndex.get(this.defaults, path, this.options().pathSeparator(), null);
+	}
+	
+	/**
+	 * Gets a value of the overrides by its full path.
+	 *
+	 * @param path the full path
+	 * @param def the value if the path is not overridden
+	 * @return the overriding value, or def
+	 */
+	
+	Object findOverride(String path, Object def) {
+		return this.overridesIndex.get(this.overrides, path, this.options().pathSeparator(), def);
+	}
+	
 	@Override
 	public MemoryConfigOptions options() {
 		if(this.options == null)
@@ -87,4 +200,238 @@ public class MemoryConfig extends MemorySection implements Config {
 		
 		defaults.set(path, value);
 	}
+	
+	/**
+	 * Gets the modification counter of this configuration, which is incremented on every tracked change.
+	 * <br>
+	 * Two equal counts mean nothing has been changed in between, which allows caching values derived from
+	 * the whole configuration.
+	 *
+	 * @return the modification count
+	 */
+	
+	public long modCount() {
+		return this.modCount.get();
+	}
+	
+	/**
+	 * Takes a snapshot of this configuration as the defaults of another snapshot.
+	 * <br>
+	 * The snapshot is shared until this configuration is modified, so the defaults are not copied again
+	 * for every snapshot of the configurations using them. Configurations with defaults of their own are
+	 * copied every time, as changes of their defaults are not counted.
+	 *
+	 * @param unwrapValues whether the values are unwrapped, see {@link ConfigSnapshot#ofStored(ConfigSection)}
+	 * @return the snapshot
+	 */
+	
+	ConfigSnapshot sharedSnapshot(boolean unwrapValues) {
+		if(this.defaults != null)
+			return unwrapValues ? ConfigSnapshot.of(this) : ConfigSnapshot.ofStored(this);
+		
+		var shared = unwrapValues ? this.sharedSnapshot : this.sharedStoredSnapshot;
+		var modCount = this.modCount();
+		var separator = this.options().pathSeparator();
+		
+		if(shared != null && shared.modCount() == modCount && shared.separator() == separator)
+			return shared.snapshot();
+		
+		shared = new SharedSnapshot(modCount, separator, unwrapValues ? ConfigSnapshot.of(this) : ConfigSnapshot.ofStored(this));
+		
+		if(unwrapValues)
+			this.sharedSnapshot = shared;
+		else
+			this.sharedStoredSnapshot = shared;
+		
+		return shared.snapshot();
+	}
+	
+	/**
+	 * Marks a path as changed.
+	 *
+	 * @param path the full path, or the empty path for a change of the whole configuration
+	 */
+	
+	protected void markDirty(@NonNull String path) {
+		this.markDirty(path, true);
+	}
+	
+	/**
+	 * Marks a path as changed, notifying the change listeners of it if requested.
+	 */
+	
+	void markDirty(String path, boolean notify) {
+		this.recordChange(path, this.modCount.incrementAndGet());
+		
+		if(notify && !path.isEmpty() && !this.changeListeners.isEmpty() && this.tracksChanges())
+			this.notifyChanged(path);
+	}
+	
+	/**
+	 * Checks whether changes are tracked, they are not while loading.
+	 */
+	
+	boolean tracksChanges() {
+		return this.loaders.get() == 0 || this.loading.get() == null;
+	}
+	
+	/**
+	 * Checks whether setting a path has to compare the new value to the current one,
+	 * which is unnecessary if nobody listens for changes and the change would not be recorded.
+	 */
+	
+	boolean comparesValues(String path) {
+		return !this.changeListeners.isEmpty() || this.recordsChange(path);
+	}
+	
+	/**
+	 * Records a change of a path, called for every change of a value that is tracked.
+	 * A plain memory configuration records nothing besides its {@link #modCount()}.
+	 *
+	 * @param path the full path, or the empty path for a change of the whole configuration
+	 * @param modCount the modification count of the change
+	 * @see ontey.api.config.file.FileConfig#isDirty()
+	 */
+	
+	protected void recordChange(@NonNull String path, long modCount) {
+	}
+	
+	/**
+	 * Checks whether a change of a path would be recorded by {@link #recordChange(String, long)}, so setting the path
+	 * to a value equal to the current one has to be told apart from a change.
+	 *
+	 * @param path the full path
+	 * @return false by default
+	 */
+	
+	protected boolean recordsChange(@NonNull String path) {
+		return false;
+	}
+	
+	/**
+	 * Adds a listener that is notified when values matching a pattern are set or removed, or have been changed by
+	 * loading this configuration.
+	 * <br>
+	 * A pattern is a path whose nodes may be {@code *}, matching any single node, such as {@code messages.*.text}.
+	 * The listener is notified of changes of the paths matching the pattern and of their children and parents,
+	 * so {@code messages} is notified when {@code messages.welcome} is changed. The empty pattern matches every path.
+	 * <br>
+	 * Changes of lists or maps returned by getters are not noticed, set them again after changing them.
+	 *
+	 * @param pattern the path pattern, using the current path separator
+	 * @param listener the listener
+	 */
+	
+	public void addChangeListener(@NonNull String pattern, @NonNull ConfigListener listener) {
+		this.changeListeners.add(pattern, this.options().pathSeparator(), listener);
+	}
+	
+	/**
+	 * Removes a listener added with {@link #addChangeListener(String, ConfigListener)}.
+	 *
+	 * @param pattern the pattern the listener has been added with
+	 * @param listener the listener
+	 * @return true if the listener has been removed
+	 */
+	
+	public boolean removeChangeListener(@NonNull String pattern, @NonNull ConfigListener listener) {
+		return this.changeListeners.remove(pattern, this.options().pathSeparator(), listener);
+	}
+	
+	/**
+	 * Runs a batch of modifications, notifying every {@link #addChangeListener(String, ConfigListener) change listener}
+	 * once afterwards with all its changed paths, instead of once per change.
+	 * <br>
+	 * Batches can be nested, the listeners are notified at the end of the outermost batch.
+	 * A batch only holds back the changes of the calling thread, changes of other threads are notified right away.
+	 *
+	 * @param changes the modifications
+	 * @throws E if the modifications throw, the listeners are notified of the changes made until then
+	 */
+	
+	public <E extends Throwable> void batch(@NonNull ThrowingRunnable<E> changes) throws E {
+		if(this.batch.get() != null) {
+			changes.run();
+			return;
+		}
+		
+		var batch = new LinkedHashMap<ConfigListener, Set<String>>();
+		this.batch.set(batch);
+		
+		try {
+			changes.run();
+		} finally {
+			this.batch.remove();
+			notify(batch);
+		}
+	}
+	
+	/**
+	 * Loads values into this configuration, notifying the change listeners once afterwards
+	 * with the paths whose values differ from before, see {@link ConfigDiff}.
+	 * <br>
+	 * The load must replace the sections of this configuration instead of modifying them,
+	 * as the values before loading are not copied.
+	 * <br>
+	 * The changes of the loaded paths are not recorded, the load only increments the {@link #modCount()}.
+	 *
+	 * @param load the load
+	 * @throws E if loading throws, the listeners are notified of the changes made until then
+	 */
+	
+	protected <E extends Throwable> void loadBatched(@NonNull ThrowingRunnable<E> load) throws E {
+		var before = this.changeListeners.isEmpty() ? null : new LinkedHashMap<>(this.map);
+		this.loading.set(Boolean.TRUE);
+		this.loaders.incrementAndGet();
+		
+		try {
+			load.run();
+		} finally {
+			this.loaders.decrementAndGet();
+			this.loading.remove();
+			this.modCount.incrementAndGet();
+			
+			if(before != null) {
+				var diff = ConfigDiff.between(before, this);
+				
+				this.batch(() -> {
+					for(var entry : diff.getEntries())
+						this.notifyChanged(entry.path());
+				});
+			}
+		}
+	}
+	
+	private void notifyChanged(String path) {
+		var batch = this.batch.get();
+		var matched = batch != null ? batch : new LinkedHashMap<ConfigListener, Set<String>>();
+		
+		this.changeListeners.collect(path, this.options().pathSeparator(), matched);
+		
+		if(batch == null)
+			notify(matched);
+	}
+	
+	private static void notify(Map<ConfigListener, Set<String>> matched) {
+		for(var entry : matched.entrySet())
+			entry.getKey().changed(entry.getValue());
+	}
+	
+	/**
+	 * Converts a value as it is stored in this configuration to the value returned by {@link #get(String)}.
+	 * <br>
+	 * This is used when values are read from the sections directly, for example when taking a {@link #snapshot()}.
+	 * Implementations that wrap values when they are set should unwrap them here.
+	 *
+	 * @param value the stored value
+	 * @return the value as returned by {@link #get(String)}
+	 */
+	
+	protected Object unwrap(Object value) {
+		return value;
+	}
+	
+	private record SharedSnapshot(long modCount, char separator, ConfigSnapshot snapshot) {
+		
+	}
 }
@@ -3,10 +3,10 @@ package ontey.api.config;
 import lombok.Getter;
 import lombok.NonNull;
 import ontey.api.config.serialization.ConfigSerializable;
-import ontey.api.config.util.StringUtils;
 import org.jetbrains.annotations.UnknownNullability;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A type of {@link ConfigSection} that is stored in memory.
@@ -20,7 +20,21 @@ import java.util.*;
 
 public class MemorySection implements ConfigSection {
 	
-	protected final Map<String, Object> map = new LinkedHashMap<>();
+	/**
+	 * Marks a missing value, so defaults are only looked up when needed.
+	 */
+	
+	private static final Object NOT_FOUND = new Object();
+	
+	protected final Map<String, Object> map = this.createMap();
+	
+	/**
+	 * The cached conversions of the direct children of this section, created by the first conversion.
+	 *
+	 * @see #getConverted(String, ValueConverter, Object)
+	 */
+	
+	private volatile Map<String, Conversion> conversions;
 	
 	@Getter
 	private final Config root;
@@ -88,7 +102,7 @@ public class MemorySection implements ConfigSection {
 	
 	private static Object findSection(Object section, String node) {
 		if(section instanceof ConfigSection configSection) {
-			section = configSection.get(node, null);
+			section = getChild(configSection, node, null);
 			if(section == null && configSection instanceof MemorySection mem) {
 				section = mem.getDefault(node);
 				if(section instanceof ConfigSection)
@@ -103,7 +117,7 @@ public class MemorySection implements ConfigSection {
 	private static Object find(Object section, String node) {
 		Object it = null;
 		if(section instanceof ConfigSection configSection) {
-			it = configSection.get(node, null);
+			it = getChild(configSection, node, null);
 			if(it == null && configSection instanceof MemorySection mem)
 				it = mem.getDefault(node);
 		} else if(section instanceof Map<?, ?> map)
@@ -112,6 +126,20 @@ public class MemorySection implements ConfigSection {
 		return it;
 	}
 	
+	/**
+	 * Gets a direct child of a section.
+	 * <br>
+	 * The node must not contain separators nor a list index,
+	 * so children of a {@link MemorySection} can be read from its map without parsing the node again.
+	 */
+	
+	private static Object getChild(ConfigSection section, String node, Object def) {
+		if(section instanceof MemorySection mem && !node.isEmpty())
+			return mem.map.getOrDefault(node, def);
+		
+		return section.get(node, def);
+	}
+	
 	private static Iterable<?> getIterable(Object section, String node) {
 		if(node != null && !node.isEmpty())
 			section = find(section, node);
@@ -223,6 +251,18 @@ public class MemorySection implements ConfigSection {
 		return result;
 	}
 	
+	/**
+	 * Gets the values set in this section as they are stored, without its defaults and without copying them.
+	 * <br>
+	 * Child sections are contained as sections, values are not {@link MemoryConfig#unwrap(Object) unwrapped}.
+	 *
+	 * @return an unmodifiable view of the children of this section
+	 */
+	
+	public @NonNull Map<String, Object> getStoredValues() {
+		return Collections.unmodifiableMap(this.map);
+	}
+	
 	@Override
 	public int size() {
 		return this.map.size();
@@ -230,7 +270,14 @@ public class MemorySection implements ConfigSection {
 	
 	@Override
 	public Object get(@NonNull String path) {
-		return this.get(path, this.getDefault(path));
+		var value = this.get(path, NOT_FOUND);
+		return value != NOT_FOUND ? value : this.getDefault(path);
+	}
+	
+	@Override
+	public Object get(@NonNull ConfigPath path) {
+		var value = this.get(path, NOT_FOUND);
+		return value != NOT_FOUND ? value : this.getDefault(path.path());
 	}
 	
 	@Override
@@ -241,21 +288,31 @@ public class MemorySection implements ConfigSection {
 		if(root == null)
 			throw new IllegalStateException("Cannot access section without a root");
 		
+		var override = this.getOverride(path);
+		if(override != NOT_FOUND)
+			return override;
+		
 		var separator = root.options().pathSeparator();
-		// i1 is the leading (higher) index
-		// i2 is the trailing (lower) index
-		int i1 = -1, i2;
-		Object section = this;
-		while((i1 = StringUtils.firstSeparatorIndex(path, separator, i2 = i1 + 1)) != -1) {
-			var node = path.substring(i2, i1);
-			section = this.getSection(section, node);
-			if(section == null)
-				return def;
-		}
 		
-		var key = path.substring(i2);
+		if(isKey(path, separator))
+			return this.getObjectRaw(this, path, def);
+		
+		return this.getCompiled(ConfigPath.of(path, separator), def);
+	}
+	
+	@Override
+	public Object get(@NonNull ConfigPath path, Object def) {
+		if(path.isEmpty())
+			return this;
+		
+		if(root == null)
+			throw new IllegalStateException("Cannot access section without a root");
+		
+		var override = this.getOverride(path.path());
+		if(override != NOT_FOUND)
+			return override;
 		
-		return this.getObject(section, key, def);
+		return this.getCompiled(path.withSeparator(root.options().pathSeparator()), def);
 	}
 	
 	@Override
@@ -264,25 +321,19 @@ public class MemorySection implements ConfigSection {
 			throw new IllegalStateException("Cannot use section without a root");
 		
 		var separator = root.options().pathSeparator();
-		// i1 is the leading (higher) index
-		// i2 is the trailing (lower) index
-		int i1 = -1, i2;
-		Object section = this;
-		while((i1 = StringUtils.firstSeparatorIndex(path, separator, i2 = i1 + 1)) != -1) {
-			var node = path.substring(i2, i1);
-			var subSection = this.getSection(section, node);
-			if(subSection == null) {
-				if(section instanceof ConfigSection sections)
-					section = sections.createSection(node);
-				else
-					return;
-			} else
-				section = subSection;
-		}
 		
-		var key = path.substring(i2);
+		if(isKey(path, separator))
+			this.setKey(path, value);
+		else
+			this.setCompiled(ConfigPath.of(path, separator), value);
+	}
+	
+	@Override
+	public void set(@NonNull ConfigPath path, Object value) {
+		if(root == null)
+			throw new IllegalStateException("Cannot use section without a root");
 		
-		this.setObject(section, key, value);
+		this.setCompiled(path.withSeparator(root.options().pathSeparator()), value);
 	}
 	
 	@Override
@@ -293,28 +344,281 @@ public class MemorySection implements ConfigSection {
 		if(root == null)
 			throw new IllegalStateException("Cannot create section without a root");
 		
+		return this.createSectionCompiled(ConfigPath.of(path, root.options().pathSeparator()));
+	}
+	
+	@Override
+	public @UnknownNullability ConfigSection createSection(@NonNull ConfigPath path) {
+		if(path.isEmpty())
+			throw new IllegalArgumentException("Cannot create section at empty path");
+		
+		if(root == null)
+			throw new IllegalStateException("Cannot create section without a root");
+		
+		return this.createSectionCompiled(path.withSeparator(root.options().pathSeparator()));
+	}
+	
+	@Override
+	public <T> T getConverted(@NonNull String path, @NonNull ValueConverter<T> converter, T def) {
+		if(path.isEmpty())
+			return ConfigSection.super.getConverted(path, converter, def);
+		
+		if(root == null)
+			throw new IllegalStateException("Cannot access section without a root");
+		
+		var override = this.getOverride(path);
+		if(override != NOT_FOUND)
+			return convert(override, converter, def);
+		
 		var separator = root.options().pathSeparator();
-		// i1 is the leading (higher) index
-		// i2 is the trailing (lower) index
-		int i1 = -1, i2;
+		
+		if(isKey(path, separator))
+			return this.convertChild(path, converter, def);
+		
+		return this.getConvertedCompiled(ConfigPath.of(path, separator), converter, def);
+	}
+	
+	/**
+	 * Checks whether a path is a single key of this section, without separators or a list index,
+	 * so it can be used without compiling it into a {@link ConfigPath}.
+	 */
+	
+	private static boolean isKey(String path, char separator) {
+		var length = path.length();
+		
+		if(length == 0 || path.charAt(length - 1) == ']') // may be indexed
+			return false;
+		
+		return path.indexOf(separator) < 0;
+	}
+	
+	@Override
+	public <T> T getConverted(@NonNull ConfigPath path, @NonNull ValueConverter<T> converter, T def) {
+		if(path.isEmpty())
+			return ConfigSection.super.getConverted(path, converter, def);
+		
+		if(root == null)
+			throw new IllegalStateException("Cannot access section without a root");
+		
+		var override = this.getOverride(path.path());
+		if(override != NOT_FOUND)
+			return convert(override, converter, def);
+		
+		return this.getConvertedCompiled(path.withSeparator(root.options().pathSeparator()), converter, def);
+	}
+	
+	private static <T> T convert(Object value, ValueConverter<T> converter, T def) {
+		var converted = converter.convert(value);
+		return converted != null ? converted : def;
+	}
+	
+	/**
+	 * Gets the value of the runtime overrides of the root at a path relative to this section.
+	 * Sections of the overrides don't override sections, only the values in them do.
+	 *
+	 * @return the overriding value, or {@link #NOT_FOUND}
+	 */
+	
+	private Object getOverride(String path) {
+		if(!(root instanceof MemoryConfig config) || config.overrides == null)
+			return NOT_FOUND;
+		
+		var value = config.findOverride(this.fullPath(path), NOT_FOUND);
+		return value instanceof ConfigSection ? NOT_FOUND : value;
+	}
+	
+	private String fullPath(String path) {
+		return this.path.isEmpty() ? path : this.path + root.options().pathSeparator() + path;
+	}
+	
+	private Object getCompiled(ConfigPath path, Object def) {
+		var last = path.size() - 1;
 		Object section = this;
-		while((i1 = StringUtils.firstSeparatorIndex(path, separator, i2 = i1 + 1)) != -1) {
-			var node = path.substring(i2, i1);
-			var subSection = this.getSection(section, node);
-			if(subSection == null) {
-				if(section instanceof ConfigSection configSection)
-					section = configSection.createSection(node);
-				else
-					return null;
-			} else
-				section = subSection;
+		for(var i = 0; i < last; i++) {
+			section = this.getSubSection(section, path, i);
+			if(section == null)
+				return def;
+		}
+		
+		return this.getObject(section, path, last, def);
+	}
+	
+	private <T> T getConvertedCompiled(ConfigPath path, ValueConverter<T> converter, T def) {
+		var last = path.size() - 1;
+		Object section = this;
+		for(var i = 0; i < last; i++) {
+			section = this.getSubSection(section, path, i);
+			if(section == null)
+				return def;
+		}
+		
+		if(section instanceof MemorySection mem && !path.isIndexed(last) && !path.lastNode().isEmpty())
+			return mem.convertChild(path.lastNode(), converter, def);
+		
+		// values of lists, maps and other sections are not cached
+		var value = this.getObject(section, path, last, null);
+		var converted = value != null ? converter.convert(this.unwrap(value)) : null;
+		
+		return converted != null ? converted : def;
+	}
+	
+	/**
+	 * Converts a direct child of this section, reusing the cached conversion if the child has not changed since.
+	 */
+	
+	@SuppressWarnings("unchecked")
+	private <T> T convertChild(String node, ValueConverter<T> converter, T def) {
+		var conversions = this.conversions();
+		var head = conversions.get(node); // read before the value, a later change replaces it
+		var raw = this.map.get(node);
+		
+		if(raw == null)
+			return def;
+		
+		if(raw instanceof Collection<?> || raw instanceof Map<?, ?>) {
+			// may be modified in place by anyone holding it, so it is converted every time
+			var value = converter.convert(this.unwrap(raw));
+			return value != null ? value : def;
+		}
+		
+		for(var conversion = head; conversion != null; conversion = conversion.next())
+			if(conversion.converter() == converter && conversion.raw() == raw)
+				return conversion.value() != null ? (T) conversion.value() : def;
+		
+		var value = converter.convert(this.unwrap(raw));
+		
+		if(head == null)
+			conversions.putIfAbsent(node, new Conversion(0, raw, converter, value, null));
+		else
+			// discarded if the child has been modified meanwhile
+			conversions.replace(node, head, new Conversion(head.modCount(), raw, converter, value, head.raw() == raw ? head : null));
+		
+		return value != null ? value : def;
+	}
+	
+	private Map<String, Conversion> conversions() {
+		var conversions = this.conversions;
+		
+		if(conversions == null)
+			synchronized(this.map) {
+				conversions = this.conversions;
+				if(conversions == null)
+					this.conversions = conversions = new ConcurrentHashMap<>();
+			}
+		
+		return conversions;
+	}
+	
+	/**
+	 * Drops the conversions of a direct child, as it has been set or modified in place.
+	 */
+	
+	private void modified(Object key) {
+		var conversions = this.conversions;
+		if(conversions != null)
+			conversions.compute(String.valueOf(key), (node, head) -> Conversion.modified(head));
+	}
+	
+	private Object unwrap(Object value) {
+		return root instanceof MemoryConfig config ? config.unwrap(value) : value;
+	}
+	
+	private void setCompiled(ConfigPath path, Object value) {
+		var last = path.size() - 1;
+		Object section = this;
+		for(var i = 0; i < last; i++) {
+			section = this.getOrCreateSection(section, path, i);
+			if(section == null)
+				return;
+		}
+		
+		// sections track their own changes, only list elements are changed in place
+		if(section != this && section instanceof ConfigSection && !path.isIndexed(last)) {
+			this.setObject(section, path, last, value);
+			return;
+		}
+		
+		if(!(root instanceof MemoryConfig config) || !config.tracksChanges()) {
+			this.setObject(section, path, last, value);
+			return;
 		}
 		
-		var key = path.substring(i2);
+		var fullPath = this.fullPath(path);
+		
+		if(!config.comparesValues(fullPath)) {
+			this.setObject(section, path, last, value);
+			config.markDirty(fullPath, true);
+			return;
+		}
+		
+		var current = this.getObject(section, path, last, null);
+		
+		this.setObject(section, path, last, value);
+		
+		if(isChanged(current, value))
+			config.markDirty(fullPath, true);
+	}
+	
+	/**
+	 * Sets a direct child of this section, the same as {@link #setCompiled(ConfigPath, Object)} does for a path of a
+	 * single key.
+	 */
+	
+	private void setKey(String key, Object value) {
+		if(!(root instanceof MemoryConfig config) || !config.tracksChanges()) {
+			this.setObjectRaw(this, key, value);
+			return;
+		}
+		
+		var fullPath = this.fullPath(key);
+		
+		if(!config.comparesValues(fullPath)) {
+			this.setObjectRaw(this, key, value);
+			config.markDirty(fullPath, true);
+			return;
+		}
+		
+		var current = this.map.get(key);
+		
+		this.setObjectRaw(this, key, value);
+		
+		if(isChanged(current, value))
+			config.markDirty(fullPath, true);
+	}
+	
+	private static boolean isChanged(Object current, Object value) {
+		// the same collection may have been modified before it is set again
+		if(current == value)
+			return current instanceof Collection<?> || current instanceof Map<?, ?>;
+		
+		return !Objects.equals(current, value);
+	}
+	
+	private void markDirty(ConfigPath path, boolean notify) {
+		if(root instanceof MemoryConfig config && config.tracksChanges())
+			config.markDirty(this.fullPath(path), notify);
+	}
+	
+	private String fullPath(ConfigPath path) {
+		return this.path.isEmpty() ? path.path() : this.path + path.separator() + path.path();
+	}
+	
+	private ConfigSection createSectionCompiled(ConfigPath path) {
+		var last = path.size() - 1;
+		Object section = this;
+		for(var i = 0; i < last; i++) {
+			section = this.getOrCreateSection(section, path, i);
+			if(section == null)
+				return null;
+		}
+		
+		var key = path.node(last);
 		
 		if(section == this) {
-			var result = new MemorySection(this, key);
-			this.map.put(key, result);
+			var result = this.createChild(key);
+			var previous = this.map.put(key, result);
+			this.modified(key);
+			this.markDirty(path, previous != null); // creating an empty section does not change any value
 			return result;
 		}
 		if(section instanceof ConfigSection configSection)
@@ -322,15 +626,13 @@ public class MemorySection implements ConfigSection {
 		return null;
 	}
 	
-	private Object getObject(Object section, String node, Object def) {
-		var listIndex = StringUtils.LIST_INDEX.matcher(node);
-		
-		if(!listIndex.matches())
+	private Object getObject(Object section, ConfigPath path, int i, Object def) {
+		if(!path.isIndexed(i))
 			// Not indexed
-			return this.getObjectRaw(section, node, def);
+			return this.getObjectRaw(section, path.node(i), def);
 		
 		// Indexed
-		var object = findIndexed(section, listIndex.group(1), Integer.parseInt(listIndex.group(2)));
+		var object = findIndexed(section, path.iterableNode(i), path.index(i));
 		
 		return object != null ? object : def;
 	}
@@ -341,7 +643,7 @@ public class MemorySection implements ConfigSection {
 			section = this.map;
 		
 		return switch(section) {
-			case ConfigSection configSection -> configSection.get(node, def);
+			case ConfigSection configSection -> getChild(configSection, node, def);
 			case ConfigSerializable serializable -> serializable.serialize().getOrDefault(node, def);
 			case Map<?, ?> m -> ((Map<?, Object>) m).getOrDefault(node, def);
 			default -> def;
@@ -349,16 +651,14 @@ public class MemorySection implements ConfigSection {
 	}
 	
 	@SuppressWarnings("unchecked")
-	private <K, V> void setObject(Object section, K node, V value) {
-		var listIndex = StringUtils.LIST_INDEX.matcher((CharSequence) node);
-		
-		if(!listIndex.matches()) {
+	private <K, V> void setObject(Object section, ConfigPath path, int i, V value) {
+		if(!path.isIndexed(i)) {
 			// Not indexed
-			this.setObjectRaw(section, node, value);
+			this.setObjectRaw(section, path.node(i), value);
 		} else {
 			// Indexed
 			Object it = null;
-			var iterableNode = listIndex.group(1);
+			var iterableNode = path.iterableNode(i);
 			
 			if(iterableNode != null && !iterableNode.isEmpty())
 				it = find(section, iterableNode);
@@ -369,7 +669,7 @@ public class MemorySection implements ConfigSection {
 				it = configSection.getValues(false);
 			
 			if(it != null) {
-				var index = Integer.parseInt(listIndex.group(2));
+				var index = path.index(i);
 				
 				switch(it) {
 					case Map<?, ?> m -> {
@@ -402,6 +702,9 @@ public class MemorySection implements ConfigSection {
 									list.set(index, value);
 							}
 						}
+						
+						if(section instanceof MemorySection mem)
+							mem.modified(iterableNode);
 					}
 					case Collection<?> c when value != null -> {
 						var collection = (Collection<V>) c;
@@ -429,23 +732,74 @@ public class MemorySection implements ConfigSection {
 					((Map<K, V>) section).remove(key);
 				else
 					((Map<K, V>) section).put(key, value);
+				
+				if(section == this.map)
+					this.modified(key);
 			}
 		}
 	}
 	
-	private Object getSection(Object parent, String node) {
-		var listIndex = StringUtils.LIST_INDEX.matcher(node);
+	/**
+	 * Gets the section at a node of a path, creating it if it does not exist yet.
+	 * <br>
+	 * This is used for all but the last node of a path when setting values or creating sections.
+	 *
+	 * @param section the section, map or serializable containing the node
+	 * @param path the path being walked
+	 * @param i the position of the node
+	 * @return the existing or newly created section, or null if no section can be created at the node
+	 */
+	
+	protected Object getOrCreateSection(Object section, ConfigPath path, int i) {
+		var subSection = this.getSubSection(section, path, i);
+		
+		if(subSection != null)
+			return subSection;
 		
-		if(!listIndex.matches())
+		return section instanceof ConfigSection configSection ? configSection.createSection(path.node(i)) : null;
+	}
+	
+	/**
+	 * Gets the section at a node of a path, without creating it.
+	 *
+	 * @param parent the section, map or serializable containing the node
+	 * @param path the path being walked
+	 * @param i the position of the node
+	 * @return the section, map or serializable at the node, or null if there is none
+	 */
+	
+	protected Object getSubSection(Object parent, ConfigPath path, int i) {
+		if(!path.isIndexed(i))
 			// Not indexed
-			return findSection(parent, node);
+			return findSection(parent, path.node(i));
 		
 		// Indexed
-		var section = findIndexed(parent, listIndex.group(1), Integer.parseInt(listIndex.group(2)));
+		var section = findIndexed(parent, path.iterableNode(i), path.index(i));
 		
 		return isSection(section) ? section : null;
 	}
 	
+	/**
+	 * A converted value of a child, stored with the raw value it was converted from.
+	 * <br>
+	 * Conversions of the same raw value with other converters are chained through {@code next}.
+	 * Every modification of the child replaces the chain with an empty entry of the next modification count,
+	 * so a conversion that was computed meanwhile is not stored.
+	 *
+	 * @param modCount the number of times the child has been modified
+	 * @param raw the raw value, compared by identity, or null for an entry without conversions
+	 * @param converter the converter, or null for an entry without conversions
+	 * @param value the converted value, or null if the raw value could not be converted
+	 * @param next the next conversion of the same raw value, or null
+	 */
+	
+	private record Conversion(long modCount, Object raw, ValueConverter<?> converter, Object value, Conversion next) {
+		
+		private static Conversion modified(Conversion head) {
+			return new Conversion(head == null ? 1 : head.modCount + 1, null, null, null, null);
+		}
+	}
+	
 	@Override
 	public String toString() {
 		return this.getClass().getSimpleName()
@@ -453,7 +807,34 @@ public class MemorySection implements ConfigSection {
 		  + "', root='" + (root == null ? null : root.getClass().getSimpleName()) + "']";
 	}
 	
+	/**
+	 * Creates the map holding the direct children of this section.
+	 * <br>
+	 * This is called while this section is being constructed, before any field of a subclass is initialized.
+	 *
+	 * @return an empty map
+	 */
+	
+	protected Map<String, Object> createMap() {
+		return new LinkedHashMap<>();
+	}
+	
+	/**
+	 * Creates an empty child section of this section.
+	 *
+	 * @param name the name of the child
+	 * @return the new section, not yet added to this section
+	 */
+	
+	protected MemorySection createChild(@NonNull String name) {
+		return new MemorySection(this, name);
+	}
+	
 	protected Object getDefault(@NonNull String path) {
+		// the root keeps an index of its defaults
+		if(root instanceof MemoryConfig config)
+			return config.findDefault(this.fullPath(path));
+		
 		var defaults = root == null ? null : root.getDefaults();
 		return defaults == null ? null : defaults.get(ConfigSection.createPath(this, path));
 	}
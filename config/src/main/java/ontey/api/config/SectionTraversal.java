@@ -0,0 +1,274 @@
+package ontey.api.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Traverses a section merged with its section in the defaults, without copying either of them.
+ * Streams only collect the children of one section at a time, once the stream reaches it.
+ * <br>
+ * The children of a section are visited depth first. The keys of the defaults come first, with the values of the
+ * section replacing the default values, followed by the keys that are only set in the section.
+ * This is the order of {@link ConfigSection#getValues(boolean)} if there are no defaults.
+ */
+
+final class SectionTraversal {
+	
+	private static final Object NOT_FOUND = new Object();
+	
+	private final ConfigVisitor visitor;
+	
+	private final char separator;
+	
+	private SectionTraversal(ConfigVisitor visitor, char separator) {
+		this.visitor = visitor;
+		this.separator = separator;
+	}
+	
+	static void walk(ConfigSection section, ConfigVisitor visitor) {
+		new SectionTraversal(visitor, separator(section)).walk(section, defaults(section), "");
+	}
+	
+	static Stream<Map.Entry<String, Object>> stream(ConfigSection section, boolean deep) {
+		return new SectionTraversal(null, separator(section)).stream(section, defaults(section), "", deep);
+	}
+	
+	private static char separator(ConfigSection section) {
+		var root = section.getRoot();
+		
+		if(root == null)
+			throw new IllegalStateException("Cannot traverse section without a root");
+		
+		return root.options().pathSeparator();
+	}
+	
+	private static ConfigSection defaults(ConfigSection section) {
+		return section.getRoot().options().copyDefaults() ? section.getSectionInDefaults() : null;
+	}
+	
+	/**
+	 * Walks the children of a section and its defaults.
+	 *
+	 * @return false if the walk has been terminated
+	 */
+	
+	private boolean walk(ConfigSection section, ConfigSection defaults, String prefix) {
+		if(defaults != null)
+			for(var entry : children(defaults)) {
+				var key = entry.getKey();
+				var value = section != null ? child(section, key) : NOT_FOUND;
+				
+				if(!this.visit(section, defaults, prefix, key, value != NOT_FOUND ? value : null, entry.getValue()))
+					return false;
+			}
+		
+		if(section != null)
+			for(var entry : children(section))
+				if(defaults == null || child(defaults, entry.getKey()) == NOT_FOUND)
+					if(!this.visit(section, null, prefix, entry.getKey(), entry.getValue(), null))
+						return false;
+		
+		return true;
+	}
+	
+	private boolean visit(ConfigSection section, ConfigSection defaults, String prefix, String key, Object value, Object def) {
+		var path = prefix + key;
+		var result = this.visitor.visit(path, unwrap(value != null ? value : def, value != null ? section : defaults));
+		
+		return switch(result) {
+			case TERMINATE -> false;
+			case SKIP_CHILDREN -> true;
+			case CONTINUE -> !isSection(value, def) || this.walk(asSection(value), asSection(def), path + this.separator);
+		};
+	}
+	
+	private Stream<Map.Entry<String, Object>> stream(ConfigSection section, ConfigSection defaults, String prefix, boolean deep) {
+		return StreamSupport.stream(new Level(this.children(section, defaults, prefix), deep), false);
+	}
+	
+	/**
+	 * Resolves the children of a section and its defaults, in the order of {@link #walk(ConfigSection, ConfigSection, String)}.
+	 */
+	
+	private Child[] children(ConfigSection section, ConfigSection defaults, String prefix) {
+		var result = new ArrayList<Child>();
+		
+		if(defaults != null)
+			for(var entry : children(defaults)) {
+				var key = entry.getKey();
+				var value = section != null ? child(section, key) : NOT_FOUND;
+				
+				result.add(new Child(section, defaults, prefix + key, value != NOT_FOUND ? value : null, entry.getValue()));
+			}
+		
+		if(section != null)
+			for(var entry : children(section))
+				if(defaults == null || child(defaults, entry.getKey()) == NOT_FOUND)
+					result.add(new Child(section, null, prefix + entry.getKey(), entry.getValue(), null));
+		
+		return result.toArray(new Child[0]);
+	}
+	
+	/**
+	 * A child of a section merged with its default.
+	 */
+	
+	private record Child(ConfigSection section, ConfigSection defaults, String path, Object value, Object def) {
+		
+		private Map.Entry<String, Object> entry() {
+			return Map.entry(this.path, unwrap(this.value != null ? this.value : this.def, this.value != null ? this.section : this.defaults));
+		}
+		
+		private boolean isSection() {
+			return SectionTraversal.isSection(this.value, this.def);
+		}
+	}
+	
+	/**
+	 * Streams a range of the children of a section, followed by the children of the child sections if deep.
+	 * <br>
+	 * Splitting divides the range, or hands out the remaining children of the child section currently being streamed,
+	 * so nested sections are split between threads as well. The children of a child section are only resolved once
+	 * the stream reaches it.
+	 */
+	
+	private final class Level implements Spliterator<Map.Entry<String, Object>> {
+		
+		private final Child[] children;
+		
+		/**
+		 * The number of child sections before each index, to tell whether the size of a range is known.
+		 */
+		
+		private final int[] sections;
+		
+		private final boolean deep;
+		
+		private int index;
+		
+		private final int end;
+		
+		/**
+		 * The children of the last child if it is a section that has not been streamed completely, or null.
+		 */
+		
+		private Spliterator<Map.Entry<String, Object>> nested;
+		
+		private Level(Child[] children, boolean deep) {
+			this(children, sections(children), deep, 0, children.length);
+		}
+		
+		private Level(Child[] children, int[] sections, boolean deep, int index, int end) {
+			this.children = children;
+			this.sections = sections;
+			this.deep = deep;
+			this.index = index;
+			this.end = end;
+		}
+		
+		@Override
+		public boolean tryAdvance(Consumer<? super Map.Entry<String, Object>> action) {
+			if(this.nested != null) {
+				if(this.nested.tryAdvance(action))
+					return true;
+				
+				this.nested = null;
+			}
+			
+			if(this.index >= this.end)
+				return false;
+			
+			var child = this.children[this.index++];
+			action.accept(child.entry());
+			
+			if(this.deep && child.isSection())
+				this.nested = this.nested(child);
+			
+			return true;
+		}
+		
+		@Override
+		public Spliterator<Map.Entry<String, Object>> trySplit() {
+			// the rest of the current child section comes before the remaining children
+			if(this.nested != null) {
+				var prefix = this.nested;
+				this.nested = null;
+				return prefix;
+			}
+			
+			var remaining = this.end - this.index;
+			
+			if(remaining >= 2) {
+				var mid = this.index + remaining / 2;
+				var prefix = new Level(this.children, this.sections, this.deep, this.index, mid);
+				this.index = mid;
+				return prefix;
+			}
+			
+			// a single child section is split into itself and its children
+			if(remaining == 1 && this.deep && this.children[this.index].isSection()) {
+				var child = this.children[this.index++];
+				this.nested = this.nested(child);
+				return Stream.of(child.entry()).spliterator();
+			}
+			
+			return null;
+		}
+		
+		private Spliterator<Map.Entry<String, Object>> nested(Child child) {
+			return new Level(SectionTraversal.this.children(asSection(child.value()), asSection(child.def()), child.path() + SectionTraversal.this.separator), true);
+		}
+		
+		@Override
+		public long estimateSize() {
+			// the size of child sections is unknown until they are resolved
+			if(this.deep && (this.nested != null || this.sections[this.end] > this.sections[this.index]))
+				return Long.MAX_VALUE;
+			
+			return this.end - this.index;
+		}
+		
+		private static int[] sections(Child[] children) {
+			var result = new int[children.length + 1];
+			
+			for(var i = 0; i < children.length; i++)
+				result[i + 1] = result[i] + (children[i].isSection() ? 1 : 0);
+			
+			return result;
+		}
+		
+		@Override
+		public int characteristics() {
+			return this.deep ? ORDERED | NONNULL : ORDERED | NONNULL | SIZED | SUBSIZED;
+		}
+	}
+	
+	static Collection<Map.Entry<String, Object>> children(ConfigSection section) {
+		// sections of other implementations are copied, as their children can't be accessed otherwise
+		return section instanceof MemorySection mem ? mem.map.entrySet() : section.getValues(false).entrySet();
+	}
+	
+	private static Object child(ConfigSection section, String key) {
+		if(section instanceof MemorySection mem)
+			return mem.map.getOrDefault(key, NOT_FOUND);
+		
+		return section.get(key, NOT_FOUND);
+	}
+	
+	private static boolean isSection(Object value, Object def) {
+		return value instanceof ConfigSection || def instanceof ConfigSection;
+	}
+	
+	private static ConfigSection asSection(Object value) {
+		return value instanceof ConfigSection section ? section : null;
+	}
+	
+	private static Object unwrap(Object value, ConfigSection section) {
+		return section != null && section.getRoot() instanceof MemoryConfig config ? config.unwrap(value) : value;
+	}
+}
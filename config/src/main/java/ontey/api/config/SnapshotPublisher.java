@@ -0,0 +1,76 @@
+package ontey.api.config;
+
+import lombok.NonNull;
+
+/**
+ * Publishes the latest {@link ConfigSnapshot} of a section to other threads.
+ * <br>
+ * The thread that modifies the section calls {@link #publish()} after a batch of modifications,
+ * which takes a new snapshot and makes it visible to all other threads with a single volatile write.
+ * Other threads call {@link #get()} and read from the returned snapshot without any locking.
+ * <br>
+ * Example usage:
+ * <pre>{@code
+ * SnapshotPublisher publisher = new SnapshotPublisher(config);
+ *
+ * // main thread
+ * config.set("limits.max-players", 50);
+ * config.set("limits.max-worlds", 3);
+ * publisher.publish();
+ *
+ * // async thread
+ * int max = publisher.get().getInt("limits.max-players");
+ * }</pre>
+ */
+
+public final class SnapshotPublisher {
+	
+	private final ConfigSection source;
+	
+	private volatile ConfigSnapshot snapshot;
+	
+	/**
+	 * Creates a publisher and publishes the first snapshot of the section.
+	 *
+	 * @param source the section to take snapshots of
+	 */
+	
+	public SnapshotPublisher(@NonNull ConfigSection source) {
+		this.source = source;
+		this.snapshot = source.snapshot();
+	}
+	
+	/**
+	 * Gets the latest published snapshot.
+	 *
+	 * @return the snapshot
+	 */
+	
+	public @NonNull ConfigSnapshot get() {
+		return this.snapshot;
+	}
+	
+	/**
+	 * Takes a new snapshot of the section and publishes it.
+	 * <br>
+	 * This must be called from the thread that modifies the section.
+	 *
+	 * @return the published snapshot
+	 */
+	
+	public @NonNull ConfigSnapshot publish() {
+		var snapshot = this.source.snapshot();
+		this.snapshot = snapshot;
+		return snapshot;
+	}
+	
+	/**
+	 * Gets the section snapshots are taken of.
+	 *
+	 * @return the source section
+	 */
+	
+	public @NonNull ConfigSection source() {
+		return this.source;
+	}
+}
@@ -0,0 +1,334 @@
+package ontey.api.config;
+
+import lombok.NonNull;
+import ontey.api.config.serialization.ConfigSerializable;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnknownNullability;
+
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * An immutable {@link ConfigSection} of a {@link ConfigSnapshot}.
+ * <br>
+ * The values of a snapshot are deeply copied from the source section when the snapshot is taken,
+ * lists, sets and maps are copied into unmodifiable collections.
+ * {@link ConfigSerializable} values are shared with the source section.
+ * <br>
+ * Every value is also stored in a flattened index of its full path in the {@link ConfigSnapshot},
+ * so a lookup is a single hash lookup instead of a walk through the sections.
+ * Only paths with list indices such as {@code list[0]} are walked.
+ * <br>
+ * All methods that modify the section throw an {@link UnsupportedOperationException}.
+ *
+ * @see ConfigSection#snapshot()
+ */
+
+public class SnapshotSection implements ConfigSection {
+	
+	private final ConfigSnapshot root;
+	
+	private final SnapshotSection parent;
+	
+	private final String name;
+	
+	private final String path;
+	
+	/**
+	 * The direct children of this section, in the order of the source section.
+	 */
+	
+	private final Map<String, Object> values;
+	
+	/**
+	 * Creates the root section of a {@link ConfigSnapshot}.
+	 *
+	 * @param source the section to copy
+	 * @param separator the path separator of the snapshot
+	 * @param index the flattened index to add the values to
+	 * @param unwrap converts raw values of the source to the values to store
+	 */
+	
+	SnapshotSection(ConfigSection source, char separator, Map<String, Object> index, UnaryOperator<Object> unwrap) {
+		if(!(this instanceof ConfigSnapshot snapshot))
+			throw new IllegalStateException("Cannot construct a root SnapshotSection when not a ConfigSnapshot");
+		
+		this.root = snapshot;
+		this.parent = null;
+		this.name = "";
+		this.path = "";
+		this.values = this.copy(source, separator, index, unwrap);
+	}
+	
+	private SnapshotSection(SnapshotSection parent, String name, ConfigSection source, char separator, Map<String, Object> index, UnaryOperator<Object> unwrap) {
+		this.root = parent.root;
+		this.parent = parent;
+		this.name = name;
+		this.path = parent.path.isEmpty() ? name : parent.path + separator + name;
+		this.values = this.copy(source, separator, index, unwrap);
+	}
+	
+	private Map<String, Object> copy(ConfigSection source, char separator, Map<String, Object> index, UnaryOperator<Object> unwrap) {
+		var values = new LinkedHashMap<String, Object>();
+		
+		for(var entry : source.getValues(false).entrySet()) {
+			var key = entry.getKey();
+			var value = entry.getValue() instanceof ConfigSection section
+			  ? new SnapshotSection(this, key, section, separator, index, unwrap)
+			  : freeze(unwrap.apply(entry.getValue()));
+			
+			if(value == null)
+				continue;
+			
+			values.put(key, value);
+			index.put(this.path.isEmpty() ? key : this.path + separator + key, value);
+		}
+		
+		return Collections.unmodifiableMap(values);
+	}
+	
+	/**
+	 * Copies a value into an immutable value.
+	 *
+	 * @param value the value to copy
+	 * @return the immutable copy
+	 */
+	
+	static Object freeze(Object value) {
+		return switch(value) {
+			case null -> null;
+			case ConfigSection section -> freeze(section.getValues(false));
+			case List<?> list -> {
+				var copy = new ArrayList<>(list.size());
+				for(var element : list)
+					copy.add(freeze(element));
+				yield Collections.unmodifiableList(copy);
+			}
+			case Set<?> set -> {
+				var copy = new LinkedHashSet<>(set.size());
+				for(var element : set)
+					copy.add(freeze(element));
+				yield Collections.unmodifiableSet(copy);
+			}
+			case Collection<?> collection -> freeze(new ArrayList<>(collection));
+			case Map<?, ?> map -> {
+				var copy = new LinkedHashMap<>(map.size());
+				for(var entry : map.entrySet())
+					copy.put(entry.getKey(), freeze(entry.getValue()));
+				yield Collections.unmodifiableMap(copy);
+			}
+			case Date date -> date.clone();
+			default -> value;
+		};
+	}
+	
+	@Override
+	public @NonNull Set<String> getKeys(boolean deep) {
+		var result = new LinkedHashSet<String>();
+		this.mapKeys(result, "", deep);
+		return result;
+	}
+	
+	private void mapKeys(Set<String> output, String prefix, boolean deep) {
+		for(var entry : this.values.entrySet()) {
+			var key = prefix + entry.getKey();
+			output.add(key);
+			
+			if(deep && entry.getValue() instanceof SnapshotSection section)
+				section.mapKeys(output, key + this.root.separator, true);
+		}
+	}
+	
+	@Override
+	public @NonNull Map<String, Object> getValues(boolean deep) {
+		if(!deep)
+			return new LinkedHashMap<>(this.values);
+		
+		var result = new LinkedHashMap<String, Object>();
+		this.mapValues(result, "");
+		return result;
+	}
+	
+	private void mapValues(Map<String, Object> output, String prefix) {
+		for(var entry : this.values.entrySet()) {
+			var key = prefix + entry.getKey();
+			output.put(key, entry.getValue());
+			
+			if(entry.getValue() instanceof SnapshotSection section)
+				section.mapValues(output, key + this.root.separator);
+		}
+	}
+	
+	@Override
+	public int size() {
+		return this.values.size();
+	}
+	
+	@Override
+	public String getPath() {
+		return this.path;
+	}
+	
+	@Override
+	public @NonNull String getName() {
+		return this.name;
+	}
+	
+	@Override
+	public ConfigSnapshot getRoot() {
+		return this.root;
+	}
+	
+	@Override
+	public @Nullable SnapshotSection getParent() {
+		return this.parent;
+	}
+	
+	@Override
+	public Object get(@NonNull String path) {
+		var value = this.get(path, null);
+		
+		if(value != null || this.root.defaults == null)
+			return value;
+		
+		return this.root.defaults.get(this.fullPath(path));
+	}
+	
+	@Override
+	public Object get(@NonNull ConfigPath path) {
+		var value = this.get(path, null);
+		
+		if(value != null || this.root.defaults == null)
+			return value;
+		
+		return this.root.defaults.get(this.fullPath(path.path()));
+	}
+	
+	@Override
+	public Object get(@NonNull String path, Object def) {
+		if(path.isEmpty())
+			return this;
+		
+		if(path.indexOf('[') >= 0) {
+			var compiled = ConfigPath.of(path, this.root.separator);
+			
+			if(compiled.hasIndices()) {
+				var value = this.find(compiled);
+				return value != null ? value : def;
+			}
+		}
+		
+		var value = this.root.index.get(this.fullPath(path));
+		return value != null ? value : def;
+	}
+	
+	@Override
+	public Object get(@NonNull ConfigPath path, Object def) {
+		if(path.isEmpty())
+			return this;
+		
+		path = path.withSeparator(this.root.separator);
+		
+		var value = path.hasIndices() ? this.find(path) : this.root.index.get(this.fullPath(path.path()));
+		return value != null ? value : def;
+	}
+	
+	private String fullPath(String path) {
+		return this.path.isEmpty() ? path : this.path + this.root.separator + path;
+	}
+	
+	private Object find(ConfigPath path) {
+		Object current = this;
+		
+		for(var i = 0; i < path.size() && current != null; i++) {
+			if(!path.isIndexed(i)) {
+				current = child(current, path.node(i));
+				continue;
+			}
+			
+			var iterableNode = path.iterableNode(i);
+			var iterable = iterableNode.isEmpty() ? current : child(current, iterableNode);
+			current = indexed(iterable, path.index(i));
+		}
+		
+		return current;
+	}
+	
+	private static Object child(Object section, String key) {
+		return switch(section) {
+			case SnapshotSection snapshot -> snapshot.values.get(key);
+			case ConfigSerializable serializable -> serializable.serialize().get(key);
+			case Map<?, ?> map -> map.get(key);
+			default -> null;
+		};
+	}
+	
+	private static Object indexed(Object iterable, int index) {
+		Collection<?> collection = switch(iterable) {
+			case SnapshotSection snapshot -> snapshot.values.values();
+			case Collection<?> c -> c;
+			case null, default -> null;
+		};
+		
+		if(collection == null)
+			return null;
+		
+		var size = collection.size();
+		
+		if(index < 0)
+			index += size;
+		
+		if(index < 0 || index >= size)
+			return null;
+		
+		if(collection instanceof List<?> list)
+			return list.get(index);
+		
+		var it = collection.iterator();
+		
+		for(var i = 0; i < index; i++)
+			it.next();
+		
+		return it.next();
+	}
+	
+	@Override
+	public ConfigSection getSection(@NonNull String path) {
+		return this.get(path) instanceof ConfigSection section ? section : null;
+	}
+	
+	@Override
+	public @NonNull ConfigSnapshot snapshot() {
+		return ConfigSnapshot.of(this);
+	}
+	
+	@Override
+	public void set(@NonNull String path, Object value) {
+		throw new UnsupportedOperationException("Snapshots cannot be modified");
+	}
+	
+	@Override
+	public void set(@NonNull ConfigPath path, Object value) {
+		throw new UnsupportedOperationException("Snapshots cannot be modified");
+	}
+	
+	@Override
+	public @UnknownNullability ConfigSection createSection(@NonNull String path) {
+		throw new UnsupportedOperationException("Snapshots cannot be modified");
+	}
+	
+	@Override
+	public @UnknownNullability ConfigSection createSection(@NonNull ConfigPath path) {
+		throw new UnsupportedOperationException("Snapshots cannot be modified");
+	}
+	
+	@Override
+	public void addDefault(@NonNull String path, Object value) {
+		throw new UnsupportedOperationException("Snapshots cannot be modified");
+	}
+	
+	@Override
+	public String toString() {
+		return this.getClass().getSimpleName() + "[path='" + this.path + "']";
+	}
+}
@@ -0,0 +1,30 @@
+package ontey.api.config;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Converts a raw value of a {@link ConfigSection} into another representation, for example a String into a number.
+ * <br>
+ * Sections may cache the converted value until the raw value changes, see
+ * {@link ConfigSection#getConverted(String, ValueConverter, Object)}. The converter instance is part of the cache key,
+ * so converters should be kept in a constant and must always return the same result for the same value.
+ * <br>
+ * Converted values may be shared between callers and must not be modified.
+ *
+ * @param <T> the type of the converted value
+ */
+
+@FunctionalInterface
+public interface ValueConverter<T> {
+	
+	/**
+	 * Converts a raw value.
+	 *
+	 * @param value the raw value, never null
+	 * @return the converted value, or null if the value cannot be converted
+	 */
+	
+	@Nullable
+	T convert(@NonNull Object value);
+}
@@ -0,0 +1,182 @@
+package ontey.api.config;
+
+import lombok.NonNull;
+import ontey.api.config.serialization.ConfigSerializable;
+import ontey.api.config.serialization.ConfigSerialization;
+import ontey.api.config.util.EnumUtils;
+import ontey.api.config.util.NumberUtils;
+import org.jetbrains.annotations.Contract;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.*;
+
+/**
+ * Resolves {@link ValueConverter}s that convert values as they are stored in a {@link ConfigSection} to a Java type.
+ * <br>
+ * Numbers, booleans and characters are converted from other numbers and from Strings, enum entries are looked up
+ * like {@link ConfigSection#getEnum(String, Class)} does, {@link ConfigSerializable}s are deserialized from maps and
+ * sections and the elements of {@code List<E>} and {@code Set<E>} are converted to {@code E}, leaving out the elements
+ * that cannot be converted.
+ * <br>
+ * Resolving a converter is comparably expensive, so converters should be resolved once and then reused.
+ */
+
+public final class ValueConverters {
+	
+	private static final ClassValue<ValueConverter<?>> converters = new ClassValue<>() {
+		@Override
+		protected ValueConverter<?> computeValue(@NonNull Class<?> type) {
+			return create(type);
+		}
+	};
+	
+	/**
+	 * Gets the converter to a class.
+	 *
+	 * @param type the class, may be primitive
+	 * @return the converter, returning boxed values for primitive classes
+	 */
+	
+	@SuppressWarnings("unchecked")
+	@Contract(pure = true)
+	public static <T> @NonNull ValueConverter<T> of(@NonNull Class<T> type) {
+		return (ValueConverter<T>) converters.get(type);
+	}
+	
+	/**
+	 * Gets the converter to a generic type, such as the return type of a method.
+	 *
+	 * @param type the type
+	 * @return the converter
+	 */
+	
+	@Contract(pure = true)
+	public static @NonNull ValueConverter<?> of(@NonNull Type type) {
+		if(type instanceof Class<?> clazz)
+			return of(clazz);
+		
+		if(type instanceof ParameterizedType parameterized && parameterized.getRawType() instanceof Class<?> raw) {
+			var arguments = parameterized.getActualTypeArguments();
+			
+			if(arguments.length == 1 && (raw == List.class || raw == Collection.class || raw == Iterable.class))
+				return elements(of(arguments[0]), false);
+			
+			if(arguments.length == 1 && raw == Set.class)
+				return elements(of(arguments[0]), true);
+			
+			return of(raw);
+		}
+		
+		return of(erase(type));
+	}
+	
+	private static Class<?> erase(Type type) {
+		return switch(type) {
+			case Class<?> clazz -> clazz;
+			case ParameterizedType parameterized -> erase(parameterized.getRawType());
+			case WildcardType wildcard -> erase(wildcard.getUpperBounds()[0]);
+			case TypeVariable<?> variable -> erase(variable.getBounds()[0]);
+			case GenericArrayType array -> erase(array.getGenericComponentType()).arrayType();
+			default -> Object.class;
+		};
+	}
+	
+	/**
+	 * Creates a converter to a collection whose elements are converted by another converter.
+	 */
+	
+	private static ValueConverter<?> elements(ValueConverter<?> elementConverter, boolean set) {
+		// no conversion needed, keep the original collection
+		if(elementConverter == converters.get(Object.class))
+			return of(set ? Set.class : List.class);
+		
+		return value -> {
+			if(!(value instanceof Collection<?> collection))
+				return null;
+			
+			var result = set ? new LinkedHashSet<>() : new ArrayList<>(collection.size());
+			
+			for(var element : collection) {
+				var converted = element != null ? elementConverter.convert(element) : null;
+				
+				if(converted != null)
+					result.add(converted);
+			}
+			
+			return set ? Collections.unmodifiableSet((Set<?>) result) : Collections.unmodifiableList((List<?>) result);
+		};
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static ValueConverter<?> create(Class<?> type) {
+		if(type == Object.class)
+			return value -> value;
+		
+		if(type == String.class)
+			return value -> value instanceof Map<?, ?> || value instanceof ConfigSection || value instanceof Collection<?> ? null : value.toString();
+		
+		if(type == int.class || type == Integer.class)
+			return value -> switch(value) {
+				case Number number -> number.intValue();
+				case Character c -> (int) c;
+				default -> NumberUtils.parseInt(value.toString());
+			};
+		
+		if(type == long.class || type == Long.class)
+			return value -> switch(value) {
+				case Number number -> number.longValue();
+				case Character c -> (long) c;
+				default -> NumberUtils.parseLong(value.toString());
+			};
+		
+		if(type == double.class || type == Double.class)
+			return value -> value instanceof Number number ? number.doubleValue() : NumberUtils.parseDouble(value.toString());
+		
+		if(type == float.class || type == Float.class)
+			return value -> value instanceof Number number ? number.floatValue() : NumberUtils.parseFloat(value.toString());
+		
+		if(type == short.class || type == Short.class)
+			return value -> value instanceof Number number ? Short.valueOf(number.shortValue()) : NumberUtils.parseShort(value.toString());
+		
+		if(type == byte.class || type == Byte.class)
+			return value -> value instanceof Number number ? Byte.valueOf(number.byteValue()) : NumberUtils.parseByte(value.toString());
+		
+		if(type == boolean.class || type == Boolean.class)
+			return value -> value instanceof Boolean ? value : switch(value.toString().toLowerCase(Locale.ENGLISH)) {
+				case "true" -> true;
+				case "false" -> false;
+				default -> null;
+			};
+		
+		if(type == char.class || type == Character.class)
+			return value -> value instanceof Character ? value : value instanceof String str && str.length() == 1 ? str.charAt(0) : null;
+		
+		if(type.isEnum())
+			return value -> type.isInstance(value) ? value : EnumUtils.getEntryUnchecked(type, value.toString());
+		
+		if(ConfigSerializable.class.isAssignableFrom(type)) {
+			var serializable = (Class<? extends ConfigSerializable>) type;
+			
+			return value -> switch(value) {
+				case Map<?, ?> map -> ConfigSerialization.deserializeObject((Map<String, ?>) map, serializable);
+				case ConfigSection section -> ConfigSerialization.deserializeObject(section, serializable);
+				default -> type.isInstance(value) ? value : null;
+			};
+		}
+		
+		if(type == List.class || type == Collection.class || type == Iterable.class)
+			return value -> value instanceof List<?> ? value : value instanceof Collection<?> collection ? new ArrayList<>(collection) : null;
+		
+		if(type == Set.class)
+			return value -> value instanceof Set<?> ? value : value instanceof Collection<?> collection ? new LinkedHashSet<>(collection) : null;
+		
+		if(type == Map.class)
+			return value -> value instanceof Map<?, ?> ? value : value instanceof ConfigSection section ? section.getMapValues(false) : null;
+		
+		return value -> type.isInstance(value) ? value : null;
+	}
+}
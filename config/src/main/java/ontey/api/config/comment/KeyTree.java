@@ -7,6 +7,10 @@ import ontey.api.config.ConfigOptions;
 import ontey.api.config.ConfigSection;
 import ontey.api.config.util.StringUtils;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
@@ -14,6 +18,13 @@ import java.util.stream.Collectors;
 
 public class KeyTree implements Iterable<KeyTree.Node> {
 	
+	/**
+	 * Nodes with up to this many children find a child by name by scanning them,
+	 * nodes with more children build an index by name on the first lookup.
+	 */
+	
+	protected static final int INDEX_THRESHOLD = 8;
+	
 	/**
 	 * The root node of this key tree
 	 */
@@ -110,6 +121,82 @@ public class KeyTree implements Iterable<KeyTree.Node> {
 		return this.root.iterator();
 	}
 	
+	/**
+	 * Writes the nodes of this tree in a compact binary form, which can be restored with {@link #read(DataInput)}
+	 * without parsing the comments again.
+	 *
+	 * @param out where to write the nodes
+	 * @throws IOException if the nodes cannot be written
+	 */
+	
+	public void write(@NonNull DataOutput out) throws IOException {
+		this.write(out, this.root);
+	}
+	
+	/**
+	 * Restores the nodes written by {@link #write(DataOutput)}, adding them to the root of this tree.
+	 *
+	 * @param in where to read the nodes from
+	 * @throws IOException if the nodes cannot be read
+	 */
+	
+	public void read(@NonNull DataInput in) throws IOException {
+		this.read(in, this.root);
+	}
+	
+	protected void write(DataOutput out, KeyTree.Node node) throws IOException {
+		writeString(out, node.comment);
+		writeString(out, node.sideComment);
+		out.writeBoolean(node.isList);
+		out.writeInt(node.listSize != null ? node.listSize : -1);
+		out.writeInt(node.size);
+		for(int i = 0; i < node.size; i++) {
+			final KeyTree.Node child = node.children[i];
+			writeString(out, child.name);
+			out.writeInt(child.indent);
+			out.writeInt(child.elementIndex != null ? child.elementIndex : -1);
+			this.write(out, child);
+		}
+	}
+	
+	protected void read(DataInput in, KeyTree.Node node) throws IOException {
+		node.comment = readString(in);
+		node.sideComment = readString(in);
+		node.isList = in.readBoolean(); // set directly, isList(int) may change the indent
+		final int listSize = in.readInt();
+		node.listSize = listSize >= 0 ? listSize : null;
+		final int size = in.readInt();
+		for(int i = 0; i < size; i++) {
+			final String name = readString(in);
+			final KeyTree.Node child = node.add(in.readInt(), name, false);
+			final int elementIndex = in.readInt();
+			if(elementIndex >= 0) {
+				child.setElementIndex(elementIndex);
+			}
+			this.read(in, child);
+		}
+	}
+	
+	private static void writeString(DataOutput out, String value) throws IOException {
+		if(value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+	
+	private static String readString(DataInput in) throws IOException {
+		final int length = in.readInt();
+		if(length < 0) {
+			return null;
+		}
+		final byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
 	protected KeyTree.Node findParent(KeyTree.Node parent, int indent) {
 		final KeyTree.Node last = parent.getLast();
 		if(last != null && last.indent < indent) {
@@ -133,9 +220,11 @@ public class KeyTree implements Iterable<KeyTree.Node> {
 		@Getter
 		protected int indent;
 		
-		protected List<KeyTree.Node> children;
+		protected KeyTree.Node[] children; // null until the first child is added
 		
-		protected Map<String, KeyTree.Node> indexByName; // allows repetitions
+		protected int size; // children
+		
+		protected Map<String, KeyTree.Node> indexByName; // allows repetitions, built lazily for nodes with many children
 		
 		protected Map<String, KeyTree.Node> priorityIndex; // nodes added programmatically (not parsed)
 		
@@ -161,7 +250,8 @@ public class KeyTree implements Iterable<KeyTree.Node> {
 		protected Node(KeyTree.Node parent, int indent, String name) {
 			this.parent = parent;
 			this.indent = indent;
-			this.name = name;
+			// the same keys are parsed again for every file, share the names between trees
+			this.name = name != null ? name.intern() : null;
 		}
 		
 		public boolean isRootNode() {
@@ -171,8 +261,8 @@ public class KeyTree implements Iterable<KeyTree.Node> {
 		public boolean isFirstNode() {
 			if(!this.isRootNode() && this.parent.isRootNode()) {
 				KeyTree.Node first = this.parent.getFirst();
-				if(first.getName() == null && this.parent.children.size() > 1) // footer
-					first = this.parent.children.get(1);
+				if(first.getName() == null && this.parent.size > 1) // footer
+					first = this.parent.children[1];
 				
 				if(first == this) {
 					final Iterator<String> keys = KeyTree.this.options.configuration().getKeys(false).iterator();
@@ -193,7 +283,7 @@ public class KeyTree implements Iterable<KeyTree.Node> {
 		
 		protected KeyTree.Node get(String path, boolean add, boolean priority) {
 			KeyTree.Node node = null;
-			if(path != null && (this.indexByName == null || !this.indexByName.containsKey(path))) {
+			if(path != null && this.findChild(path) == null) {
 				final int i = StringUtils.firstSeparatorIndex(path, KeyTree.this.options.pathSeparator());
 				if(i >= 0) {
 					final String childPath = path.substring(0, i);
@@ -219,21 +309,52 @@ public class KeyTree implements Iterable<KeyTree.Node> {
 			}
 			if(priority && this.isList) {
 				node = this.priorityIndex != null ? this.priorityIndex.get(path) : null;
-				if(add && node == null && this.indexByName != null) {
-					node = this.indexByName.get(path);
+				if(add && node == null) {
+					node = this.findChild(path);
 					if(node != null) {
 						this.setPriority(path, node);
 					}
 				}
-			} else if(this.indexByName != null) {
-				node = this.indexByName.get(path);
+			} else {
+				node = this.findChild(path);
 			}
 			if(node == null && add) {
 				node = this.add(path, priority);
+				node.checkList();
 			}
 			return node;
 		}
 		
+		/**
+		 * Get the first direct child with a name.
+		 *
+		 * @param name the name of the child, not a path
+		 * @return the first child with the name or null if not found
+		 */
+		
+		protected KeyTree.Node findChild(String name) {
+			if(this.size <= INDEX_THRESHOLD) {
+				for(int i = 0; i < this.size; i++) {
+					if(Objects.equals(this.children[i].name, name)) {
+						return this.children[i];
+					}
+				}
+				return null;
+			}
+			return this.indexByName().get(name);
+		}
+		
+		private Map<String, KeyTree.Node> indexByName() {
+			if(this.indexByName == null) {
+				final Map<String, KeyTree.Node> index = new LinkedHashMap<>();
+				for(int i = 0; i < this.size; i++) {
+					index.putIfAbsent(this.children[i].name, this.children[i]);
+				}
+				this.indexByName = index;
+			}
+			return this.indexByName;
+		}
+		
 		/**
 		 * Get a child from its path. May contain repetitions with list elements when using names (values can be repeated on a list).
 		 *
@@ -319,9 +440,9 @@ public class KeyTree implements Iterable<KeyTree.Node> {
 		public KeyTree.Node get(int i) {
 			KeyTree.Node child = null;
 			if(this.hasChildren()) {
-				i = this.asListIndex(i, this.children.size());
-				if(i >= 0 && i < this.children.size()) {
-					child = this.children.get(i);
+				i = this.asListIndex(i, this.size);
+				if(i >= 0 && i < this.size) {
+					child = this.children[i];
 				}
 			}
 			return child;
@@ -331,14 +452,14 @@ public class KeyTree implements Iterable<KeyTree.Node> {
 			if(!this.hasChildren()) {
 				return null;
 			}
-			return this.children.getFirst();
+			return this.children[0];
 		}
 		
 		public KeyTree.Node getLast() {
 			if(!this.hasChildren()) {
 				return null;
 			}
-			return this.children.getLast();
+			return this.children[this.size - 1];
 		}
 		
 		public KeyTree.Node add(String key) {
@@ -357,20 +478,39 @@ public class KeyTree implements Iterable<KeyTree.Node> {
 		protected KeyTree.Node add(int indent, String key, boolean priority) {
 			final KeyTree.Node child = KeyTree.this.createNode(this, indent, key);
 			if(this.children == null) {
-				this.children = new ArrayList<>();
+				this.children = new KeyTree.Node[2];
+			} else if(this.size == this.children.length) {
+				this.children = Arrays.copyOf(this.children, this.size + (this.size >> 1) + 1);
 			}
-			this.children.add(child);
-			if(this.indexByName == null) {
-				this.indexByName = new LinkedHashMap<>();
+			this.children[this.size++] = child;
+			if(this.indexByName != null) {
+				this.indexByName.putIfAbsent(child.name, child);
 			}
-			this.indexByName.putIfAbsent(key, child);
 			if(priority) {
 				this.setPriority(key, child);
 			}
-			child.checkList();
 			return child;
 		}
 		
+		protected void removeChild(KeyTree.Node child) {
+			this.removeChildrenIf(node -> node == child);
+		}
+		
+		protected void removeChildrenIf(Predicate<KeyTree.Node> condition) {
+			int kept = 0;
+			for(int i = 0; i < this.size; i++) {
+				final KeyTree.Node child = this.children[i];
+				if(!condition.test(child)) {
+					this.children[kept++] = child;
+				}
+			}
+			if(kept != this.size) {
+				Arrays.fill(this.children, kept, this.size, null);
+				this.size = kept;
+				this.indexByName = null; // rebuilt on the next lookup
+			}
+		}
+		
 		protected void setPriority(String key, KeyTree.Node child) {
 			if(this.priorityIndex == null) {
 				this.priorityIndex = new LinkedHashMap<>();
@@ -393,23 +533,23 @@ public class KeyTree implements Iterable<KeyTree.Node> {
 		}
 		
 		public boolean hasChildren() {
-			return this.children != null && !this.children.isEmpty();
+			return this.size > 0;
 		}
 		
 		public List<KeyTree.Node> children() {
-			return this.hasChildren() ? Collections.unmodifiableList(this.children) : Collections.emptyList();
+			return this.hasChildren() ? Collections.unmodifiableList(Arrays.asList(this.children).subList(0, this.size)) : Collections.emptyList();
 		}
 		
 		public Set<String> keys() {
-			return this.indexByName != null ? Collections.unmodifiableSet(this.indexByName.keySet()) : Collections.emptySet();
+			return this.hasChildren() ? Collections.unmodifiableSet(this.indexByName().keySet()) : Collections.emptySet();
 		}
 		
 		public Set<Map.Entry<String, KeyTree.Node>> entries() {
-			return this.indexByName != null ? Collections.unmodifiableSet(this.indexByName.entrySet()) : Collections.emptySet();
+			return this.hasChildren() ? Collections.unmodifiableSet(this.indexByName().entrySet()) : Collections.emptySet();
 		}
 		
 		public int size() {
-			return this.hasChildren() ? this.children.size() : 0;
+			return this.size;
 		}
 		
 		public void isList(int listSize) {
@@ -512,45 +652,35 @@ public class KeyTree implements Iterable<KeyTree.Node> {
 		}
 		
 		protected void clearNode() {
-			if(this.children != null) {
-				this.children.clear();
-				this.children = null;
-			}
-			if(this.indexByName != null) {
-				this.indexByName.clear();
-				this.indexByName = null;
-			}
-			if(this.priorityIndex != null) {
-				this.priorityIndex.clear();
-				this.priorityIndex = null;
-			}
-			if(this.indexByElementIndex != null) {
-				this.indexByElementIndex.clear();
-				this.indexByElementIndex = null;
-			}
+			this.children = null;
+			this.size = 0;
+			this.indexByName = null;
+			this.priorityIndex = null;
+			this.indexByElementIndex = null;
+			
 			if(this.parent != null) {
 				if(this.parent.indexByName != null && this.parent.indexByName.get(this.name) == this) {
 					this.parent.indexByName.remove(this.name);
-					
-					if(this.parent.priorityIndex != null) {
-						this.parent.priorityIndex.remove(this.name);
-					}
-					
-					if(this.parent.indexByElementIndex != null && this.elementIndex != null) {
-						this.parent.indexByElementIndex.remove(this.elementIndex);
-					}
+				}
+				
+				if(this.parent.priorityIndex != null && this.parent.priorityIndex.get(this.name) == this) {
+					this.parent.priorityIndex.remove(this.name);
+				}
+				
+				if(this.parent.indexByElementIndex != null && this.elementIndex != null && this.parent.indexByElementIndex.get(this.elementIndex) == this) {
+					this.parent.indexByElementIndex.remove(this.elementIndex);
 				}
 			}
 		}
 		
 		protected boolean clearIf(Predicate<Node> condition, boolean removeFromParent) {
-			if(this.children != null) {
-				this.children.removeIf(child -> child.clearIf(condition, false));
+			if(this.hasChildren()) {
+				this.removeChildrenIf(child -> child.clearIf(condition, false));
 			}
 			if(!this.hasChildren() && condition.test(this)) {
 				this.clearNode();
 				if(removeFromParent && this.parent != null) {
-					this.parent.children.remove(this);
+					this.parent.removeChild(this);
 				}
 				return true;
 			}
@@ -565,14 +695,14 @@ public class KeyTree implements Iterable<KeyTree.Node> {
 			this.clearNode();
 			
 			if(this.parent != null) {
-				this.parent.children.remove(this);
+				this.parent.removeChild(this);
 			}
 		}
 		
 		@Override
 		@NonNull
 		public Iterator<Node> iterator() {
-			return this.hasChildren() ? this.children.iterator() : Collections.emptyIterator();
+			return this.children().iterator();
 		}
 		
 		@Override
@@ -594,8 +724,8 @@ public class KeyTree implements Iterable<KeyTree.Node> {
 			builder.append(", children=");
 			
 			if(this.children != null) {
-				builder.append('(').append(this.children.size()).append(')');
-				builder.append(this.children.stream().map(KeyTree.Node::getName).collect(Collectors.joining(", ", "[", "]")));
+				builder.append('(').append(this.size).append(')');
+				builder.append(this.children().stream().map(KeyTree.Node::getName).collect(Collectors.joining(", ", "[", "]")));
 			} else {
 				builder.append("[]");
 			}
@@ -9,6 +9,11 @@ import ontey.api.config.exception.InvalidConfigException;
 
 import java.io.*;
 import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * This is a base class for all File based implementations of {@link Config}
@@ -20,6 +25,14 @@ import java.nio.file.Files;
 
 public abstract class FileConfig extends MemoryConfig implements LoadableConfig {
 	
+	private final List<Runnable> loadListeners = new CopyOnWriteArrayList<>();
+	
+	/**
+	 * The paths changed since the last {@link #markClean()}, mapped to the {@link #modCount()} of their last change.
+	 */
+	
+	private final Map<String, Long> dirtyPaths = new ConcurrentHashMap<>();
+	
 	/**
 	 * Creates an empty {@link FileConfig} with no default values.
 	 */
@@ -39,6 +52,67 @@ public abstract class FileConfig extends MemoryConfig implements LoadableConfig
 		super(defaults);
 	}
 	
+	/**
+	 * Checks if this configuration has been changed since it was last loaded or saved.
+	 * <br>
+	 * Setting a value, creating a section or removing a value marks its path as dirty, unless the new value
+	 * equals the current one. Modifications of lists or maps returned by getters are not tracked,
+	 * set them again to mark them as changed. Changing the {@link #options()} does not mark anything as changed either.
+	 *
+	 * @return true if any path is dirty
+	 * @see #dirtyPaths()
+	 */
+	
+	public boolean isDirty() {
+		return !this.dirtyPaths.isEmpty();
+	}
+	
+	/**
+	 * Gets the full paths that have been changed since this configuration was last loaded or saved.
+	 * <br>
+	 * Paths are not merged, so both a section and values below it may be contained.
+	 * The empty path marks a change of the whole configuration, such as its header or file.
+	 *
+	 * @return an immutable copy of the dirty paths
+	 * @see #isDirty()
+	 */
+	
+	public @NonNull Set<String> dirtyPaths() {
+		return Set.copyOf(this.dirtyPaths.keySet());
+	}
+	
+	/**
+	 * Marks this configuration as unchanged, for example after it has been loaded or saved.
+	 */
+	
+	public void markClean() {
+		this.markClean(this.modCount());
+	}
+	
+	/**
+	 * Marks all paths changed up to a {@link #modCount()} as unchanged.
+	 * <br>
+	 * Paths changed again after the count stay dirty, so the count can be taken before
+	 * writing this configuration and passed after it has been written.
+	 *
+	 * @param modCount the modification count to mark clean up to
+	 */
+	
+	public void markClean(long modCount) {
+		// removing through the values view only removes entries still mapped to the checked count
+		this.dirtyPaths.values().removeIf(count -> count <= modCount);
+	}
+	
+	@Override
+	protected void recordChange(@NonNull String path, long modCount) {
+		this.dirtyPaths.put(path, modCount);
+	}
+	
+	@Override
+	protected boolean recordsChange(@NonNull String path) {
+		return !this.dirtyPaths.containsKey(path);
+	}
+	
 	/**
 	 * Saves this {@link FileConfig} to the specified location.
 	 * <br>
@@ -48,6 +122,8 @@ public abstract class FileConfig extends MemoryConfig implements LoadableConfig
 	 * <br>
 	 * This method will use the {@link #options()} {@link FileConfigOptions#charset() charset} encoding,
 	 * which defaults to UTF8.
+	 * <br>
+	 * Afterwards this configuration is no longer {@link #isDirty() dirty}, unless it was changed while saving.
 	 *
 	 * @param file File to save to.
 	 * @throws IOException Thrown when the given file cannot be written to for any reason.
@@ -59,7 +135,10 @@ public abstract class FileConfig extends MemoryConfig implements LoadableConfig
 		if(parents != null && !parents.exists() && !parents.mkdirs()) // if parent directory doesn't exist and cannot be created
 			throw new IOException("Cannot create successfully all needed parent directories!");
 		
+		var modCount = this.modCount();
+		
 		this.save(new OutputStreamWriter(Files.newOutputStream(file.toPath()), this.options().charset()));
+		this.markClean(modCount);
 	}
 	
 	/**
@@ -185,6 +264,37 @@ public abstract class FileConfig extends MemoryConfig implements LoadableConfig
 		}
 	}
 	
+	/**
+	 * Adds a listener that is called every time after this configuration has been loaded,
+	 * on the thread that loaded it.
+	 *
+	 * @param listener the listener
+	 */
+	
+	public void addLoadListener(@NonNull Runnable listener) {
+		this.loadListeners.add(listener);
+	}
+	
+	/**
+	 * Removes a listener added with {@link #addLoadListener(Runnable)}.
+	 *
+	 * @param listener the listener
+	 */
+	
+	public void removeLoadListener(@NonNull Runnable listener) {
+		this.loadListeners.remove(listener);
+	}
+	
+	/**
+	 * Calls the {@link #addLoadListener(Runnable) load listeners}.
+	 * Implementations call this at the end of loading, after all values have been set.
+	 */
+	
+	protected void notifyLoaded() {
+		for(var listener : this.loadListeners)
+			listener.run();
+	}
+	
 	@Override
 	public FileConfigOptions options() {
 		if(this.options == null) {
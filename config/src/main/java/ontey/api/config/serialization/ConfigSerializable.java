@@ -15,6 +15,9 @@ import java.util.Map;
  * <li>A constructor that accepts a single {@link Map}&lt;{@link String},
  * {@link Object}.</li>
  * </ul>
+ * Records don't need any of these, they are deserialized by their components
+ * unless they implement them. See {@link RecordSerializable} to serialize them the same way.
+ * <br>
  * In addition to implementing this interface, you must register the class
  * with {@link ConfigSerialization#registerClass(Class)}.
  *
@@ -2,15 +2,20 @@ package ontey.api.config.serialization;
 
 import lombok.NonNull;
 import ontey.api.config.Config;
+import ontey.api.config.ConfigSection;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.Map;
-import java.util.function.Supplier;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -25,7 +30,26 @@ public class ConfigSerialization {
 	
 	public static final String SERIALIZED_TYPE_KEY = "==";
 	
-	private static final Map<String, Class<? extends ConfigSerializable>> aliases = new HashMap<>();
+	/**
+	 * Concurrent, so classes can be registered while other plugins are loading or deserializing.
+	 */
+	
+	private static final Map<String, Class<? extends ConfigSerializable>> aliases = new ConcurrentHashMap<>();
+	
+	private static final MethodType DESERIALIZER_TYPE = MethodType.methodType(ConfigSerializable.class, Map.class);
+	
+	/**
+	 * The deserializers of each class, resolved once on first use.
+	 * The deserialization methods and constructors of a class can't change, so this is never invalidated.
+	 */
+	
+	private static final ClassValue<Deserializer[]> deserializers = new ClassValue<>() {
+		@SuppressWarnings("unchecked")
+		@Override
+		protected Deserializer[] computeValue(@NonNull Class<?> type) {
+			return new ConfigSerialization((Class<? extends ConfigSerializable>) type).resolveDeserializers();
+		}
+	};
 	
 	private final Class<? extends ConfigSerializable> clazz;
 	
@@ -53,6 +77,20 @@ public class ConfigSerialization {
 		return new ConfigSerialization(clazz).deserialize(args);
 	}
 	
+	/**
+	 * Attempts to deserialize the given section into a new instance of the
+	 * given class.
+	 *
+	 * @param section Section to deserialize
+	 * @param clazz Class to deserialize into
+	 * @return New instance of the specified class
+	 * @see #deserialize(ConfigSection)
+	 */
+	
+	public static ConfigSerializable deserializeObject(@NonNull ConfigSection section, Class<? extends ConfigSerializable> clazz) {
+		return new ConfigSerialization(clazz).deserialize(section);
+	}
+	
 	/**
 	 * Attempts to deserialize the given arguments into a new instance of the
 	 * given class.
@@ -138,10 +176,7 @@ public class ConfigSerialization {
 	 */
 	
 	public static void unregisterClass(Class<? extends ConfigSerializable> clazz) {
-		var classes = aliases.values();
-		
-		while(classes.contains(clazz))
-			classes.remove(clazz);
+		aliases.values().removeIf(clazz::equals);
 	}
 	
 	/**
@@ -178,44 +213,194 @@ public class ConfigSerialization {
 		return clazz.getName();
 	}
 	
+	/**
+	 * Deserializes the arguments using the first of these that returns an instance:
+	 * <ol>
+	 * <li>A static method "deserialize" that accepts a single {@link Map}</li>
+	 * <li>A static method "valueOf" that accepts a single {@link Map}</li>
+	 * <li>A constructor that accepts a single {@link Map}</li>
+	 * </ol>
+	 * The methods and constructor are looked up once per class and invoked through {@link MethodHandle}s.
+	 * Subclasses overriding {@link #getMethod}, {@link #getConstructor}, {@link #deserializeViaMethod}
+	 * or {@link #deserializeViaConstructor} get these hooks called on every deserialization instead.
+	 *
+	 * @param args Arguments for deserialization
+	 * @return New instance of the class, or null if no deserializer returned an instance
+	 */
+	
 	public ConfigSerializable deserialize(@NonNull Map<@NonNull String, ? extends @Nullable Object> args) {
-		Supplier<?>[] deserializationStrategies = new Supplier[] {
-		  () -> {
-			  Method method = this.getMethod("deserialize", Map.class);
-			  
-			  if(method != null)
-				  return this.deserializeViaMethod(method, args);
-			  else
-				  return null;
-		  },
-		  () -> {
-			  Method method = this.getMethod("valueOf", Map.class);
-			  
-			  if(method != null)
-				  return this.deserializeViaMethod(method, args);
-			  else
-				  return null;
-		  },
-		  () -> {
-			  Constructor<? extends ConfigSerializable> constructor = this.getConstructor(Map.class);
-			  
-			  if(constructor != null)
-				  return this.deserializeViaConstructor(constructor, args);
-			  else
-				  return null;
-		  }
-		};
-		
-		ConfigSerializable result;
-		
-		int i = 0;
-		// use 'do' to avoid unnecessary iteration at the start (where result is not initialized yet)
-		do {
-			result = (ConfigSerializable) deserializationStrategies[i++].get();
-		} while(result == null && i < deserializationStrategies.length);
-		
-		// still nullable
-		return result;
+		if(this.getClass() != ConfigSerialization.class)
+			return this.deserializeViaHooks(args, null);
+		
+		for(var deserializer : deserializers.get(this.clazz)) {
+			var result = deserializer.deserialize(this.clazz, args);
+			
+			if(result != null)
+				return result;
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Deserializes a section like {@link #deserialize(Map)}.
+	 * <br>
+	 * Records without a hand-written deserializer read their components straight from the section,
+	 * all other classes get the {@link ConfigSection#getMapValues(boolean) deep map values} of the section.
+	 *
+	 * @param section Section to deserialize
+	 * @return New instance of the class, or null if no deserializer returned an instance
+	 */
+	
+	public ConfigSerializable deserialize(@NonNull ConfigSection section) {
+		if(this.getClass() != ConfigSerialization.class)
+			return this.deserializeViaHooks(null, section);
+		
+		Map<String, Object> args = null;
+		
+		for(var deserializer : deserializers.get(this.clazz)) {
+			ConfigSerializable result;
+			
+			if(deserializer.codec() != null)
+				result = deserializer.deserialize(this.clazz, section);
+			else {
+				if(args == null)
+					args = section.getMapValues(true);
+				
+				result = deserializer.deserialize(this.clazz, args);
+			}
+			
+			if(result != null)
+				return result;
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Serializes a record implementing {@link ConfigSerializable} by its components.
+	 * <br>
+	 * This is the default implementation of {@link RecordSerializable#serialize()}.
+	 *
+	 * @param record Record to serialize
+	 * @return Map containing the non-null components of the record by their keys
+	 * @throws IllegalArgumentException if the record's components cannot be accessed
+	 */
+	
+	public static @NonNull Map<String, Object> serializeRecord(@NonNull Record record) {
+		return RecordCodec.of(record.getClass()).serialize(record);
+	}
+	
+	/**
+	 * Deserializes a record implementing {@link ConfigSerializable} by its components.
+	 * <br>
+	 * This is what records without a deserializer are deserialized with. Records that need a static
+	 * {@code deserialize} method anyway, like Bukkit requires, can delegate to it.
+	 *
+	 * @param type Record to deserialize
+	 * @param args Arguments for deserialization
+	 * @return New instance of the record
+	 * @throws IllegalArgumentException if the record's components cannot be accessed, runtime exceptions
+	 * of its constructor are thrown as they are
+	 */
+	
+	public static <T extends Record & ConfigSerializable> @NonNull T deserializeRecord(@NonNull Class<T> type, @NonNull Map<String, ?> args) {
+		try {
+			return type.cast(RecordCodec.of(type).deserialize(args));
+		} catch(RuntimeException ex) {
+			throw ex;
+		} catch(Throwable ex) {
+			throw new IllegalArgumentException("Could not deserialize " + type, ex);
+		}
+	}
+	
+	/**
+	 * Deserializes a record implementing {@link ConfigSerializable} by its components, reading them
+	 * straight from a section.
+	 *
+	 * @param type Record to deserialize
+	 * @param section Section to deserialize
+	 * @return New instance of the record
+	 * @throws IllegalArgumentException if the record's components cannot be accessed, runtime exceptions
+	 * of its constructor are thrown as they are
+	 * @see #deserializeRecord(Class, Map)
+	 */
+	
+	public static <T extends Record & ConfigSerializable> @NonNull T deserializeRecord(@NonNull Class<T> type, @NonNull ConfigSection section) {
+		try {
+			return type.cast(RecordCodec.of(type).deserialize(section));
+		} catch(RuntimeException ex) {
+			throw ex;
+		} catch(Throwable ex) {
+			throw new IllegalArgumentException("Could not deserialize " + type, ex);
+		}
+	}
+	
+	private ConfigSerializable deserializeViaHooks(Map<String, ?> args, ConfigSection section) {
+		if(args == null)
+			args = section.getMapValues(true);
+		
+		var found = false;
+		
+		var deserialize = this.getMethod("deserialize", Map.class);
+		if(deserialize != null) {
+			found = true;
+			var result = this.deserializeViaMethod(deserialize, args);
+			
+			if(result != null)
+				return result;
+		}
+		
+		var valueOf = this.getMethod("valueOf", Map.class);
+		if(valueOf != null) {
+			found = true;
+			var result = this.deserializeViaMethod(valueOf, args);
+			
+			if(result != null)
+				return result;
+		}
+		
+		var constructor = this.getConstructor(Map.class);
+		if(constructor != null) {
+			found = true;
+			var result = this.deserializeViaConstructor(constructor, args);
+			
+			if(result != null)
+				return result;
+		}
+		
+		if(found || !this.clazz.isRecord())
+			return null;
+		
+		// records without a hand-written deserializer are deserialized by their components
+		var codec = Deserializer.ofRecord(this.clazz);
+		if(codec == null)
+			return null;
+		
+		return section != null ? codec.deserialize(this.clazz, section) : codec.deserialize(this.clazz, args);
+	}
+	
+	private Deserializer[] resolveDeserializers() {
+		var result = new ArrayList<Deserializer>(1);
+		
+		var deserialize = this.getMethod("deserialize", Map.class);
+		if(deserialize != null)
+			result.add(Deserializer.of(deserialize, this.clazz));
+		
+		var valueOf = this.getMethod("valueOf", Map.class);
+		if(valueOf != null)
+			result.add(Deserializer.of(valueOf, this.clazz));
+		
+		var constructor = this.getConstructor(Map.class);
+		if(constructor != null)
+			result.add(Deserializer.of(constructor, this.clazz));
+		
+		// records without a hand-written deserializer are deserialized by their components
+		if(result.isEmpty() && this.clazz.isRecord())
+			result.add(Deserializer.ofRecord(this.clazz));
+		
+		result.removeIf(Objects::isNull);
+		return result.toArray(new Deserializer[0]);
 	}
 	
 	@Nullable
@@ -226,7 +411,7 @@ public class ConfigSerialization {
 			if(ConfigSerializable.class.isAssignableFrom(method.getReturnType()) && Modifier.isStatic(method.getModifiers()))
 				return method;
 		} catch(NoSuchMethodException | SecurityException _) {
-		
+			
 		}
 		
 		return null;
@@ -273,4 +458,81 @@ public class ConfigSerialization {
 		
 		return null;
 	}
+	
+	/**
+	 * A resolved deserialization method or constructor of a class.
+	 *
+	 * @param handle the handle of type {@code (Map)ConfigSerializable}, or null if the member is not accessible
+	 * @param member the method or constructor, for error messages
+	 */
+	
+	private record Deserializer(MethodHandle handle, String description, RecordCodec codec) {
+		
+		private static Deserializer of(Method method, Class<?> clazz) {
+			var description = "method '" + method + "'";
+			
+			try {
+				return new Deserializer(MethodHandles.lookup().unreflect(method).asType(DESERIALIZER_TYPE), description, null);
+			} catch(IllegalAccessException ex) {
+				log("Could not access " + description + " of " + clazz + " for deserialization", ex);
+				return null;
+			}
+		}
+		
+		private static Deserializer of(Constructor<?> constructor, Class<?> clazz) {
+			var description = "constructor '" + constructor + "'";
+			
+			try {
+				return new Deserializer(MethodHandles.lookup().unreflectConstructor(constructor).asType(DESERIALIZER_TYPE), description, null);
+			} catch(IllegalAccessException ex) {
+				log("Could not access " + description + " of " + clazz + " for deserialization", ex);
+				return null;
+			}
+		}
+		
+		private static Deserializer ofRecord(Class<?> clazz) {
+			var description = "record codec";
+			
+			try {
+				var codec = RecordCodec.of(clazz);
+				var handle = MethodHandles.lookup()
+				  .findVirtual(RecordCodec.class, "deserialize", DESERIALIZER_TYPE)
+				  .bindTo(codec);
+				
+				return new Deserializer(handle, description, codec);
+			} catch(ReflectiveOperationException | IllegalArgumentException ex) {
+				log("Could not create " + description + " of " + clazz + " for deserialization", ex);
+				return null;
+			}
+		}
+		
+		private ConfigSerializable deserialize(Class<?> clazz, Map<String, ?> args) {
+			try {
+				return this.checkResult(clazz, (ConfigSerializable) this.handle.invokeExact((Map<?, ?>) args));
+			} catch(Throwable ex) {
+				log("Could not call " + this.description + " of " + clazz + " for deserialization", ex);
+				return null;
+			}
+		}
+		
+		private ConfigSerializable deserialize(Class<?> clazz, ConfigSection section) {
+			try {
+				return this.checkResult(clazz, this.codec.deserialize(section));
+			} catch(Throwable ex) {
+				log("Could not call " + this.description + " of " + clazz + " for deserialization", ex);
+				return null;
+			}
+		}
+		
+		private ConfigSerializable checkResult(Class<?> clazz, ConfigSerializable result) {
+			if(result == null)
+				Logger.getLogger(ConfigSerialization.class.getName()).severe("Could not call " + this.description + " of " + clazz + " for deserialization: returned null");
+			
+			return result;
+		}
+		
+		private static void log(String message, Throwable ex) {
+			Logger.getLogger(ConfigSerialization.class.getName()).log(Level.SEVERE, message, ex);
+		}
+	}
 }
@@ -0,0 +1,182 @@
+package ontey.api.config.serialization;
+
+import lombok.NonNull;
+import ontey.api.config.ConfigDefault;
+import ontey.api.config.ConfigKey;
+import ontey.api.config.ConfigSection;
+import ontey.api.config.ValueConverter;
+import ontey.api.config.ValueConverters;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Array;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Serializes and deserializes a {@code record} implementing {@link ConfigSerializable} by its components.
+ * <br>
+ * Every component is stored under its name, or the key given by {@link ConfigKey}. The accessors, the canonical constructor and a converter for the type
+ * of each component are resolved once per record class. Values are read straight from the {@link Map} or
+ * {@link ConfigSection} being deserialized, without copying them into another map or config first.
+ * <br>
+ * Missing values and values that cannot be converted to the type of their component are passed to the
+ * constructor as the value given by {@link ConfigDefault}, or else as {@code null}, or as zero ({@code false})
+ * for primitive components.
+ */
+
+final class RecordCodec {
+	
+	private static final ClassValue<RecordCodec> codecs = new ClassValue<>() {
+		@Override
+		protected RecordCodec computeValue(@NonNull Class<?> type) {
+			return new RecordCodec(type);
+		}
+	};
+	
+	private final Class<?> type;
+	
+	private final Component[] components;
+	
+	/**
+	 * The canonical constructor of type {@code (Object[])ConfigSerializable}.
+	 */
+	
+	private final MethodHandle constructor;
+	
+	private RecordCodec(Class<?> type) {
+		if(!type.isRecord() || !ConfigSerializable.class.isAssignableFrom(type))
+			throw new IllegalArgumentException(type + " is not a record implementing ConfigSerializable");
+		
+		this.type = type;
+		
+		var recordComponents = type.getRecordComponents();
+		var parameterTypes = new Class<?>[recordComponents.length];
+		this.components = new Component[recordComponents.length];
+		
+		try {
+			var lookup = MethodHandles.lookup();
+			
+			for(var i = 0; i < recordComponents.length; i++) {
+				var component = recordComponents[i];
+				var accessor = accessible(component.getAccessor());
+				var key = component.getAnnotation(ConfigKey.class);
+				var converter = ValueConverters.of(component.getGenericType());
+				
+				parameterTypes[i] = component.getType();
+				this.components[i] = new Component(
+				  key != null ? key.value() : component.getName(),
+				  lookup.unreflect(accessor).asType(MethodType.methodType(Object.class, Object.class)),
+				  converter,
+				  missing(component.getAnnotation(ConfigDefault.class), converter, component.getType())
+				);
+			}
+			
+			this.constructor = lookup.unreflectConstructor(accessible(type.getDeclaredConstructor(parameterTypes)))
+			  .asSpreader(Object[].class, parameterTypes.length)
+			  .asType(MethodType.methodType(ConfigSerializable.class, Object[].class));
+		} catch(ReflectiveOperationException ex) {
+			throw new IllegalArgumentException("Cannot create a codec for " + type, ex);
+		}
+	}
+	
+	/**
+	 * Gets the codec of a record class.
+	 *
+	 * @param type the record class
+	 * @return the codec
+	 * @throws IllegalArgumentException if the class is not a record or its members cannot be accessed
+	 */
+	
+	static RecordCodec of(@NonNull Class<?> type) {
+		return codecs.get(type);
+	}
+	
+	/**
+	 * Serializes a record into a map of its components in declaration order, leaving out null components.
+	 */
+	
+	@NonNull
+	Map<String, Object> serialize(@NonNull Object record) {
+		var result = new LinkedHashMap<String, Object>(this.components.length * 2);
+		
+		for(var component : this.components) {
+			Object value;
+			
+			try {
+				value = component.accessor().invokeExact(record);
+			} catch(Throwable ex) {
+				throw new IllegalStateException("Could not read component '" + component.name() + "' of " + this.type, ex);
+			}
+			
+			if(value != null)
+				result.put(component.name(), write(value));
+		}
+		
+		return result;
+	}
+	
+	ConfigSerializable deserialize(@NonNull Map<String, ?> args) throws Throwable {
+		return this.deserialize(args::get);
+	}
+	
+	ConfigSerializable deserialize(@NonNull ConfigSection section) throws Throwable {
+		return this.deserialize(section::get);
+	}
+	
+	private ConfigSerializable deserialize(Function<String, ?> source) throws Throwable {
+		var args = new Object[this.components.length];
+		
+		for(var i = 0; i < args.length; i++) {
+			var component = this.components[i];
+			var raw = source.apply(component.name());
+			var value = raw != null ? component.converter().convert(raw) : null;
+			
+			args[i] = value != null ? value : component.missing();
+		}
+		
+		return (ConfigSerializable) this.constructor.invokeExact(args);
+	}
+	
+	private static Object missing(ConfigDefault def, ValueConverter<?> converter, Class<?> type) {
+		var value = def != null ? converter.convert(def.value()) : null;
+		
+		if(value == null && type.isPrimitive())
+			return Array.get(Array.newInstance(type, 1), 0);
+		
+		return value;
+	}
+	
+	private static <T extends AccessibleObject> T accessible(T object) {
+		// records of plugins are often not public, but their module is open to us
+		object.trySetAccessible();
+		return object;
+	}
+	
+	/**
+	 * Converts a component to the value stored in a config.
+	 */
+	
+	private static Object write(Object value) {
+		return switch(value) {
+			case Enum<?> entry -> entry.name();
+			case Set<?> set -> new ArrayList<>(set);
+			default -> value;
+		};
+	}
+	
+	/**
+	 * A component of the record.
+	 *
+	 * @param name the key of the component
+	 * @param accessor the accessor of type {@code (Object)Object}
+	 * @param converter converts a config value to the type of the component
+	 * @param missing the value passed to the constructor if the value is missing or cannot be converted
+	 */
+	
+	private record Component(String name, MethodHandle accessor, ValueConverter<?> converter, Object missing) {
+		
+	}
+}
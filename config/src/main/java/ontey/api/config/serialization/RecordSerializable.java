@@ -0,0 +1,30 @@
+package ontey.api.config.serialization;
+
+import java.util.Map;
+
+/**
+ * A {@link ConfigSerializable} record that is serialized and deserialized by its components.
+ * <br>
+ * The components are stored under their names or {@link ontey.api.config.ConfigKey keys}, using {@link ConfigSerialization#serializeRecord(Record)}.
+ * Records may still declare their own {@code serialize} method or deserializer, those are used instead.
+ *
+ * @see ConfigSerializable
+ */
+
+public interface RecordSerializable extends ConfigSerializable {
+	
+	/**
+	 * Creates a Map representation of this record by its components.
+	 *
+	 * @return Map containing the non-null components of this record by their keys
+	 * @throws IllegalArgumentException if this is not a record or its components cannot be accessed
+	 */
+	
+	@Override
+	default Map<String, Object> serialize() {
+		if(this instanceof Record record)
+			return ConfigSerialization.serializeRecord(record);
+		
+		throw new IllegalArgumentException(this.getClass() + " is not a record");
+	}
+}
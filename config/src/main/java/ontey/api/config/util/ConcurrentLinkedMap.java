@@ -0,0 +1,100 @@
+package ontey.api.config.util;
+
+import lombok.NonNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread-safe map that keeps the insertion order of its keys, used by concurrent sections.
+ * <br>
+ * Lookups are lock-free reads of a {@link ConcurrentHashMap}. Modifications are synchronized on the map
+ * to keep the order of the keys consistent with the values.
+ * The views returned by {@link #entrySet()}, {@link #keySet()} and {@link #values()} are unmodifiable copies,
+ * so they can be iterated while the map is modified by other threads.
+ * <br>
+ * Null keys and values are not permitted.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+
+public final class ConcurrentLinkedMap<K, V> extends AbstractMap<K, V> {
+	
+	private final ConcurrentHashMap<K, V> values = new ConcurrentHashMap<>();
+	
+	/**
+	 * The keys in insertion order, guarded by this map.
+	 */
+	
+	private final LinkedHashSet<K> order = new LinkedHashSet<>();
+	
+	@Override
+	public V get(Object key) {
+		return this.values.get(key);
+	}
+	
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		var value = this.values.get(key);
+		return value != null ? value : defaultValue;
+	}
+	
+	@Override
+	public boolean containsKey(Object key) {
+		return this.values.containsKey(key);
+	}
+	
+	@Override
+	public int size() {
+		return this.values.size();
+	}
+	
+	@Override
+	public boolean isEmpty() {
+		return this.values.isEmpty();
+	}
+	
+	@Override
+	public synchronized V put(@NonNull K key, @NonNull V value) {
+		this.order.add(key);
+		return this.values.put(key, value);
+	}
+	
+	@Override
+	public synchronized V remove(Object key) {
+		this.order.remove(key);
+		return this.values.remove(key);
+	}
+	
+	@Override
+	public synchronized void clear() {
+		this.order.clear();
+		this.values.clear();
+	}
+	
+	@Override
+	public synchronized @NonNull Set<Entry<K, V>> entrySet() {
+		var entries = new LinkedHashSet<Entry<K, V>>(this.order.size() * 4 / 3 + 1);
+		
+		for(var key : this.order)
+			entries.add(Map.entry(key, this.values.get(key)));
+		
+		return Collections.unmodifiableSet(entries);
+	}
+	
+	@Override
+	public synchronized @NonNull Set<K> keySet() {
+		return Collections.unmodifiableSet(new LinkedHashSet<>(this.order));
+	}
+	
+	@Override
+	public synchronized @NonNull Collection<V> values() {
+		var values = new ArrayList<V>(this.order.size());
+		
+		for(var key : this.order)
+			values.add(this.values.get(key));
+		
+		return Collections.unmodifiableList(values);
+	}
+}
@@ -3,158 +3,488 @@ package ontey.api.config.util;
 import lombok.NonNull;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.Writer;
-import java.util.Optional;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- * Every line written to this writer will be enqueued on flush with a fixed capacity.
- * <br>Those lines can be awaited and consumed.</p>
- * <br>This is an asynchronous blocking implementation. Different threads can write and read on this writer.</p>
+ * Every line written to this writer can be awaited and consumed, empty lines are skipped.
+ * <br>{@link #dump()} dumps the source in the calling thread and the lines are pulled from the dumped characters
+ * by {@link #await()} afterwards, without any other thread involved. Every character is kept until the bus
+ * is dumped again.</p>
+ * <br>{@link #dump(LineConsumer)} also dumps the source in the calling thread, but writes the characters to a ring
+ * of reusable chunks, which are handed to the consumer once they are full. Lines never span two chunks, every chunk
+ * keeps the bounds of its lines. If the whole dump fits in the ring, the consumer pulls the lines in the calling
+ * thread afterwards. Otherwise it is started in a virtual thread once the ring is full, and the source waits for
+ * chunks to be consumed. This bounds the memory for very large dumps.</p>
+ * <br>There must be only one thread consuming the lines.</p>
  */
 
 public class DumperBus extends Writer {
 	
-	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+	private static final int CHUNK_SIZE = 8192;
 	
-	private final BlockingQueue<Optional<String>> lineQueue;
+	private static final int DEFAULT_CAPACITY = 16;
 	
 	private final Dumper source;
 	
-	private StringBuffer lineBuffer;
+	private final Chunk[] ring; // only the first chunk grows if dumping without a consumer
 	
-	public DumperBus(@NonNull Dumper source, int capacity) {
-		this.source = source;
-		this.lineQueue = new ArrayBlockingQueue<>(capacity, true);
+	private final Line line = new Line();
+	
+	private boolean streaming;
+	
+	private LineConsumer pending; // consumer not started yet
+	
+	private Chunk writing; // producer
+	
+	private int lineStart; // start of the current line in the written chunk
+	
+	private Chunk reading; // consumer
+	
+	private int readIndex; // next line of the read chunk
+	
+	private volatile long published, consumed; // chunks
+	
+	private volatile boolean closed, started, stopped; // consumer started in a virtual thread or stopped
+	
+	private volatile Exception failure;
+	
+	private volatile Thread producer, consumer; // parked threads
+	
+	private Thread worker; // virtual thread running the consumer
+	
+	/**
+	 * Create a bus holding at most 16 full chunks of characters that have not been consumed yet.
+	 *
+	 * @param source the source to dump
+	 */
+	
+	public DumperBus(@NonNull Dumper source) {
+		this(source, DEFAULT_CAPACITY);
 	}
 	
-	public DumperBus(Dumper source) {
-		this(source, 100);
+	/**
+	 * Create a bus with a capacity for {@link #dump(LineConsumer)}.
+	 *
+	 * @param source the source to dump
+	 * @param capacity the maximum amount of full chunks of characters that have not been consumed yet
+	 */
+	
+	public DumperBus(@NonNull Dumper source, int capacity) {
+		if(capacity < 1)
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		
+		this.source = source;
+		this.ring = new Chunk[capacity + 1]; // and the chunk being written
 	}
 	
 	/**
-	 * Dump source values into this writer in a background thread.
+	 * Dump source values into this writer in the calling thread, the lines can be awaited afterwards.
 	 *
 	 * @throws IOException if I/O error occurs
 	 */
 	
 	public void dump() throws IOException {
-		this.lineBuffer = new StringBuffer();
-		this.runThread(() -> {
-			try {
-				this.source.dump(this);
-			} finally {
-				this.close();
-			}
-		});
+		this.reset(null);
+		
+		try {
+			this.source.dump(this);
+		} finally {
+			this.close();
+		}
+	}
+	
+	/**
+	 * Dump source values into this writer in the calling thread while the consumer awaits the lines.
+	 * <br>The consumer runs in the calling thread once every line has been dumped if they all fit in the ring,
+	 * otherwise in a virtual thread as soon as the ring is full. It must consume every line.</p>
+	 *
+	 * @param consumer the consumer of the lines
+	 * @throws IOException if I/O error occurs, or the first failure of the source or the consumer
+	 */
+	
+	public void dump(@NonNull LineConsumer consumer) throws IOException {
+		this.reset(consumer);
+		
+		try {
+			this.source.dump(this);
+		} catch(IOException | RuntimeException e) {
+			this.fail(e);
+		} finally {
+			this.close();
+			this.join();
+		}
+		
+		final Exception failure = this.failure;
+		
+		if(failure instanceof IOException io)
+			throw io;
+		
+		if(failure instanceof RuntimeException runtime)
+			throw runtime;
+		
+		if(!this.started)
+			consumer.consume(this);
+	}
+	
+	private void reset(LineConsumer consumer) {
+		for(final Chunk chunk : this.ring)
+			if(chunk != null)
+				chunk.reset();
+		
+		this.streaming = consumer != null;
+		this.pending = consumer;
+		this.writing = this.chunk(0);
+		this.lineStart = 0;
+		this.reading = null;
+		this.readIndex = 0;
+		this.published = this.consumed = 0;
+		this.closed = this.started = this.stopped = false;
+		this.failure = null;
+		this.producer = this.consumer = this.worker = null;
+	}
+	
+	private Chunk chunk(long index) {
+		final int i = (int) (index % this.ring.length);
+		
+		if(this.ring[i] == null)
+			this.ring[i] = new Chunk();
+		
+		return this.ring[i];
+	}
+	
+	private synchronized void fail(Exception e) {
+		if(this.failure == null)
+			this.failure = e;
 	}
 	
 	/**
-	 * Append to line a portion of an array of characters.
-	 * <br>New lines are flushed.</p>
+	 * Append a portion of an array of characters to the current chunk, new lines end the current line.
 	 *
 	 * @param str Array of characters
 	 * @param offset Offset from which to start writing characters
 	 * @param len Number of characters to write
 	 * @throws IndexOutOfBoundsException if {@code offset < 0} or {@code len < 0}
 	 * or {@code offset+len > str.length}
-	 * @throws IOException if I/O error occurs
+	 * @throws IOException if interrupted while waiting for the consumer or the consumer stopped
 	 */
 	
 	@Override
-	@SuppressWarnings("SynchronizeOnNonFinalField")
 	public void write(char @NonNull [] str, int offset, int len) throws IOException {
-		synchronized(lock) {
-			// This only handles new lines at the end of the string to ensure good performance
-			int last = offset + len - 1;
-			if(last >= offset && last < str.length && str[last] == '\n') {
-				last--;
-				len--;
-				if(last >= offset && str[last] == '\r') {
-					len--;
-				}
-				if(len > 0) {
-					this.lineBuffer.append(str, offset, len);
-				}
-				this.flush();
-			} else {
-				this.lineBuffer.append(str, offset, len);
+		Objects.checkFromIndexSize(offset, len, str.length);
+		
+		final int end = offset + len;
+		int start = offset;
+		
+		for(int i = offset; i < end; i++) {
+			if(str[i] == '\n') {
+				this.append(str, start, i);
+				this.endLine();
+				start = i + 1;
 			}
 		}
+		
+		this.append(str, start, end);
+	}
+	
+	@Override
+	public void write(@NonNull String str, int offset, int len) throws IOException {
+		Objects.checkFromIndexSize(offset, len, str.length());
+		
+		final int end = offset + len;
+		int start = offset;
+		int newLine;
+		
+		while((newLine = str.indexOf('\n', start, end)) >= 0) {
+			this.append(str, start, newLine);
+			this.endLine();
+			start = newLine + 1;
+		}
+		
+		this.append(str, start, end);
+	}
+	
+	@Override
+	public void write(int c) throws IOException {
+		if(c == '\n') {
+			this.endLine();
+		} else {
+			this.reserve(1);
+			this.writing.chars[this.writing.length++] = (char) c;
+		}
+	}
+	
+	private void append(char[] str, int start, int end) throws IOException {
+		if(end > start) {
+			this.reserve(end - start);
+			System.arraycopy(str, start, this.writing.chars, this.writing.length, end - start);
+			this.writing.length += end - start;
+		}
+	}
+	
+	private void append(String str, int start, int end) throws IOException {
+		if(end > start) {
+			this.reserve(end - start);
+			str.getChars(start, end, this.writing.chars, this.writing.length);
+			this.writing.length += end - start;
+		}
 	}
 	
 	/**
-	 * Append the current characters to the queue as a new line and reset the current line buffer.
+	 * Make room for characters in the current chunk.
+	 * <br>If dumping for a consumer, the complete lines of a full chunk are handed to the consumer
+	 * and the current line continues in the next chunk.</p>
 	 *
-	 * @throws IOException if I/O error occurs
+	 * @param count the amount of characters to write
+	 * @throws IOException if interrupted while waiting for a free chunk or the consumer stopped
 	 */
 	
-	@Override
-	public void flush() throws IOException {
-		if(!this.lineBuffer.isEmpty()) {
-			this.append(this.lineBuffer.toString());
+	private void reserve(int count) throws IOException {
+		final Chunk chunk = this.writing;
+		
+		if(chunk.length + count <= chunk.chars.length)
+			return;
+		
+		if(!this.streaming || chunk.lines == 0) {
+			chunk.ensureCapacity(chunk.length + count);
+			return;
 		}
-		this.lineBuffer.setLength(0);
+		
+		final Chunk next = this.acquire(this.published + 1);
+		final int partial = chunk.length - this.lineStart;
+		
+		next.ensureCapacity(partial + count);
+		System.arraycopy(chunk.chars, this.lineStart, next.chars, 0, partial);
+		next.length = partial;
+		
+		this.publish();
+		this.writing = next;
+		this.lineStart = 0;
+	}
+	
+	private void endLine() {
+		final Chunk chunk = this.writing;
+		int end = chunk.length;
+		
+		if(end > this.lineStart && chunk.chars[end - 1] == '\r') {
+			end--;
+		}
+		if(end > this.lineStart) {
+			chunk.addLine(this.lineStart, end);
+		} else {
+			chunk.length = this.lineStart; // empty lines are skipped
+		}
+		
+		this.lineStart = chunk.length;
 	}
 	
 	/**
-	 * Add a line to the queue.
+	 * Wait until a chunk has been consumed and can be written again, starting the consumer once the ring is full.
 	 *
-	 * @param line a new line to add
-	 * @throws IOException if I/O error occurs
+	 * @param index the index of the chunk to write next
+	 * @return the empty chunk
+	 * @throws IOException if interrupted while waiting or the consumer stopped
 	 */
 	
-	private void append(String line) throws IOException {
+	private Chunk acquire(long index) throws IOException {
+		while(index - this.consumed >= this.ring.length) {
+			if(!this.started) {
+				this.start();
+			}
+			
+			this.producer = Thread.currentThread();
+			
+			if(this.stopped) {
+				throw new IOException("The consumer stopped before consuming every line");
+			}
+			if(index - this.consumed >= this.ring.length) {
+				LockSupport.park(this);
+			}
+			if(Thread.interrupted()) {
+				throw new InterruptedIOException("Interrupted while waiting for the consumer");
+			}
+		}
+		
+		final Chunk chunk = this.chunk(index);
+		chunk.reset();
+		return chunk;
+	}
+	
+	private void publish() {
+		this.published++;
+		
+		final Thread consumer = this.consumer;
+		if(consumer != null) {
+			LockSupport.unpark(consumer);
+		}
+	}
+	
+	/**
+	 * Start the consumer in a virtual thread.
+	 *
+	 * @throws IOException if the thread cannot be started
+	 */
+	
+	private void start() throws IOException {
+		final LineConsumer consumer = this.pending;
+		this.pending = null;
+		this.started = true;
+		
 		try {
-			this.lineQueue.put(Optional.ofNullable(line));
-		} catch(InterruptedException e) {
-			Thread.currentThread().interrupt();
-		} catch(Exception e) {
+			this.worker = Thread.ofVirtual().name("DumperBus").start(() -> {
+				try {
+					consumer.consume(this);
+				} catch(IOException | RuntimeException e) {
+					this.fail(e);
+				} finally {
+					this.stopped = true;
+					
+					final Thread producer = this.producer;
+					if(producer != null) {
+						LockSupport.unpark(producer);
+					}
+				}
+			});
+		} catch(RuntimeException e) {
 			throw new IOException(e);
 		}
 	}
 	
 	/**
-	 * Consume the queue, blocking and awaiting a new line if the queue is empty.
+	 * Wait for the consumer started in a virtual thread to consume every line.
+	 */
+	
+	private void join() {
+		final Thread worker = this.worker;
+		
+		if(worker == null)
+			return;
+		
+		boolean interrupted = false;
+		
+		while(true) {
+			try {
+				worker.join();
+				break;
+			} catch(InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		
+		if(interrupted)
+			Thread.currentThread().interrupt();
+	}
+	
+	/**
+	 * Lines are only handed to the consumer once a chunk is full or the source has been dumped.
+	 */
+	
+	@Override
+	public void flush() {
+	}
+	
+	/**
+	 * Consume the next line, blocking and awaiting a new line if the consumer runs in a virtual thread.
 	 *
-	 * @return the next line in the queue, may be null for the end of the file
-	 * @throws IOException if I/O error occurs
+	 * @return the next line, may be null for the end of the file or if nothing has been dumped
+	 * @throws IOException if I/O error occurs or dumping the source failed
 	 */
 	
 	public String await() throws IOException {
-		try {
-			if(this.lineQueue.isEmpty() && this.isClosed()) {
-				return null;
+		final Line line = this.awaitLine();
+		return line != null ? line.toString() : null;
+	}
+	
+	/**
+	 * Consume the next line without copying it, blocking and awaiting a new line if the consumer runs
+	 * in a virtual thread.
+	 * <br>The returned line is reused and only valid until the next line is awaited.</p>
+	 *
+	 * @return the next line, may be null for the end of the file or if nothing has been dumped
+	 * @throws IOException if I/O error occurs or dumping the source failed
+	 */
+	
+	public Line awaitLine() throws IOException {
+		while(true) {
+			final Chunk chunk = this.reading;
+			
+			if(chunk != null) {
+				if(this.readIndex < chunk.lines) {
+					final int i = this.readIndex++ << 1;
+					return this.line.set(chunk.chars, chunk.bounds[i], chunk.bounds[i + 1]);
+				}
+				
+				this.reading = null;
+				this.consumed++;
+				
+				final Thread producer = this.producer;
+				if(producer != null) {
+					LockSupport.unpark(producer);
+				}
 			}
-			return this.lineQueue.take().orElse(null);
-		} catch(InterruptedException e) {
-			return null;
-		} catch(Exception e) {
-			throw new IOException(e);
+			
+			final long next = this.consumed;
+			
+			if(next < this.published) {
+				this.reading = this.ring[(int) (next % this.ring.length)];
+				this.readIndex = 0;
+				continue;
+			}
+			if(this.isClosed()) {
+				if(next < this.published) {
+					continue;
+				}
+				return this.end();
+			}
+			if(!this.started) {
+				return null; // not dumped
+			}
+			
+			this.consumer = Thread.currentThread();
+			
+			if(next == this.published && !this.isClosed()) {
+				LockSupport.park(this);
+			}
+			if(Thread.interrupted()) {
+				throw new InterruptedIOException("Interrupted while waiting for the source");
+			}
+		}
+	}
+	
+	private Line end() throws IOException {
+		final Exception failure = this.failure;
+		
+		if(failure != null) {
+			throw failure instanceof IOException io ? io : new IOException(failure);
 		}
+		return null;
 	}
 	
 	/**
-	 * Called after dumping all the values.
-	 *
-	 * @throws IOException if I/O error occurs
+	 * Called after dumping all the values, hands the last chunk to the consumer.
 	 */
 	
 	@Override
-	public void close() throws IOException {
-		if(!this.isClosed()) {
-			this.flush();
-			this.lineBuffer = null;
-			this.append(null);
+	public void close() {
+		if(!this.isClosed() && this.writing != null) {
+			if(this.writing.length > this.lineStart) {
+				this.endLine();
+			}
+			this.publish();
+			this.closed = true;
+			
+			final Thread consumer = this.consumer;
+			if(consumer != null) {
+				LockSupport.unpark(consumer);
+			}
 		}
-		this.executor.shutdown();
 	}
 	
 	protected boolean isClosed() {
-		return this.lineBuffer == null;
+		return this.closed;
 	}
 	
 	/**
@@ -168,40 +498,108 @@ public class DumperBus extends Writer {
 	}
 	
 	/**
-	 * Start a new thread executing a task.
-	 *
-	 * @param task the task to run
-	 * @throws IOException if I/O error occurs
+	 * Source for dumping values to this writer.
 	 */
 	
-	protected void runThread(Task task) throws IOException {
-		try {
-			this.executor.submit(() -> {
-				task.run();
-				return null;
-			});
-		} catch(Exception e) {
-			throw new IOException(e);
-		}
+	@FunctionalInterface
+	public interface Dumper {
+		
+		void dump(Writer writer) throws IOException;
 	}
 	
 	/**
-	 * Source for dumping values to this writer.
+	 * Consumer awaiting the lines of a bus while it is dumped.
 	 */
 	
 	@FunctionalInterface
-	public interface Dumper {
+	public interface LineConsumer {
 		
-		void dump(Writer writer) throws IOException;
+		void consume(DumperBus bus) throws IOException;
 	}
 	
 	/**
-	 * A runnable task that may throw an exception.
+	 * Characters of complete lines and the current line, with the start and end of every complete line.
 	 */
 	
-	@FunctionalInterface
-	protected interface Task {
+	private static final class Chunk {
+		
+		private char[] chars = new char[CHUNK_SIZE];
 		
-		void run() throws Exception;
+		private int length;
+		
+		private int[] bounds = new int[128]; // start and end of every line
+		
+		private int lines;
+		
+		private void reset() {
+			this.length = 0;
+			this.lines = 0;
+		}
+		
+		private void ensureCapacity(int capacity) {
+			if(capacity > this.chars.length) {
+				this.chars = Arrays.copyOf(this.chars, Math.max(capacity, this.chars.length << 1));
+			}
+		}
+		
+		private void addLine(int start, int end) {
+			if(this.lines << 1 == this.bounds.length) {
+				this.bounds = Arrays.copyOf(this.bounds, this.bounds.length << 1);
+			}
+			this.bounds[this.lines << 1] = start;
+			this.bounds[(this.lines << 1) + 1] = end;
+			this.lines++;
+		}
+	}
+	
+	/**
+	 * A line of a chunk, reused for every line.
+	 */
+	
+	public static final class Line implements CharSequence {
+		
+		private char[] chars;
+		
+		private int start, end;
+		
+		private Line set(char[] chars, int start, int end) {
+			this.chars = chars;
+			this.start = start;
+			this.end = end;
+			return this;
+		}
+		
+		/**
+		 * Write the characters of this line without copying them.
+		 *
+		 * @param writer the writer
+		 * @throws IOException if I/O error occurs
+		 */
+		
+		public void writeTo(@NonNull Writer writer) throws IOException {
+			writer.write(this.chars, this.start, this.length());
+		}
+		
+		@Override
+		public int length() {
+			return this.end - this.start;
+		}
+		
+		@Override
+		public char charAt(int index) {
+			Objects.checkIndex(index, this.length());
+			return this.chars[this.start + index];
+		}
+		
+		@Override
+		public @NonNull CharSequence subSequence(int start, int end) {
+			Objects.checkFromToIndex(start, end, this.length());
+			return new String(this.chars, this.start + start, end - start);
+		}
+		
+		@Override
+		public @NonNull String toString() {
+			return new String(this.chars, this.start, this.length());
+		}
 	}
 }
@@ -0,0 +1,70 @@
+package ontey.api.config.util;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Looks up enum entries by the names they are written with in configs, without throwing exceptions.
+ */
+
+public final class EnumUtils {
+	
+	/**
+	 * Maps the names of the entries of each enum to the entries.
+	 */
+	
+	private static final ClassValue<Map<String, Enum<?>>> entries = new ClassValue<>() {
+		@Override
+		protected Map<String, Enum<?>> computeValue(@NonNull Class<?> type) {
+			var result = new HashMap<String, Enum<?>>();
+			
+			for(var entry : type.getEnumConstants())
+				result.put(((Enum<?>) entry).name(), (Enum<?>) entry);
+			
+			return result;
+		}
+	};
+	
+	/**
+	 * Gets an entry of an enum by its name.
+	 * Replaces dashes and spaces with underscores and replaces all lowercase letters with uppercase letters.
+	 *
+	 * @param clazz the enum class
+	 * @param name the name as written in a config, for example {@code light-blue} for {@code LIGHT_BLUE}
+	 * @return the entry, or null if the enum has no entry with that name
+	 */
+	
+	@SuppressWarnings("unchecked")
+	@Contract(pure = true)
+	public static <E extends Enum<E>> @Nullable E getEntry(@NonNull Class<E> clazz, @NonNull String name) {
+		return (E) getEntryUnchecked(clazz, name);
+	}
+	
+	/**
+	 * Gets an entry of an enum by its name, for enum classes that are not known at compile time.
+	 *
+	 * @param clazz the enum class
+	 * @param name the name as written in a config
+	 * @return the entry, or null if the enum has no entry with that name
+	 * @throws IllegalArgumentException if the class is not an enum
+	 * @see #getEntry(Class, String)
+	 */
+	
+	@Contract(pure = true)
+	public static @Nullable Enum<?> getEntryUnchecked(@NonNull Class<?> clazz, @NonNull String name) {
+		if(!clazz.isEnum())
+			throw new IllegalArgumentException(clazz + " is not an enum");
+		
+		var normalized = name
+		  .replace('-', '_')
+		  .replace(' ', '_')
+		  .toUpperCase(Locale.ENGLISH);
+		
+		return entries.get(clazz).get(normalized);
+	}
+}
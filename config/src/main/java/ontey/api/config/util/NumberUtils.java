@@ -0,0 +1,332 @@
+package ontey.api.config.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigInteger;
+
+/**
+ * Classifies and parses numbers in strings without throwing and catching {@link NumberFormatException}s.
+ * <br>
+ * Every check accepts exactly the strings the corresponding parse method of the JDK accepts,
+ * so a string can be checked first and then parsed without a try/catch.
+ */
+
+public final class NumberUtils {
+	
+	/**
+	 * Checks if a string can be parsed by {@link BigInteger#BigInteger(String)}.
+	 * That is an optional sign followed by at least one digit.
+	 * <br>
+	 * This is also the format of {@link Integer#parseInt(String)} and {@link Long#parseLong(String)},
+	 * which additionally require the number to be in their range.
+	 *
+	 * @param s the string to check
+	 * @return true if the string is an integer
+	 */
+	
+	@Contract(value = "null -> false", pure = true)
+	public static boolean isInteger(@Nullable String s) {
+		if(s == null)
+			return false;
+		
+		var len = s.length();
+		var i = skipSign(s, 0);
+		
+		if(i == len)
+			return false;
+		
+		for(; i < len; i++)
+			if(Character.digit(s.charAt(i), 10) < 0)
+				return false;
+		
+		return true;
+	}
+	
+	/**
+	 * Checks if a string can be parsed by {@link java.math.BigDecimal#BigDecimal(String)}.
+	 * That is an optional sign, digits with an optional decimal point and an optional exponent.
+	 *
+	 * @param s the string to check
+	 * @return true if the string is a decimal number
+	 */
+	
+	@Contract(value = "null -> false", pure = true)
+	public static boolean isDecimal(@Nullable String s) {
+		if(s == null)
+			return false;
+		
+		var len = s.length();
+		var i = skipSign(s, 0);
+		var digits = 0;
+		
+		for(; i < len && Character.isDigit(s.charAt(i)); i++)
+			digits++;
+		
+		if(i < len && s.charAt(i) == '.')
+			for(i++; i < len && Character.isDigit(s.charAt(i)); i++)
+				digits++;
+		
+		if(digits == 0)
+			return false;
+		
+		if(i < len && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+			i = skipSign(s, i + 1);
+			
+			var exponentStart = i;
+			
+			for(; i < len && Character.isDigit(s.charAt(i)); i++)
+				;
+			
+			if(i == exponentStart || i - exponentStart > 10)
+				return false;
+		}
+		
+		return i == len;
+	}
+	
+	/**
+	 * Checks if a string can be parsed by {@link Double#parseDouble(String)} and {@link Float#parseFloat(String)}.
+	 * <br>
+	 * Besides decimal numbers this accepts leading and trailing whitespace, {@code NaN}, {@code Infinity},
+	 * hexadecimal floating point literals and the type suffixes {@code f}, {@code F}, {@code d} and {@code D}.
+	 *
+	 * @param s the string to check
+	 * @return true if the string is a floating point number
+	 */
+	
+	@Contract(value = "null -> false", pure = true)
+	public static boolean isFloatingPoint(@Nullable String s) {
+		if(s == null)
+			return false;
+		
+		var end = s.length();
+		var i = 0;
+		
+		// Double.parseDouble trims the string
+		while(i < end && s.charAt(i) <= ' ')
+			i++;
+		
+		while(end > i && s.charAt(end - 1) <= ' ')
+			end--;
+		
+		i = skipSign(s, i);
+		
+		if(s.startsWith("NaN", i))
+			return i + 3 == end;
+		
+		if(s.startsWith("Infinity", i))
+			return i + 8 == end;
+		
+		if(end > i && isTypeSuffix(s.charAt(end - 1)))
+			end--;
+		
+		if(i + 1 < end && s.charAt(i) == '0' && (s.charAt(i + 1) == 'x' || s.charAt(i + 1) == 'X'))
+			return isHexFloatingPoint(s, i + 2, end);
+		
+		var digits = 0;
+		
+		for(; i < end && isAsciiDigit(s.charAt(i)); i++)
+			digits++;
+		
+		if(i < end && s.charAt(i) == '.')
+			for(i++; i < end && isAsciiDigit(s.charAt(i)); i++)
+				digits++;
+		
+		if(digits == 0)
+			return false;
+		
+		if(i < end && (s.charAt(i) == 'e' || s.charAt(i) == 'E'))
+			return isExponent(s, i + 1, end);
+		
+		return i == end;
+	}
+	
+	private static boolean isHexFloatingPoint(String s, int i, int end) {
+		var digits = 0;
+		
+		for(; i < end && Character.digit(s.charAt(i), 16) >= 0 && s.charAt(i) < 128; i++)
+			digits++;
+		
+		if(i < end && s.charAt(i) == '.')
+			for(i++; i < end && Character.digit(s.charAt(i), 16) >= 0 && s.charAt(i) < 128; i++)
+				digits++;
+		
+		// the binary exponent is required for hexadecimal literals
+		return digits > 0 && i < end && (s.charAt(i) == 'p' || s.charAt(i) == 'P') && isExponent(s, i + 1, end);
+	}
+	
+	private static boolean isExponent(String s, int i, int end) {
+		i = skipSign(s, i);
+		
+		if(i == end)
+			return false;
+		
+		for(; i < end; i++)
+			if(!isAsciiDigit(s.charAt(i)))
+				return false;
+		
+		return true;
+	}
+	
+	/**
+	 * Parses an integer into the smallest type that can hold it, which is one of
+	 * {@link Byte}, {@link Short}, {@link Integer}, {@link Long} or {@link BigInteger}.
+	 *
+	 * @param s the string to parse
+	 * @return the number, or null if the string is not an {@link #isInteger(String) integer}
+	 */
+	
+	@Contract(value = "null -> null", pure = true)
+	public static @Nullable Number parseInteger(@Nullable String s) {
+		if(!isInteger(s))
+			return null;
+		
+		var len = s.length();
+		var negative = s.charAt(0) == '-';
+		var i = skipSign(s, 0);
+		
+		// accumulate negatively like Long.parseLong to cover Long.MIN_VALUE
+		var result = 0L;
+		
+		for(; i < len; i++) {
+			var digit = Character.digit(s.charAt(i), 10);
+			
+			if(result < (Long.MIN_VALUE + digit) / 10)
+				return new BigInteger(s);
+			
+			result = result * 10 - digit;
+		}
+		
+		if(!negative) {
+			if(result == Long.MIN_VALUE)
+				return new BigInteger(s);
+			
+			result = -result;
+		}
+		
+		return smallest(result);
+	}
+	
+	/**
+	 * Parses a long like {@link Long#parseLong(String)}.
+	 *
+	 * @param s the string to parse
+	 * @return the long, or null if the string is not an integer or out of range
+	 */
+	
+	@Contract(value = "null -> null", pure = true)
+	public static @Nullable Long parseLong(@Nullable String s) {
+		return parseInteger(s) instanceof Number number && !(number instanceof BigInteger) ? number.longValue() : null;
+	}
+	
+	/**
+	 * Parses an int like {@link Integer#parseInt(String)}.
+	 *
+	 * @param s the string to parse
+	 * @return the int, or null if the string is not an integer or out of range
+	 */
+	
+	@Contract(value = "null -> null", pure = true)
+	public static @Nullable Integer parseInt(@Nullable String s) {
+		return parseInteger(s) instanceof Number number && !(number instanceof Long) && !(number instanceof BigInteger) ? number.intValue() : null;
+	}
+	
+	/**
+	 * Parses a short like {@link Short#parseShort(String)}.
+	 *
+	 * @param s the string to parse
+	 * @return the short, or null if the string is not an integer or out of range
+	 */
+	
+	@Contract(value = "null -> null", pure = true)
+	public static @Nullable Short parseShort(@Nullable String s) {
+		return switch(parseInteger(s)) {
+			case Byte b -> b.shortValue();
+			case Short sh -> sh;
+			case null, default -> null;
+		};
+	}
+	
+	/**
+	 * Parses a byte like {@link Byte#parseByte(String)}.
+	 *
+	 * @param s the string to parse
+	 * @return the byte, or null if the string is not an integer or out of range
+	 */
+	
+	@Contract(value = "null -> null", pure = true)
+	public static @Nullable Byte parseByte(@Nullable String s) {
+		return parseInteger(s) instanceof Byte b ? b : null;
+	}
+	
+	/**
+	 * Parses a double like {@link Double#parseDouble(String)}.
+	 *
+	 * @param s the string to parse
+	 * @return the double, or null if the string is not a {@link #isFloatingPoint(String) floating point number}
+	 */
+	
+	@Contract(value = "null -> null", pure = true)
+	public static @Nullable Double parseDouble(@Nullable String s) {
+		return isFloatingPoint(s) ? Double.parseDouble(s) : null;
+	}
+	
+	/**
+	 * Parses a float like {@link Float#parseFloat(String)}.
+	 *
+	 * @param s the string to parse
+	 * @return the float, or null if the string is not a {@link #isFloatingPoint(String) floating point number}
+	 */
+	
+	@Contract(value = "null -> null", pure = true)
+	public static @Nullable Float parseFloat(@Nullable String s) {
+		return isFloatingPoint(s) ? Float.parseFloat(s) : null;
+	}
+	
+	/**
+	 * Parses a number into the smallest type that can hold it.
+	 * <br>
+	 * Strings containing a {@code '.'} are parsed as a {@link Float}, all others are parsed like
+	 * {@link #parseInteger(String)}.
+	 *
+	 * @param s the string to parse
+	 * @return the number, or null if the string is not a number
+	 */
+	
+	@Contract(value = "null -> null", pure = true)
+	public static @Nullable Number parseNumber(@Nullable String s) {
+		if(s == null)
+			return null;
+		
+		if(s.indexOf('.') >= 0)
+			return parseFloat(s);
+		
+		return parseInteger(s);
+	}
+	
+	private static Number smallest(long value) {
+		if(value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE)
+			return (byte) value;
+		
+		if(value >= Short.MIN_VALUE && value <= Short.MAX_VALUE)
+			return (short) value;
+		
+		if(value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE)
+			return (int) value;
+		
+		return value;
+	}
+	
+	private static int skipSign(String s, int i) {
+		return i < s.length() && (s.charAt(i) == '-' || s.charAt(i) == '+') ? i + 1 : i;
+	}
+	
+	private static boolean isTypeSuffix(char c) {
+		return c == 'f' || c == 'F' || c == 'd' || c == 'D';
+	}
+	
+	private static boolean isAsciiDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+}
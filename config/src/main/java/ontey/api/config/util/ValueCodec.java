@@ -0,0 +1,299 @@
+package ontey.api.config.util;
+
+import ontey.api.config.ConfigSection;
+import ontey.api.config.MemorySection;
+import ontey.api.config.serialization.ConfigSerializable;
+import ontey.api.config.serialization.ConfigSerialization;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Writes the values of a configuration in a binary form, each value preceded by its type, and reads them back.
+ * <br>
+ * Strings, every boxed primitive, big integers, lists, sets, maps, sections, serializable objects, byte arrays and
+ * dates are supported. Sections are read back as maps. The type {@link #EXTENSION} is never written by the codec,
+ * formats use it for their own values by overriding {@link #writeOther(DataOutput, Object)} and
+ * {@link #readOther(DataInput, byte)}.
+ */
+
+public class ValueCodec {
+	
+	public static final byte NULL = 0, STRING = 1, INT = 2, LONG = 3, DOUBLE = 4, TRUE = 5, FALSE = 6, BIG_INTEGER = 7,
+	  LIST = 8, SET = 9, MAP = 10, SERIALIZABLE = 11, BYTES = 12, DATE = 13, EXTENSION = 14, FLOAT = 15, SHORT = 16,
+	  BYTE = 17, CHARACTER = 18;
+	
+	/**
+	 * Writes a value with its type.
+	 *
+	 * @param out the output
+	 * @param value the value
+	 * @throws NotSerializableException if the type of the value is not supported
+	 * @throws IOException if the value cannot be written
+	 */
+	
+	public void write(DataOutput out, Object value) throws IOException {
+		switch(value) {
+			case null -> out.writeByte(NULL);
+			case String string -> {
+				out.writeByte(STRING);
+				writeString(out, string);
+			}
+			case Integer number -> {
+				out.writeByte(INT);
+				out.writeInt(number);
+			}
+			case Long number -> {
+				out.writeByte(LONG);
+				out.writeLong(number);
+			}
+			case Double number -> {
+				out.writeByte(DOUBLE);
+				out.writeDouble(number);
+			}
+			case Float number -> {
+				out.writeByte(FLOAT);
+				out.writeFloat(number);
+			}
+			case Short number -> {
+				out.writeByte(SHORT);
+				out.writeShort(number);
+			}
+			case Byte number -> {
+				out.writeByte(BYTE);
+				out.writeByte(number);
+			}
+			case Character character -> {
+				out.writeByte(CHARACTER);
+				out.writeChar(character);
+			}
+			case Boolean bool -> out.writeByte(bool ? TRUE : FALSE);
+			case BigInteger number -> {
+				out.writeByte(BIG_INTEGER);
+				writeString(out, number.toString());
+			}
+			case MemorySection section -> this.writeMap(out, section.getStoredValues());
+			case ConfigSection section -> this.writeMap(out, section.getValues(false));
+			case Map<?, ?> map -> this.writeMap(out, map);
+			case List<?> list -> {
+				out.writeByte(LIST);
+				this.writeElements(out, list);
+			}
+			case Set<?> set -> {
+				out.writeByte(SET);
+				this.writeElements(out, set);
+			}
+			case ConfigSerializable serializable -> {
+				out.writeByte(SERIALIZABLE);
+				writeString(out, ConfigSerialization.getAlias(serializable.getClass()));
+				this.writeMap(out, serializable.serialize());
+			}
+			case byte[] array -> {
+				out.writeByte(BYTES);
+				out.writeInt(array.length);
+				out.write(array);
+			}
+			case Date date when date.getClass() == Date.class -> {
+				out.writeByte(DATE);
+				out.writeLong(date.getTime());
+			}
+			default -> this.writeOther(out, value);
+		}
+	}
+	
+	/**
+	 * Writes a value of a type the codec does not support, with its type.
+	 *
+	 * @param out the output
+	 * @param value the value
+	 * @throws NotSerializableException unless overridden
+	 * @throws IOException if the value cannot be written
+	 */
+	
+	protected void writeOther(DataOutput out, Object value) throws IOException {
+		throw new NotSerializableException(value.getClass().getName());
+	}
+	
+	/**
+	 * Gets the value to write for a value of a map or an element of a collection.
+	 *
+	 * @param value the stored value
+	 * @return the value to write, the same value by default
+	 */
+	
+	protected Object unwrap(Object value) {
+		return value;
+	}
+	
+	private void writeMap(DataOutput out, Map<?, ?> map) throws IOException {
+		out.writeByte(MAP);
+		out.writeInt(map.size());
+		
+		for(var entry : map.entrySet()) {
+			this.write(out, entry.getKey());
+			this.write(out, this.unwrap(entry.getValue()));
+		}
+	}
+	
+	private void writeElements(DataOutput out, Collection<?> elements) throws IOException {
+		out.writeInt(elements.size());
+		
+		for(var element : elements)
+			this.write(out, this.unwrap(element));
+	}
+	
+	/**
+	 * Reads a value written by {@link #write(DataOutput, Object)}.
+	 *
+	 * @param in the input
+	 * @return the value
+	 * @throws StreamCorruptedException if the type of the value is unknown
+	 * @throws IOException if the value cannot be read
+	 */
+	
+	public Object read(DataInput in) throws IOException {
+		var type = in.readByte();
+		
+		return switch(type) {
+			case NULL -> null;
+			case STRING -> readString(in);
+			case INT -> in.readInt();
+			case LONG -> in.readLong();
+			case DOUBLE -> in.readDouble();
+			case FLOAT -> in.readFloat();
+			case SHORT -> in.readShort();
+			case BYTE -> in.readByte();
+			case CHARACTER -> in.readChar();
+			case TRUE -> true;
+			case FALSE -> false;
+			case BIG_INTEGER -> new BigInteger(readString(in));
+			case LIST -> this.collected(this.readElements(in, new ArrayList<>()));
+			case SET -> this.collected(this.readElements(in, new LinkedHashSet<>()));
+			case MAP -> this.collected(this.readMap(in, new LinkedHashMap<>()));
+			case SERIALIZABLE -> {
+				var args = new LinkedHashMap<Object, Object>();
+				args.put(ConfigSerialization.SERIALIZED_TYPE_KEY, readString(in));
+				
+				if(in.readByte() != MAP)
+					throw new StreamCorruptedException("Expected the values of a serializable");
+				
+				@SuppressWarnings("unchecked")
+				var map = (Map<String, ?>) (Map<?, ?>) this.readMap(in, args);
+				yield ConfigSerialization.deserializeObject(map);
+			}
+			case BYTES -> {
+				var array = new byte[in.readInt()];
+				in.readFully(array);
+				yield array;
+			}
+			case DATE -> new Date(in.readLong());
+			default -> this.readOther(in, type);
+		};
+	}
+	
+	/**
+	 * Reads a value of a type the codec does not support, written by {@link #writeOther(DataOutput, Object)}.
+	 *
+	 * @param in the input
+	 * @param type the type of the value, which has been read
+	 * @return the value
+	 * @throws StreamCorruptedException unless overridden
+	 * @throws IOException if the value cannot be read
+	 */
+	
+	protected Object readOther(DataInput in, byte type) throws IOException {
+		throw new StreamCorruptedException("Unknown value type " + type);
+	}
+	
+	/**
+	 * Gets the value to return for a list, set or map that has been read.
+	 *
+	 * @param collection the modifiable list, set or map
+	 * @return the value to return, the same collection by default
+	 */
+	
+	protected Object collected(Object collection) {
+		return collection;
+	}
+	
+	private Map<Object, Object> readMap(DataInput in, Map<Object, Object> map) throws IOException {
+		var size = in.readInt();
+		
+		for(var i = 0; i < size; i++) {
+			var key = this.read(in);
+			map.put(key, this.read(in));
+		}
+		
+		return map;
+	}
+	
+	private <C extends Collection<Object>> C readElements(DataInput in, C elements) throws IOException {
+		var size = in.readInt();
+		
+		for(var i = 0; i < size; i++)
+			elements.add(this.read(in));
+		
+		return elements;
+	}
+	
+	/**
+	 * Writes a string as its length followed by its UTF-8 bytes.
+	 *
+	 * @param out the output
+	 * @param value the string
+	 * @throws IOException if the string cannot be written
+	 */
+	
+	public static void writeString(DataOutput out, String value) throws IOException {
+		var bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+	
+	/**
+	 * Reads a string written by {@link #writeString(DataOutput, String)}.
+	 *
+	 * @param in the input
+	 * @return the string
+	 * @throws IOException if the string cannot be read
+	 */
+	
+	public static String readString(DataInput in) throws IOException {
+		var bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Reads the remaining bytes of a buffer, without copying them.
+	 *
+	 * @param buffer the buffer, whose position is advanced by what is read
+	 * @return an input reading from the buffer
+	 */
+	
+	public static DataInput input(ByteBuffer buffer) {
+		return new DataInputStream(new InputStream() {
+			
+			@Override
+			public int read() {
+				return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+			}
+			
+			@Override
+			public int read(byte[] bytes, int offset, int length) {
+				if(length == 0)
+					return 0;
+				
+				if(!buffer.hasRemaining())
+					return -1;
+				
+				length = Math.min(length, buffer.remaining());
+				buffer.get(bytes, offset, length);
+				return length;
+			}
+		});
+	}
+}
@@ -31,29 +31,46 @@ public class YamlCommentDumper extends YamlCommentReader {
 	/**
 	 * Merge comments from the comment mapper with lines from the source.
 	 * <br>The result is written to the writer.</p>
+	 * <br>The source is dumped in the calling thread. Large dumps are merged from a virtual thread while they are
+	 * dumped, so only a bounded amount of lines is held in memory.</p>
 	 *
 	 * @throws IOException if any problem arise while reading or writing
 	 */
 	
 	public void dump() throws IOException {
-		this.bus.dump();
-		
-		while(this.nextLine()) {
-			this.processLine();
-			this.writer.newLine();
-		}
-		
-		// Append end of file (footer) comment (null path), if found
-		this.clearSection();
-		this.commentNode = this.getNode(null);
-		this.appendBlockComment();
+		this.bus.dump(bus -> {
+			while(this.nextLine()) {
+				this.processLine();
+				this.writer.newLine();
+			}
+			
+			// Append end of file (footer) comment (null path), if found
+			this.clearSection();
+			this.commentNode = this.getNode(null);
+			this.appendBlockComment();
+		});
 		
 		this.close();
 	}
 	
 	@Override
-	protected String readLine() throws IOException {
-		return this.bus.await();
+	protected CharSequence readLine() throws IOException {
+		return this.bus.awaitLine();
+	}
+	
+	/**
+	 * Write the current line, without copying the characters of a line of the bus.
+	 *
+	 * @param writer the writer
+	 * @throws IOException if I/O error occurs
+	 */
+	
+	protected void writeLine(Writer writer) throws IOException {
+		if(this.currentLine instanceof DumperBus.Line line) {
+			line.writeTo(writer);
+		} else {
+			writer.append(this.currentLine);
+		}
 	}
 	
 	@Override
@@ -61,7 +78,7 @@ public class YamlCommentDumper extends YamlCommentReader {
 		this.clearSection();
 		this.getCommentNode(this.track());
 		this.appendBlockComment();
-		this.writer.write(this.currentLine);
+		this.writeLine(this.writer);
 		this.appendSideComment();
 	}
 	
@@ -179,11 +196,11 @@ public class YamlCommentDumper extends YamlCommentReader {
 		// Read multiline block literal
 		if(sideCommentParts.length > 1 && this.nextLine()) {
 			this.writer.newLine();
-			this.writer.write(this.currentLine);
+			this.writeLine(this.writer);
 			
 			while(this.nextLine() && this.isLiteral) { // is still literal after reading next line
 				this.writer.newLine();
-				this.writer.write(this.currentLine);
+				this.writeLine(this.writer);
 			}
 			
 			// Append side comment below
@@ -237,12 +254,12 @@ public class YamlCommentDumper extends YamlCommentReader {
 			writer = this.writer;
 		}
 		if(this.isLiteral && this.quoteNotation != ReadingQuoteStyle.LITERAL) {
-			writer.write(this.currentLine); // ? | # comment
+			this.writeLine(writer); // ? | # comment
 		} else {
 			writer.write(System.lineSeparator());
 			
 			if(inQuoteBlock) {
-				writer.write(this.currentLine);
+				this.writeLine(writer);
 			}
 		}
 	}
@@ -83,7 +83,7 @@ public class YamlCommentParser extends YamlCommentReader {
 	protected void appendCommentLine() {
 		this.trackSideCommentBelow();
 		if(this.isExplicit()) {
-			this.explicitNotation.addComment(this.currentLine);
+			this.explicitNotation.addComment(this.currentLine.toString());
 		} else {
 			if(this.blockComment == null) {
 				this.blockComment = new StringBuilder(this.currentLine);
@@ -151,7 +151,7 @@ public class YamlCommentParser extends YamlCommentReader {
 				this.readValue();
 				
 				if(this.isComment() && this.isExplicit()) { // ensure it is still explicit, because reading multiline value it can be finished
-					final String comment = this.currentLine.substring(this.position);
+					final String comment = this.restOfLine();
 					if(node == null || node == this.explicitNotation.getNode()) {
 						this.explicitNotation.addComment(comment);
 					} else {
@@ -165,7 +165,7 @@ public class YamlCommentParser extends YamlCommentReader {
 			this.readValue();
 			
 			if(this.isComment()) {
-				this.setSideComment(node, this.currentLine.substring(this.position));
+				this.setSideComment(node, this.restOfLine());
 			}
 		}
 	}
@@ -206,7 +206,7 @@ public class YamlCommentParser extends YamlCommentReader {
 	@Override
 	protected void processMultiline(boolean inQuoteBlock) {
 		if(this.isExplicit() && this.isComment()) {
-			this.explicitNotation.addComment(this.currentLine.substring(this.position));
+			this.explicitNotation.addComment(this.restOfLine());
 		}
 	}
 	
@@ -11,9 +11,9 @@ import java.io.IOException;
 
 public abstract class YamlCommentReader extends YamlCommentMapper implements Closeable {
 	
-	protected String currentLine;
+	protected CharSequence currentLine;
 	
-	protected String trim;
+	protected int trimStart, trimEnd; // bounds of the current line without its indent and surrounding spaces
 	
 	protected int indent;
 	
@@ -49,7 +49,7 @@ public abstract class YamlCommentReader extends YamlCommentMapper implements Clo
 		return c == ' ' || c == '\t';
 	}
 	
-	protected abstract String readLine() throws IOException;
+	protected abstract CharSequence readLine() throws IOException;
 	
 	protected synchronized boolean nextLine() throws IOException {
 		this.currentLine = this.readLine();
@@ -60,18 +60,31 @@ public abstract class YamlCommentReader extends YamlCommentMapper implements Clo
 			this.stage = ReaderStage.NEW_LINE;
 			boolean literal = this.isLiteral;
 			int indent = this.readIndent();
-			this.trim = this.currentLine.substring(indent).trim();
+			this.trim(indent);
 			this.checkSpecialLines(literal, indent);
 			return true;
 		} else {
 			this.indent = 0;
-			this.trim = null;
+			this.trimStart = this.trimEnd = 0;
 			this.stage = ReaderStage.END_OF_FILE;
 			this.endExplicitNotation();
 			return false;
 		}
 	}
 	
+	protected void trim(int indent) {
+		int start = indent, end = this.currentLine.length();
+		
+		while(start < end && this.currentLine.charAt(start) <= ' ')
+			start++;
+		
+		while(end > start && this.currentLine.charAt(end - 1) <= ' ')
+			end--;
+		
+		this.trimStart = start;
+		this.trimEnd = end;
+	}
+	
 	protected boolean nextChar() {
 		if(this.hasNext()) {
 			this.position++;
@@ -82,6 +95,10 @@ public abstract class YamlCommentReader extends YamlCommentMapper implements Clo
 		return false;
 	}
 	
+	protected String restOfLine() {
+		return this.currentLine.subSequence(this.position, this.currentLine.length()).toString();
+	}
+	
 	protected boolean hasChar() {
 		return this.stage != ReaderStage.END_OF_LINE && this.stage != ReaderStage.END_OF_FILE;
 	}
@@ -95,7 +112,7 @@ public abstract class YamlCommentReader extends YamlCommentMapper implements Clo
 	}
 	
 	protected boolean isBlank() {
-		return this.trim.isEmpty();
+		return this.trimStart == this.trimEnd;
 	}
 	
 	protected boolean isComment() {
@@ -169,7 +186,7 @@ public abstract class YamlCommentReader extends YamlCommentMapper implements Clo
 			this.endExplicitNotation();
 			this.explicitNotation = new ReadingExplicitStyle(indent);
 		} else if(this.isExplicit() && !this.isBlank() && indent <= this.explicitNotation.getIndentation()
-		  && this.trim.charAt(0) != ReadingExplicitStyle.VALUE) {
+		  && this.currentLine.charAt(this.trimStart) != ReadingExplicitStyle.VALUE) {
 			this.endExplicitNotation();
 		}
 		if(this.currentList != null) {
@@ -352,7 +369,7 @@ public abstract class YamlCommentReader extends YamlCommentMapper implements Clo
 			boolean explicitLiteral = this.isLiteral && this.isExplicit();
 			
 			if(this.quoteNotation == ReadingQuoteStyle.LITERAL) {
-				keyBuilder.append(this.currentLine.substring(this.position));
+				keyBuilder.append(this.currentLine, this.position, this.currentLine.length());
 				this.skipToEnd();
 			} else if(explicitLiteral) { // ? |
 				if(this.isLiteralChar()) {
@@ -535,7 +552,6 @@ public abstract class YamlCommentReader extends YamlCommentMapper implements Clo
 	public String toString() {
 		return "YamlCommentReader{" +
 		  "currentLine='" + currentLine + '\'' +
-		  ", trim='" + trim + '\'' +
 		  ", stage=" + stage +
 		  ", indent=" + indent +
 		  ", key='" + key + '\'' +
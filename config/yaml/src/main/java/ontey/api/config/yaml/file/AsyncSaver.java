@@ -0,0 +1,174 @@
+package ontey.api.config.yaml.file;
+
+import lombok.NonNull;
+import ontey.api.config.ConfigSnapshot;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Saves {@link YamlFile}s on an executor, see {@link YamlFile#saveAsync()}.
+ * <br>
+ * A snapshot of the values is taken on the thread requesting the save, the snapshot is serialized and written on
+ * the executor. Saves of a file requested before its previous save has started are coalesced into one write of the
+ * latest snapshot, and writes of the same file never overlap.
+ * <br>
+ * Every file is written to a temporary file in the same directory first, which is synced and then atomically moved
+ * over the file. A crash while saving leaves either the old or the new contents behind, never a truncated file.
+ * <br>
+ * Example usage:
+ * <pre>{@code
+ * // main thread
+ * config.set("spawn.x", 12);
+ * config.saveAsync().exceptionally(e -> {
+ *     logger.error("Could not save config", e);
+ *     return null;
+ * });
+ * }</pre>
+ */
+
+public final class AsyncSaver implements AutoCloseable {
+	
+	private static final class Common {
+		
+		private static final AsyncSaver INSTANCE = new AsyncSaver();
+	}
+	
+	private final Executor executor;
+	
+	private final boolean ownsExecutor;
+	
+	private final Map<Path, Write> writes = new ConcurrentHashMap<>(); // latest write of every file
+	
+	/**
+	 * Creates a saver writing every file on a virtual thread.
+	 */
+	
+	public AsyncSaver() {
+		this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("AsyncSaver-", 0).factory());
+		this.ownsExecutor = true;
+	}
+	
+	/**
+	 * Creates a saver writing on the given executor, which is not shut down when this saver is closed.
+	 *
+	 * @param executor the executor to serialize and write on
+	 */
+	
+	public AsyncSaver(@NonNull Executor executor) {
+		this.executor = executor;
+		this.ownsExecutor = false;
+	}
+	
+	/**
+	 * Gets the saver used by {@link YamlFile#saveAsync()}, which writes on virtual threads and is never closed.
+	 *
+	 * @return the common saver
+	 */
+	
+	public static AsyncSaver common() {
+		return Common.INSTANCE;
+	}
+	
+	/**
+	 * Saves a file, taking a snapshot of it on the calling thread.
+	 *
+	 * @param file the file to save
+	 * @param target the location to save the file to
+	 * @return a future completed when the file has been written, shared by all coalesced saves
+	 */
+	
+	CompletableFuture<Void> save(YamlFile file, Path target) {
+		final Path path = target.toAbsolutePath().normalize();
+		final long modCount = file.modCount(); // before the snapshot, a change while taking it stays dirty
+		final Request request = new Request(file, ConfigSnapshot.ofStored(file), file.buildHeader(), modCount);
+		final Write[] created = new Write[1];
+		
+		final Write write = this.writes.compute(path, (key, latest) -> {
+			if(latest != null && !latest.started) {
+				latest.request = request; // coalesce
+				return latest;
+			}
+			return created[0] = new Write(request, latest);
+		});
+		
+		if(created[0] != null)
+			this.schedule(path, created[0]);
+		
+		return write.future.copy();
+	}
+	
+	private void schedule(Path path, Write write) {
+		final Write previous = write.previous;
+		write.previous = null;
+		
+		if(previous == null)
+			this.execute(path, write);
+		else
+			previous.future.whenComplete((result, e) -> this.execute(path, write));
+	}
+	
+	private void execute(Path path, Write write) {
+		try {
+			this.executor.execute(() -> this.run(path, write));
+		} catch(RejectedExecutionException e) {
+			this.writes.remove(path, write);
+			write.future.completeExceptionally(e);
+		}
+	}
+	
+	private void run(Path path, Write write) {
+		this.writes.computeIfPresent(path, (key, latest) -> {
+			write.started = true; // later saves start a new write
+			return latest;
+		});
+		
+		final Request request = write.request;
+		
+		try {
+			request.file().saveSnapshot(path, request.snapshot(), request.header(), request.modCount());
+			this.writes.remove(path, write);
+			write.future.complete(null);
+		} catch(Throwable e) {
+			this.writes.remove(path, write);
+			write.future.completeExceptionally(e);
+		}
+	}
+	
+	/**
+	 * Waits until all saves have been written and shuts down the executor, if it has been created by this saver.
+	 */
+	
+	@Override
+	public void close() {
+		if(this == common())
+			throw new UnsupportedOperationException("The common saver cannot be closed");
+		
+		for(final Write write : this.writes.values())
+			write.future.handle((result, e) -> null).join();
+		
+		if(this.ownsExecutor)
+			((ExecutorService) this.executor).close();
+	}
+	
+	private record Request(YamlFile file, ConfigSnapshot snapshot, String header, long modCount) {
+		
+	}
+	
+	private static final class Write {
+		
+		private final CompletableFuture<Void> future = new CompletableFuture<>();
+		
+		private Write previous; // the running write of the same file
+		
+		private volatile Request request;
+		
+		private volatile boolean started;
+		
+		private Write(Request request, Write previous) {
+			this.request = request;
+			this.previous = previous;
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package ontey.api.config.yaml.file;
+
+import lombok.NonNull;
+import ontey.api.config.ConcurrentMemorySection;
+import ontey.api.config.ConfigPath;
+import ontey.api.config.MemorySection;
+import ontey.api.config.util.ConcurrentLinkedMap;
+import ontey.api.config.yaml.implementation.api.YamlImplementation;
+
+import java.io.File;
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * A {@link YamlFile} whose values can be read and modified by multiple threads at once,
+ * for example by the main thread and an async scheduler.
+ * <br>
+ * All sections of this file are {@link ConcurrentMemorySection}s, see there for the guarantees that are given.
+ * Loading, saving and comments are not synchronized and should only be used by one thread at a time.
+ *
+ * @see ConcurrentMemorySection
+ */
+
+public class ConcurrentYamlFile extends YamlFile {
+	
+	/**
+	 * Builds this {@link ConcurrentYamlFile} without any configuration file.
+	 *
+	 * @see YamlFile#YamlFile()
+	 */
+	
+	public ConcurrentYamlFile() {
+		super();
+	}
+	
+	/**
+	 * Builds this {@link ConcurrentYamlFile} without any configuration file.
+	 *
+	 * @param yamlImplementation the implementation to use
+	 * @see YamlFile#YamlFile(YamlImplementation)
+	 */
+	
+	public ConcurrentYamlFile(YamlImplementation yamlImplementation) {
+		super(yamlImplementation);
+	}
+	
+	/**
+	 * Builds this {@link ConcurrentYamlFile} with the file specified by path.
+	 *
+	 * @param path location for the configuration file
+	 * @throws IllegalArgumentException if path is a directory.
+	 */
+	
+	public ConcurrentYamlFile(String path) throws IllegalArgumentException {
+		this();
+		this.setConfigurationFile(path);
+	}
+	
+	/**
+	 * Builds this {@link ConcurrentYamlFile} with a source file.
+	 *
+	 * @param file the configuration file
+	 * @throws IllegalArgumentException if file is a directory.
+	 */
+	
+	public ConcurrentYamlFile(File file) throws IllegalArgumentException {
+		this();
+		this.setConfigurationFile(file);
+	}
+	
+	/**
+	 * Builds this {@link ConcurrentYamlFile} with the file specified by uri.
+	 *
+	 * @param uri of the configuration file
+	 * @throws IllegalArgumentException if file is a directory.
+	 */
+	
+	public ConcurrentYamlFile(URI uri) throws IllegalArgumentException {
+		this();
+		this.setConfigurationFile(uri);
+	}
+	
+	@Override
+	protected Map<String, Object> createMap() {
+		return new ConcurrentLinkedMap<>();
+	}
+	
+	@Override
+	protected MemorySection createChild(@NonNull String name) {
+		return new ConcurrentMemorySection(this, name);
+	}
+	
+	@Override
+	protected Object getOrCreateSection(Object section, ConfigPath path, int i) {
+		return ConcurrentMemorySection.getOrCreateSection(this, section, path, i);
+	}
+}
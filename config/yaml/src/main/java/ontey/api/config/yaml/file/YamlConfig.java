@@ -2,7 +2,9 @@ package ontey.api.config.yaml.file;
 
 import lombok.NonNull;
 import ontey.api.config.Config;
+import ontey.api.config.ConfigPath;
 import ontey.api.config.ConfigSection;
+import ontey.api.config.ConfigSnapshot;
 import ontey.api.config.exception.InvalidConfigException;
 import ontey.api.config.file.FileConfig;
 import ontey.api.config.file.FileConfigOptions;
@@ -13,6 +15,7 @@ import ontey.api.config.yaml.implementation.api.QuoteStyle;
 import ontey.api.config.yaml.implementation.api.QuoteValue;
 import ontey.api.config.yaml.implementation.api.YamlImplementation;
 import ontey.api.config.yaml.implementation.snakeyaml.SnakeYamlImplementation;
+import ontey.api.lambda.ThrowingRunnable;
 
 import java.io.*;
 import java.nio.file.Files;
@@ -30,6 +33,12 @@ public class YamlConfig extends FileConfig {
 	
 	protected YamlImplementation yamlImplementation;
 	
+	/**
+	 * Held while dumping, as the implementation may be used by an {@link AsyncSaver} at the same time.
+	 */
+	
+	private final Object dumpLock = new Object();
+	
 	/**
 	 * Creates an empty {@link YamlConfig}.
 	 */
@@ -170,7 +179,9 @@ public class YamlConfig extends FileConfig {
 	 */
 	
 	public String dump() throws IOException {
-		return this.yamlImplementation.dump(this);
+		final StringWriter writer = new StringWriter();
+		this.dump(writer, this);
+		return writer.toString();
 	}
 	
 	/**
@@ -182,7 +193,23 @@ public class YamlConfig extends FileConfig {
 	 */
 	
 	public void dump(@NonNull Writer writer) throws IOException {
-		this.yamlImplementation.dump(writer, this);
+		this.dump(writer, this);
+	}
+	
+	/**
+	 * Dump the values of a section without the header, using the settings and comments of this configuration.
+	 * <br>
+	 * The section is usually a snapshot of this configuration, see {@link ConfigSnapshot#ofStored(ConfigSection)}.
+	 *
+	 * @param writer where to save the values
+	 * @param section the section with the values to dump
+	 * @throws IOException when the contents cannot be written for any reason
+	 */
+	
+	protected void dump(@NonNull Writer writer, @NonNull ConfigSection section) throws IOException {
+		synchronized(this.dumpLock) {
+			this.yamlImplementation.dump(writer, section);
+		}
 	}
 	
 	/**
@@ -200,9 +227,26 @@ public class YamlConfig extends FileConfig {
 	 */
 	
 	public void load(@NonNull SupplierIO.Reader readerSupplier) throws IOException, InvalidConfigException {
-		this.loadHeader(readerSupplier.get());
+		this.load(readerSupplier, () -> this.yamlImplementation.load(readerSupplier, this));
+	}
+	
+	/**
+	 * Loads this {@link YamlConfig}, reading the header from the reader and setting the values with the loader,
+	 * which may restore them without parsing the contents.
+	 *
+	 * @param headerSupplier a function providing a reader of the contents to load the header from (new instance)
+	 * @param values sets the loaded values into this configuration
+	 * @throws IOException Thrown when underlying reader throws an IOException.
+	 * @throws InvalidConfigException Thrown when the contents are not a valid Configuration.
+	 */
+	
+	protected void load(SupplierIO.Reader headerSupplier, ThrowingRunnable<IOException> values) throws IOException, InvalidConfigException {
+		this.loadHeader(headerSupplier.get());
+		
+		this.loadBatched(values);
 		
-		this.yamlImplementation.load(readerSupplier, this);
+		this.markClean();
+		this.notifyLoaded();
 	}
 	
 	protected void loadHeader(Reader reader) throws IOException {
@@ -332,6 +376,12 @@ public class YamlConfig extends FileConfig {
 		super.set(path, value);
 	}
 	
+	@Override
+	public void set(@NonNull ConfigPath path, Object value) {
+		// set is not performance critical, keep a single code path for quote styles and comments
+		this.set(path.path(), value);
+	}
+	
 	@Override
 	public Object get(@NonNull String path, Object def) {
 		Object object = super.get(path, def);
@@ -343,6 +393,22 @@ public class YamlConfig extends FileConfig {
 		return object;
 	}
 	
+	@Override
+	public Object get(@NonNull ConfigPath path, Object def) {
+		Object object = super.get(path, def);
+		
+		if(object instanceof QuoteValue) {
+			object = ((QuoteValue<?>) object).value();
+		}
+		
+		return object;
+	}
+	
+	@Override
+	protected Object unwrap(Object value) {
+		return value instanceof QuoteValue<?> quoteValue ? quoteValue.value() : value;
+	}
+	
 	@Override
 	public YamlConfigOptions options() {
 		if(this.options == null) {
@@ -48,6 +48,12 @@ public class YamlConfigOptions extends FileConfigOptions {
 	
 	private boolean useComments = false;
 	
+	/**
+	 * A flag that indicates if a {@link YamlFile} should be loaded from a binary cache beside it.
+	 */
+	
+	private boolean useCache = false;
+	
 	protected YamlConfigOptions(YamlConfig configuration) {
 		super(configuration);
 		
@@ -208,6 +214,35 @@ public class YamlConfigOptions extends FileConfigOptions {
 		return this.useComments;
 	}
 	
+	/**
+	 * Sets if {@link YamlFile#load()} should keep a binary image of the loaded values, and comments if they are used,
+	 * in a hidden file beside the configuration file, and load from it instead of parsing the file again while
+	 * the file is unchanged.
+	 * <br>
+	 * The image is only used if the size, modification time and content hash of the file match the loaded file.
+	 * Values that cannot be written to the image, such as custom types of a YAML constructor, disable it for the file.
+	 * Default is false.
+	 *
+	 * @param useCache if loading from the cache is enabled
+	 * @return This object, for chaining
+	 */
+	
+	public YamlConfigOptions useCache(boolean useCache) {
+		this.useCache = useCache;
+		return this;
+	}
+	
+	/**
+	 * Indicates if loading from a binary cache is enabled.
+	 *
+	 * @return true if the cache is used
+	 * @see #useCache(boolean)
+	 */
+	
+	public boolean useCache() {
+		return this.useCache;
+	}
+	
 	/**
 	 * Get the quote style default options.
 	 * <br>
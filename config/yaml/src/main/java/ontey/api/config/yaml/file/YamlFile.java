@@ -1,12 +1,14 @@
 package ontey.api.config.yaml.file;
 
 import lombok.NonNull;
+import ontey.api.config.ConfigSection;
 import ontey.api.config.comment.CommentType;
 import ontey.api.config.comment.Commentable;
 import ontey.api.config.comment.KeyTree;
 import ontey.api.config.exception.InvalidConfigException;
 import ontey.api.config.file.FileConfig;
 import ontey.api.config.file.FileConfigOptions;
+import ontey.api.config.util.StringUtils;
 import ontey.api.config.util.SupplierIO;
 import ontey.api.config.yaml.comment.YamlCommentMapper;
 import ontey.api.config.yaml.comment.format.YamlCommentFormat;
@@ -17,16 +19,26 @@ import ontey.api.config.yaml.implementation.api.QuoteValue;
 import ontey.api.config.yaml.implementation.api.YamlImplementation;
 import ontey.api.config.yaml.implementation.api.YamlImplementationCommentable;
 import ontey.api.config.yaml.implementation.snakeyaml.SnakeYamlImplementation;
+import ontey.api.lambda.ThrowingRunnable;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.StringWriter;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * An extension of {@link YamlConfig} which saves all data in YAML to a configuration file
@@ -44,6 +56,13 @@ public class YamlFile extends YamlConfig implements Commentable {
 	
 	private File configFile;
 	
+	/**
+	 * The contents of the configuration file when it was last loaded or saved, or {@code null} if the values have
+	 * been loaded from elsewhere since. Written by the saving thread, so it is replaced as a whole.
+	 */
+	
+	private volatile Stamp stamp;
+	
 	/**
 	 * Builds this {@link YamlFile} without any configuration file.
 	 * <br>
@@ -284,6 +303,192 @@ public class YamlFile extends YamlConfig implements Commentable {
 		this.save(this.configFile);
 	}
 	
+	/**
+	 * Saves this {@link YamlFile} to the specified location.
+	 * <br>
+	 * If it is the configuration file, the contents written are recorded like a load records them, so the file is not
+	 * loaded again by {@link #reloadIfChanged()} or a {@link YamlFileWatcher} until it is changed by someone else.
+	 *
+	 * @param file File to save to.
+	 * @throws IOException Thrown when the given file cannot be written to for any reason.
+	 */
+	
+	@Override
+	public void save(@NonNull File file) throws IOException {
+		final Path target = file.toPath();
+		
+		if(!this.isConfigurationFile(target)) {
+			super.save(file);
+			return;
+		}
+		
+		final File parents = file.getParentFile();
+		
+		if(parents != null && !parents.exists() && !parents.mkdirs()) // if parent directory doesn't exist and cannot be created
+			throw new IOException("Cannot create successfully all needed parent directories!");
+		
+		final long modCount = this.modCount();
+		final StringWriter writer = new StringWriter();
+		this.save(writer);
+		
+		final byte[] contents = writer.toString().getBytes(this.options().charset());
+		Files.write(target, contents);
+		
+		this.stamp(YamlFileCache.Key.of(ByteBuffer.wrap(contents), Files.getLastModifiedTime(target).toMillis(), this.options()));
+		this.markClean(modCount);
+	}
+	
+	/**
+	 * Saves this {@link YamlFile} to its configuration file, unless it has not been changed since
+	 * it was last loaded or saved and the file still exists.
+	 * <br>
+	 * This is meant for saving many files periodically, as unchanged files are neither serialized nor written.
+	 * See {@link #isDirty()} for the changes that are tracked.
+	 *
+	 * @return true if the file has been saved
+	 * @throws IOException if it hasn't been possible to save configuration file
+	 * @throws IllegalArgumentException if the configuration file is not set
+	 * @see #save()
+	 */
+	
+	public boolean saveIfDirty() throws IOException {
+		assertConfigFileIsNonNull();
+		
+		if(!this.isDirty() && this.configFile.exists())
+			return false;
+		
+		this.save();
+		return true;
+	}
+	
+	/**
+	 * Saves this {@link YamlFile} to its configuration file on the {@link AsyncSaver#common() common saver}.
+	 * <br>
+	 * A snapshot of the values is taken on the calling thread, serializing and writing them happens on another thread.
+	 * Saves requested again before the previous save has started are written once, with the latest values.
+	 * The file is replaced atomically, so it is never left truncated.
+	 * <br>
+	 * Comments are read while serializing, set them before saving or from the saving thread.
+	 *
+	 * @return a future completed when the file has been written
+	 * @throws IllegalArgumentException if the configuration file is not set
+	 * @see AsyncSaver
+	 */
+	
+	public CompletableFuture<Void> saveAsync() {
+		return this.saveAsync(AsyncSaver.common());
+	}
+	
+	/**
+	 * Saves this {@link YamlFile} to its configuration file on the given saver.
+	 *
+	 * @param saver the saver to save with
+	 * @return a future completed when the file has been written
+	 * @throws IllegalArgumentException if the configuration file is not set
+	 * @see #saveAsync()
+	 */
+	
+	public CompletableFuture<Void> saveAsync(@NonNull AsyncSaver saver) {
+		assertConfigFileIsNonNull();
+		return saver.save(this, this.configFile.toPath());
+	}
+	
+	/**
+	 * Writes a snapshot of this configuration to a temporary file next to the target,
+	 * which is synced and then moved over the target.
+	 *
+	 * @param target the file to replace
+	 * @param snapshot the values to write
+	 * @param header the header to write
+	 * @param modCount the modification count of this configuration when the snapshot was taken
+	 * @throws IOException if it hasn't been possible to write the file
+	 */
+	
+	void saveSnapshot(Path target, ConfigSection snapshot, String header, long modCount) throws IOException {
+		final ByteBuffer contents = this.encodeSnapshot(snapshot, header);
+		final Path temp = createTempFile(target);
+		
+		try {
+			try(FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+				while(contents.hasRemaining())
+					channel.write(contents);
+				
+				channel.force(true);
+			}
+			
+			try {
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch(AtomicMoveNotSupportedException e) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+		
+		if(this.isConfigurationFile(target))
+			this.stamp(YamlFileCache.Key.of(contents.rewind(), Files.getLastModifiedTime(target).toMillis(), this.options()));
+		
+		this.markClean(modCount);
+	}
+	
+	private boolean isConfigurationFile(Path path) {
+		return this.configFile != null && path.toAbsolutePath().equals(this.configFile.toPath().toAbsolutePath());
+	}
+	
+	/**
+	 * Creates the temporary file next to the target that a save is written to before it is moved over the target.
+	 * <br>
+	 * Unlike {@link Files#createTempFile}, the file is created with the default permissions of new files, and gets the
+	 * permissions of the target if it exists, so replacing the target keeps them.
+	 *
+	 * @param target the file to replace
+	 * @return the empty temporary file
+	 * @throws IOException if it hasn't been possible to create the file
+	 */
+	
+	static Path createTempFile(Path target) throws IOException {
+		final Path directory = target.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		
+		while(true) {
+			final Path temp = directory.resolve("." + target.getFileName() + Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+			
+			try {
+				Files.createFile(temp);
+			} catch(FileAlreadyExistsException e) {
+				continue;
+			}
+			
+			try {
+				Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(target));
+			} catch(NoSuchFileException | UnsupportedOperationException e) {
+				// a new target or a file system without POSIX permissions keeps the defaults
+			} catch(IOException | RuntimeException e) {
+				Files.deleteIfExists(temp);
+				throw e;
+			}
+			
+			return temp;
+		}
+	}
+	
+	/**
+	 * Serializes a snapshot of this configuration to the bytes of a file.
+	 *
+	 * @param snapshot the values to write
+	 * @param header the header to write
+	 * @return the contents of the file, in the charset of this file
+	 * @throws IOException if it hasn't been possible to serialize the values
+	 */
+	
+	ByteBuffer encodeSnapshot(ConfigSection snapshot, String header) throws IOException {
+		final StringWriter writer = new StringWriter();
+		writer.write(header);
+		this.dump(writer, snapshot);
+		
+		return this.options().charset().encode(StringUtils.stripCarriage(writer.toString()));
+	}
+	
 	/**
 	 * Saves this {@link YamlFile} to a string and returns it.
 	 * <br>
@@ -314,6 +519,7 @@ public class YamlFile extends YamlConfig implements Commentable {
 	public void setComment(String path, String comment, CommentType type) {
 		if(this.yamlImplementation instanceof YamlImplementationCommentable commentable) {
 			commentable.setComment(path, comment, type);
+			this.markDirty(path != null ? path : "");
 		}
 	}
 	
@@ -588,6 +794,7 @@ public class YamlFile extends YamlConfig implements Commentable {
 	
 	public void setHeader(String header) {
 		this.options().header(header);
+		this.markDirty("");
 	}
 	
 	/**
@@ -699,6 +906,9 @@ public class YamlFile extends YamlConfig implements Commentable {
 	 * <br>
 	 * Note that this method will not load comments of original configuration file,
 	 * if needed use {@link #loadWithComments()} instead.
+	 * <br>
+	 * If {@link YamlConfigOptions#useCache(boolean) enabled}, the values are restored from a binary image beside
+	 * the file while the file is unchanged, instead of parsing it.
 	 *
 	 * @throws IOException if it hasn't been possible to load file
 	 * @throws InvalidConfigException if there has been an error while parsing configuration file
@@ -708,7 +918,82 @@ public class YamlFile extends YamlConfig implements Commentable {
 	
 	public void load() throws InvalidConfigException, IOException {
 		assertConfigFileIsNonNull();
-		this.load(this.configFile);
+		
+		final Path path = this.configFile.toPath();
+		final long modified = Files.getLastModifiedTime(path).toMillis(); // before reading, a later change is a miss
+		
+		this.load(path, Files.readAllBytes(path), modified);
+	}
+	
+	private void load(Path path, byte[] contents, long modified) throws InvalidConfigException, IOException {
+		final YamlConfigOptions options = this.options();
+		final YamlFileCache.Key key = YamlFileCache.Key.of(ByteBuffer.wrap(contents), modified, options);
+		final Charset charset = options.charset();
+		final SupplierIO.Reader reader = () -> new InputStreamReader(new ByteArrayInputStream(contents), charset);
+		
+		if(options.useCache())
+			YamlFileCache.load(this, path, key, reader);
+		else
+			this.load(reader);
+		
+		this.stamp(key);
+	}
+	
+	/**
+	 * Loads this {@link YamlFile} from its configuration file again, unless the file still has the contents it had
+	 * when it was last loaded or saved, and this configuration has not been changed since.
+	 * <br>
+	 * The size, modification time and CRC32C hash of the contents are recorded whenever the file is loaded with
+	 * {@link #load()} or saved with {@link #saveAsync()} or {@link YamlFileBatch#save(Collection)}. If the size and
+	 * modification time are the same, the file isn't even read. If only the modification time differs, the file is
+	 * read and hashed, and only parsed if the hash differs. A file modified shortly before it was recorded is always
+	 * hashed, as a later write in the same tick of the file system clock would not change its modification time.
+	 * <br>
+	 * A file that is not loaded again keeps its sections, so references to them and anything computed from them
+	 * remain valid. Changes that have not been saved are discarded, the same as with {@link #load()}.
+	 *
+	 * @return true if the file has been loaded again, false if it is unchanged
+	 * @throws IOException if it hasn't been possible to load file
+	 * @throws InvalidConfigException if there has been an error while parsing configuration file
+	 * @throws IllegalArgumentException if the configuration file is not set
+	 */
+	
+	public boolean reloadIfChanged() throws InvalidConfigException, IOException {
+		assertConfigFileIsNonNull();
+		
+		final Path path = this.configFile.toPath();
+		final Stamp stamp = this.stamp;
+		final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		final long modified = attributes.lastModifiedTime().toMillis();
+		
+		if(stamp == null || this.isDirty() || !stamp.key.matches(this.options()) || stamp.key.size() != attributes.size()) {
+			this.load(path, Files.readAllBytes(path), modified);
+			return true;
+		}
+		
+		if(stamp.key.modified() == modified && !stamp.racy)
+			return false;
+		
+		final byte[] contents = Files.readAllBytes(path);
+		final YamlFileCache.Key key = YamlFileCache.Key.of(ByteBuffer.wrap(contents), modified, this.options());
+		
+		if(key.size() == stamp.key.size() && key.hash() == stamp.key.hash()) {
+			this.stamp(key); // touched, but not changed
+			return false;
+		}
+		
+		this.load(path, contents, modified);
+		return true;
+	}
+	
+	/**
+	 * Records the contents the configuration file has been loaded or saved with.
+	 *
+	 * @param key the key of the contents
+	 */
+	
+	void stamp(YamlFileCache.Key key) {
+		this.stamp = new Stamp(key, System.currentTimeMillis() - key.modified() < Stamp.RACY_MILLIS);
 	}
 	
 	/**
@@ -749,6 +1034,12 @@ public class YamlFile extends YamlConfig implements Commentable {
 		super.load(readerSupplier);
 	}
 	
+	@Override
+	protected void load(SupplierIO.Reader headerSupplier, ThrowingRunnable<IOException> values) throws IOException, InvalidConfigException {
+		this.stamp = null; // the values may not come from the configuration file
+		super.load(headerSupplier, values);
+	}
+	
 	/**
 	 * If this configuration file does not exist then it is created along with missing parent directories.
 	 * <br>
@@ -936,6 +1227,9 @@ public class YamlFile extends YamlConfig implements Commentable {
 			throw new IllegalArgumentException(file.getName() + " is a directory!");
 		}
 		this.configFile = file;
+		
+		// the new file has not been written yet
+		this.markDirty("");
 	}
 	
 	/**
@@ -1020,4 +1314,21 @@ public class YamlFile extends YamlConfig implements Commentable {
 		
 		void load(YamlFile config) throws IOException, InvalidConfigException;
 	}
+	
+	/**
+	 * The contents of the configuration file when it was last loaded or saved.
+	 *
+	 * @param key the key of the contents
+	 * @param racy whether the file has been modified so shortly before it was recorded, that it may have been
+	 *             written again without changing its modification time
+	 */
+	
+	private record Stamp(YamlFileCache.Key key, boolean racy) {
+		
+		/**
+		 * The coarsest modification time resolution of common file systems, that of FAT.
+		 */
+		
+		private static final long RACY_MILLIS = 2000;
+	}
 }
@@ -0,0 +1,405 @@
+package ontey.api.config.yaml.file;
+
+import lombok.NonNull;
+import ontey.api.check.Checker;
+import ontey.api.config.ConfigSection;
+import ontey.api.config.ConfigSnapshot;
+import ontey.api.lambda.ThrowingConsumer;
+import ontey.api.lambda.ThrowingFunction;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Loads, reloads or saves many {@link YamlFile}s at once, parsing or serializing them in parallel.
+ * <br>
+ * The files are processed by a bounded number of workers, which run on virtual threads shared by all batches, or on
+ * an executor given by the caller. Reading and writing the files blocks the workers, so no thread pool is created
+ * for a batch. A file that fails to load or save is reported in the {@link Result} and doesn't stop the others.
+ * <br>
+ * Example usage:
+ * <pre>{@code
+ * YamlFileBatch.Result result = YamlFileBatch.load(files);
+ * result.failures().forEach((file, e) -> logger.warn("Could not load {}", file, e));
+ * logger.info(result.toString());
+ * }</pre>
+ */
+
+public final class YamlFileBatch {
+	
+	/**
+	 * The minimum number of files saved at once, if none is given. Saving mostly waits for the disk to sync the files,
+	 * so more files can be saved at once than there are processors.
+	 */
+	
+	public static final int DEFAULT_SAVE_PARALLELISM = 16;
+	
+	/**
+	 * Runs the workers of batches without an executor, a virtual thread each.
+	 */
+	
+	private static final Executor WORKERS = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("YamlFileBatch-", 0).factory());
+	
+	private YamlFileBatch() {
+	}
+	
+	/**
+	 * Loads files in parallel on as many threads as there are processors.
+	 *
+	 * @param files the files to load
+	 * @return the loaded files, the failures and the time it took
+	 */
+	
+	public static @NonNull Result load(@NonNull Collection<? extends YamlFile> files) {
+		return load(files, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Loads files in parallel, with {@link YamlFile#load()}.
+	 * <br>
+	 * This blocks until all files have been loaded or have failed. The files must not be accessed by other threads
+	 * until then.
+	 *
+	 * @param files the files to load
+	 * @param parallelism the maximum number of files to parse at once
+	 * @return the loaded files, the failures and the time it took
+	 */
+	
+	public static @NonNull Result load(@NonNull Collection<? extends YamlFile> files, int parallelism) {
+		return load(files, parallelism, WORKERS);
+	}
+	
+	/**
+	 * Loads files in parallel on an executor, with {@link YamlFile#load()}.
+	 * <br>
+	 * This blocks until all files have been loaded or have failed. The files must not be accessed by other threads
+	 * until then.
+	 *
+	 * @param files the files to load
+	 * @param parallelism the maximum number of files to parse at once, and of tasks submitted to the executor
+	 * @param executor the executor running the workers
+	 * @return the loaded files, the failures and the time it took
+	 */
+	
+	public static @NonNull Result load(@NonNull Collection<? extends YamlFile> files, int parallelism, @NonNull Executor executor) {
+		return process(files, parallelism, executor, file -> {
+			file.load();
+			return true;
+		});
+	}
+	
+	/**
+	 * Reloads the files whose contents have changed in parallel on as many threads as there are processors.
+	 *
+	 * @param files the files to reload
+	 * @return the reloaded files, the failures and the time it took
+	 */
+	
+	public static @NonNull Result reload(@NonNull Collection<? extends YamlFile> files) {
+		return reload(files, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Reloads the files whose contents have changed since they were last loaded or saved in parallel, with
+	 * {@link YamlFile#reloadIfChanged()}.
+	 * <br>
+	 * This blocks until all files have been checked, and reloaded or failed. The files must not be accessed by other
+	 * threads until then. Unchanged files, and files without a configuration file, are not part of the result.
+	 *
+	 * @param files the files to reload
+	 * @param parallelism the maximum number of files to check or parse at once
+	 * @return the reloaded files, the failures and the time it took
+	 */
+	
+	public static @NonNull Result reload(@NonNull Collection<? extends YamlFile> files, int parallelism) {
+		return reload(files, parallelism, WORKERS);
+	}
+	
+	/**
+	 * Reloads the files whose contents have changed since they were last loaded or saved in parallel on an executor,
+	 * see {@link #reload(Collection, int)}.
+	 *
+	 * @param files the files to reload
+	 * @param parallelism the maximum number of files to check or parse at once, and of tasks submitted to the executor
+	 * @param executor the executor running the workers
+	 * @return the reloaded files, the failures and the time it took
+	 */
+	
+	public static @NonNull Result reload(@NonNull Collection<? extends YamlFile> files, int parallelism, @NonNull Executor executor) {
+		return process(files.stream().filter(file -> file.getConfigurationFile() != null).toList(), parallelism, executor,
+		  YamlFile::reloadIfChanged);
+	}
+	
+	private static Result process(Collection<? extends YamlFile> files, int parallelism, Executor executor, ThrowingFunction<YamlFile, Boolean, Exception> action) {
+		Checker.checkArgument(parallelism > 0, "parallelism must be positive");
+		
+		var start = System.nanoTime();
+		var busy = new LongAdder();
+		var processed = ConcurrentHashMap.<YamlFile>newKeySet();
+		var failures = new ConcurrentHashMap<YamlFile, Exception>();
+		var threads = Math.min(parallelism, Math.max(1, files.size()));
+		
+		run(executor, threads, List.copyOf(files), file -> {
+			var fileStart = System.nanoTime();
+			
+			try {
+				if(action.apply(file))
+					processed.add(file);
+			} catch(Exception e) {
+				failures.put(file, e);
+			} finally {
+				busy.add(System.nanoTime() - fileStart);
+			}
+		});
+		
+		var succeeded = new ArrayList<YamlFile>(processed.size());
+		var failed = new LinkedHashMap<YamlFile, Exception>();
+		
+		for(var file : files) {
+			var failure = failures.get(file);
+			
+			if(failure != null)
+				failed.put(file, failure);
+			else if(processed.contains(file))
+				succeeded.add(file);
+		}
+		
+		return new Result(Collections.unmodifiableList(succeeded), Collections.unmodifiableMap(failed), threads,
+		  busy.sum(), System.nanoTime() - start);
+	}
+	
+	/**
+	 * Saves the changed files in parallel on {@link #DEFAULT_SAVE_PARALLELISM} threads, or as many threads as there
+	 * are processors if there are more.
+	 *
+	 * @param files the files to save
+	 * @return the saved files, the failures and the time it took
+	 */
+	
+	public static @NonNull Result save(@NonNull Collection<? extends YamlFile> files) {
+		return save(files, Math.max(DEFAULT_SAVE_PARALLELISM, Runtime.getRuntime().availableProcessors()));
+	}
+	
+	/**
+	 * Saves the files that have been changed since they were last loaded or saved, or don't exist, in parallel.
+	 * <br>
+	 * A snapshot of every file is taken on the calling thread, which must be the thread modifying the files.
+	 * The snapshots are then serialized and written to temporary files in parallel, each synced as it is written so
+	 * the syncs of all files overlap. Once all of them have been written, they are moved over the files and every
+	 * directory is synced once, making all moves in it durable together, instead of once per file.
+	 * A crash while saving leaves either the old or the new contents of every file behind.
+	 * <br>
+	 * This blocks until all files have been saved or have failed. Unchanged files are not part of the result.
+	 *
+	 * @param files the files to save
+	 * @param parallelism the maximum number of files to serialize and write at once
+	 * @return the saved files, the failures and the time it took
+	 * @see YamlFile#saveIfDirty()
+	 */
+	
+	public static @NonNull Result save(@NonNull Collection<? extends YamlFile> files, int parallelism) {
+		return save(files, parallelism, WORKERS);
+	}
+	
+	/**
+	 * Saves the files that have been changed since they were last loaded or saved, or don't exist, in parallel on an
+	 * executor, see {@link #save(Collection, int)}.
+	 *
+	 * @param files the files to save
+	 * @param parallelism the maximum number of files to serialize and write at once, and of tasks submitted to the
+	 * executor
+	 * @param executor the executor running the workers
+	 * @return the saved files, the failures and the time it took
+	 */
+	
+	public static @NonNull Result save(@NonNull Collection<? extends YamlFile> files, int parallelism, @NonNull Executor executor) {
+		Checker.checkArgument(parallelism > 0, "parallelism must be positive");
+		
+		var start = System.nanoTime();
+		var saves = new ArrayList<Save>();
+		
+		for(var file : files)
+			if(file.getConfigurationFile() != null && (file.isDirty() || !file.exists())) {
+				var modCount = file.modCount(); // before the snapshot, a change while taking it stays dirty
+				saves.add(new Save(file, file.getConfigurationFile().toPath().toAbsolutePath(), ConfigSnapshot.ofStored(file),
+				  file.buildHeader(), modCount));
+			}
+		
+		var busy = new LongAdder();
+		var failures = new ConcurrentHashMap<YamlFile, Exception>();
+		var threads = Math.min(parallelism, Math.max(1, saves.size()));
+		
+		step(executor, threads, saves, Save::write, busy, failures);
+		step(executor, threads, saves.stream().filter(save -> !failures.containsKey(save.file)).toList(), Save::move, busy, failures);
+		
+		// one sync per directory makes all moves into it durable
+		var directories = new LinkedHashSet<Path>();
+		
+		for(var save : saves)
+			if(!failures.containsKey(save.file))
+				directories.add(save.target.getParent());
+		
+		run(executor, Math.min(threads, Math.max(1, directories.size())), List.copyOf(directories), YamlFileBatch::syncDirectory);
+		
+		var saved = new ArrayList<YamlFile>(saves.size() - failures.size());
+		var failed = new LinkedHashMap<YamlFile, Exception>();
+		
+		for(var save : saves) {
+			var failure = failures.get(save.file);
+			
+			if(failure == null) {
+				save.file.stamp(save.key);
+				save.file.markClean(save.modCount);
+				saved.add(save.file);
+			} else {
+				failed.put(save.file, failure);
+			}
+		}
+		
+		return new Result(Collections.unmodifiableList(saved), Collections.unmodifiableMap(failed), threads,
+		  busy.sum(), System.nanoTime() - start);
+	}
+	
+	private static void step(Executor executor, int threads, List<Save> saves, ThrowingConsumer<Save, IOException> step, LongAdder busy, Map<YamlFile, Exception> failures) {
+		run(executor, threads, saves, save -> {
+			var stepStart = System.nanoTime();
+			
+			try {
+				step.accept(save);
+			} catch(Exception e) {
+				failures.put(save.file, e);
+			} finally {
+				busy.add(System.nanoTime() - stepStart);
+			}
+		});
+	}
+	
+	/**
+	 * Runs a task for every item on a number of workers, which take the next item until there is none left.
+	 * <br>
+	 * This blocks until all workers are done. The task must not throw.
+	 *
+	 * @param executor the executor running the workers
+	 * @param workers the number of workers, at least one
+	 * @param items the items
+	 * @param task the task
+	 */
+	
+	private static <T> void run(Executor executor, int workers, List<T> items, Consumer<T> task) {
+		var next = new AtomicInteger();
+		var running = new CompletableFuture<?>[workers];
+		
+		for(var i = 0; i < workers; i++)
+			running[i] = CompletableFuture.runAsync(() -> {
+				int index;
+				
+				while((index = next.getAndIncrement()) < items.size())
+					task.accept(items.get(index));
+			}, executor);
+		
+		CompletableFuture.allOf(running).join();
+	}
+	
+	private static void syncDirectory(Path directory) {
+		try(var channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		} catch(IOException e) {
+			// not supported by every platform, the moves are still atomic
+		}
+	}
+	
+	/**
+	 * A file being saved by {@link #save(Collection, int)}.
+	 */
+	
+	private static final class Save {
+		
+		private final YamlFile file;
+		
+		private final Path target;
+		
+		private final ConfigSection snapshot;
+		
+		private final String header;
+		
+		private final long modCount;
+		
+		private Path temp;
+		
+		private YamlFileCache.Key key;
+		
+		private Save(YamlFile file, Path target, ConfigSection snapshot, String header, long modCount) {
+			this.file = file;
+			this.target = target;
+			this.snapshot = snapshot;
+			this.header = header;
+			this.modCount = modCount;
+		}
+		
+		private void write() throws IOException {
+			var contents = this.file.encodeSnapshot(this.snapshot, this.header);
+			this.key = YamlFileCache.Key.of(contents, 0, this.file.options()); // dated once moved
+			
+			this.temp = YamlFile.createTempFile(this.target);
+			
+			try(var channel = FileChannel.open(this.temp, StandardOpenOption.WRITE)) {
+				while(contents.hasRemaining())
+					channel.write(contents);
+				
+				channel.force(true);
+			} catch(IOException | RuntimeException e) {
+				Files.deleteIfExists(this.temp);
+				throw e;
+			}
+		}
+		
+		private void move() throws IOException {
+			try {
+				Files.move(this.temp, this.target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch(AtomicMoveNotSupportedException e) {
+				Files.move(this.temp, this.target, StandardCopyOption.REPLACE_EXISTING);
+			} finally {
+				Files.deleteIfExists(this.temp);
+			}
+			
+			this.key = this.key.at(Files.getLastModifiedTime(this.target).toMillis());
+		}
+	}
+	
+	/**
+	 * The outcome of a batch.
+	 *
+	 * @param succeeded the files processed successfully, in the order they were given
+	 * @param failures the files that failed and why, in the order they were given
+	 * @param threads the number of threads the files were processed on
+	 * @param busyNanos the time spent on all files, summed over all threads
+	 * @param elapsedNanos the wall clock time of the whole batch
+	 */
+	
+	public record Result(@NonNull List<YamlFile> succeeded, @NonNull Map<YamlFile, Exception> failures, int threads,
+	  long busyNanos, long elapsedNanos) {
+		
+		/**
+		 * Gets the number of files in the batch.
+		 *
+		 * @return the number of files
+		 */
+		
+		public int size() {
+			return this.succeeded.size() + this.failures.size();
+		}
+		
+		@Override
+		public @NonNull String toString() {
+			return String.format("%d of %d files in %d ms (%d ms on %d threads)%s", this.succeeded.size(), this.size(),
+			  TimeUnit.NANOSECONDS.toMillis(this.elapsedNanos), TimeUnit.NANOSECONDS.toMillis(this.busyNanos), this.threads,
+			  this.failures.isEmpty() ? "" : ", " + this.failures.size() + " failed");
+		}
+	}
+}
@@ -0,0 +1,342 @@
+package ontey.api.config.yaml.file;
+
+import ontey.api.config.ConfigSection;
+import ontey.api.config.ConfigSnapshot;
+import ontey.api.config.util.SectionUtils;
+import ontey.api.config.util.SupplierIO;
+import ontey.api.config.util.ValueCodec;
+import ontey.api.config.yaml.comment.YamlCommentMapper;
+import ontey.api.config.yaml.implementation.api.QuoteStyle;
+import ontey.api.config.yaml.implementation.api.QuoteValue;
+import ontey.api.config.yaml.implementation.api.YamlImplementationCommentable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32C;
+
+/**
+ * Loads a {@link YamlFile} from a binary image of its values and comments, written beside the file the first time
+ * it is parsed, see {@link YamlConfigOptions#useCache(boolean)}.
+ * <br>
+ * The image is keyed by the size, modification time and CRC32C hash of the contents of the file, as well as the
+ * charset and whether comments are loaded. If any of them differ, the file is parsed and the image is written again.
+ * The values are restored the same way the parsed values are set, so loading from the image and parsing the file
+ * leave the same values behind. The image is decoded completely before the file is loaded, so an image that cannot be
+ * read leaves nothing behind and the file is parsed instead.
+ * <br>
+ * An image is written on a virtual thread from a snapshot taken when the file is parsed, so writing it doesn't delay
+ * the load.
+ */
+
+final class YamlFileCache {
+	
+	private static final int MAGIC = 0x4F594346; // OYCF
+	
+	private static final int VERSION = 1;
+	
+	/**
+	 * The type of quoted values and of values kept in their YAML form, followed by the name of the quote style or
+	 * {@link #YAML}.
+	 */
+	
+	private static final byte EXTENSION = ValueCodec.EXTENSION;
+	
+	private static final String YAML = "YAML";
+	
+	private static final Executor WRITER = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("YamlFileCache-", 0).factory());
+	
+	private static final Map<Path, CompletableFuture<Void>> WRITES = new ConcurrentHashMap<>(); // latest write of every image
+	
+	/**
+	 * Encodes the values, including quoted values. Values of other types are kept in their YAML form, the form they
+	 * are saved and loaded in, so any value set can be written. This encoding is also used for the records of a
+	 * {@link YamlJournal}.
+	 */
+	
+	static final ValueCodec CODEC = new ValueCodec() {
+		
+		@Override
+		protected void writeOther(DataOutput out, Object value) throws IOException {
+			if(value instanceof QuoteValue<?> quoted) {
+				out.writeByte(EXTENSION);
+				writeString(out, quoted.quoteStyle().name());
+				this.write(out, quoted.value());
+				return;
+			}
+			
+			final String yaml;
+			
+			try {
+				final YamlConfig config = new YamlConfig();
+				config.set(YAML, value);
+				yaml = config.saveToString();
+			} catch(RuntimeException e) {
+				throw (NotSerializableException) new NotSerializableException(value.getClass().getName()).initCause(e);
+			}
+			
+			out.writeByte(EXTENSION);
+			writeString(out, YAML);
+			writeString(out, yaml);
+		}
+		
+		@Override
+		protected Object readOther(DataInput in, byte type) throws IOException {
+			if(type != EXTENSION)
+				return super.readOther(in, type);
+			
+			final String name = readString(in);
+			
+			if(name.equals(YAML))
+				return plain(YamlConfig.loadConfigurationFromString(readString(in)).get(YAML));
+			
+			return new QuoteValue<>(this.read(in), QuoteStyle.valueOf(name));
+		}
+	};
+	
+	private YamlFileCache() {
+	}
+	
+	/**
+	 * Gets the location of the image of a file, a hidden file in the same directory.
+	 *
+	 * @param file the configuration file
+	 * @return the location of its image
+	 */
+	
+	static Path imageOf(Path file) {
+		return file.resolveSibling("." + file.getFileName() + ".cache");
+	}
+	
+	/**
+	 * Loads a file from its image if the image has been written for the same contents, otherwise parses the file and
+	 * writes its image.
+	 *
+	 * @param file the file to load
+	 * @param path the location of the file
+	 * @param key the key of the contents that have been read
+	 * @param reader a reader of the contents that have been read
+	 * @throws IOException if the contents cannot be read
+	 */
+	
+	static void load(YamlFile file, Path path, Key key, SupplierIO.Reader reader) throws IOException {
+		final Path image = imageOf(path);
+		final Image restored = restore(file, image, key);
+		
+		if(restored != null) {
+			file.load(reader, () -> {
+				SectionUtils.addMapToSection(restored.values, file);
+				
+				if(restored.comments != null)
+					((YamlImplementationCommentable) file.getImplementation()).setCommentMapper(restored.comments);
+			});
+			
+			return;
+		}
+		
+		file.load(reader);
+		write(file, image, key);
+	}
+	
+	/**
+	 * Gets the write of an image that is in progress.
+	 *
+	 * @param image the location of the image
+	 * @return the write, or null if the image is not being written
+	 */
+	
+	static CompletableFuture<Void> pendingWrite(Path image) {
+		return WRITES.get(image);
+	}
+	
+	private static Image restore(YamlFile file, Path image, Key key) {
+		if(!Files.isRegularFile(image))
+			return null;
+		
+		try {
+			final DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(image)));
+			
+			if(in.readInt() != MAGIC || in.readInt() != VERSION || !key.equals(Key.read(in)))
+				return null;
+			
+			@SuppressWarnings("unchecked")
+			final Map<String, Object> values = (Map<String, Object>) CODEC.read(in);
+			YamlCommentMapper comments = null;
+			
+			if(in.readBoolean() && file.getImplementation() instanceof YamlImplementationCommentable commentable) {
+				comments = commentable.createCommentMapper();
+				comments.getKeyTree().read(in);
+			}
+			
+			return new Image(values, comments);
+		} catch(IOException | RuntimeException e) {
+			return null; // parsed instead, nothing has been restored yet
+		}
+	}
+	
+	private static void write(YamlFile file, Path image, Key key) {
+		final ConfigSnapshot values;
+		final byte[] comments;
+		
+		try {
+			values = ConfigSnapshot.ofStored(file);
+			
+			final YamlCommentMapper mapper = key.comments() ? file.getCommentMapper() : null;
+			
+			if(mapper != null) {
+				final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+				mapper.getKeyTree().write(new DataOutputStream(bytes));
+				comments = bytes.toByteArray();
+			} else
+				comments = null;
+		} catch(IOException | RuntimeException e) {
+			delete(image);
+			return;
+		}
+		
+		final CompletableFuture<Void> write = new CompletableFuture<>();
+		WRITES.put(image, write);
+		
+		WRITER.execute(() -> {
+			try {
+				write(image, key, values, comments);
+			} finally {
+				WRITES.remove(image, write);
+				write.complete(null);
+			}
+		});
+	}
+	
+	private static void write(Path image, Key key, ConfigSnapshot values, byte[] comments) {
+		try {
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+			final DataOutputStream out = new DataOutputStream(bytes);
+			
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			key.write(out);
+			CODEC.write(out, values);
+			out.writeBoolean(comments != null);
+			
+			if(comments != null)
+				out.write(comments);
+			
+			final Path temp = Files.createTempFile(image.toAbsolutePath().getParent(), image.getFileName().toString(), ".tmp");
+			
+			try {
+				Files.write(temp, bytes.toByteArray());
+				move(temp, image);
+			} finally {
+				Files.deleteIfExists(temp);
+			}
+		} catch(IOException | RuntimeException e) {
+			delete(image);
+		}
+	}
+	
+	/**
+	 * Deletes the image of a file whose values can't be written, so no image of older contents is left behind.
+	 */
+	
+	private static void delete(Path image) {
+		try {
+			Files.deleteIfExists(image);
+		} catch(IOException ignored) {
+		}
+	}
+	
+	private static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch(AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	
+	/**
+	 * Gets a loaded value the way it is read by the codec, with sections as maps.
+	 */
+	
+	private static Object plain(Object value) {
+		if(!(value instanceof ConfigSection section))
+			return value;
+		
+		final Map<Object, Object> map = new LinkedHashMap<>();
+		section.getValues(false).forEach((key, child) -> map.put(key, plain(child)));
+		return map;
+	}
+	
+	/**
+	 * The decoded contents of an image.
+	 *
+	 * @param values the values, with sections as maps
+	 * @param comments the restored comments, or null if there are none
+	 */
+	
+	private record Image(Map<String, Object> values, YamlCommentMapper comments) {
+		
+	}
+	
+	/**
+	 * Identifies the contents an image has been written for, or a {@link YamlFile} has last been loaded or saved with.
+	 */
+	
+	record Key(long size, long modified, int hash, String charset, boolean comments) {
+		
+		/**
+		 * Creates the key of the contents of a file.
+		 *
+		 * @param contents the contents, which are not consumed
+		 * @param modified the modification time of the file in milliseconds, read before the contents
+		 * @param options the options the contents are loaded with
+		 * @return the key
+		 */
+		
+		static Key of(ByteBuffer contents, long modified, YamlConfigOptions options) {
+			final CRC32C crc = new CRC32C();
+			crc.update(contents.duplicate());
+			
+			return new Key(contents.remaining(), modified, (int) crc.getValue(), options.charset().name(), options.useComments());
+		}
+		
+		/**
+		 * Creates the key of the same contents with another modification time.
+		 *
+		 * @param modified the modification time of the file in milliseconds
+		 * @return the key
+		 */
+		
+		Key at(long modified) {
+			return new Key(this.size, modified, this.hash, this.charset, this.comments);
+		}
+		
+		/**
+		 * Tests whether contents with this key are loaded the same way with the given options.
+		 *
+		 * @param options the options
+		 * @return true if the charset and whether comments are loaded are the same
+		 */
+		
+		boolean matches(YamlConfigOptions options) {
+			return this.charset.equals(options.charset().name()) && this.comments == options.useComments();
+		}
+		
+		private static Key read(DataInput in) throws IOException {
+			return new Key(in.readLong(), in.readLong(), in.readInt(), ValueCodec.readString(in), in.readBoolean());
+		}
+		
+		private void write(DataOutput out) throws IOException {
+			out.writeLong(this.size);
+			out.writeLong(this.modified);
+			out.writeInt(this.hash);
+			ValueCodec.writeString(out, this.charset);
+			out.writeBoolean(this.comments);
+		}
+	}
+}
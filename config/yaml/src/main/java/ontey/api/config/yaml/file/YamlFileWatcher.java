@@ -0,0 +1,387 @@
+package ontey.api.config.yaml.file;
+
+import lombok.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Reloads {@link YamlFile}s when they are changed on disk, using a {@link WatchService} instead of polling them.
+ * <br>
+ * Changes are debounced: a file is reloaded once it has not been changed for the debounce delay, so the bursts of
+ * writes of an editor saving a file cause a single reload. A file is only reloaded if its size or modification time
+ * differs from the last time it has been seen by this watcher, other files in the same directory are never touched.
+ * It is reloaded with {@link YamlFile#reloadIfChanged()}, so a file that still has the contents it has last been
+ * loaded or saved with, for example after it has been saved by this process, is neither reloaded nor published.
+ * Files with changes that have not been saved are not reloaded, as reloading would overwrite these changes.
+ * <br>
+ * Files are reloaded on the reload executor, which should be the thread using the files, such as the main thread of
+ * a server. After every reload, a {@link ReloadEvent} is published to the listeners on the same executor.
+ * <br>
+ * Example usage:
+ * <pre>{@code
+ * var watcher = new YamlFileWatcher(mainThreadExecutor);
+ * watcher.addListener(event -> {
+ *     if(event.result() == YamlFileWatcher.Result.FAILED)
+ *         logger.error("Could not reload " + event.path(), event.failure());
+ * });
+ * watcher.watch(config);
+ * }</pre>
+ */
+
+public final class YamlFileWatcher implements AutoCloseable {
+	
+	/**
+	 * The debounce delay used if none is given.
+	 */
+	
+	public static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(250);
+	
+	private final WatchService service;
+	
+	private final long debounceNanos;
+	
+	private final Executor reloadExecutor;
+	
+	private final Map<Path, Directory> directories = new ConcurrentHashMap<>(); // files are added and removed in compute
+	
+	private final Map<Path, Watched> files = new ConcurrentHashMap<>();
+	
+	private final Map<Path, Watched> pending = new HashMap<>(); // only accessed by the watcher thread
+	
+	private final List<Consumer<ReloadEvent>> listeners = new CopyOnWriteArrayList<>();
+	
+	private final Thread thread;
+	
+	private volatile boolean closed;
+	
+	/**
+	 * Creates a watcher with the {@link #DEFAULT_DEBOUNCE default debounce delay}.
+	 *
+	 * @param reloadExecutor the executor to reload files and publish events on
+	 * @throws IOException if the watch service could not be created
+	 */
+	
+	public YamlFileWatcher(@NonNull Executor reloadExecutor) throws IOException {
+		this(DEFAULT_DEBOUNCE, reloadExecutor);
+	}
+	
+	/**
+	 * Creates a watcher.
+	 *
+	 * @param debounce how long a file must not have been changed before it is reloaded
+	 * @param reloadExecutor the executor to reload files and publish events on
+	 * @throws IOException if the watch service could not be created
+	 */
+	
+	public YamlFileWatcher(@NonNull Duration debounce, @NonNull Executor reloadExecutor) throws IOException {
+		if(debounce.isNegative())
+			throw new IllegalArgumentException("Debounce delay cannot be negative");
+		
+		this.service = FileSystems.getDefault().newWatchService();
+		this.debounceNanos = debounce.toNanos();
+		this.reloadExecutor = reloadExecutor;
+		this.thread = Thread.ofPlatform().name("YamlFileWatcher").daemon().start(this::run);
+	}
+	
+	/**
+	 * Starts watching a file. Changes made before this call are not reloaded, the file should have been loaded.
+	 *
+	 * @param file the file to watch
+	 * @throws IOException if the directory of the file could not be watched
+	 * @throws IllegalArgumentException if the file has no configuration file
+	 */
+	
+	public void watch(@NonNull YamlFile file) throws IOException {
+		final File configFile = file.getConfigurationFile();
+		
+		if(configFile == null)
+			throw new IllegalArgumentException("The configuration file is null");
+		
+		if(this.closed)
+			throw new IllegalStateException("This watcher is closed");
+		
+		final Path path = configFile.toPath().toAbsolutePath().normalize();
+		final Watched watched = new Watched(file, stamp(path));
+		
+		try {
+			this.directories.compute(path.getParent(), (directory, watchedDirectory) -> {
+				if(watchedDirectory == null)
+					try {
+						watchedDirectory = new Directory(directory.register(this.service, ENTRY_CREATE, ENTRY_MODIFY));
+					} catch(IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				
+				if(this.files.put(path, watched) == null)
+					watchedDirectory.files++;
+				
+				return watchedDirectory;
+			});
+		} catch(UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+	
+	/**
+	 * Stops watching a file. Its directory is no longer watched if no other file in it is watched.
+	 *
+	 * @param file the file to stop watching
+	 */
+	
+	public void unwatch(@NonNull YamlFile file) {
+		for(final Map.Entry<Path, Watched> entry : this.files.entrySet()) {
+			if(entry.getValue().file != file)
+				continue;
+			
+			final Path path = entry.getKey();
+			
+			this.directories.compute(path.getParent(), (directory, watchedDirectory) -> {
+				if(!this.files.remove(path, entry.getValue()) || watchedDirectory == null)
+					return watchedDirectory;
+				
+				if(--watchedDirectory.files > 0)
+					return watchedDirectory;
+				
+				watchedDirectory.key.cancel();
+				return null;
+			});
+		}
+	}
+	
+	/**
+	 * Adds a listener, called on the reload executor after every reload.
+	 *
+	 * @param listener the listener to add
+	 */
+	
+	public void addListener(@NonNull Consumer<ReloadEvent> listener) {
+		this.listeners.add(listener);
+	}
+	
+	/**
+	 * Removes a listener.
+	 *
+	 * @param listener the listener to remove
+	 */
+	
+	public void removeListener(@NonNull Consumer<ReloadEvent> listener) {
+		this.listeners.remove(listener);
+	}
+	
+	/**
+	 * Stops watching all files. Reloads that have already been submitted to the reload executor still run.
+	 */
+	
+	@Override
+	public void close() throws IOException {
+		this.closed = true;
+		this.service.close();
+		this.thread.interrupt();
+	}
+	
+	private void run() {
+		while(!this.closed) {
+			final long next = this.reloadDue(System.nanoTime());
+			final WatchKey key;
+			
+			try {
+				key = next < 0 ? this.service.take() : this.service.poll(next, TimeUnit.NANOSECONDS);
+			} catch(InterruptedException | ClosedWatchServiceException e) {
+				return;
+			}
+			
+			if(key != null)
+				this.process(key);
+		}
+	}
+	
+	private void process(WatchKey key) {
+		final Path directory = (Path) key.watchable();
+		final long deadline = System.nanoTime() + this.debounceNanos;
+		
+		for(final WatchEvent<?> event : key.pollEvents()) {
+			if(event.kind() == OVERFLOW) { // events have been lost, check every file of the directory
+				for(final Map.Entry<Path, Watched> entry : this.files.entrySet())
+					if(directory.equals(entry.getKey().getParent()))
+						this.schedule(entry.getKey(), entry.getValue(), deadline);
+				
+				continue;
+			}
+			
+			final Path path = directory.resolve((Path) event.context());
+			final Watched watched = this.files.get(path);
+			
+			if(watched != null)
+				this.schedule(path, watched, deadline);
+		}
+		
+		if(!key.reset()) // the directory is no longer accessible, so are its files
+			this.directories.computeIfPresent(directory, (ignored, watchedDirectory) -> {
+				if(watchedDirectory.key != key)
+					return watchedDirectory;
+				
+				this.files.keySet().removeIf(path -> directory.equals(path.getParent()));
+				return null;
+			});
+	}
+	
+	private void schedule(Path path, Watched watched, long deadline) {
+		watched.deadline = deadline;
+		this.pending.put(path, watched);
+	}
+	
+	/**
+	 * Reloads the files whose debounce delay has passed.
+	 *
+	 * @return the nanoseconds until the next file is due, or -1 if no file is pending
+	 */
+	
+	private long reloadDue(long now) {
+		long next = -1;
+		
+		for(final Iterator<Map.Entry<Path, Watched>> iterator = this.pending.entrySet().iterator(); iterator.hasNext(); ) {
+			final Map.Entry<Path, Watched> entry = iterator.next();
+			final Watched watched = entry.getValue();
+			final long remaining = watched.deadline - now;
+			
+			if(remaining > 0) {
+				next = next < 0 ? remaining : Math.min(next, remaining);
+				continue;
+			}
+			
+			iterator.remove();
+			
+			if(this.files.get(entry.getKey()) != watched) // no longer watched
+				continue;
+			
+			final Stamp stamp = stamp(entry.getKey());
+			
+			if(stamp == null || stamp.equals(watched.stamp)) // deleted or unchanged
+				continue;
+			
+			watched.stamp = stamp;
+			this.reload(entry.getKey(), watched.file);
+		}
+		
+		return next;
+	}
+	
+	private void reload(Path path, YamlFile file) {
+		try {
+			this.reloadExecutor.execute(() -> {
+				ReloadEvent event;
+				
+				if(file.isDirty())
+					event = new ReloadEvent(file, path, Result.SKIPPED, null);
+				else
+					try {
+						if(!file.reloadIfChanged()) // written by this process
+							return;
+						
+						event = new ReloadEvent(file, path, Result.RELOADED, null);
+					} catch(IOException | RuntimeException e) {
+						event = new ReloadEvent(file, path, Result.FAILED, e);
+					}
+				
+				for(final Consumer<ReloadEvent> listener : this.listeners)
+					listener.accept(event);
+			});
+		} catch(RejectedExecutionException ignored) {
+			// the executor has been shut down, so the file is no longer used
+		}
+	}
+	
+	private static Stamp stamp(Path path) {
+		try {
+			final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			return new Stamp(attributes.size(), attributes.lastModifiedTime());
+		} catch(IOException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * The outcome of a reload.
+	 */
+	
+	public enum Result {
+		
+		/**
+		 * The file has been reloaded.
+		 */
+		
+		RELOADED,
+		
+		/**
+		 * The file has not been reloaded, as it has changes that have not been saved.
+		 */
+		
+		SKIPPED,
+		
+		/**
+		 * The file could not be reloaded, see {@link ReloadEvent#failure()}.
+		 */
+		
+		FAILED
+	}
+	
+	/**
+	 * Published after a file has been changed on disk.
+	 *
+	 * @param file the changed file
+	 * @param path the location of the file
+	 * @param result the outcome of the reload
+	 * @param failure the exception the reload failed with, or null if it has not failed
+	 */
+	
+	public record ReloadEvent(YamlFile file, Path path, Result result, Exception failure) {
+		
+	}
+	
+	private record Stamp(long size, FileTime modified) {
+		
+	}
+	
+	private static final class Directory {
+		
+		private final WatchKey key;
+		
+		// only accessed while computing the entry of the directory
+		
+		private int files;
+		
+		private Directory(WatchKey key) {
+			this.key = key;
+		}
+	}
+	
+	private static final class Watched {
+		
+		private final YamlFile file;
+		
+		// only accessed by the watcher thread after creation
+		
+		private Stamp stamp;
+		
+		private long deadline;
+		
+		private Watched(YamlFile file, Stamp stamp) {
+			this.file = file;
+			this.stamp = stamp;
+		}
+	}
+}
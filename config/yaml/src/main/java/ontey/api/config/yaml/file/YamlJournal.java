@@ -0,0 +1,342 @@
+package ontey.api.config.yaml.file;
+
+import lombok.NonNull;
+import ontey.api.check.Checker;
+import ontey.api.config.ConfigListener;
+import ontey.api.config.MemorySection;
+import ontey.api.config.util.ValueCodec;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * Records every change of a {@link YamlFile} in an append-only journal beside it, instead of saving the whole file.
+ * <br>
+ * This is meant for data that changes often, such as balances or statistics. Every batch of changes appends a record
+ * of each changed path and its new value to {@code <file>.journal}, so the cost of a change depends on its size
+ * instead of the size of the file. When the journal outgrows the compaction size, it is compacted: the file is saved
+ * in the background with {@link YamlFile#saveAsync(AsyncSaver)} and the records it contains are dropped.
+ * <br>
+ * Opening a journal loads the file and replays the records over it, so changes made after the last compaction
+ * survive a crash. Records are checksummed, a record torn by a crash while it was written is discarded.
+ * Records are written to the journal when the changes are made, but only synced when the file is saved, so a crash
+ * of the process loses no changes, a crash of the whole system may lose the changes since the last compaction.
+ * Values are recorded the way {@link YamlFileCache} stores them, values of other types in the YAML form they are
+ * saved in. A change that cannot be appended is logged and the file is compacted instead, so it is never lost and
+ * never fails the change.
+ * <br>
+ * Changes are recorded through a {@link ConfigListener}, so the journal must be used from the thread that modifies
+ * the file. Changes of lists or maps returned by getters are not noticed, set them again after changing them.
+ * <br>
+ * Example usage:
+ * <pre>{@code
+ * YamlFile balances = new YamlFile(new File(dataFolder, "balances.yml"));
+ * YamlJournal journal = YamlJournal.open(balances);
+ *
+ * balances.set("players.notch", 100.0); // appended to balances.yml.journal
+ *
+ * // on disable
+ * journal.close();
+ * }</pre>
+ */
+
+public final class YamlJournal implements AutoCloseable {
+	
+	/**
+	 * The journal size above which the journal is compacted, if none is given.
+	 */
+	
+	public static final long DEFAULT_COMPACT_SIZE = 4 << 20;
+	
+	private static final Logger LOGGER = Logger.getLogger(YamlJournal.class.getName());
+	
+	private final YamlFile file;
+	
+	private final Path journal;
+	
+	/**
+	 * The records of a compaction that is running or has failed, replayed before the journal.
+	 */
+	
+	private final Path compacting;
+	
+	private final long compactSize;
+	
+	private final AsyncSaver saver;
+	
+	private final ConfigListener listener = this::append;
+	
+	private FileChannel channel;
+	
+	private long size;
+	
+	private CompletableFuture<Void> compaction = CompletableFuture.completedFuture(null);
+	
+	/**
+	 * Whether changes could not be appended since the last compaction, so the file must be saved.
+	 */
+	
+	private boolean failed;
+	
+	private YamlJournal(YamlFile file, long compactSize, AsyncSaver saver) {
+		var path = file.getConfigurationFile().toPath();
+		
+		this.file = file;
+		this.journal = journalOf(path);
+		this.compacting = path.resolveSibling(this.journal.getFileName() + ".compacting");
+		this.compactSize = compactSize;
+		this.saver = saver;
+	}
+	
+	/**
+	 * Opens the journal of a file, compacting it when it grows over {@link #DEFAULT_COMPACT_SIZE}.
+	 *
+	 * @see #open(YamlFile, long, AsyncSaver)
+	 */
+	
+	public static @NonNull YamlJournal open(@NonNull YamlFile file) throws IOException {
+		return open(file, DEFAULT_COMPACT_SIZE, AsyncSaver.common());
+	}
+	
+	/**
+	 * Opens the journal of a file: loads the file if it exists, replays the journal over it and records all changes
+	 * of the file from now on.
+	 *
+	 * @param file the file to record the changes of
+	 * @param compactSize the journal size in bytes above which the journal is compacted
+	 * @param saver the saver to save the file with when compacting
+	 * @return the journal
+	 * @throws IOException if the file or the journal cannot be read, or the journal cannot be opened
+	 * @throws IllegalArgumentException if the configuration file is not set
+	 */
+	
+	public static @NonNull YamlJournal open(@NonNull YamlFile file, long compactSize, @NonNull AsyncSaver saver) throws IOException {
+		Checker.checkNonNull(file.getConfigurationFile(), "file doesn't have a configuration file set!");
+		Checker.checkArgument(compactSize > 0, "compactSize must be positive");
+		
+		var journal = new YamlJournal(file, compactSize, saver);
+		
+		if(file.exists())
+			file.load();
+		
+		journal.replay(journal.compacting);
+		journal.size = journal.replay(journal.journal);
+		journal.channel = FileChannel.open(journal.journal, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		file.addChangeListener("", journal.listener);
+		
+		return journal;
+	}
+	
+	/**
+	 * Gets the location of the journal of a file.
+	 *
+	 * @param file the configuration file
+	 * @return the location of its journal
+	 */
+	
+	public static @NonNull Path journalOf(@NonNull Path file) {
+		return file.resolveSibling(file.getFileName() + ".journal");
+	}
+	
+	/**
+	 * Applies the records of a journal file to the file, truncating the journal after the last intact record.
+	 *
+	 * @return the length of the intact records
+	 */
+	
+	private long replay(Path path) throws IOException {
+		if(!Files.isRegularFile(path))
+			return 0;
+		
+		var bytes = Files.readAllBytes(path);
+		var buffer = ByteBuffer.wrap(bytes);
+		var crc = new CRC32C();
+		var intact = 0;
+		
+		while(buffer.remaining() >= 8) {
+			var length = buffer.getInt();
+			var checksum = buffer.getInt();
+			
+			if(length < 0 || length > buffer.remaining())
+				break;
+			
+			crc.reset();
+			crc.update(bytes, buffer.position(), length);
+			
+			if((int) crc.getValue() != checksum)
+				break;
+			
+			var in = new DataInputStream(new ByteArrayInputStream(bytes, buffer.position(), length));
+			this.apply(ValueCodec.readString(in), YamlFileCache.CODEC.read(in));
+			buffer.position(buffer.position() + length);
+			intact = buffer.position();
+		}
+		
+		if(intact < bytes.length)
+			try(var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+				channel.truncate(intact);
+			}
+		
+		return intact;
+	}
+	
+	private void apply(String path, Object value) {
+		if(value instanceof Map<?, ?> map)
+			this.file.createSection(path, map);
+		else
+			this.file.set(path, value);
+	}
+	
+	private void append(Set<String> paths) {
+		var bytes = new ByteArrayOutputStream(64 * paths.size());
+		var header = new DataOutputStream(bytes);
+		var crc = new CRC32C();
+		
+		try {
+			for(var changed : paths) {
+				var index = changed.indexOf('[');
+				var path = index < 0 ? changed : changed.substring(0, index); // lists are recorded as a whole
+				
+				var record = new ByteArrayOutputStream(64);
+				var out = new DataOutputStream(record);
+				ValueCodec.writeString(out, path);
+				YamlFileCache.CODEC.write(out, this.stored(path));
+				
+				crc.reset();
+				crc.update(record.toByteArray());
+				
+				header.writeInt(record.size());
+				header.writeInt((int) crc.getValue());
+				record.writeTo(bytes);
+			}
+			
+			var buffer = ByteBuffer.wrap(bytes.toByteArray());
+			
+			while(buffer.hasRemaining())
+				this.channel.write(buffer);
+			
+			this.size += bytes.size();
+		} catch(IOException | RuntimeException e) {
+			// the changes are saved with the whole file instead, the journal must never fail a change of the file
+			LOGGER.log(Level.WARNING, "Could not append to journal " + this.journal + ", compacting it", e);
+			this.failed = true;
+			
+			try {
+				this.channel.truncate(this.size); // drop a torn record, later records are replayed after it
+			} catch(IOException | RuntimeException ignored) {
+			}
+		}
+		
+		if((this.failed || this.size >= this.compactSize) && this.compaction.isDone()) {
+			try {
+				this.compact();
+			} catch(RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Could not compact journal " + this.journal, e);
+			}
+		}
+	}
+	
+	/**
+	 * Gets a value as it is stored, keeping its quote style.
+	 */
+	
+	private Object stored(String path) {
+		var end = path.lastIndexOf(this.file.options().pathSeparator());
+		var parent = end < 0 ? this.file : this.file.get(path.substring(0, end), null);
+		
+		return parent instanceof MemorySection section ? section.getStoredValues().get(path.substring(end + 1)) : null;
+	}
+	
+	/**
+	 * Gets the size of the records in the journal, that have not been compacted.
+	 *
+	 * @return the journal size in bytes
+	 */
+	
+	public long size() {
+		return this.size;
+	}
+	
+	/**
+	 * Compacts the journal: starts a new journal for later changes and saves the file in the background, dropping
+	 * the records of the previous journal once the file has been saved.
+	 * <br>
+	 * If the save fails, the records are kept and compacted again by the next compaction.
+	 *
+	 * @return a future completed when the file has been saved, the running compaction if there is one
+	 * @throws UncheckedIOException if a new journal cannot be started
+	 */
+	
+	public @NonNull CompletableFuture<Void> compact() {
+		if(!this.compaction.isDone())
+			return this.compaction.copy();
+		
+		if(this.size == 0 && !Files.exists(this.compacting) && !this.file.isDirty())
+			return CompletableFuture.completedFuture(null);
+		
+		try {
+			this.channel.close();
+			
+			if(Files.exists(this.compacting)) {
+				// a compaction has failed, keep its records in front of the new ones
+				try(var out = FileChannel.open(this.compacting, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+					var bytes = ByteBuffer.wrap(Files.readAllBytes(this.journal));
+					
+					while(bytes.hasRemaining())
+						out.write(bytes);
+				}
+				
+				Files.delete(this.journal);
+			} else {
+				Files.move(this.journal, this.compacting, StandardCopyOption.ATOMIC_MOVE);
+			}
+			
+			this.channel = FileChannel.open(this.journal, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+			this.size = 0;
+			this.failed = false;
+		} catch(IOException e) {
+			throw new UncheckedIOException("Could not start a new journal " + this.journal, e);
+		}
+		
+		this.compaction = this.file.saveAsync(this.saver).thenRun(() -> {
+			try {
+				Files.deleteIfExists(this.compacting);
+			} catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		
+		return this.compaction.copy();
+	}
+	
+	/**
+	 * Stops recording changes and compacts the journal, waiting until the file has been saved.
+	 *
+	 * @throws IOException if the file could not be saved, its changes are still in the journal
+	 */
+	
+	@Override
+	public void close() throws IOException {
+		this.file.removeChangeListener("", this.listener);
+		
+		try {
+			this.compaction.handle((result, e) -> null).join();
+			this.compact().join();
+		} catch(CompletionException e) {
+			throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+		} finally {
+			this.channel.close();
+		}
+		
+		Files.deleteIfExists(this.journal); // everything has been compacted
+	}
+}
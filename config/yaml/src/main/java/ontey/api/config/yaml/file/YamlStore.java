@@ -0,0 +1,313 @@
+package ontey.api.config.yaml.file;
+
+import lombok.NonNull;
+import ontey.api.check.Checker;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Stores a {@link YamlFile} per key, such as the data of every player, keeping only a bounded number of them loaded.
+ * <br>
+ * The file of a key is {@code <directory>/<shard>/<name>.yml}, where the name is given by the naming function and the
+ * shard is one of 256 subdirectories chosen by the hash of the name, so no directory grows too large.
+ * <br>
+ * Loaded files are kept in a cache of the least recently used files. Getting a file that isn't loaded loads it on
+ * the load executor, a file that doesn't exist yet is empty until it is saved. When the cache is full, the least
+ * recently used file is evicted, and saved asynchronously if it has been changed. Getting an evicted file again
+ * waits for that save before loading it, and reuses the evicted file if the save failed, so no changes are lost.
+ * Memory use therefore only depends on the capacity, not on the number of keys.
+ * <br>
+ * Files are saved with {@link YamlFile#saveAsync(AsyncSaver)}, which takes a snapshot on the calling thread. The store
+ * must therefore be used from the thread that modifies its files, usually the server thread. A file must not be
+ * kept after it has been evicted, as later changes to it are not saved.
+ * <br>
+ * Example usage:
+ * <pre>{@code
+ * YamlStore<UUID> players = new YamlStore<>(dataFolder.toPath().resolve("players"), UUID::toString, 1000);
+ *
+ * players.get(player.getUniqueId()).thenAcceptAsync(data -> {
+ *     data.set("last-join", System.currentTimeMillis());
+ * }, mainThreadExecutor);
+ *
+ * // on disable
+ * players.close();
+ * }</pre>
+ *
+ * @param <K> the type of the keys
+ */
+
+public final class YamlStore<K> implements AutoCloseable {
+	
+	private static final int SHARDS = 256;
+	
+	private final Path directory;
+	
+	private final Function<? super K, String> naming;
+	
+	private final int capacity;
+	
+	private final Executor executor;
+	
+	private final boolean ownsExecutor;
+	
+	private final AsyncSaver saver;
+	
+	/**
+	 * The loaded and loading files, in access order. Guarded by this store.
+	 */
+	
+	private final LinkedHashMap<K, CompletableFuture<YamlFile>> cache = new LinkedHashMap<>(16, 0.75f, true);
+	
+	/**
+	 * The evicted files being saved, and those whose save failed.
+	 */
+	
+	private final Map<K, WriteBack> writeBacks = new ConcurrentHashMap<>();
+	
+	/**
+	 * Creates a store loading files on virtual threads and saving them with the {@link AsyncSaver#common() common saver}.
+	 *
+	 * @param directory the directory of the files
+	 * @param naming gets the file name of a key, without extension
+	 * @param capacity the maximum number of loaded files
+	 */
+	
+	public YamlStore(@NonNull Path directory, @NonNull Function<? super K, String> naming, int capacity) {
+		this(directory, naming, capacity, Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("YamlStore-", 0).factory()), true, AsyncSaver.common());
+	}
+	
+	/**
+	 * Creates a store.
+	 *
+	 * @param directory the directory of the files
+	 * @param naming gets the file name of a key, without extension
+	 * @param capacity the maximum number of loaded files
+	 * @param loadExecutor the executor to load files on, which is not shut down when this store is closed
+	 * @param saver the saver to save files with
+	 */
+	
+	public YamlStore(@NonNull Path directory, @NonNull Function<? super K, String> naming, int capacity, @NonNull Executor loadExecutor, @NonNull AsyncSaver saver) {
+		this(directory, naming, capacity, loadExecutor, false, saver);
+	}
+	
+	private YamlStore(Path directory, Function<? super K, String> naming, int capacity, Executor executor, boolean ownsExecutor, AsyncSaver saver) {
+		Checker.checkArgument(capacity > 0, "capacity must be positive");
+		
+		this.directory = directory;
+		this.naming = naming;
+		this.capacity = capacity;
+		this.executor = executor;
+		this.ownsExecutor = ownsExecutor;
+		this.saver = saver;
+	}
+	
+	/**
+	 * Gets the location of the file of a key.
+	 *
+	 * @param key the key
+	 * @return the file of the key, which may not exist
+	 * @throws IllegalArgumentException if the name of the key is not a valid file name
+	 */
+	
+	public @NonNull Path pathOf(@NonNull K key) {
+		var name = this.naming.apply(key);
+		Checker.checkArgument(name != null && !name.isEmpty() && !name.startsWith(".") && name.indexOf('/') < 0 && name.indexOf('\\') < 0,
+		  "Invalid file name '" + name + "' of key " + key);
+		
+		var shard = Integer.toHexString(SHARDS | (name.hashCode() & (SHARDS - 1))).substring(1);
+		return this.directory.resolve(shard).resolve(name + ".yml");
+	}
+	
+	/**
+	 * Gets the file of a key, loading it if it isn't loaded.
+	 * <br>
+	 * The future of a file being loaded is shared by all calls until it is loaded. If loading fails, the future
+	 * completes exceptionally and the next call loads the file again.
+	 *
+	 * @param key the key
+	 * @return a future completed with the file, on the load executor if it had to be loaded
+	 */
+	
+	public @NonNull CompletableFuture<YamlFile> get(@NonNull K key) {
+		CompletableFuture<YamlFile> future;
+		
+		synchronized(this) {
+			future = this.cache.get(key);
+			
+			if(future != null)
+				return future;
+			
+			future = this.load(key);
+			this.cache.put(key, future);
+			this.evict();
+		}
+		
+		var loading = future;
+		loading.whenComplete((file, e) -> {
+			if(e != null)
+				synchronized(this) {
+					this.cache.remove(key, loading);
+				}
+		});
+		
+		return future;
+	}
+	
+	private CompletableFuture<YamlFile> load(K key) {
+		var pending = this.writeBacks.get(key);
+		
+		if(pending == null)
+			return CompletableFuture.supplyAsync(() -> this.read(key), this.executor);
+		
+		return pending.future().handle((result, e) -> e).thenApplyAsync(e -> {
+			if(e == null)
+				return this.read(key);
+			
+			this.writeBacks.remove(key, pending);
+			return pending.file(); // still has the changes that could not be saved
+		}, this.executor);
+	}
+	
+	private YamlFile read(K key) {
+		var file = new YamlFile(this.pathOf(key).toFile());
+		
+		try {
+			if(file.exists())
+				file.load();
+		} catch(IOException e) {
+			throw new CompletionException(e);
+		}
+		
+		return file;
+	}
+	
+	/**
+	 * Removes the least recently used loaded files over the capacity and saves them. Files still loading are skipped.
+	 * <br>
+	 * This is called while holding the lock of this store, so the save is registered before the file can be loaded again.
+	 */
+	
+	private void evict() {
+		var excess = this.cache.size() - this.capacity;
+		
+		for(var it = this.cache.entrySet().iterator(); it.hasNext() && excess > 0; ) {
+			var entry = it.next();
+			var future = entry.getValue();
+			
+			if(!future.isDone())
+				continue;
+			
+			it.remove();
+			excess--;
+			
+			if(!future.isCompletedExceptionally())
+				this.writeBack(entry.getKey(), future.join());
+		}
+	}
+	
+	private CompletableFuture<Void> writeBack(K key, YamlFile file) {
+		if(!file.isDirty())
+			return CompletableFuture.completedFuture(null);
+		
+		var writeBack = new WriteBack(file, file.saveAsync(this.saver));
+		this.writeBacks.put(key, writeBack);
+		
+		// failed saves are kept until the file is loaded again or flushed
+		return writeBack.future().thenRun(() -> this.writeBacks.remove(key, writeBack));
+	}
+	
+	/**
+	 * Gets the file of a key if it is loaded, without loading it.
+	 *
+	 * @param key the key
+	 * @return the loaded file, or {@code null} if it isn't loaded
+	 */
+	
+	public synchronized @Nullable YamlFile getIfLoaded(@NonNull K key) {
+		var future = this.cache.get(key);
+		return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+	}
+	
+	/**
+	 * Gets the number of loaded and loading files.
+	 *
+	 * @return the number of files in the cache
+	 */
+	
+	public synchronized int size() {
+		return this.cache.size();
+	}
+	
+	/**
+	 * Evicts the file of a key, saving it if it has been changed.
+	 *
+	 * @param key the key
+	 * @return a future completed when the file has been saved
+	 */
+	
+	public synchronized @NonNull CompletableFuture<Void> evict(@NonNull K key) {
+		var future = this.cache.get(key);
+		
+		if(future == null || !future.isDone())
+			return CompletableFuture.completedFuture(null);
+		
+		this.cache.remove(key);
+		return future.isCompletedExceptionally() ? CompletableFuture.completedFuture(null) : this.writeBack(key, future.join());
+	}
+	
+	/**
+	 * Saves all loaded files that have been changed, and retries saving evicted files whose save failed.
+	 *
+	 * @return a future completed when all files have been saved
+	 */
+	
+	public synchronized @NonNull CompletableFuture<Void> flush() {
+		var saves = new ArrayList<CompletableFuture<Void>>();
+		
+		for(var future : this.cache.values())
+			if(future.isDone() && !future.isCompletedExceptionally() && future.join().isDirty())
+				saves.add(future.join().saveAsync(this.saver));
+		
+		for(var entry : this.writeBacks.entrySet()) {
+			var writeBack = entry.getValue();
+			
+			if(writeBack.future().isCompletedExceptionally() && this.writeBacks.remove(entry.getKey(), writeBack))
+				saves.add(this.writeBack(entry.getKey(), writeBack.file()));
+		}
+		
+		return CompletableFuture.allOf(saves.toArray(CompletableFuture[]::new));
+	}
+	
+	/**
+	 * Saves all changed files, waiting until they have been written, and unloads them.
+	 * Shuts down the load executor if it has been created by this store.
+	 *
+	 * @throws CompletionException if a file could not be saved
+	 */
+	
+	@Override
+	public void close() {
+		try {
+			this.flush().join();
+			
+			for(var writeBack : this.writeBacks.values())
+				writeBack.future().join();
+		} finally {
+			synchronized(this) {
+				this.cache.clear();
+			}
+			
+			if(this.ownsExecutor)
+				((ExecutorService) this.executor).close();
+		}
+	}
+	
+	private record WriteBack(YamlFile file, CompletableFuture<Void> future) {
+		
+	}
+}
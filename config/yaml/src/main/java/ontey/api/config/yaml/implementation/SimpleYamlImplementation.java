@@ -61,6 +61,11 @@ public class SimpleYamlImplementation extends SnakeYamlImplementation {
 		this.yamlCommentMapper.setComment(path, comment, type);
 	}
 	
+	@Override
+	public YamlCommentMapper createCommentMapper() {
+		return new YamlCommentMapper(this.options);
+	}
+	
 	@Override
 	@SuppressWarnings("DuplicateThrows")
 	public void load(SupplierIO.Reader readerSupplier, ConfigSection section) throws IOException, InvalidConfigException {
@@ -48,6 +48,27 @@ public abstract class YamlImplementationCommentable implements YamlImplementatio
 		return this.yamlCommentMapper;
 	}
 	
+	/**
+	 * Creates an empty comment mapper without using it, to restore the comments of the loaded contents
+	 * without parsing them, for example from a cache. See {@link #setCommentMapper(YamlCommentMapper)}.
+	 *
+	 * @return the new comment mapper
+	 */
+	
+	public YamlCommentMapper createCommentMapper() {
+		return new YamlCommentMapper(this.options);
+	}
+	
+	/**
+	 * Replaces the comment mapper with one created by {@link #createCommentMapper()}.
+	 *
+	 * @param commentMapper the comment mapper
+	 */
+	
+	public void setCommentMapper(YamlCommentMapper commentMapper) {
+		this.yamlCommentMapper = commentMapper;
+	}
+	
 	@Override
 	public void configure(YamlConfigOptions options) {
 		this.options = options;
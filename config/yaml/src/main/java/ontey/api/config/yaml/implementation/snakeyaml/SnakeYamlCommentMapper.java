@@ -20,6 +20,8 @@ public class SnakeYamlCommentMapper extends YamlCommentMapper {
 	
 	protected KeyTree.Node currentNode;
 	
+	protected KeyTree.Node skippedParent; // parent of the last leaf that has not been tracked
+	
 	protected String sideCommentPrefix;
 	
 	protected boolean headerParsed = false;
@@ -42,11 +44,21 @@ public class SnakeYamlCommentMapper extends YamlCommentMapper {
 	protected KeyTree.Node track(KeyTree.Node parent, String name, Node key, Node value) {
 		final int indent = key.getStartMark().getColumn();
 		
+		final List<CommentLine> blockComments = key.getBlockComments();
+		final List<CommentLine> sideComments = this.getSideCommentNode(key, value).getInLineComments();
+		
+		if(parent != null && isEmpty(blockComments) && isEmpty(sideComments) && !(key instanceof CollectionNode) && !(value instanceof CollectionNode)) {
+			// leaves without comments would be cleared after their mapping anyway, don't create them at all
+			this.currentNode = null;
+			this.skippedParent = parent;
+			return null;
+		}
+		
 		final KeyTree.Node commentNode = this.track(parent, indent, name);
 		
-		this.trackBlockComment(commentNode, key.getBlockComments());
+		this.trackBlockComment(commentNode, blockComments);
 		
-		this.trackSideComment(commentNode, this.getSideCommentNode(key, value).getInLineComments());
+		this.trackSideComment(commentNode, sideComments);
 		
 		if(value instanceof SequenceNode) {
 			commentNode.isList(((SequenceNode) value).getValue().size());
@@ -58,7 +70,7 @@ public class SnakeYamlCommentMapper extends YamlCommentMapper {
 	protected KeyTree.Node trackElement(KeyTree.Node parent, String name, Node key, int elementIndex) {
 		final KeyTree.Node commentNode = this.track(parent, name, key, null);
 		
-		if(elementIndex >= 0) {
+		if(commentNode != null && elementIndex >= 0) {
 			commentNode.setElementIndex(elementIndex);
 		}
 		
@@ -70,9 +82,14 @@ public class SnakeYamlCommentMapper extends YamlCommentMapper {
 			parent = this.keyTree.findParent(indent);
 		}
 		this.currentNode = parent.add(indent, key);
+		this.skippedParent = null;
 		return this.currentNode;
 	}
 	
+	private static boolean isEmpty(List<CommentLine> comments) {
+		return comments == null || comments.isEmpty();
+	}
+	
 	protected void trackBlockComment(KeyTree.Node node, List<CommentLine> comments) {
 		if(node != null && comments != null && !comments.isEmpty()) {
 			final String indent = StringUtils.indentation(node.getIndent());
@@ -234,8 +251,13 @@ public class SnakeYamlCommentMapper extends YamlCommentMapper {
 	}
 	
 	protected void clearCurrentNodeIfNoComments() {
-		super.clearNodeIfNoComments(this.currentNode);
+		if(this.currentNode != null) {
+			super.clearNodeIfNoComments(this.currentNode);
+		} else if(this.skippedParent != null) {
+			this.skippedParent.clearIf(NO_COMMENTS);
+		}
 		this.currentNode = null;
+		this.skippedParent = null;
 	}
 	
 	@Override
@@ -5,6 +5,7 @@ import ontey.api.config.ConfigSection;
 import ontey.api.config.comment.CommentType;
 import ontey.api.config.comment.KeyTree;
 import ontey.api.config.exception.InvalidConfigException;
+import ontey.api.config.yaml.comment.YamlCommentMapper;
 import ontey.api.config.yaml.file.YamlConfigOptions;
 import ontey.api.config.yaml.implementation.api.YamlImplementationCommentable;
 import org.yaml.snakeyaml.DumperOptions;
@@ -207,6 +208,11 @@ public class SnakeYamlImplementation extends YamlImplementationCommentable {
 		this.yamlCommentMapper.setComment(path, comment, type);
 	}
 	
+	@Override
+	public YamlCommentMapper createCommentMapper() {
+		return new SnakeYamlCommentMapper(this.options);
+	}
+	
 	protected void trackMapping(MappingNode node, ConfigSection section, KeyTree.Node parent, SnakeYamlCommentMapper yamlCommentMapper) {
 		if(node != null) {
 			this.yamlConstructor.flattenMapping(node);
@@ -0,0 +1,63 @@
+package ontey.api.config.yaml.benchmark;
+
+import ontey.api.config.yaml.file.YamlFile;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many times per second a file with comments is saved to a string.
+ * <br>
+ * Saving with comments merges the comments into the dumped lines of the file through a {@code DumperBus}.
+ * The file has sections of 10 keys with a block comment on every section and a side comment on every other key,
+ * like a typical plugin config.
+ * Run with {@code java CommentedSaveBenchmark [keys] [seconds]}.
+ */
+
+public final class CommentedSaveBenchmark {
+	
+	private static final int KEYS_PER_SECTION = 10;
+	
+	public static void main(String[] args) throws IOException {
+		final int keys = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		final long seconds = args.length > 1 ? Long.parseLong(args[1]) : 3;
+		
+		final YamlFile file = YamlFile.loadConfigurationFromString(contents(keys), true);
+		
+		for(int round = 0; round < 2; round++) { // first round is warm up
+			final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+			long saves = 0;
+			long chars = 0;
+			
+			while(System.nanoTime() < end) {
+				chars += file.saveToString().length();
+				saves++;
+			}
+			
+			if(round == 1) {
+				System.out.printf("keys: %d, seconds: %d, threads: %d%n", keys, seconds, Thread.activeCount());
+				System.out.printf("saves:         %,15d saves/s%n", saves / seconds);
+				System.out.printf("throughput:    %,15d chars/s%n", chars / seconds);
+			}
+		}
+	}
+	
+	private static String contents(int keys) {
+		final StringBuilder builder = new StringBuilder(keys * 48);
+		
+		for(int i = 0; i < keys; i++) {
+			if(i % KEYS_PER_SECTION == 0)
+				builder.append("# settings of section ").append(i / KEYS_PER_SECTION).append('\n')
+				  .append("section").append(i / KEYS_PER_SECTION).append(":\n");
+			
+			builder.append("  key").append(i % KEYS_PER_SECTION).append(": value").append(i);
+			
+			if(i % 2 == 0)
+				builder.append(" # side comment ").append(i);
+			
+			builder.append('\n');
+		}
+		
+		return builder.toString();
+	}
+}
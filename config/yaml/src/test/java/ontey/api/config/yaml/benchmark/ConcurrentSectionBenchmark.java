@@ -0,0 +1,133 @@
+package ontey.api.config.yaml.benchmark;
+
+import ontey.api.config.ConcurrentMemoryConfig;
+import ontey.api.config.ConfigPath;
+import ontey.api.config.MemoryConfig;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares the throughput of a {@link ConcurrentMemoryConfig} with a {@link MemoryConfig}
+ * guarded by one global lock, with several threads reading and writing at once.
+ * <br>
+ * Every thread reads mostly from its own subtree and sometimes writes to it, like plugins do
+ * with per-feature sections.
+ * Run with {@code java ConcurrentSectionBenchmark [threads] [seconds]}.
+ */
+
+public final class ConcurrentSectionBenchmark {
+	
+	private static final int KEYS = 64;
+	
+	/**
+	 * One write every WRITE_RATIO operations.
+	 */
+	
+	private static final int WRITE_RATIO = 10;
+	
+	public static void main(String[] args) throws InterruptedException {
+		final int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		final long seconds = args.length > 1 ? Long.parseLong(args[1]) : 3;
+		
+		for(int round = 0; round < 2; round++) { // first round is warm up
+			final MemoryConfig synchronizedConfig = new MemoryConfig();
+			final Object lock = new Object();
+			
+			final long synchronizedOps = run(threads, seconds, synchronizedConfig, new Access() {
+				@Override
+				public Object get(ConfigPath path) {
+					synchronized(lock) {
+						return synchronizedConfig.get(path, null);
+					}
+				}
+				
+				@Override
+				public void set(ConfigPath path, Object value) {
+					synchronized(lock) {
+						synchronizedConfig.set(path, value);
+					}
+				}
+			});
+			
+			final ConcurrentMemoryConfig concurrentConfig = new ConcurrentMemoryConfig();
+			
+			final long concurrentOps = run(threads, seconds, concurrentConfig, new Access() {
+				@Override
+				public Object get(ConfigPath path) {
+					return concurrentConfig.get(path, null);
+				}
+				
+				@Override
+				public void set(ConfigPath path, Object value) {
+					concurrentConfig.set(path, value);
+				}
+			});
+			
+			if(round == 1) {
+				System.out.printf("threads: %d, seconds: %d%n", threads, seconds);
+				System.out.printf("global lock:            %,15d ops/s%n", synchronizedOps / seconds);
+				System.out.printf("ConcurrentMemoryConfig: %,15d ops/s%n", concurrentOps / seconds);
+			}
+		}
+	}
+	
+	private static long run(int threads, long seconds, MemoryConfig config, Access access) throws InterruptedException {
+		final ConfigPath[][] paths = new ConfigPath[threads][KEYS];
+		
+		for(int t = 0; t < threads; t++) {
+			for(int k = 0; k < KEYS; k++) {
+				paths[t][k] = ConfigPath.of("features.feature" + t + ".values.key" + k);
+				config.set(paths[t][k], k);
+			}
+		}
+		
+		final LongAdder ops = new LongAdder();
+		final CountDownLatch start = new CountDownLatch(1);
+		final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+		final Thread[] workers = new Thread[threads];
+		
+		for(int t = 0; t < threads; t++) {
+			final ConfigPath[] own = paths[t];
+			workers[t] = new Thread(() -> {
+				try {
+					start.await();
+				} catch(InterruptedException e) {
+					return;
+				}
+				
+				long count = 0;
+				int i = 0;
+				
+				while((count & 1023) != 0 || System.nanoTime() < end) {
+					final ConfigPath path = own[i++ & (KEYS - 1)];
+					
+					if(count % WRITE_RATIO == 0)
+						access.set(path, i);
+					else
+						access.get(path);
+					
+					count++;
+				}
+				
+				ops.add(count);
+			});
+			workers[t].start();
+		}
+		
+		start.countDown();
+		
+		for(final Thread worker : workers)
+			worker.join();
+		
+		return ops.sum();
+	}
+	
+	private interface Access {
+		
+		Object get(ConfigPath path);
+		
+		void set(ConfigPath path, Object value);
+	}
+}
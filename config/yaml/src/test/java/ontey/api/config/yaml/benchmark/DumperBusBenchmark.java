@@ -0,0 +1,59 @@
+package ontey.api.config.yaml.benchmark;
+
+import ontey.api.config.util.DumperBus;
+
+import java.io.IOException;
+
+/**
+ * Measures how fast the lines of a large dump are transported through a {@link DumperBus}.
+ * <br>
+ * The source writes lines like the YAML emitter does, every line break is a separate write.
+ * Run with {@code java DumperBusBenchmark [megabytes]}.
+ */
+
+public final class DumperBusBenchmark {
+	
+	public static void main(String[] args) throws IOException {
+		final int megabytes = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+		final long chars = megabytes * 1024L * 1024L;
+		
+		final DumperBus.Dumper source = writer -> {
+			long written = 0;
+			int i = 0;
+			
+			while(written < chars) {
+				final String key = "  key" + i++;
+				writer.write(key);
+				writer.write(": ");
+				writer.write("some value of the key");
+				writer.write("\n");
+				written += key.length() + 24;
+			}
+		};
+		
+		for(int round = 0; round < 3; round++) { // first rounds are warm up
+			final long nanos = consume(new DumperBus(source));
+			
+			if(round == 2) {
+				System.out.printf("megabytes: %d%n", megabytes);
+				System.out.printf("await(): %,8d MB/s%n", megabytes * 1_000_000_000L / nanos);
+			}
+		}
+	}
+	
+	private static long consume(DumperBus bus) throws IOException {
+		final long start = System.nanoTime();
+		long length = 0;
+		
+		bus.dump();
+		
+		String line;
+		while((line = bus.await()) != null)
+			length += line.length();
+		
+		if(length == 0)
+			throw new IllegalStateException();
+		
+		return System.nanoTime() - start;
+	}
+}
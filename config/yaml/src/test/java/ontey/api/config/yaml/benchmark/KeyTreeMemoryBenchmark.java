@@ -0,0 +1,91 @@
+package ontey.api.config.yaml.benchmark;
+
+import ontey.api.config.comment.KeyTree;
+import ontey.api.config.yaml.file.YamlFile;
+
+import java.io.IOException;
+
+/**
+ * Measures the heap retained by the comment {@link KeyTree} of a large file and the time it takes to load it.
+ * <br>
+ * The file has 100k keys in sections of 100 keys, with a comment on every n-th key.
+ * The retained heap of the file loaded without comments is subtracted, so only the key tree is measured.
+ * Run with {@code java KeyTreeMemoryBenchmark [keys] [comment every n-th key]}.
+ */
+
+public final class KeyTreeMemoryBenchmark {
+	
+	private static final int KEYS_PER_SECTION = 100;
+	
+	public static void main(String[] args) throws IOException {
+		final int keys = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+		final int commentEvery = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		
+		final String contents = contents(keys, commentEvery);
+		
+		for(int round = 0; round < 2; round++) { // first round is warm up
+			final long withoutComments = retained(contents, false);
+			final long withComments = retained(contents, true);
+			
+			long start = System.nanoTime();
+			final YamlFile file = YamlFile.loadConfigurationFromString(contents, true);
+			final long loadNanos = System.nanoTime() - start;
+			
+			final int nodes = count(file.getCommentMapper().getKeyTree().getRoot());
+			
+			if(round == 1) {
+				final long treeBytes = withComments - withoutComments;
+				System.out.printf("keys: %,d, comment every %d keys%n", keys, commentEvery);
+				System.out.printf("nodes:         %,15d%n", nodes);
+				System.out.printf("key tree:      %,15d bytes%n", treeBytes);
+				System.out.printf("per key:       %,15.1f bytes%n", (double) treeBytes / keys);
+				System.out.printf("load:          %,15d ms%n", loadNanos / 1_000_000);
+			}
+		}
+	}
+	
+	private static String contents(int keys, int commentEvery) {
+		final StringBuilder builder = new StringBuilder(keys * 32);
+		
+		for(int i = 0; i < keys; i++) {
+			if(i % KEYS_PER_SECTION == 0)
+				builder.append("section").append(i / KEYS_PER_SECTION).append(":\n");
+			
+			if(i % commentEvery == 0)
+				builder.append("  # comment of key").append(i).append('\n');
+			
+			builder.append("  key").append(i % KEYS_PER_SECTION).append(": ").append(i).append('\n');
+		}
+		
+		return builder.toString();
+	}
+	
+	private static long retained(String contents, boolean withComments) throws IOException {
+		final long before = usedMemory();
+		final YamlFile file = YamlFile.loadConfigurationFromString(contents, withComments);
+		final long after = usedMemory();
+		
+		if(file.getKeys(false).isEmpty()) // keep the file reachable until measured
+			throw new IllegalStateException();
+		
+		return after - before;
+	}
+	
+	private static int count(KeyTree.Node node) {
+		int count = 1;
+		
+		for(final KeyTree.Node child : node)
+			count += count(child);
+		
+		return count;
+	}
+	
+	private static long usedMemory() {
+		final Runtime runtime = Runtime.getRuntime();
+		
+		for(int i = 0; i < 3; i++)
+			System.gc();
+		
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
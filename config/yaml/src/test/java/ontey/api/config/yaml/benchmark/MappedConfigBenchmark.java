@@ -0,0 +1,94 @@
+package ontey.api.config.yaml.benchmark;
+
+import ontey.api.config.ConfigSection;
+import ontey.api.config.MappedConfig;
+import ontey.api.config.yaml.file.YamlConfig;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Compares the heap used by a loaded {@link YamlConfig} and a {@link MappedConfig} of the same values,
+ * and the time of random lookups in both.
+ * <br>
+ * The values are sections of 5 keys with strings, numbers and lists.
+ * Run with {@code java MappedConfigBenchmark [sections] [lookups]}.
+ */
+
+public final class MappedConfigBenchmark {
+	
+	private static volatile Object sink;
+	
+	public static void main(String[] args) throws IOException {
+		final int sections = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+		final int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+		final Path file = Files.createTempFile("mapped-benchmark", ".bin");
+		
+		try {
+			final long before = usedHeap();
+			YamlConfig config = config(sections);
+			final long configHeap = usedHeap() - before;
+			
+			MappedConfig.export(config, file);
+			
+			for(int round = 0; round < 3; round++) { // first rounds are warm up
+				final double memory = nanosPerLookup(config, sections, lookups);
+				final double mapped = nanosPerLookup(MappedConfig.open(file), sections, lookups);
+				
+				if(round == 2)
+					System.out.printf("sections: %,d  memory: %6.1f ns/lookup  mapped: %6.1f ns/lookup%n", sections, memory, mapped);
+			}
+			
+			config = null;
+			final long released = usedHeap();
+			final MappedConfig mapped = MappedConfig.open(file);
+			final long mappedHeap = usedHeap() - released;
+			
+			System.out.printf("file: %,d bytes  heap of memory config: %,d bytes  heap of mapped config: %,d bytes%n",
+			  Files.size(file), configHeap, mappedHeap);
+			sink = mapped;
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	private static YamlConfig config(int sections) {
+		final YamlConfig config = new YamlConfig();
+		
+		for(int i = 0; i < sections; i++) {
+			final ConfigSection section = config.createSection("items.item" + i);
+			section.set("name", "Item number " + i);
+			section.set("price", i * 1.5);
+			section.set("stack", i % 64);
+			section.set("id", (long) i);
+			section.set("lore", List.of("first line of " + i, "second line"));
+		}
+		
+		return config;
+	}
+	
+	private static double nanosPerLookup(ConfigSection config, int sections, int lookups) {
+		final String[] paths = new String[1024];
+		
+		for(int i = 0; i < paths.length; i++)
+			paths[i] = "items.item" + (i * 7919 % sections) + (i % 2 == 0 ? ".name" : ".price");
+		
+		final long start = System.nanoTime();
+		
+		for(int i = 0; i < lookups; i++)
+			sink = config.get(paths[i & 1023]);
+		
+		return (System.nanoTime() - start) / (double) lookups;
+	}
+	
+	private static long usedHeap() {
+		final Runtime runtime = Runtime.getRuntime();
+		
+		for(int i = 0; i < 3; i++)
+			System.gc();
+		
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,83 @@
+package ontey.api.config.yaml.benchmark;
+
+import ontey.api.config.yaml.file.YamlFile;
+import ontey.api.config.yaml.file.YamlFileBatch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Compares loading a directory of small files one after another with loading them as a {@link YamlFileBatch}.
+ * <br>
+ * Every file has a few sections with strings, numbers and lists, like the data of a player.
+ * Run with {@code java YamlBatchBenchmark [files] [threads]}.
+ */
+
+public final class YamlBatchBenchmark {
+	
+	public static void main(String[] args) throws IOException {
+		final int count = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+		final int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		final Path directory = Files.createTempDirectory("batch-benchmark");
+		
+		try {
+			final List<Path> paths = new ArrayList<>(count);
+			
+			for(int i = 0; i < count; i++) {
+				final Path path = directory.resolve("player" + i + ".yml");
+				Files.writeString(path, contents(i));
+				paths.add(path);
+			}
+			
+			for(int round = 0; round < 3; round++) { // first rounds are warm up
+				final long start = System.nanoTime();
+				
+				for(final YamlFile file : files(paths))
+					file.load();
+				
+				final double sequential = (System.nanoTime() - start) / 1_000_000.0;
+				final YamlFileBatch.Result result = YamlFileBatch.load(files(paths), threads);
+				
+				if(round == 2)
+					System.out.printf("files: %,d  sequential: %8.1f ms  batch: %s (%.1fx)%n",
+					  count, sequential, result, sequential / (result.elapsedNanos() / 1_000_000.0));
+			}
+		} finally {
+			try(Stream<Path> files = Files.walk(directory)) {
+				for(final Path path : files.sorted(Comparator.reverseOrder()).toList())
+					Files.delete(path);
+			}
+		}
+	}
+	
+	private static List<YamlFile> files(List<Path> paths) {
+		final List<YamlFile> files = new ArrayList<>(paths.size());
+		
+		for(final Path path : paths)
+			files.add(new YamlFile(path.toFile()));
+		
+		return files;
+	}
+	
+	private static String contents(int i) {
+		return """
+		  name: Player%d
+		  stats:
+		    kills: %d
+		    deaths: %d
+		    playtime: %d.5
+		  homes:
+		    home:
+		      world: world
+		      x: %d
+		      y: 64
+		      z: -%d
+		  unlocked: [kit-a, kit-b, title-%d]
+		  """.formatted(i, i * 3, i * 2, i * 60, i, i, i);
+	}
+}
@@ -0,0 +1,85 @@
+package ontey.api.config.yaml.benchmark;
+
+import ontey.api.config.yaml.file.YamlFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compares loading a file by parsing it with loading it from its binary cache image.
+ * <br>
+ * The file has sections of 20 keys with strings, numbers and lists, and a comment on every 10th key.
+ * Run with {@code java YamlCacheBenchmark [keys] [loads per round]}.
+ */
+
+public final class YamlCacheBenchmark {
+	
+	public static void main(String[] args) throws IOException {
+		final int keys = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+		final int loads = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+		
+		final Path path = Files.createTempFile("cache-benchmark", ".yml");
+		final Path image = path.resolveSibling("." + path.getFileName() + ".cache");
+		Files.writeString(path, contents(keys));
+		
+		try {
+			for(int round = 0; round < 3; round++) { // first rounds are warm up
+				for(final boolean comments : new boolean[] {false, true}) {
+					final double parse = millisPerLoad(path.toFile(), false, comments, loads);
+					final double cache = millisPerLoad(path.toFile(), true, comments, loads);
+					
+					if(round == 2)
+						System.out.printf("keys: %,d, comments: %-5s  parse: %8.2f ms  cache: %8.2f ms  (%.1fx)%n",
+						  keys, comments, parse, cache, parse / cache);
+				}
+			}
+			
+			System.out.printf("file: %,d bytes, image: %,d bytes%n", Files.size(path), Files.size(image));
+		} finally {
+			Files.deleteIfExists(image);
+			Files.deleteIfExists(path);
+		}
+	}
+	
+	private static double millisPerLoad(File file, boolean useCache, boolean comments, int loads) throws IOException {
+		long nanos = 0;
+		
+		for(int i = 0; i < loads; i++) {
+			final YamlFile yamlFile = new YamlFile(file);
+			yamlFile.options().useCache(useCache).useComments(comments);
+			
+			final long start = System.nanoTime();
+			yamlFile.load();
+			nanos += System.nanoTime() - start;
+		}
+		
+		return nanos / 1_000_000.0 / loads;
+	}
+	
+	private static String contents(int keys) {
+		final StringBuilder builder = new StringBuilder(keys * 40);
+		
+		for(int i = 0; i < keys; i++) {
+			if(i % 20 == 0)
+				builder.append("section").append(i / 20).append(":\n");
+			
+			if(i % 10 == 0)
+				builder.append("  # comment of key").append(i).append('\n');
+			
+			builder.append("  key").append(i % 20).append(": ");
+			
+			switch(i % 4) {
+				case 0 -> builder.append("text number ").append(i);
+				case 1 -> builder.append(i);
+				case 2 -> builder.append(i / 3.0);
+				default -> builder.append("[a, b, ").append(i).append(']');
+			}
+			
+			builder.append('\n');
+		}
+		
+		return builder.toString();
+	}
+}
@@ -0,0 +1,61 @@
+package ontey.api.config.yaml.benchmark;
+
+import ontey.api.config.yaml.file.AsyncSaver;
+import ontey.api.config.yaml.file.YamlFile;
+import ontey.api.config.yaml.file.YamlJournal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compares persisting every change of a large file by saving the whole file with appending it to a {@link YamlJournal}.
+ * <br>
+ * The file holds the balances of many players, every change updates one balance.
+ * Run with {@code java YamlJournalBenchmark [players] [changes]}.
+ */
+
+public final class YamlJournalBenchmark {
+	
+	public static void main(String[] args) throws IOException {
+		final int players = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+		final int changes = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+		final Path path = Files.createTempFile("journal-benchmark", ".yml");
+		
+		try(AsyncSaver saver = new AsyncSaver()) {
+			final YamlFile file = new YamlFile(path.toFile());
+			
+			for(int i = 0; i < players; i++)
+				file.set("balances.player" + i, i * 1.5);
+			
+			file.save();
+			
+			for(int round = 0; round < 3; round++) { // first rounds are warm up
+				long start = System.nanoTime();
+				
+				for(int i = 0; i < changes; i++) {
+					file.set("balances.player" + (i * 7919 % players), round + i * 0.25);
+					file.save();
+				}
+				
+				final double save = (System.nanoTime() - start) / 1000.0 / changes;
+				final YamlJournal journal = YamlJournal.open(file, Long.MAX_VALUE, saver);
+				start = System.nanoTime();
+				
+				for(int i = 0; i < changes; i++)
+					file.set("balances.player" + (i * 7919 % players), round + i * 0.5);
+				
+				final double append = (System.nanoTime() - start) / 1000.0 / changes;
+				final long size = journal.size();
+				journal.close();
+				
+				if(round == 2)
+					System.out.printf("players: %,d  file: %,d bytes  save: %9.1f us/change  journal: %6.1f us/change (%.0fx, %d bytes/change)%n",
+					  players, Files.size(path), save, append, save / append, size / changes);
+			}
+		} finally {
+			Files.deleteIfExists(path);
+			Files.deleteIfExists(YamlJournal.journalOf(path));
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package ontey.api.config.yaml.benchmark;
+
+import ontey.api.config.yaml.file.YamlFile;
+import ontey.api.config.yaml.file.YamlFileBatch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Compares reloading a directory of files of which one has changed, by loading all of them again and by reloading
+ * only the changed one with {@link YamlFileBatch#reload(java.util.Collection, int)}.
+ * <br>
+ * The files have been loaded a while before, so unchanged files are only checked by their size and modification time.
+ * Run with {@code java YamlReloadBenchmark [files]}.
+ */
+
+public final class YamlReloadBenchmark {
+	
+	public static void main(String[] args) throws IOException {
+		final int count = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+		final Path directory = Files.createTempDirectory("reload-benchmark");
+		
+		try {
+			final List<YamlFile> files = new ArrayList<>(count);
+			
+			for(int i = 0; i < count; i++) {
+				final Path path = directory.resolve("player" + i + ".yml");
+				Files.writeString(path, contents(i, 0));
+				Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+				files.add(new YamlFile(path.toFile()));
+			}
+			
+			YamlFileBatch.load(files, 1);
+			
+			for(int round = 0; round < 3; round++) { // first rounds are warm up
+				final long start = System.nanoTime();
+				
+				for(final YamlFile file : files)
+					file.load();
+				
+				final double full = (System.nanoTime() - start) / 1_000_000.0;
+				
+				Files.writeString(files.get(round).getConfigurationFile().toPath(), contents(round, round + 1));
+				
+				final YamlFileBatch.Result result = YamlFileBatch.reload(files, 1);
+				
+				if(round == 2)
+					System.out.printf("files: %,d  full reload: %8.1f ms  changed only: %s (%.1fx)%n",
+					  count, full, result, full / (result.elapsedNanos() / 1_000_000.0));
+			}
+		} finally {
+			try(Stream<Path> files = Files.walk(directory)) {
+				for(final Path path : files.sorted(Comparator.reverseOrder()).toList())
+					Files.delete(path);
+			}
+		}
+	}
+	
+	private static String contents(int i, int round) {
+		return """
+		  name: Player%d
+		  stats:
+		    kills: %d
+		    deaths: %d
+		    playtime: %d.5
+		  homes:
+		    home:
+		      world: world
+		      x: %d
+		      y: 64
+		      z: -%d
+		  unlocked: [kit-a, kit-b, title-%d]
+		  """.formatted(i, i * 3 + round, i * 2, i * 60, i, i, i);
+	}
+}
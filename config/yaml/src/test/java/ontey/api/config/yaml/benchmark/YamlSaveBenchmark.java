@@ -0,0 +1,79 @@
+package ontey.api.config.yaml.benchmark;
+
+import ontey.api.config.yaml.file.AsyncSaver;
+import ontey.api.config.yaml.file.YamlFile;
+import ontey.api.config.yaml.file.YamlFileBatch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Compares saving many changed files one after another with saving them as a {@link YamlFileBatch}, like on shutdown.
+ * <br>
+ * Both are crash safe: the sequential saves go through an {@link AsyncSaver} running on the calling thread, which
+ * syncs and moves every file on its own.
+ * <br>
+ * The files are spread over a few directories, every file has a few sections like the data of a player.
+ * Run with {@code java YamlSaveBenchmark [files] [threads]}.
+ */
+
+public final class YamlSaveBenchmark {
+	
+	public static void main(String[] args) throws IOException {
+		final int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+		final int threads = args.length > 1 ? Integer.parseInt(args[1]) : YamlFileBatch.DEFAULT_SAVE_PARALLELISM;
+		final Path directory = Files.createTempDirectory("save-benchmark");
+		
+		try {
+			final List<YamlFile> files = new ArrayList<>(count);
+			
+			for(int i = 0; i < count; i++)
+				files.add(new YamlFile(directory.resolve("shard" + i % 16).resolve("player" + i + ".yml").toFile()));
+			
+			final AsyncSaver saver = new AsyncSaver(Runnable::run);
+			
+			for(int round = 0; round < 3; round++) { // first rounds are warm up
+				change(files, round);
+				
+				final long start = System.nanoTime();
+				
+				for(final YamlFile file : files)
+					file.saveAsync(saver).join();
+				
+				final double sequential = (System.nanoTime() - start) / 1_000_000.0;
+				
+				change(files, round + 1);
+				
+				final YamlFileBatch.Result result = YamlFileBatch.save(files, threads);
+				
+				if(round == 2)
+					System.out.printf("files: %,d  sequential: %8.1f ms  batch: %s (%.1fx)%n",
+					  count, sequential, result, sequential / (result.elapsedNanos() / 1_000_000.0));
+			}
+		} finally {
+			try(Stream<Path> files = Files.walk(directory)) {
+				for(final Path path : files.sorted(Comparator.reverseOrder()).toList())
+					Files.delete(path);
+			}
+		}
+	}
+	
+	private static void change(List<YamlFile> files, int round) {
+		for(int i = 0; i < files.size(); i++) {
+			final YamlFile file = files.get(i);
+			file.set("name", "Player" + i);
+			file.set("stats.kills", i * 3 + round);
+			file.set("stats.deaths", i * 2);
+			file.set("stats.playtime", i * 60.5);
+			file.set("homes.home.world", "world");
+			file.set("homes.home.x", i);
+			file.set("homes.home.z", -i);
+			file.set("unlocked", List.of("kit-a", "kit-b", "title-" + i));
+		}
+	}
+}
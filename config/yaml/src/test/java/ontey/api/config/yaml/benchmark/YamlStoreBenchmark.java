@@ -0,0 +1,59 @@
+package ontey.api.config.yaml.benchmark;
+
+import ontey.api.config.yaml.file.AsyncSaver;
+import ontey.api.config.yaml.file.YamlFile;
+import ontey.api.config.yaml.file.YamlStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Measures the heap used by a {@link YamlStore} while more and more keys are written to it,
+ * which stays flat at the capacity of the store.
+ * <br>
+ * Every key gets a few values, like the data of a player joining for the first time.
+ * Run with {@code java YamlStoreBenchmark [keys] [capacity]}.
+ */
+
+public final class YamlStoreBenchmark {
+	
+	public static void main(String[] args) throws IOException {
+		final int keys = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+		final int capacity = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+		final Path directory = Files.createTempDirectory("store-benchmark");
+		final long before = usedHeap();
+		
+		try(ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+		    AsyncSaver saver = new AsyncSaver(executor);
+		    YamlStore<Integer> store = new YamlStore<>(directory, key -> "player" + key, capacity, executor, saver)) {
+			for(int key = 0; key < keys; key++) {
+				final YamlFile data = store.get(key).join();
+				data.set("name", "Player" + key);
+				data.set("stats.kills", key * 3);
+				data.set("stats.playtime", key * 60L);
+				
+				if((key + 1) % (keys / 5) == 0)
+					System.out.printf("keys: %,7d  loaded: %,5d  heap: %,6d KB%n", key + 1, store.size(), (usedHeap() - before) / 1024);
+			}
+		} finally {
+			try(Stream<Path> files = Files.walk(directory)) {
+				for(final Path path : files.sorted(Comparator.reverseOrder()).toList())
+					Files.delete(path);
+			}
+		}
+	}
+	
+	private static long usedHeap() {
+		final Runtime runtime = Runtime.getRuntime();
+		
+		for(int i = 0; i < 3; i++)
+			System.gc();
+		
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
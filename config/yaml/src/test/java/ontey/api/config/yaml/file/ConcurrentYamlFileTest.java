@@ -0,0 +1,92 @@
+package ontey.api.config.yaml.file;
+
+import ontey.api.config.ConcurrentMemoryConfig;
+import ontey.api.config.ConcurrentMemorySection;
+import ontey.api.config.ConfigSection;
+import ontey.api.config.yaml.utils.TestResources;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsInstanceOf;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class ConcurrentYamlFileTest {
+	
+	private static final int THREADS = 8;
+	
+	private static final int KEYS = 500;
+	
+	@Test
+	void load() throws Exception {
+		final YamlFile yamlFile = new ConcurrentYamlFile(TestResources.getResourceURI("test.yml"));
+		yamlFile.load();
+		
+		MatcherAssert.assertThat(yamlFile.saveToString(), new IsEqual<>(TestResources.testContent()));
+		MatcherAssert.assertThat(yamlFile.getSection("test"), new IsInstanceOf(ConcurrentMemorySection.class));
+	}
+	
+	@Test
+	void concurrentWrites() throws Exception {
+		assertConcurrentWrites(new ConcurrentYamlFile());
+		assertConcurrentWrites(new ConcurrentMemoryConfig());
+	}
+	
+	/**
+	 * Runs all tests of {@link YamlFileTest} against {@link ConcurrentYamlFile}.
+	 */
+	
+	@Nested
+	class YamlFileSuite extends YamlFileTest {
+		
+		@Override
+		YamlFile newYamlFile() {
+			return new ConcurrentYamlFile();
+		}
+		
+		@Override
+		YamlFile newYamlFile(File file) {
+			return new ConcurrentYamlFile(file);
+		}
+		
+		@Override
+		YamlFile newYamlFile(URI uri) {
+			return new ConcurrentYamlFile(uri);
+		}
+	}
+	
+	private static void assertConcurrentWrites(ConfigSection config) throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		
+		try {
+			final List<Future<?>> futures = new ArrayList<>();
+			
+			for(int t = 0; t < THREADS; t++) {
+				final int thread = t;
+				futures.add(executor.submit(() -> {
+					for(int i = 0; i < KEYS; i++) {
+						// all threads share the intermediate sections
+						config.set("shared.section" + (i % 10) + ".thread" + thread + "-" + i, i);
+						config.getKeys(true);
+					}
+				}));
+			}
+			
+			for(final Future<?> future : futures)
+				future.get();
+		} finally {
+			executor.shutdown();
+		}
+		
+		MatcherAssert.assertThat(config.getSection("shared").getKeys(false).size(), new IsEqual<>(10));
+		MatcherAssert.assertThat(config.getSection("shared").getValues(true).size(), new IsEqual<>(10 + THREADS * KEYS));
+		MatcherAssert.assertThat(config.getInt("shared.section3.thread5-13"), new IsEqual<>(13));
+	}
+}
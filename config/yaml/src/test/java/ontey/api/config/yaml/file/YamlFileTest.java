@@ -16,22 +16,54 @@ import org.hamcrest.core.IsEqual;
 import org.hamcrest.core.IsNot;
 import org.hamcrest.core.IsNull;
 import org.hamcrest.core.IsSame;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 import org.llorllale.cactoos.matchers.IsTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 
 class YamlFileTest {
 	
+	/**
+	 * Creates the files under test, overridden to run this suite against subclasses of {@link YamlFile}.
+	 */
+	
+	YamlFile newYamlFile() {
+		return new YamlFile();
+	}
+	
+	YamlFile newYamlFile(File file) {
+		return new YamlFile(file);
+	}
+	
+	YamlFile newYamlFile(URI uri) {
+		return new YamlFile(uri);
+	}
+	
 	@Test
 	@SuppressWarnings("deprecation")
 	void load() throws Exception {
-		final YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test.yml"));
+		final YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test.yml"));
 		final String content = TestResources.testContent();
 		yamlFile.load();
 		assertThat(
@@ -61,7 +93,7 @@ class YamlFileTest {
 	
 	@Test
 	void loadWithFolderSpaces() throws Exception {
-		final YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("folder with space/test.yml"));
+		final YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("folder with space/test.yml"));
 		final String content = TestResources.testContent();
 		yamlFile.load();
 		assertThat(
@@ -102,7 +134,7 @@ class YamlFileTest {
 	
 	@Test
 	void loadWithComments() throws Exception {
-		final YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test-comments.yml"));
+		final YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test-comments.yml"));
 		yamlFile.loadWithComments();
 		assertThat(
 		  "Couldn't load the file with comments!",
@@ -142,7 +174,7 @@ class YamlFileTest {
 	
 	@Test
 	void createOrLoad() throws Exception {
-		final YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test-comments.yml"));
+		final YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test-comments.yml"));
 		final String content = TestResources.testWithHeader();
 		yamlFile.createOrLoad();
 		assertThat(
@@ -154,7 +186,7 @@ class YamlFileTest {
 	
 	@Test
 	void createOrLoadWithComments() throws Exception {
-		final YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test-comments.yml"));
+		final YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test-comments.yml"));
 		final String content = TestResources.testComments();
 		yamlFile.createOrLoadWithComments();
 		assertThat(
@@ -170,7 +202,7 @@ class YamlFileTest {
 		//noinspection ResultOfMethodCallIgnored
 		temp.delete();
 		
-		final YamlFile yamlFile = new YamlFile(temp);
+		final YamlFile yamlFile = this.newYamlFile(temp);
 		
 		assertThat(
 		  "File already exists!",
@@ -192,13 +224,441 @@ class YamlFileTest {
 		);
 	}
 	
+	@Test
+	void saveIfDirty() throws Exception {
+		final File temp = TestResources.tempFile();
+		//noinspection ResultOfMethodCallIgnored
+		temp.delete();
+		
+		final YamlFile yamlFile = this.newYamlFile(temp);
+		yamlFile.set("section.number", 5);
+		
+		assertThat(yamlFile.isDirty(), new IsTrue());
+		assertThat(yamlFile.saveIfDirty(), new IsTrue());
+		assertThat(yamlFile.isDirty(), new IsNot<>(new IsTrue()));
+		assertThat(yamlFile.saveIfDirty(), new IsNot<>(new IsTrue()));
+		
+		yamlFile.set("section.number", 5);
+		
+		assertThat("Setting an equal value must not mark the file as dirty", yamlFile.isDirty(), new IsNot<>(new IsTrue()));
+		
+		yamlFile.set("section.number", 6);
+		final long modCount = yamlFile.modCount();
+		yamlFile.set("section.number", 6);
+		
+		assertThat("Setting a dirty path again must count as a change", yamlFile.modCount(), new IsEqual<>(modCount + 1));
+		
+		yamlFile.getSection("section").set("list", new ArrayList<>(List.of(1, 2)));
+		yamlFile.set("section.list[0]", 3);
+		yamlFile.remove("section.number");
+		
+		assertThat(yamlFile.dirtyPaths(), new IsEqual<>(Set.of("section.list", "section.list[0]", "section.number")));
+		assertThat(yamlFile.saveIfDirty(), new IsTrue());
+		assertThat(TestResources.fileToStringUnix(yamlFile), new IsEqual<>("section:\n  list:\n    - 3\n    - 2\n"));
+		
+		yamlFile.load();
+		
+		assertThat("Loading must mark the file as clean", yamlFile.isDirty(), new IsNot<>(new IsTrue()));
+		
+		yamlFile.setComment("section", "comment");
+		
+		assertThat(yamlFile.dirtyPaths(), new IsEqual<>(Set.of("section")));
+	}
+	
+	@Test
+	void saveAsync() throws Exception {
+		final File temp = TestResources.tempFile();
+		final List<Runnable> tasks = new ArrayList<>();
+		final AsyncSaver saver = new AsyncSaver(tasks::add);
+		
+		final YamlFile yamlFile = this.newYamlFile(temp);
+		yamlFile.set("section.text", "first", QuoteStyle.DOUBLE);
+		yamlFile.setComment("section", "comment");
+		
+		final CompletableFuture<Void> first = yamlFile.saveAsync(saver);
+		
+		yamlFile.set("section.text", "second", QuoteStyle.DOUBLE);
+		final CompletableFuture<Void> second = yamlFile.saveAsync(saver);
+		final String expected = yamlFile.saveToString();
+		
+		yamlFile.set("section.other", 7);
+		
+		assertThat("Saves before the write has started must be coalesced", tasks.size(), new IsEqual<>(1));
+		
+		tasks.removeFirst().run();
+		
+		assertThat(first.isDone() && second.isDone(), new IsTrue());
+		assertThat(TestResources.fileToStringUnix(yamlFile), new IsEqual<>("# comment\nsection:\n  text: \"second\"\n"));
+		assertThat(expected, new IsEqual<>("# comment\nsection:\n  text: \"second\"\n"));
+		assertThat("Changes after the snapshot must stay dirty", yamlFile.dirtyPaths(), new IsEqual<>(Set.of("section.other")));
+		assertThat(temp.getParentFile().list((dir, name) -> name.endsWith(".tmp")).length, new IsEqual<>(0));
+		
+		yamlFile.saveAsync(saver);
+		tasks.removeFirst().run();
+		
+		assertThat(yamlFile.isDirty(), new IsNot<>(new IsTrue()));
+		assertThat(yamlFile.saveAsync().get(), new IsNull<>());
+		assertThat(TestResources.fileToStringUnix(yamlFile), new IsEqual<>("# comment\nsection:\n  text: \"second\"\n  other: 7\n"));
+	}
+	
+	@Test
+	void saveAsyncKeepsPermissions() throws Exception {
+		final File temp = TestResources.tempFile("key: value\n");
+		Assumptions.assumeTrue(Files.getFileStore(temp.toPath()).supportsFileAttributeView("posix"));
+		
+		final Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+		Files.setPosixFilePermissions(temp.toPath(), permissions);
+		
+		final YamlFile yamlFile = this.newYamlFile(temp);
+		yamlFile.load();
+		yamlFile.set("key", "other");
+		yamlFile.saveAsync().get();
+		
+		assertThat(Files.getPosixFilePermissions(temp.toPath()), new IsEqual<>(permissions));
+		assertThat(TestResources.fileToStringUnix(yamlFile), new IsEqual<>("key: other\n"));
+		
+		yamlFile.set("key", "batch");
+		
+		assertThat(YamlFileBatch.save(List.of(yamlFile), 1).failures().isEmpty(), new IsTrue());
+		assertThat(Files.getPosixFilePermissions(temp.toPath()), new IsEqual<>(permissions));
+	}
+	
+	@Test
+	void loadFromCache() throws Exception {
+		final File temp = TestResources.tempFile(TestResources.testComments());
+		final Path image = temp.toPath().resolveSibling("." + temp.getName() + ".cache");
+		
+		try {
+			final YamlFile parsed = this.newYamlFile(temp);
+			parsed.options().useCache(true);
+			parsed.loadWithComments();
+			parsed.set("changed", "after the load"); // the image is written from the parsed values
+			
+			final CompletableFuture<Void> write = YamlFileCache.pendingWrite(image);
+			
+			if(write != null)
+				write.join();
+			
+			assertThat("The image must be written when the file is parsed", Files.exists(image), new IsTrue());
+			
+			final YamlFile cached = this.newYamlFile(temp);
+			cached.options().useCache(true);
+			cached.loadWithComments();
+			
+			assertThat(cached.saveToString(), new IsEqual<>(TestResources.testComments()));
+			parsed.remove("changed");
+			assertThat(cached.getValues(true).toString(), new IsEqual<>(parsed.getValues(true).toString()));
+			
+			final byte[] bytes = Files.readAllBytes(image);
+			Files.write(image, Arrays.copyOf(bytes, bytes.length - 4)); // the comments can't be read
+			
+			final YamlFile truncated = this.newYamlFile(temp);
+			final AtomicInteger loads = new AtomicInteger();
+			truncated.options().useCache(true);
+			truncated.addLoadListener(loads::incrementAndGet);
+			truncated.loadWithComments();
+			
+			assertThat(truncated.saveToString(), new IsEqual<>(TestResources.testComments()));
+			assertThat("An image that can't be read must not be restored partially", loads.get(), new IsEqual<>(1));
+			
+			Files.writeString(temp.toPath(), "# changed\nvalue: 1\n");
+			
+			final YamlFile changed = this.newYamlFile(temp);
+			changed.options().useCache(true);
+			changed.loadWithComments();
+			
+			assertThat(changed.saveToString(), new IsEqual<>("# changed\nvalue: 1\n"));
+		} finally {
+			Files.deleteIfExists(image);
+		}
+	}
+	
+	@Test
+	void loadBatch() throws Exception {
+		final List<YamlFile> files = new ArrayList<>();
+		
+		for(int i = 0; i < 20; i++)
+			files.add(this.newYamlFile(TestResources.tempFile("value: " + i + "\n")));
+		
+		final YamlFile broken = this.newYamlFile(TestResources.tempFile("value: [unclosed\n"));
+		files.add(5, broken);
+		
+		final YamlFileBatch.Result result = YamlFileBatch.load(files, 4);
+		
+		assertThat(result.size(), new IsEqual<>(21));
+		assertThat(result.succeeded().size(), new IsEqual<>(20));
+		assertThat(result.failures().keySet(), new IsEqual<>(Set.of(broken)));
+		assertThat("A failed file must not stop the others", result.succeeded().get(19).getInt("value"), new IsEqual<>(19));
+	}
+	
+	@Test
+	void saveBatch() throws Exception {
+		final Path directory = Files.createTempDirectory("batch");
+		final List<YamlFile> files = new ArrayList<>();
+		
+		for(int i = 0; i < 20; i++) {
+			final YamlFile file = this.newYamlFile(directory.resolve("sub" + i % 3).resolve("file" + i + ".yml").toFile());
+			file.set("value", i);
+			files.add(file);
+		}
+		
+		final YamlFileBatch.Result first = YamlFileBatch.save(files, 4);
+		
+		assertThat(first.succeeded().size(), new IsEqual<>(20));
+		assertThat(Files.readString(files.get(7).getConfigurationFile().toPath()), new IsEqual<>("value: 7\n"));
+		assertThat("Saved files must be clean", files.stream().anyMatch(YamlFile::isDirty), new IsEqual<>(false));
+		
+		files.get(3).set("value", 30);
+		
+		final YamlFileBatch.Result second = YamlFileBatch.save(files, 4);
+		
+		assertThat("Unchanged files must not be saved", second.succeeded(), new IsEqual<>(List.of(files.get(3))));
+		assertThat(Files.readString(files.get(3).getConfigurationFile().toPath()), new IsEqual<>("value: 30\n"));
+		
+		try(Stream<Path> paths = Files.walk(directory)) {
+			assertThat("Temporary files must be moved", paths.filter(path -> path.toString().endsWith(".tmp")).count(), new IsEqual<>(0L));
+		}
+	}
+	
+	@Test
+	void reloadIfChanged() throws Exception {
+		final Path path = TestResources.tempFile("section:\n  value: 1\n").toPath();
+		final YamlFile file = this.newYamlFile(path.toFile());
+		file.load();
+		
+		final ConfigSection section = file.getSection("section");
+		
+		assertThat(file.reloadIfChanged(), new IsEqual<>(false));
+		
+		Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+		
+		assertThat("Touched files must be hashed, not parsed", file.reloadIfChanged(), new IsEqual<>(false));
+		assertThat("Unchanged files must keep their sections", file.getSection("section"), new IsSame<>(section));
+		
+		Files.writeString(path, "section:\n  value: 2\n"); // same size
+		
+		assertThat(file.reloadIfChanged(), new IsEqual<>(true));
+		assertThat(file.getInt("section.value"), new IsEqual<>(2));
+		
+		file.set("section.value", 3);
+		
+		assertThat("Unsaved changes must be discarded", file.reloadIfChanged(), new IsEqual<>(true));
+		assertThat(file.getInt("section.value"), new IsEqual<>(2));
+		
+		file.set("section.value", 4);
+		file.saveAsync(new AsyncSaver(Runnable::run)).join();
+		
+		final ConfigSection saved = file.getSection("section");
+		
+		assertThat("Saved files must not be reloaded", YamlFileBatch.reload(List.of(file)).size(), new IsEqual<>(0));
+		assertThat(file.getSection("section"), new IsSame<>(saved));
+		
+		file.set("section.value", 5);
+		file.save();
+		
+		final ConfigSection savedSync = file.getSection("section");
+		
+		assertThat("Files saved synchronously must not be reloaded", file.reloadIfChanged(), new IsEqual<>(false));
+		assertThat(file.getSection("section"), new IsSame<>(savedSync));
+	}
+	
+	@Test
+	void store() throws Exception {
+		final Path directory = Files.createTempDirectory("store");
+		
+		try(YamlStore<Integer> store = new YamlStore<>(directory, key -> "entry" + key, 2, Runnable::run, new AsyncSaver(Runnable::run))) {
+			for(int key = 0; key < 3; key++)
+				store.get(key).join().set("value", key);
+			
+			assertThat(store.size(), new IsEqual<>(2));
+			assertThat(store.getIfLoaded(0), new IsNull<>());
+			assertThat("Evicted files must be written back", Files.readString(store.pathOf(0)), new IsEqual<>("value: 0\n"));
+			assertThat(store.pathOf(0).getParent().getParent(), new IsEqual<>(directory));
+			
+			final YamlFile reloaded = store.get(0).join();
+			
+			assertThat(reloaded.getInt("value"), new IsEqual<>(0));
+			assertThat(store.getIfLoaded(1), new IsNull<>());
+			assertThat(Files.exists(store.pathOf(2)), new IsEqual<>(false));
+			
+			store.get(2).join().set("value", 20);
+			store.flush().join();
+			
+			assertThat(Files.readString(store.pathOf(2)), new IsEqual<>("value: 20\n"));
+		} finally {
+			try(Stream<Path> files = Files.walk(directory)) {
+				for(final Path path : files.sorted(Comparator.reverseOrder()).toList())
+					Files.delete(path);
+			}
+		}
+	}
+	
+	@Test
+	void journal() throws Exception {
+		final File temp = TestResources.tempFile("value: 1\nstats:\n  kills: 0\n");
+		final Path journalFile = YamlJournal.journalOf(temp.toPath());
+		final AsyncSaver saver = new AsyncSaver(Runnable::run);
+		
+		final YamlFile yamlFile = this.newYamlFile(temp);
+		final YamlJournal journal = YamlJournal.open(yamlFile, 1 << 20, saver);
+		
+		yamlFile.set("value", 2);
+		yamlFile.set("stats.kills", 5);
+		yamlFile.set("list", List.of("a", "b"));
+		yamlFile.set("quoted", "text", QuoteStyle.SINGLE);
+		yamlFile.set("value", null);
+		
+		assertThat("Changes must not be saved to the file", Files.readString(temp.toPath()), new IsEqual<>("value: 1\nstats:\n  kills: 0\n"));
+		
+		// a record torn by a crash
+		Files.write(journalFile, new byte[] {0, 0, 1, 0, 42}, StandardOpenOption.APPEND);
+		
+		final YamlFile recovered = this.newYamlFile(temp);
+		final YamlJournal recoveredJournal = YamlJournal.open(recovered, 1 << 20, saver);
+		
+		assertThat(recovered.get("value"), new IsNull<>());
+		assertThat(recovered.getInt("stats.kills"), new IsEqual<>(5));
+		assertThat(recovered.getStringList("list"), new IsEqual<>(List.of("a", "b")));
+		assertThat(recoveredJournal.size(), new IsEqual<>(journal.size()));
+		
+		recoveredJournal.compact().join();
+		
+		assertThat(recoveredJournal.size(), new IsEqual<>(0L));
+		assertThat(Files.readString(temp.toPath()), new IsEqual<>("stats:\n  kills: 5\nlist:\n  - a\n  - b\nquoted: 'text'\n"));
+		
+		recovered.set("stats.kills", 6);
+		recoveredJournal.close();
+		
+		assertThat(YamlFile.loadConfiguration(temp).getInt("stats.kills"), new IsEqual<>(6));
+		assertThat(Files.exists(journalFile), new IsEqual<>(false));
+	}
+	
+	@Test
+	void journalRecordsAnyValue() throws Exception {
+		final File temp = TestResources.tempFile("value: 1\n");
+		final AsyncSaver saver = new AsyncSaver(Runnable::run);
+		
+		final YamlFile yamlFile = this.newYamlFile(temp);
+		YamlJournal.open(yamlFile, 1 << 20, saver);
+		
+		yamlFile.set("float", 1.5f);
+		yamlFile.set("short", (short) 2);
+		yamlFile.set("byte", (byte) 3);
+		yamlFile.set("char", 'c');
+		yamlFile.set("atomic", new AtomicInteger(4)); // kept in its YAML form
+		
+		final YamlFile recovered = this.newYamlFile(temp);
+		final YamlJournal recoveredJournal = YamlJournal.open(recovered, 1 << 20, saver);
+		
+		assertThat(recovered.get("float"), new IsEqual<>(1.5f));
+		assertThat(recovered.get("short"), new IsEqual<>((short) 2));
+		assertThat(recovered.get("byte"), new IsEqual<>((byte) 3));
+		assertThat(recovered.get("char"), new IsEqual<>('c'));
+		assertThat(recovered.get("atomic"), new IsEqual<>(4.0));
+		assertThat(Files.readString(temp.toPath()), new IsEqual<>("value: 1\n"));
+		
+		recoveredJournal.close();
+	}
+	
+	@Test
+	void journalFailuresDoNotFailChanges() throws Exception {
+		final File temp = TestResources.tempFile("value: 1\n");
+		final AsyncSaver saver = new AsyncSaver(Runnable::run);
+		
+		final YamlFile yamlFile = this.newYamlFile(temp);
+		final YamlJournal journal = YamlJournal.open(yamlFile, 1 << 20, saver);
+		
+		yamlFile.set("value", 2);
+		
+		Assertions.assertDoesNotThrow(() -> yamlFile.set("broken", new Unwritable()));
+		assertThat("The journal has been compacted", journal.size(), new IsEqual<>(0L));
+		
+		yamlFile.set("broken", null);
+		journal.close();
+		
+		assertThat(YamlFile.loadConfiguration(temp).getInt("value"), new IsEqual<>(2));
+	}
+	
+	/**
+	 * A value that can neither be written by the codec nor dumped to YAML.
+	 */
+	
+	public static final class Unwritable {
+		
+		public int getValue() {
+			throw new IllegalStateException("unwritable");
+		}
+		
+		public void setValue(int value) {
+		}
+	}
+	
+	@Test
+	void watcher() throws Exception {
+		final File temp = TestResources.tempFile("value: 1\n");
+		final File other = TestResources.tempFile("value: 1\n");
+		final BlockingQueue<YamlFileWatcher.ReloadEvent> events = new LinkedBlockingQueue<>();
+		
+		final YamlFile yamlFile = YamlFile.loadConfiguration(temp);
+		final YamlFile otherFile = YamlFile.loadConfiguration(other);
+		
+		try(YamlFileWatcher watcher = new YamlFileWatcher(Duration.ofMillis(100), Runnable::run)) {
+			watcher.addListener(events::add);
+			watcher.watch(yamlFile);
+			watcher.watch(otherFile);
+			
+			for(int i = 2; i <= 5; i++) // a burst of writes is reloaded once
+				Files.writeString(temp.toPath(), "value: " + i + "\nother: true\n");
+			
+			final YamlFileWatcher.ReloadEvent event = events.poll(10, TimeUnit.SECONDS);
+			
+			assertThat(event, new IsNot<>(new IsNull<>()));
+			assertThat(event.file(), new IsSame<>(yamlFile));
+			assertThat(event.result(), new IsEqual<>(YamlFileWatcher.Result.RELOADED));
+			assertThat(yamlFile.getInt("value"), new IsEqual<>(5));
+			assertThat(events.poll(500, TimeUnit.MILLISECONDS), new IsNull<>());
+			
+			otherFile.set("value", 2);
+			Files.writeString(other.toPath(), "value: 3\n");
+			
+			final YamlFileWatcher.ReloadEvent skipped = events.poll(10, TimeUnit.SECONDS);
+			
+			assertThat(skipped.file(), new IsSame<>(otherFile));
+			assertThat("Files with unsaved changes must not be reloaded", skipped.result(), new IsEqual<>(YamlFileWatcher.Result.SKIPPED));
+			assertThat(otherFile.getInt("value"), new IsEqual<>(2));
+			
+			yamlFile.set("value", 6);
+			yamlFile.saveAsync().get();
+			
+			assertThat("Saved files must not be reloaded", events.poll(500, TimeUnit.MILLISECONDS), new IsNull<>());
+			
+			yamlFile.set("value", 7);
+			yamlFile.save();
+			
+			assertThat("Files saved synchronously must not be reloaded", events.poll(500, TimeUnit.MILLISECONDS), new IsNull<>());
+			
+			Files.writeString(temp.toPath(), "value: [");
+			
+			assertThat(events.poll(10, TimeUnit.SECONDS).result(), new IsEqual<>(YamlFileWatcher.Result.FAILED));
+			
+			watcher.unwatch(otherFile);
+			Files.writeString(temp.toPath(), "value: 8\n");
+			
+			final YamlFileWatcher.ReloadEvent remaining = events.poll(10, TimeUnit.SECONDS);
+			
+			assertThat("Other files of the directory must stay watched", remaining, new IsNot<>(new IsNull<>()));
+			assertThat(remaining.file(), new IsSame<>(yamlFile));
+			assertThat(yamlFile.getInt("value"), new IsEqual<>(8));
+		}
+	}
+	
 	@Test
 	void saveWithComments() throws Exception {
 		final File temp = TestResources.tempFile();
 		//noinspection ResultOfMethodCallIgnored
 		temp.delete();
 		
-		final YamlFile yamlFile = new YamlFile(temp);
+		final YamlFile yamlFile = this.newYamlFile(temp);
 		
 		assertThat(
 		  "File already exists!",
@@ -230,7 +690,7 @@ class YamlFileTest {
 		//noinspection ResultOfMethodCallIgnored
 		temp.delete();
 		
-		final YamlFile yamlFile = new YamlFile(temp);
+		final YamlFile yamlFile = this.newYamlFile(temp);
 		
 		assertThat(
 		  "File already exists!",
@@ -252,7 +712,7 @@ class YamlFileTest {
 	
 	@Test
 	void fileToString() throws Exception {
-		final YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test.yml"));
+		final YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test.yml"));
 		final String content = TestResources.testContent();
 		
 		assertThat(
@@ -303,7 +763,7 @@ class YamlFileTest {
 	
 	@Test
 	void saveToString() throws Exception {
-		final YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test.yml"));
+		final YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test.yml"));
 		yamlFile.load();
 		final String content = TestResources.testContent();
 		
@@ -320,7 +780,7 @@ class YamlFileTest {
 	
 	@Test
 	void saveToStringWithComments() throws Exception {
-		final YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test-comments.yml"));
+		final YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test-comments.yml"));
 		yamlFile.loadWithComments();
 		
 		final String content = TestResources.testComments();
@@ -333,7 +793,7 @@ class YamlFileTest {
 	
 	@Test
 	void saveToStringWithComments2() throws Exception {
-		final YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test-comments2.yml"));
+		final YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test-comments2.yml"));
 		yamlFile.loadWithComments();
 		
 		final String content = TestResources.fileToStringUnix(yamlFile);
@@ -346,7 +806,7 @@ class YamlFileTest {
 	
 	@Test
 	void saveToStringWithComments3() throws Exception {
-		final YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test-comments3.yml"));
+		final YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test-comments3.yml"));
 		yamlFile.loadWithComments();
 		
 		final String content = TestResources.fileToStringUnix(yamlFile);
@@ -359,7 +819,7 @@ class YamlFileTest {
 	
 	@Test
 	void saveToStringWithComments4() throws Exception {
-		final YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test-comments4.yml"));
+		final YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test-comments4.yml"));
 		yamlFile.loadWithComments();
 		
 		final String content = TestResources.testCommentsSpecial();
@@ -372,7 +832,7 @@ class YamlFileTest {
 	
 	@Test
 	void getComment() throws Exception {
-		final YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test-comments.yml"));
+		final YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test-comments.yml"));
 		yamlFile.loadWithComments();
 		
 		assertThat(
@@ -438,7 +898,7 @@ class YamlFileTest {
 	
 	@Test
 	void getCommentEdgeCases() throws Exception {
-		final YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test-comments4.yml"));
+		final YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test-comments4.yml"));
 		yamlFile.loadWithComments();
 		
 		assertThat(
@@ -478,7 +938,7 @@ class YamlFileTest {
 		  new IsEqual<>(":)\ndangling comment")
 		);
 		
-		final YamlFile yamlFile2 = new YamlFile();
+		final YamlFile yamlFile2 = this.newYamlFile();
 		
 		yamlFile2.path("wrap")
 		  .set(" # not a comment", QuoteStyle.PLAIN)
@@ -587,7 +1047,7 @@ class YamlFileTest {
 	
 	@Test
 	void loadWithTag() throws IOException {
-		final YamlFile configuration = new YamlFile();
+		final YamlFile configuration = this.newYamlFile();
 		configuration.loadFromString("tag: !!str ' # not a comment'\n");
 		
 		assertThat(
@@ -605,7 +1065,7 @@ class YamlFileTest {
 	
 	@Test
 	void setComment() throws Exception {
-		final YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test-comments.yml"));
+		final YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test-comments.yml"));
 		yamlFile.loadWithComments();
 		
 		yamlFile.setComment("test.string", "Edited hello comment!");
@@ -626,7 +1086,7 @@ class YamlFileTest {
 	
 	@Test
 	void setCommentFormat() throws IOException {
-		final YamlFile yamlFile = new YamlFile();
+		final YamlFile yamlFile = this.newYamlFile();
 		
 		assertThat(
 		  "Couldn't get the default comment formatter correctly!",
@@ -743,7 +1203,7 @@ class YamlFileTest {
 	
 	@Test
 	void setGetComment() throws Exception {
-		final YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test-comments.yml"));
+		final YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test-comments.yml"));
 		yamlFile.loadWithComments();
 		
 		final String content = TestResources.fileToStringUnix(yamlFile);
@@ -766,7 +1226,7 @@ class YamlFileTest {
 	
 	@Test
 	void header() throws Exception {
-		YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test-comments.yml"));
+		YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test-comments.yml"));
 		yamlFile.load();
 		
 		assertThat(
@@ -890,7 +1350,7 @@ class YamlFileTest {
 	
 	@Test
 	void footer() throws Exception {
-		YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test-comments.yml"));
+		YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test-comments.yml"));
 		yamlFile.loadWithComments();
 		
 		assertThat(
@@ -925,7 +1385,7 @@ class YamlFileTest {
 		final String contents = TestResources.testHeader() +
 		  "root: This is a root key\n";
 		
-		YamlFile yamlFile = new YamlFile(TestResources.tempFile(contents));
+		YamlFile yamlFile = this.newYamlFile(TestResources.tempFile(contents));
 		
 		yamlFile.loadWithComments();
 		
@@ -1007,7 +1467,7 @@ class YamlFileTest {
 	
 	@Test
 	void path() throws IOException {
-		YamlFile yamlFile = new YamlFile();
+		YamlFile yamlFile = this.newYamlFile();
 		
 		yamlFile.path("default").addDefault("default");
 		yamlFile.path("test")
@@ -1064,7 +1524,7 @@ class YamlFileTest {
 	
 	@Test
 	void exists() throws Exception {
-		final YamlFile yamlFile = new YamlFile(TestResources.tempFile());
+		final YamlFile yamlFile = this.newYamlFile(TestResources.tempFile());
 		
 		assertThat(
 		  "The file couldn't be found!",
@@ -1083,7 +1543,7 @@ class YamlFileTest {
 	
 	@Test
 	void createNewFile() throws Exception {
-		final YamlFile yamlFile = new YamlFile(TestResources.tempFile());
+		final YamlFile yamlFile = this.newYamlFile(TestResources.tempFile());
 		
 		yamlFile.deleteFile();
 		
@@ -1104,7 +1564,7 @@ class YamlFileTest {
 	
 	@Test
 	void deleteFile() throws Exception {
-		final YamlFile yamlFile = new YamlFile(TestResources.tempFile());
+		final YamlFile yamlFile = this.newYamlFile(TestResources.tempFile());
 		yamlFile.createOrLoad();
 		
 		assertThat(
@@ -1124,7 +1584,7 @@ class YamlFileTest {
 	
 	@Test
 	void getSize() throws URISyntaxException {
-		final YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test-comments.yml"));
+		final YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test-comments.yml"));
 		final String content = TestResources.testComments();
 		
 		assertThat(
@@ -1137,7 +1597,7 @@ class YamlFileTest {
 	@Test
 	void getFilePath() throws URISyntaxException {
 		final File file = new File(TestResources.getResourceURI("test.yml"));
-		final YamlFile yamlFile = new YamlFile(file);
+		final YamlFile yamlFile = this.newYamlFile(file);
 		
 		assertThat(
 		  "Configuration file path is not the same!",
@@ -1148,7 +1608,7 @@ class YamlFileTest {
 	@Test
 	void getConfigurationFile() throws URISyntaxException {
 		final File file = new File(TestResources.getResourceURI("test.yml"));
-		final YamlFile yamlFile = new YamlFile(file);
+		final YamlFile yamlFile = this.newYamlFile(file);
 		
 		assertThat(
 		  "Configuration file is not the same!",
@@ -1159,7 +1619,7 @@ class YamlFileTest {
 	@Test
 	void setConfigurationFile() throws URISyntaxException {
 		final File file = new File(TestResources.getResourceURI("test.yml"));
-		final YamlFile yamlFile = new YamlFile();
+		final YamlFile yamlFile = this.newYamlFile();
 		
 		yamlFile.setConfigurationFile(file);
 		
@@ -1171,11 +1631,11 @@ class YamlFileTest {
 	
 	@Test
 	void copyTo() throws Exception {
-		final YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test-comments.yml"));
+		final YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test-comments.yml"));
 		final File copy = TestResources.tempFile();
 		yamlFile.copyTo(copy);
 		
-		final YamlFile copied = new YamlFile(copy);
+		final YamlFile copied = this.newYamlFile(copy);
 		copied.loadWithComments();
 		final String content = TestResources.testComments();
 		assertThat(
@@ -1189,7 +1649,7 @@ class YamlFileTest {
 	void testMapListSerialization() throws Exception {
 		ConfigSerialization.registerClass(Person.class);
 		
-		final YamlFile mapListYamlFile = new YamlFile(TestResources.getResourceURI("test-map-list.yml"));
+		final YamlFile mapListYamlFile = this.newYamlFile(TestResources.getResourceURI("test-map-list.yml"));
 		final String expected = TestResources.fileToStringUnix(mapListYamlFile);
 		
 		mapListYamlFile.loadWithComments();
@@ -1212,7 +1672,7 @@ class YamlFileTest {
 		
 		// Set -> Comment
 		
-		YamlFile yamlFile = new YamlFile();
+		YamlFile yamlFile = this.newYamlFile();
 		
 		yamlFile.set("test", testList);
 		yamlFile.set("people", peopleList);
@@ -1248,7 +1708,7 @@ class YamlFileTest {
 		
 		// Comment -> Set
 		
-		yamlFile = new YamlFile();
+		yamlFile = this.newYamlFile();
 		
 		yamlFile.setComment("test[0]", "first");
 		yamlFile.setComment("test.2", "repeated");
@@ -1265,7 +1725,7 @@ class YamlFileTest {
 		
 		// Comment (different order) -> Set
 		
-		yamlFile = new YamlFile();
+		yamlFile = this.newYamlFile();
 		
 		yamlFile.setComment("people[1].id", "Comment on list map element");
 		yamlFile.setComment("test[-1]", "last");
@@ -1288,7 +1748,7 @@ class YamlFileTest {
 		final Person p1 = new Person("12345678A", "John", 1990);
 		final Person p2 = new Person("12345678B", "Maria", 1990);
 		
-		YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test-map-list.yml"));
+		YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test-map-list.yml"));
 		yamlFile.loadWithComments();
 		
 		final KeyTree tree = yamlFile.getCommentMapper().getKeyTree();
@@ -1453,7 +1913,7 @@ class YamlFileTest {
 		  new IsNull<>()
 		);
 		
-		yamlFile = new YamlFile();
+		yamlFile = this.newYamlFile();
 		
 		yamlFile.set("section.deep", deepMap);
 		
@@ -1501,7 +1961,7 @@ class YamlFileTest {
 	void indentListFormat() throws Exception {
 		final List<String> list = Arrays.asList("entry 1", "entry 2");
 		
-		YamlFile yamlFile = new YamlFile();
+		YamlFile yamlFile = this.newYamlFile();
 		
 		yamlFile.set("test.list", list);
 		yamlFile.setComment("test.list.entry 1", "Comment on a list item");
@@ -1521,7 +1981,7 @@ class YamlFileTest {
 		  new IsEqual<>(output)
 		);
 		
-		yamlFile = new YamlFile();
+		yamlFile = this.newYamlFile();
 		
 		yamlFile.set("test.list", list);
 		yamlFile.setComment("test.list.entry 2", "Comment on a list item");
@@ -1541,7 +2001,7 @@ class YamlFileTest {
 		  new IsEqual<>(output)
 		);
 		
-		yamlFile = new YamlFile();
+		yamlFile = this.newYamlFile();
 		
 		yamlFile.options().indentList(0);
 		
@@ -1563,7 +2023,7 @@ class YamlFileTest {
 		  new IsEqual<>(output)
 		);
 		
-		yamlFile = new YamlFile();
+		yamlFile = this.newYamlFile();
 		
 		yamlFile.options().indentList(1);
 		
@@ -1585,7 +2045,7 @@ class YamlFileTest {
 		  new IsEqual<>(output)
 		);
 		
-		yamlFile = new YamlFile();
+		yamlFile = this.newYamlFile();
 		
 		yamlFile.set("test.list", Arrays.asList(list, list));
 		yamlFile.setComment("test.list[0].entry 1", "Comment on a list item 1");
@@ -1614,7 +2074,7 @@ class YamlFileTest {
 	
 	@Test
 	void serializables() throws Exception {
-		YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test-serializables.yml"));
+		YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test-serializables.yml"));
 		
 		yamlFile.load();
 		
@@ -1629,7 +2089,7 @@ class YamlFileTest {
 	
 	@Test
 	void getObject() throws Exception {
-		YamlFile yamlFile = new YamlFile(TestResources.getResourceURI("test.yml"));
+		YamlFile yamlFile = this.newYamlFile(TestResources.getResourceURI("test.yml"));
 		
 		yamlFile.load();
 		
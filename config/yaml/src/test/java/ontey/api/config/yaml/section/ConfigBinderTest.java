@@ -0,0 +1,137 @@
+package ontey.api.config.yaml.section;
+
+import ontey.api.config.ConfigBinder;
+import ontey.api.config.ConfigDefault;
+import ontey.api.config.ConfigKey;
+import ontey.api.config.yaml.file.YamlConfig;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Set;
+
+class ConfigBinderTest {
+	
+	public interface Settings {
+		
+		@ConfigKey("max-players")
+		int maxPlayers();
+		
+		String name();
+		
+		DayOfWeek day();
+		
+		List<Integer> numbers();
+		
+		@ConfigKey("nested.enabled")
+		boolean enabled();
+		
+		default String motd() {
+			return "Welcome!";
+		}
+	}
+	
+	public record Limits(@ConfigKey("max-players") int maxPlayers, double ratio, Set<String> tags) {
+		
+	}
+	
+	public record Toggle(@ConfigDefault("true") boolean enabled, @ConfigDefault("5") int delay) {
+		
+	}
+	
+	public interface Invalid {
+		
+		void run(int times);
+	}
+	
+	@Test
+	void bindInterface() throws Exception {
+		final YamlConfig config = YamlConfig.loadConfigurationFromString("""
+		  settings:
+		    max-players: '20'
+		    name: test
+		    day: friday
+		    numbers:
+		    - 1
+		    - '2'
+		    nested:
+		      enabled: true
+		  """);
+		
+		final ConfigBinder<Settings> binder = ConfigBinder.bind(config.getSection("settings"), Settings.class);
+		final Settings settings = binder.get();
+		
+		MatcherAssert.assertThat(settings.maxPlayers(), new IsEqual<>(20));
+		MatcherAssert.assertThat(settings.name(), new IsEqual<>("test"));
+		MatcherAssert.assertThat(settings.day(), new IsEqual<>(DayOfWeek.FRIDAY));
+		MatcherAssert.assertThat(settings.numbers(), new IsEqual<>(List.of(1, 2)));
+		MatcherAssert.assertThat(settings.enabled(), new IsEqual<>(true));
+		MatcherAssert.assertThat(settings.motd(), new IsEqual<>("Welcome!"));
+		MatcherAssert.assertThat(settings.equals(settings), new IsEqual<>(true));
+		
+		config.loadFromString("""
+		  settings:
+		    max-players: 50
+		    motd: Hello
+		  """);
+		
+		MatcherAssert.assertThat(settings.maxPlayers(), new IsEqual<>(50));
+		MatcherAssert.assertThat(settings.name(), new IsEqual<>(null));
+		MatcherAssert.assertThat(settings.enabled(), new IsEqual<>(false));
+		MatcherAssert.assertThat(settings.motd(), new IsEqual<>("Hello"));
+		
+		binder.close();
+		config.loadFromString("settings:\n  max-players: 10\n");
+		
+		MatcherAssert.assertThat(settings.maxPlayers(), new IsEqual<>(50));
+		
+		binder.refresh();
+		
+		MatcherAssert.assertThat(settings.maxPlayers(), new IsEqual<>(10));
+	}
+	
+	@Test
+	void bindRecord() throws Exception {
+		final YamlConfig config = YamlConfig.loadConfigurationFromString("""
+		  max-players: 8
+		  tags:
+		  - a
+		  - b
+		  """);
+		
+		final YamlConfig defaults = new YamlConfig();
+		defaults.set("ratio", 1.5);
+		config.setDefaults(defaults);
+		
+		final ConfigBinder<Limits> binder = ConfigBinder.bind(config, Limits.class);
+		
+		MatcherAssert.assertThat(binder.get(), new IsEqual<>(new Limits(8, 1.5, Set.of("a", "b"))));
+		
+		config.loadFromString("max-players: 3\nratio: 0.5\n");
+		
+		MatcherAssert.assertThat(binder.get(), new IsEqual<>(new Limits(3, 0.5, Set.of("a", "b"))));
+	}
+	
+	@Test
+	void bindRecordDefaults() throws Exception {
+		final YamlConfig config = YamlConfig.loadConfigurationFromString("delay: soon\n");
+		final ConfigBinder<Toggle> binder = ConfigBinder.bind(config, Toggle.class);
+		
+		MatcherAssert.assertThat(binder.get(), new IsEqual<>(new Toggle(true, 5)));
+		
+		config.loadFromString("enabled: false\ndelay: 2\n");
+		
+		MatcherAssert.assertThat(binder.get(), new IsEqual<>(new Toggle(false, 2)));
+	}
+	
+	@Test
+	void invalidTypes() {
+		final YamlConfig config = new YamlConfig();
+		
+		Assertions.assertThrows(IllegalArgumentException.class, () -> ConfigBinder.bind(config, Invalid.class));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> ConfigBinder.bind(config, String.class));
+	}
+}
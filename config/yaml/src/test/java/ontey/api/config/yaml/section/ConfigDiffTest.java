@@ -0,0 +1,119 @@
+package ontey.api.config.yaml.section;
+
+import ontey.api.config.ConfigDiff;
+import ontey.api.config.ConfigSnapshot;
+import ontey.api.config.MemoryConfig;
+import ontey.api.config.serialization.ConfigSerializable;
+import ontey.api.config.yaml.file.YamlConfig;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+class ConfigDiffTest {
+	
+	@Test
+	void diffAndApply() throws Exception {
+		final YamlConfig oldConfig = YamlConfig.loadConfigurationFromString("""
+		  unchanged:
+		    a: 1
+		    list:
+		    - x: 1
+		      y: [1, 2]
+		  changed:
+		    value: 1
+		    list:
+		    - x: 1
+		      y: [1, 2]
+		  removed:
+		    a: 1
+		  type: 1
+		  quoted: '2'
+		  """);
+		
+		final YamlConfig newConfig = YamlConfig.loadConfigurationFromString("""
+		  unchanged:
+		    a: 1
+		    list:
+		    - x: 1
+		      y: [1, 2]
+		  changed:
+		    value: 2
+		    list:
+		    - x: 1
+		      y: [1, 3]
+		    new: true
+		  added:
+		    b: 2
+		  type:
+		    c: 3
+		  quoted: "2"
+		  """);
+		
+		final ConfigDiff diff = ConfigDiff.between(oldConfig, newConfig);
+		
+		MatcherAssert.assertThat(diff.getEntries(), new IsEqual<>(List.of(
+		  new ConfigDiff.Entry("removed", ConfigDiff.Type.REMOVED, Map.of("a", 1), null),
+		  new ConfigDiff.Entry("changed.value", ConfigDiff.Type.CHANGED, 1, 2),
+		  new ConfigDiff.Entry("changed.list", ConfigDiff.Type.CHANGED, List.of(Map.of("x", 1, "y", List.of(1, 2))), List.of(Map.of("x", 1, "y", List.of(1, 3)))),
+		  new ConfigDiff.Entry("changed.new", ConfigDiff.Type.ADDED, null, true),
+		  new ConfigDiff.Entry("added", ConfigDiff.Type.ADDED, null, Map.of("b", 2)),
+		  new ConfigDiff.Entry("type", ConfigDiff.Type.CHANGED, 1, Map.of("c", 3))
+		)));
+		
+		MatcherAssert.assertThat(diff.affects("changed"), new IsEqual<>(true));
+		MatcherAssert.assertThat(diff.affects("type.c"), new IsEqual<>(true));
+		MatcherAssert.assertThat(diff.affects("unchanged"), new IsEqual<>(false));
+		MatcherAssert.assertThat("Quote styles are not a change", diff.affects("quoted"), new IsEqual<>(false));
+		
+		final ConfigSnapshot before = oldConfig.snapshot();
+		diff.apply(oldConfig);
+		
+		MatcherAssert.assertThat(ConfigDiff.between(oldConfig, newConfig).isEmpty(), new IsEqual<>(true));
+		MatcherAssert.assertThat(ConfigDiff.between(before, oldConfig).getEntries().size(), new IsEqual<>(diff.getEntries().size()));
+		
+		newConfig.getList("changed.list").clear();
+		
+		MatcherAssert.assertThat("Entries must not change with the section", diff.getEntries().get(2).newValue(),
+		  new IsEqual<>(List.of(Map.of("x", 1, "y", List.of(1, 3)))));
+	}
+	
+	@Test
+	void serializables() {
+		final MemoryConfig oldConfig = new MemoryConfig();
+		oldConfig.set("point", new Point(1, 2));
+		oldConfig.set("points", List.of(new Point(1, 2), new Point(3, 4)));
+		
+		final MemoryConfig newConfig = new MemoryConfig();
+		newConfig.set("point", new Point(1, 2));
+		newConfig.set("points", List.of(new Point(1, 2), new Point(3, 5)));
+		
+		final ConfigDiff diff = ConfigDiff.between(oldConfig, newConfig);
+		
+		MatcherAssert.assertThat(diff.getEntries().size(), new IsEqual<>(1));
+		MatcherAssert.assertThat(diff.getEntries().getFirst().path(), new IsEqual<>("points"));
+	}
+	
+	/**
+	 * A serializable without an own {@code equals}.
+	 */
+	
+	private static final class Point implements ConfigSerializable {
+		
+		private final int x;
+		
+		private final int y;
+		
+		private Point(int x, int y) {
+			this.x = x;
+			this.y = y;
+		}
+		
+		@Override
+		public Map<String, Object> serialize() {
+			return Map.of("x", this.x, "y", this.y);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package ontey.api.config.yaml.section;
+
+import ontey.api.config.ConcurrentMemoryConfig;
+import ontey.api.config.ConfigListener;
+import ontey.api.config.MemoryConfig;
+import ontey.api.config.yaml.file.YamlConfig;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+class ConfigListenerTest {
+	
+	@Test
+	void patterns() {
+		final MemoryConfig config = new MemoryConfig();
+		final List<Set<String>> messages = new ArrayList<>();
+		final List<Set<String>> texts = new ArrayList<>();
+		final List<Set<String>> limit = new ArrayList<>();
+		final ConfigListener limitListener = limit::add;
+		
+		config.addChangeListener("messages", messages::add);
+		config.addChangeListener("messages.*.text", texts::add);
+		config.addChangeListener("limits.max-players", limitListener);
+		
+		config.set("messages.welcome.text", "Hi");
+		config.set("messages.welcome.sound", "ding");
+		config.set("limits.max-players", 10);
+		config.set("limits.max-players", 10);
+		config.set("other", 1);
+		
+		MatcherAssert.assertThat(messages, new IsEqual<>(List.of(Set.of("messages.welcome.text"), Set.of("messages.welcome.sound"))));
+		MatcherAssert.assertThat(texts, new IsEqual<>(List.of(Set.of("messages.welcome.text"))));
+		MatcherAssert.assertThat("Setting an equal value is not a change", limit, new IsEqual<>(List.of(Set.of("limits.max-players"))));
+		
+		config.set("messages", null);
+		
+		MatcherAssert.assertThat("Parents of a pattern are changes of it", texts.getLast(), new IsEqual<>(Set.of("messages")));
+		
+		config.removeChangeListener("limits.max-players", limitListener);
+		config.set("limits", null);
+		
+		MatcherAssert.assertThat(limit.size(), new IsEqual<>(1));
+		
+		final List<Set<String>> hosts = new ArrayList<>();
+		
+		config.addChangeListener("hosts.*.port", hosts::add);
+		config.set("hosts.example\\.com.port", 25565);
+		config.set("hosts.example.com.port", 25566);
+		
+		MatcherAssert.assertThat("Escaped separators are part of a node", hosts, new IsEqual<>(List.of(Set.of("hosts.example\\.com.port"))));
+	}
+	
+	@Test
+	void concurrentBatches() throws Exception {
+		final ConcurrentMemoryConfig config = new ConcurrentMemoryConfig();
+		final List<Set<String>> changes = new CopyOnWriteArrayList<>();
+		
+		config.addChangeListener("", changes::add);
+		
+		try(var executor = Executors.newFixedThreadPool(4)) {
+			for(int t = 0; t < 4; t++) {
+				final String prefix = "thread" + t;
+				
+				executor.execute(() -> {
+					for(int i = 0; i < 200; i++) {
+						final int value = i;
+						config.batch(() -> {
+							config.set(prefix + ".a", value);
+							config.set(prefix + ".b", value);
+						});
+					}
+				});
+			}
+		}
+		
+		MatcherAssert.assertThat(changes.size(), new IsEqual<>(800));
+		
+		for(final Set<String> paths : changes)
+			MatcherAssert.assertThat("A batch must only contain the changes of its thread", paths.stream().map(path -> path.substring(0, 7)).distinct().count(), new IsEqual<>(1L));
+	}
+	
+	@Test
+	void batches() throws Exception {
+		final YamlConfig config = YamlConfig.loadConfigurationFromString("""
+		  messages:
+		    welcome: Hi
+		    bye: Bye
+		  limits:
+		    max-players: 10
+		  """);
+		
+		final List<Set<String>> messages = new ArrayList<>();
+		final List<Set<String>> limits = new ArrayList<>();
+		
+		config.addChangeListener("messages.*", messages::add);
+		config.addChangeListener("limits", limits::add);
+		
+		config.batch(() -> {
+			config.set("messages.welcome", "Hello");
+			config.set("messages.bye", "Goodbye");
+		});
+		
+		MatcherAssert.assertThat(messages, new IsEqual<>(List.of(Set.of("messages.welcome", "messages.bye"))));
+		
+		config.loadFromString("""
+		  messages:
+		    welcome: Hello
+		    bye: See you
+		  limits:
+		    max-players: 10
+		  """);
+		
+		MatcherAssert.assertThat("Loads only notify changed values", messages.getLast(), new IsEqual<>(Set.of("messages.bye")));
+		MatcherAssert.assertThat(messages.size(), new IsEqual<>(2));
+		MatcherAssert.assertThat(limits.size(), new IsEqual<>(0));
+	}
+}
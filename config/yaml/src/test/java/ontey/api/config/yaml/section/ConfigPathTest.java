@@ -0,0 +1,92 @@
+package ontey.api.config.yaml.section;
+
+import ontey.api.config.ConfigPath;
+import ontey.api.config.yaml.file.YamlConfig;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class ConfigPathTest {
+	
+	@Test
+	void parse() {
+		final ConfigPath path = ConfigPath.of("a.b\\.c.list[-1]");
+		
+		MatcherAssert.assertThat(path.size(), new IsEqual<>(3));
+		MatcherAssert.assertThat(path.node(0), new IsEqual<>("a"));
+		MatcherAssert.assertThat(path.node(1), new IsEqual<>("b\\.c"));
+		MatcherAssert.assertThat(path.isIndexed(1), new IsEqual<>(false));
+		MatcherAssert.assertThat(path.isIndexed(2), new IsEqual<>(true));
+		MatcherAssert.assertThat(path.iterableNode(2), new IsEqual<>("list"));
+		MatcherAssert.assertThat(path.index(2), new IsEqual<>(-1));
+		
+		final ConfigPath notIndexed = ConfigPath.of("list[x]");
+		
+		MatcherAssert.assertThat(notIndexed.isIndexed(0), new IsEqual<>(false));
+		MatcherAssert.assertThat(ConfigPath.of("list[]").isIndexed(0), new IsEqual<>(false));
+		MatcherAssert.assertThat(ConfigPath.of("a/b", '/').size(), new IsEqual<>(2));
+	}
+	
+	@Test
+	void getMatchesStringPaths() throws Exception {
+		final YamlConfig config = YamlConfig.loadConfigurationFromString("""
+		  test:
+		    number: 5
+		    string: Hello world
+		    list:
+		    - a
+		    - b
+		    - c
+		  maps:
+		  - name: first
+		  - name: second
+		  """);
+		
+		for(final String path : List.of("test", "test.number", "test.string", "test.list", "test.list[0]",
+		  "test.list[-1]", "test.list[3]", "maps[1].name", "maps[-2].name", "missing", "test.missing.deeper")) {
+			MatcherAssert.assertThat(path, config.get(ConfigPath.of(path)), new IsEqual<>(config.get(path)));
+		}
+		
+		MatcherAssert.assertThat(config.getInt(ConfigPath.of("test.number"), 0), new IsEqual<>(5));
+		MatcherAssert.assertThat(config.getString(ConfigPath.of("test.list[1]"), null), new IsEqual<>("b"));
+		MatcherAssert.assertThat(config.getLong(ConfigPath.of("test.missing"), 7L), new IsEqual<>(7L));
+	}
+	
+	@Test
+	void setAndCreateSection() {
+		final YamlConfig config = new YamlConfig();
+		final ConfigPath path = ConfigPath.of("a.b.c");
+		
+		config.set(path, 1);
+		config.createSection(ConfigPath.of("a.section")).set("key", "value");
+		config.set("list", new ArrayList<>(List.of(1, 2, 3)));
+		config.set(ConfigPath.of("list[-1]"), null);
+		
+		MatcherAssert.assertThat(config.getInt("a.b.c"), new IsEqual<>(1));
+		MatcherAssert.assertThat(config.getString("a.section.key"), new IsEqual<>("value"));
+		MatcherAssert.assertThat(config.getList("list"), new IsEqual<>(List.of(1, 2)));
+		
+		config.set(path, null);
+		
+		MatcherAssert.assertThat(config.get(path), new IsNull<>());
+	}
+	
+	@Test
+	void otherSeparator() {
+		final YamlConfig config = new YamlConfig();
+		config.options().pathSeparator('/');
+		
+		try {
+			config.set("a/b.c", 1);
+			
+			MatcherAssert.assertThat(config.get(ConfigPath.of("a/b.c")), new IsEqual<>(1));
+			MatcherAssert.assertThat(config.get(ConfigPath.of(config, "a/b.c")), new IsEqual<>(1));
+		} finally {
+			config.options().pathSeparator('.');
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package ontey.api.config.yaml.section;
+
+import ontey.api.config.ConfigSection;
+import ontey.api.config.ConfigSnapshot;
+import ontey.api.config.SnapshotPublisher;
+import ontey.api.config.yaml.file.YamlConfig;
+import ontey.api.config.yaml.implementation.api.QuoteStyle;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsInstanceOf;
+import org.hamcrest.core.IsNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class ConfigSnapshotTest {
+	
+	@Test
+	void snapshotMatchesSource() throws Exception {
+		final YamlConfig config = YamlConfig.loadConfigurationFromString("""
+		  test:
+		    number: 5
+		    list:
+		    - a
+		    - b
+		  maps:
+		  - name: first
+		  - name: second
+		  """);
+		final ConfigSnapshot snapshot = config.snapshot();
+		
+		MatcherAssert.assertThat(snapshot.getKeys(true), new IsEqual<>(config.getKeys(true)));
+		MatcherAssert.assertThat(snapshot.getInt("test.number"), new IsEqual<>(5));
+		MatcherAssert.assertThat(snapshot.getStringList("test.list"), new IsEqual<>(List.of("a", "b")));
+		MatcherAssert.assertThat(snapshot.getString("test.list[-1]"), new IsEqual<>("b"));
+		MatcherAssert.assertThat(snapshot.getString("maps[1].name"), new IsEqual<>("second"));
+		MatcherAssert.assertThat(snapshot.get("test"), new IsInstanceOf(ConfigSection.class));
+		MatcherAssert.assertThat(snapshot.getSection("test").getInt("number"), new IsEqual<>(5));
+		MatcherAssert.assertThat(snapshot.getSection("test").getPath(), new IsEqual<>("test"));
+		MatcherAssert.assertThat(snapshot.get("missing"), new IsNull<>());
+	}
+	
+	@Test
+	void snapshotIsFrozen() {
+		final YamlConfig config = new YamlConfig();
+		config.set("list", new ArrayList<>(List.of(1, 2)));
+		config.set("quoted", "value", QuoteStyle.DOUBLE);
+		
+		final ConfigSnapshot snapshot = config.snapshot();
+		
+		config.set("list[-1]", null);
+		config.set("added", true);
+		
+		MatcherAssert.assertThat(snapshot.getList("list"), new IsEqual<>(List.of(1, 2)));
+		MatcherAssert.assertThat(snapshot.get("added"), new IsNull<>());
+		MatcherAssert.assertThat(snapshot.get("quoted"), new IsEqual<>("value"));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.set("added", true));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.getList("list").clear());
+	}
+	
+	@Test
+	void defaults() {
+		final YamlConfig config = new YamlConfig();
+		config.options().copyDefaults(false);
+		config.addDefault("section.value", 1);
+		config.set("other", 2);
+		
+		final ConfigSnapshot snapshot = config.snapshot();
+		
+		MatcherAssert.assertThat(snapshot.getInt("section.value"), new IsEqual<>(1));
+		MatcherAssert.assertThat(snapshot.get("section.value", null), new IsNull<>());
+		MatcherAssert.assertThat(snapshot.getKeys(false), new IsEqual<>(config.getKeys(false)));
+		
+		// the defaults are only copied again once they are modified
+		MatcherAssert.assertThat(config.snapshot().getDefaults() == snapshot.getDefaults(), new IsEqual<>(true));
+		MatcherAssert.assertThat(ConfigSnapshot.ofStored(config).getDefaults() == ConfigSnapshot.ofStored(config).getDefaults(), new IsEqual<>(true));
+		
+		config.addDefault("section.value", 3);
+		
+		MatcherAssert.assertThat(config.snapshot().getInt("section.value"), new IsEqual<>(3));
+		MatcherAssert.assertThat(snapshot.getInt("section.value"), new IsEqual<>(1));
+	}
+	
+	@Test
+	void publish() {
+		final YamlConfig config = new YamlConfig();
+		config.set("value", 1);
+		
+		final SnapshotPublisher publisher = new SnapshotPublisher(config);
+		final ConfigSnapshot first = publisher.get();
+		
+		config.set("value", 2);
+		
+		MatcherAssert.assertThat(publisher.get().getInt("value"), new IsEqual<>(1));
+		
+		publisher.publish();
+		
+		MatcherAssert.assertThat(publisher.get().getInt("value"), new IsEqual<>(2));
+		MatcherAssert.assertThat(first.getInt("value"), new IsEqual<>(1));
+	}
+}
@@ -0,0 +1,137 @@
+package ontey.api.config.yaml.section;
+
+import ontey.api.config.ConfigSection;
+import ontey.api.config.ConfigVisitor;
+import ontey.api.config.MemoryConfig;
+import ontey.api.config.yaml.file.YamlConfig;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNot;
+import org.hamcrest.core.IsNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+class ConfigWalkTest {
+	
+	private static YamlConfig config() throws Exception {
+		final YamlConfig config = YamlConfig.loadConfigurationFromString("""
+		  a: 1
+		  b:
+		    c: 2
+		    d:
+		      e: 3
+		  f: 4
+		  """);
+		
+		final MemoryConfig defaults = new MemoryConfig();
+		defaults.set("b.c", 20);
+		defaults.set("b.g", 5);
+		defaults.set("h", 6);
+		
+		config.setDefaults(defaults);
+		
+		return config;
+	}
+	
+	@Test
+	void walk() throws Exception {
+		final YamlConfig config = config();
+		config.options().copyDefaults(false);
+		final List<String> paths = new ArrayList<>();
+		
+		config.walk((path, value) -> {
+			paths.add(path);
+			return ConfigVisitor.Result.CONTINUE;
+		});
+		
+		MatcherAssert.assertThat(paths, new IsEqual<>(List.of("a", "b", "b.c", "b.d", "b.d.e", "f")));
+		
+		paths.clear();
+		config.walk((path, value) -> {
+			paths.add(path);
+			
+			if(path.equals("b"))
+				return ConfigVisitor.Result.SKIP_CHILDREN;
+			
+			return path.equals("f") ? ConfigVisitor.Result.TERMINATE : ConfigVisitor.Result.CONTINUE;
+		});
+		
+		MatcherAssert.assertThat(paths, new IsEqual<>(List.of("a", "b", "f")));
+	}
+	
+	@Test
+	void walkWithDefaults() throws Exception {
+		final YamlConfig config = config();
+		config.options().copyDefaults(true);
+		
+		final List<String> paths = new ArrayList<>();
+		
+		config.getSection("b").walk((path, value) -> {
+			paths.add(path + "=" + (value instanceof ConfigSection ? "section" : value));
+			return ConfigVisitor.Result.CONTINUE;
+		});
+		
+		MatcherAssert.assertThat(paths, new IsEqual<>(List.of("c=2", "g=5", "d=section", "d.e=3")));
+	}
+	
+	@Test
+	void stream() throws Exception {
+		final YamlConfig config = config();
+		config.options().copyDefaults(false);
+		
+		MatcherAssert.assertThat(
+		  config.stream(false).map(Map.Entry::getKey).toList(),
+		  new IsEqual<>(List.of("a", "b", "f"))
+		);
+		
+		config.options().copyDefaults(true);
+		
+		final Map<String, Object> values = config.stream(true)
+		  .filter(entry -> !(entry.getValue() instanceof ConfigSection))
+		  .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+		
+		MatcherAssert.assertThat(values, new IsEqual<>(Map.of("a", 1, "b.c", 2, "b.g", 5, "b.d.e", 3, "f", 4, "h", 6)));
+		MatcherAssert.assertThat(
+		  config.stream(true).map(Map.Entry::getKey).collect(Collectors.toSet()),
+		  new IsEqual<>(config.getKeys(true))
+		);
+		MatcherAssert.assertThat(
+		  config.stream(true).filter(entry -> entry.getValue().equals(3)).map(Map.Entry::getKey).findFirst(),
+		  new IsEqual<>(Optional.of("b.d.e"))
+		);
+	}
+	
+	@Test
+	void parallelStream() {
+		final MemoryConfig config = new MemoryConfig();
+		
+		for(int i = 0; i < 5000; i++)
+			config.set("section" + i % 50 + ".key" + i, i);
+		
+		MatcherAssert.assertThat(config.stream(true).parallel().filter(entry -> entry.getValue() instanceof Integer).count(), new IsEqual<>(5000L));
+		MatcherAssert.assertThat(config.stream(true).parallel().count(), new IsEqual<>(5050L));
+	}
+	
+	@Test
+	void parallelStreamSplitsNestedSections() {
+		final MemoryConfig config = new MemoryConfig();
+		
+		for(int i = 0; i < 1000; i++)
+			config.set("root.section" + i % 10 + ".key" + i, i);
+		
+		final Spliterator<Map.Entry<String, Object>> spliterator = config.stream(true).spliterator();
+		
+		MatcherAssert.assertThat("A single top-level section must be split", spliterator.trySplit(), new IsNot<>(new IsNull<>()));
+		MatcherAssert.assertThat(spliterator.trySplit(), new IsNot<>(new IsNull<>()));
+		MatcherAssert.assertThat(
+		  config.stream(true).parallel().map(Map.Entry::getKey).toList(),
+		  new IsEqual<>(config.stream(true).map(Map.Entry::getKey).toList())
+		);
+	}
+}
@@ -0,0 +1,147 @@
+package ontey.api.config.yaml.section;
+
+import ontey.api.config.ValueConverter;
+import ontey.api.config.yaml.file.YamlConfig;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsSame;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ConvertedValueTest {
+	
+	@Test
+	void conversionsAreCachedUntilSet() {
+		final YamlConfig config = new YamlConfig();
+		final AtomicInteger conversions = new AtomicInteger();
+		final ValueConverter<String> converter = value -> {
+			conversions.incrementAndGet();
+			return value.toString().toUpperCase();
+		};
+		
+		config.set("section.value", "abc");
+		
+		final String first = config.getConverted("section.value", converter, null);
+		
+		MatcherAssert.assertThat(first, new IsEqual<>("ABC"));
+		MatcherAssert.assertThat(config.getConverted("section.value", converter, null), new IsSame<>(first));
+		MatcherAssert.assertThat(config.getSection("section").getConverted("value", converter, null), new IsSame<>(first));
+		MatcherAssert.assertThat(conversions.get(), new IsEqual<>(1));
+		
+		config.set("section.value", "def");
+		
+		MatcherAssert.assertThat(config.getConverted("section.value", converter, null), new IsEqual<>("DEF"));
+		MatcherAssert.assertThat(conversions.get(), new IsEqual<>(2));
+		MatcherAssert.assertThat(config.getConverted("section.missing", converter, "none"), new IsEqual<>("none"));
+	}
+	
+	@Test
+	void indexedWritesDropConversions() {
+		final YamlConfig config = new YamlConfig();
+		config.set("numbers", new ArrayList<>(List.of(0, 31)));
+		
+		MatcherAssert.assertThat(config.getIntegerList("numbers"), new IsEqual<>(List.of(0, 31)));
+		
+		// [1, 0] has the same hash code as [0, 31]
+		config.set("numbers[0]", 1);
+		config.set("numbers[1]", 0);
+		
+		MatcherAssert.assertThat(config.getIntegerList("numbers"), new IsEqual<>(List.of(1, 0)));
+		
+		config.set("numbers[-1]", null);
+		
+		MatcherAssert.assertThat(config.getIntegerList("numbers"), new IsEqual<>(List.of(1)));
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Test
+	void typedGetters() throws Exception {
+		final YamlConfig config = YamlConfig.loadConfigurationFromString("""
+		  number: '123'
+		  decimal: '1.5'
+		  invalid: 1.2.3
+		  day: monday
+		  numbers:
+		  - 1
+		  - '2'
+		  - three
+		  - 40000000000
+		  days:
+		  - friday
+		  - weekday
+		  """);
+		
+		MatcherAssert.assertThat(config.getNumber("number"), new IsEqual<>((byte) 123));
+		MatcherAssert.assertThat(config.getNumber("decimal"), new IsEqual<>(1.5f));
+		MatcherAssert.assertThat(config.getNumber("invalid", 7), new IsEqual<>(7));
+		MatcherAssert.assertThat(config.isNumber("invalid"), new IsEqual<>(false));
+		MatcherAssert.assertThat(config.getEnum("day", DayOfWeek.class), new IsEqual<>(DayOfWeek.MONDAY));
+		MatcherAssert.assertThat(config.getEnum("number", DayOfWeek.class, DayOfWeek.SUNDAY), new IsEqual<>(DayOfWeek.SUNDAY));
+		MatcherAssert.assertThat(config.getIntegerList("numbers"), new IsEqual<>(List.of(1, 2, (int) 40000000000L)));
+		MatcherAssert.assertThat(config.getLongList("numbers"), new IsEqual<>(List.of(1L, 2L, 40000000000L)));
+		MatcherAssert.assertThat(config.getEnumList("days", DayOfWeek.class), new IsEqual<>(List.of(DayOfWeek.FRIDAY)));
+		
+		// lists modified in place are converted again
+		config.getIntegerList("numbers").add(5);
+		((List<Object>) config.getList("numbers")).add("5");
+		
+		MatcherAssert.assertThat(config.getIntegerList("numbers"), new IsEqual<>(List.of(1, 2, (int) 40000000000L, 5)));
+		
+		config.set("number", "-5");
+		
+		MatcherAssert.assertThat(config.getNumber("number"), new IsEqual<>((byte) -5));
+	}
+	
+	@Test
+	void primitiveArrays() throws Exception {
+		final YamlConfig config = YamlConfig.loadConfigurationFromString("""
+		  numbers:
+		  - 1
+		  - '2'
+		  - three
+		  - 4.5
+		  """);
+		
+		MatcherAssert.assertThat(config.getIntArray("numbers"), new IsEqual<>(new int[] {1, 2, 4}));
+		MatcherAssert.assertThat(config.getLongArray("numbers"), new IsEqual<>(new long[] {1, 2, 4}));
+		MatcherAssert.assertThat(config.getDoubleArray("numbers"), new IsEqual<>(new double[] {1, 2, 4.5}));
+		MatcherAssert.assertThat(config.getIntArray("missing"), new IsEqual<>(new int[0]));
+		
+		// arrays are never shared
+		config.getIntArray("numbers")[0] = 100;
+		
+		MatcherAssert.assertThat(config.getIntArray("numbers"), new IsEqual<>(new int[] {1, 2, 4}));
+		
+		config.set("numbers", List.of(7));
+		
+		MatcherAssert.assertThat(config.getIntArray("numbers"), new IsEqual<>(new int[] {7}));
+		
+		config.addDefault("defaults", List.of(8, 9));
+		
+		MatcherAssert.assertThat(config.getIntArray("defaults"), new IsEqual<>(new int[] {8, 9}));
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Test
+	void arraysOfListsModifiedInPlace() {
+		final YamlConfig config = new YamlConfig();
+		config.set("numbers", new ArrayList<>(List.of(1, 2)));
+		
+		final List<Object> list = (List<Object>) config.getList("numbers");
+		
+		MatcherAssert.assertThat(config.getIntArray("numbers"), new IsEqual<>(new int[] {1, 2}));
+		
+		list.add(5);
+		
+		MatcherAssert.assertThat(config.getIntArray("numbers"), new IsEqual<>(new int[] {1, 2, 5}));
+		MatcherAssert.assertThat(config.getDoubleArray("numbers"), new IsEqual<>(new double[] {1, 2, 5}));
+		
+		((List<Object>) config.getValues(false).get("numbers")).add(6);
+		
+		MatcherAssert.assertThat(config.getLongArray("numbers"), new IsEqual<>(new long[] {1, 2, 5, 6}));
+	}
+}
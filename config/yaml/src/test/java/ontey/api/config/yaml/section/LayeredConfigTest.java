@@ -0,0 +1,97 @@
+package ontey.api.config.yaml.section;
+
+import ontey.api.config.ConfigSection;
+import ontey.api.config.MemoryConfig;
+import ontey.api.config.yaml.file.YamlConfig;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.List;
+
+class LayeredConfigTest {
+	
+	@Test
+	void defaultsAreIndexedUntilModified() throws Exception {
+		final YamlConfig config = YamlConfig.loadConfigurationFromString("""
+		  section:
+		    set: 1
+		  """);
+		
+		final MemoryConfig defaults = new MemoryConfig();
+		defaults.set("section.set", 10);
+		defaults.set("section.default", 20);
+		defaults.set("section.day", "friday");
+		defaults.set("section.list", List.of("a", "b"));
+		config.setDefaults(defaults);
+		
+		final ConfigSection section = config.getSection("section");
+		
+		MatcherAssert.assertThat(section.get("set"), new IsEqual<>(1));
+		MatcherAssert.assertThat(section.get("default"), new IsEqual<>(20));
+		MatcherAssert.assertThat(config.getInt("section.default"), new IsEqual<>(20));
+		MatcherAssert.assertThat(section.getNumber("default"), new IsEqual<>((byte) 20));
+		MatcherAssert.assertThat(section.getEnum("day", DayOfWeek.class), new IsEqual<>(DayOfWeek.FRIDAY));
+		MatcherAssert.assertThat(section.get("list[1]"), new IsEqual<>("b"));
+		MatcherAssert.assertThat(section.get("missing"), new IsEqual<>(null));
+		
+		defaults.set("section.default", 30);
+		defaults.getSection("section").set("other", 40);
+		
+		MatcherAssert.assertThat(section.get("default"), new IsEqual<>(30));
+		MatcherAssert.assertThat(section.get("other"), new IsEqual<>(40));
+		
+		final MemoryConfig replaced = new MemoryConfig();
+		replaced.set("section.default", 50);
+		config.setDefaults(replaced);
+		
+		MatcherAssert.assertThat(section.get("default"), new IsEqual<>(50));
+		MatcherAssert.assertThat(section.get("other"), new IsEqual<>(null));
+	}
+	
+	@Test
+	void chainedDefaults() {
+		final MemoryConfig inner = new MemoryConfig();
+		inner.set("value", 1);
+		
+		final MemoryConfig defaults = new MemoryConfig(inner);
+		final MemoryConfig config = new MemoryConfig(defaults);
+		
+		MatcherAssert.assertThat(config.get("value"), new IsEqual<>(1));
+	}
+	
+	@Test
+	void overrides() throws Exception {
+		final YamlConfig config = YamlConfig.loadConfigurationFromString("""
+		  section:
+		    value: 1
+		    number: '2'
+		  """);
+		
+		config.addDefault("section.default", 3);
+		config.addOverride("section.value", 10);
+		config.addOverride("section.default", 30);
+		
+		final ConfigSection section = config.getSection("section");
+		
+		MatcherAssert.assertThat(section.get("value"), new IsEqual<>(10));
+		MatcherAssert.assertThat(config.getInt("section.value"), new IsEqual<>(10));
+		MatcherAssert.assertThat(section.getNumber("number"), new IsEqual<>((byte) 2));
+		MatcherAssert.assertThat(section.get("default"), new IsEqual<>(30));
+		
+		config.set("section.value", 5);
+		config.options().copyDefaults(false);
+		
+		MatcherAssert.assertThat("Overrides take precedence over set values", section.get("value"), new IsEqual<>(10));
+		MatcherAssert.assertThat("Overrides are not saved", config.saveToString(), new IsEqual<>("section:\n  value: 5\n  number: '2'\n"));
+		
+		config.addOverride("section.value", null);
+		
+		MatcherAssert.assertThat(section.get("value"), new IsEqual<>(5));
+		
+		config.setOverrides(null);
+		
+		MatcherAssert.assertThat(section.get("default"), new IsEqual<>(3));
+	}
+}
@@ -0,0 +1,121 @@
+package ontey.api.config.yaml.section;
+
+import ontey.api.config.ConfigSection;
+import ontey.api.config.MappedConfig;
+import ontey.api.config.yaml.file.YamlConfig;
+import ontey.api.config.yaml.implementation.api.QuoteStyle;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsInstanceOf;
+import org.hamcrest.core.IsNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+class MappedConfigTest {
+	
+	@Test
+	void exportedValuesMatchSource() throws Exception {
+		final YamlConfig config = YamlConfig.loadConfigurationFromString("""
+		  items:
+		    sword:
+		      name: Sword
+		      damage: 7
+		      speed: 1.6
+		      tags: [sharp, metal]
+		    empty: {}
+		  drops:
+		  - item: sword
+		    chance: 0.5
+		  big: 12345678901234567890
+		  enabled: true
+		  """);
+		config.set("quoted", "value", QuoteStyle.DOUBLE);
+		
+		final Path file = Files.createTempFile("mapped", ".bin");
+		
+		try {
+			MappedConfig.export(config, file);
+			final MappedConfig mapped = MappedConfig.open(file);
+			
+			MatcherAssert.assertThat(mapped.getKeys(true), new IsEqual<>(config.getKeys(true)));
+			MatcherAssert.assertThat(mapped.getString("items.sword.name"), new IsEqual<>("Sword"));
+			MatcherAssert.assertThat(mapped.getInt("items.sword.damage"), new IsEqual<>(7));
+			MatcherAssert.assertThat(mapped.getDouble("items.sword.speed"), new IsEqual<>(1.6));
+			MatcherAssert.assertThat(mapped.getStringList("items.sword.tags"), new IsEqual<>(List.of("sharp", "metal")));
+			MatcherAssert.assertThat(mapped.getString("items.sword.tags[-1]"), new IsEqual<>("metal"));
+			MatcherAssert.assertThat(mapped.get("drops[0]"), new IsEqual<>(Map.of("item", "sword", "chance", 0.5)));
+			MatcherAssert.assertThat(mapped.getBigInteger("big"), new IsEqual<>(new BigInteger("12345678901234567890")));
+			MatcherAssert.assertThat(mapped.getBoolean("enabled"), new IsEqual<>(true));
+			MatcherAssert.assertThat(mapped.get("quoted"), new IsEqual<>("value"));
+			MatcherAssert.assertThat(mapped.get("missing"), new IsNull<>());
+			
+			final ConfigSection sword = mapped.getSection("items.sword");
+			
+			MatcherAssert.assertThat(sword.getPath(), new IsEqual<>("items.sword"));
+			MatcherAssert.assertThat(sword.getName(), new IsEqual<>("sword"));
+			MatcherAssert.assertThat(sword.getInt("damage"), new IsEqual<>(7));
+			MatcherAssert.assertThat(sword.getParent().getPath(), new IsEqual<>("items"));
+			MatcherAssert.assertThat(sword.getValues(false).keySet(), new IsEqual<>(config.getSection("items.sword").getKeys(false)));
+			MatcherAssert.assertThat(mapped.get("items.empty"), new IsInstanceOf(ConfigSection.class));
+			MatcherAssert.assertThat(mapped.getSection("items.empty").size(), new IsEqual<>(0));
+			
+			Assertions.assertThrows(UnsupportedOperationException.class, () -> mapped.set("enabled", false));
+			Assertions.assertThrows(UnsupportedOperationException.class, () -> mapped.getList("items.sword.tags").clear());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	@Test
+	void exportReplacesMappedFile() throws Exception {
+		final Path file = Files.createTempFile("mapped", ".bin");
+		
+		try {
+			final YamlConfig config = new YamlConfig();
+			config.set("version", 1);
+			MappedConfig.export(config, file);
+			final MappedConfig first = MappedConfig.open(file);
+			
+			config.set("version", 2);
+			MappedConfig.export(config.getRoot(), file);
+			
+			MatcherAssert.assertThat("A mapped file is replaced, not overwritten", first.getInt("version"), new IsEqual<>(1));
+			MatcherAssert.assertThat(MappedConfig.open(file).getInt("version"), new IsEqual<>(2));
+			
+			Files.writeString(file, "not: mapped");
+			Assertions.assertThrows(java.io.IOException.class, () -> MappedConfig.open(file));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	@Test
+	void boxedPrimitivesAreExported() throws Exception {
+		final Path file = Files.createTempFile("mapped", ".bin");
+		
+		try {
+			final YamlConfig config = new YamlConfig();
+			config.set("float", 1.5f);
+			config.set("short", (short) 2);
+			config.set("byte", (byte) 3);
+			config.set("char", 'c');
+			config.set("list", List.of(4.5f, 'd'));
+			MappedConfig.export(config, file);
+			final MappedConfig mapped = MappedConfig.open(file);
+			
+			MatcherAssert.assertThat(mapped.get("float"), new IsEqual<>(1.5f));
+			MatcherAssert.assertThat(mapped.get("short"), new IsEqual<>((short) 2));
+			MatcherAssert.assertThat(mapped.get("byte"), new IsEqual<>((byte) 3));
+			MatcherAssert.assertThat(mapped.get("char"), new IsEqual<>('c'));
+			MatcherAssert.assertThat(mapped.get("list"), new IsEqual<>(List.of(4.5f, 'd')));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+}
@@ -0,0 +1,250 @@
+package ontey.api.config.yaml.serialization;
+
+import lombok.NonNull;
+import ontey.api.config.ConfigDefault;
+import ontey.api.config.ConfigKey;
+import ontey.api.config.serialization.ConfigSerializable;
+import ontey.api.config.serialization.ConfigSerialization;
+import ontey.api.config.serialization.RecordSerializable;
+import ontey.api.config.serialization.SerializableAs;
+import ontey.api.config.yaml.examples.Person;
+import ontey.api.config.yaml.file.YamlConfig;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+class ConfigSerializationTest {
+	
+	@Test
+	void deserializationStrategies() {
+		final Map<String, Object> args = Map.of("value", "a");
+		
+		MatcherAssert.assertThat(((ViaValueOf) ConfigSerialization.deserializeObject(args, ViaValueOf.class)).value, new IsEqual<>("a"));
+		MatcherAssert.assertThat(((ViaConstructor) ConfigSerialization.deserializeObject(args, ViaConstructor.class)).value, new IsEqual<>("a"));
+		// deserialize returns null, so the constructor is used
+		MatcherAssert.assertThat(((Fallback) ConfigSerialization.deserializeObject(args, Fallback.class)).value, new IsEqual<>("a"));
+		MatcherAssert.assertThat(ConfigSerialization.deserializeObject(args, NoDeserializer.class), new IsNull<>());
+	}
+	
+	@Test
+	void overriddenHooksAreCalled() {
+		final Map<String, Object> args = Map.of("value", "a");
+		final List<String> calls = new ArrayList<>();
+		
+		final ConfigSerialization serialization = new ConfigSerialization(ViaValueOf.class) {
+			
+			@Override
+			protected ConfigSerializable deserializeViaMethod(@NonNull Method method, @NonNull Map<@NonNull String, ? extends @Nullable Object> args) {
+				calls.add(method.getName());
+				return super.deserializeViaMethod(method, args);
+			}
+		};
+		
+		MatcherAssert.assertThat(((ViaValueOf) serialization.deserialize(args)).value, new IsEqual<>("a"));
+		MatcherAssert.assertThat(calls, new IsEqual<>(List.of("valueOf")));
+		
+		// records without hand-written deserializers still use their components
+		final ConfigSerialization records = new ConfigSerialization(Point.class) {
+			
+			@Override
+			protected Constructor<? extends ConfigSerializable> getConstructor(@NonNull Class<?>... parameterTypes) {
+				calls.add("constructor");
+				return super.getConstructor(parameterTypes);
+			}
+		};
+		
+		MatcherAssert.assertThat(records.deserialize(Map.of("x", 1, "y", 2)), new IsEqual<>(new Point(1, 2)));
+		MatcherAssert.assertThat(calls, new IsEqual<>(List.of("valueOf", "constructor")));
+	}
+	
+	@Test
+	void concurrentRegistration() throws Exception {
+		try(var executor = Executors.newFixedThreadPool(4)) {
+			for(var i = 0; i < 1000; i++) {
+				final String alias = "Alias" + i;
+				executor.execute(() -> ConfigSerialization.registerClass(ViaValueOf.class, alias));
+			}
+		}
+		
+		MatcherAssert.assertThat(ConfigSerialization.getClassByAlias("Alias999"), new IsEqual<>(ViaValueOf.class));
+		
+		ConfigSerialization.unregisterClass(ViaValueOf.class);
+		
+		MatcherAssert.assertThat(ConfigSerialization.getClassByAlias("Alias0"), new IsNull<>());
+	}
+	
+	@Test
+	void deserializeByAlias() {
+		ConfigSerialization.registerClass(Person.class);
+		
+		final Map<String, Object> args = new HashMap<>();
+		args.put(ConfigSerialization.SERIALIZED_TYPE_KEY, "Person");
+		args.put("id", "1");
+		args.put("name", "Jane");
+		args.put("birthYear", 1990);
+		args.put("isAlive", true);
+		
+		MatcherAssert.assertThat(((Person) ConfigSerialization.deserializeObject(args)).getName(), new IsEqual<>("Jane"));
+	}
+	
+	@Test
+	void records() throws Exception {
+		ConfigSerialization.registerClass(Point.class);
+		ConfigSerialization.registerClass(Marker.class);
+		
+		final Marker marker = new Marker("spawn", new Point(1, -2), DayOfWeek.MONDAY, List.of("a", "b"), true);
+		final YamlConfig config = new YamlConfig();
+		config.set("marker", marker);
+		
+		final String yaml = config.saveToString();
+		
+		MatcherAssert.assertThat(yaml, new IsEqual<>("""
+		  marker:
+		    ==: Marker
+		    name: spawn
+		    position:
+		      ==: Point
+		      x: 1
+		      y: -2
+		    day: MONDAY
+		    tags:
+		      - a
+		      - b
+		    visible: true
+		  """));
+		
+		final YamlConfig loaded = YamlConfig.loadConfigurationFromString(yaml);
+		
+		MatcherAssert.assertThat(loaded.get("marker"), new IsEqual<>(marker));
+		MatcherAssert.assertThat(loaded.getSerializable("marker", Marker.class), new IsEqual<>(marker));
+	}
+	
+	@Test
+	void recordFromSection() throws Exception {
+		final YamlConfig config = YamlConfig.loadConfigurationFromString("""
+		  marker:
+		    name: 5
+		    position:
+		      x: '3'
+		    day: tuesday
+		  """);
+		
+		MatcherAssert.assertThat(
+		  config.getSerializable("marker", Marker.class),
+		  new IsEqual<>(new Marker("5", new Point(3, 0), DayOfWeek.TUESDAY, null, false))
+		);
+	}
+	
+	@Test
+	void recordKeysAndDefaults() throws Exception {
+		ConfigSerialization.registerClass(Toggle.class);
+		
+		final Toggle toggle = new Toggle("spawn", true, false);
+		final YamlConfig config = new YamlConfig();
+		config.set("toggle", toggle);
+		
+		final String yaml = config.saveToString();
+		
+		MatcherAssert.assertThat(yaml, new IsEqual<>("""
+		  toggle:
+		    ==: Toggle
+		    name: spawn
+		    console-only: true
+		    enabled: false
+		  """));
+		MatcherAssert.assertThat(YamlConfig.loadConfigurationFromString(yaml).get("toggle"), new IsEqual<>(toggle));
+		
+		final YamlConfig missing = YamlConfig.loadConfigurationFromString("toggle:\n  name: home\n");
+		
+		MatcherAssert.assertThat(missing.getSerializable("toggle", Toggle.class), new IsEqual<>(new Toggle("home", false, true)));
+		MatcherAssert.assertThat(
+		  ConfigSerialization.deserializeRecord(Toggle.class, Map.of("name", "a", "console-only", true)),
+		  new IsEqual<>(new Toggle("a", true, true))
+		);
+	}
+	
+	@SerializableAs("Point")
+	public record Point(int x, int y) implements RecordSerializable {
+		
+	}
+	
+	@SerializableAs("Marker")
+	record Marker(String name, Point position, DayOfWeek day, List<String> tags, boolean visible) implements RecordSerializable {
+		
+	}
+	
+	@SerializableAs("Toggle")
+	record Toggle(String name, @ConfigKey("console-only") boolean consoleOnly, @ConfigDefault("true") boolean enabled) implements RecordSerializable {
+		
+	}
+	
+	@SerializableAs("ViaValueOf")
+	public static final class ViaValueOf implements ConfigSerializable {
+		
+		private final String value;
+		
+		private ViaValueOf(String value) {
+			this.value = value;
+		}
+		
+		public static ViaValueOf valueOf(Map<String, Object> args) {
+			return new ViaValueOf((String) args.get("value"));
+		}
+		
+		@Override
+		public Map<String, Object> serialize() {
+			return Map.of("value", this.value);
+		}
+	}
+	
+	public static final class ViaConstructor implements ConfigSerializable {
+		
+		private final String value;
+		
+		public ViaConstructor(Map<String, Object> args) {
+			this.value = (String) args.get("value");
+		}
+		
+		@Override
+		public Map<String, Object> serialize() {
+			return Map.of("value", this.value);
+		}
+	}
+	
+	public static final class Fallback implements ConfigSerializable {
+		
+		private final String value;
+		
+		public Fallback(Map<String, Object> args) {
+			this.value = (String) args.get("value");
+		}
+		
+		public static Fallback deserialize(Map<String, Object> args) {
+			return null;
+		}
+		
+		@Override
+		public Map<String, Object> serialize() {
+			return Map.of("value", this.value);
+		}
+	}
+	
+	public static final class NoDeserializer implements ConfigSerializable {
+		
+		@Override
+		public Map<String, Object> serialize() {
+			return Map.of();
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package ontey.api.config.yaml.utils;
+
+import ontey.api.config.util.DumperBus;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+class DumperBusTest {
+	
+	private static final DumperBus.Dumper SOURCE = writer -> {
+		writer.write("first");
+		writer.write(": 1");
+		writer.write("\n");
+		writer.write("\r\n");
+		writer.write("second: 2\r\n");
+		
+		for(int i = 0; i < 500; i++) {
+			writer.write("key" + i);
+			writer.write("\n");
+		}
+		
+		writer.write("last");
+	};
+	
+	private static List<String> lines(DumperBus bus) throws IOException {
+		final List<String> lines = new ArrayList<>();
+		bus.dump();
+		
+		String line;
+		while((line = bus.await()) != null)
+			lines.add(line);
+		
+		return lines;
+	}
+	
+	@Test
+	void lines() throws IOException {
+		final List<String> lines = lines(new DumperBus(SOURCE));
+		
+		MatcherAssert.assertThat(lines.size(), new IsEqual<>(503));
+		MatcherAssert.assertThat(lines.subList(0, 3), new IsEqual<>(List.of("first: 1", "second: 2", "key0")));
+		MatcherAssert.assertThat(lines.getLast(), new IsEqual<>("last"));
+	}
+	
+	private static List<String> streamedLines(DumperBus bus, List<Thread> consumers) throws IOException {
+		final List<String> lines = new ArrayList<>();
+		
+		bus.dump(consumer -> {
+			consumers.add(Thread.currentThread());
+			
+			CharSequence line;
+			while((line = consumer.awaitLine()) != null)
+				lines.add(line.toString());
+		});
+		
+		return lines;
+	}
+	
+	private static List<String> largeLines() {
+		final List<String> lines = new ArrayList<>();
+		
+		for(int i = 0; i < 20_000; i++)
+			lines.add("key" + i + ": " + "x".repeat(i % 97) + (i % 1000 == 0 ? "y".repeat(20_000) : ""));
+		
+		return lines;
+	}
+	
+	private static DumperBus.Dumper source(List<String> lines) {
+		return writer -> {
+			for(final String line : lines) {
+				writer.write(line, 0, 3);
+				writer.write(line.toCharArray(), 3, line.length() - 3);
+				writer.write('\n');
+			}
+		};
+	}
+	
+	@Test
+	void linesBeyondInitialCapacity() throws IOException {
+		final List<String> expected = largeLines();
+		
+		MatcherAssert.assertThat(lines(new DumperBus(source(expected))), new IsEqual<>(expected));
+	}
+	
+	@Test
+	void streamedLinesAcrossChunks() throws IOException {
+		final List<String> expected = largeLines();
+		final List<Thread> consumers = new ArrayList<>();
+		
+		MatcherAssert.assertThat(streamedLines(new DumperBus(source(expected), 1), consumers), new IsEqual<>(expected));
+		MatcherAssert.assertThat(streamedLines(new DumperBus(source(expected), 4), consumers), new IsEqual<>(expected));
+		
+		// the ring is full long before the end, the lines are consumed while dumping
+		MatcherAssert.assertThat(consumers.get(0).isVirtual(), new IsEqual<>(true));
+		MatcherAssert.assertThat(consumers.get(1).isVirtual(), new IsEqual<>(true));
+	}
+	
+	@Test
+	void smallDumpsAreConsumedInTheCallingThread() throws IOException {
+		final List<Thread> consumers = new ArrayList<>();
+		
+		MatcherAssert.assertThat(streamedLines(new DumperBus(SOURCE), consumers), new IsEqual<>(lines(new DumperBus(SOURCE))));
+		MatcherAssert.assertThat(consumers, new IsEqual<>(List.of(Thread.currentThread())));
+	}
+	
+	@Test
+	void awaitLineReusesLine() throws IOException {
+		final DumperBus bus = new DumperBus(SOURCE);
+		bus.dump();
+		
+		final CharSequence first = bus.awaitLine();
+		MatcherAssert.assertThat(first.toString(), new IsEqual<>("first: 1"));
+		MatcherAssert.assertThat(bus.awaitLine() == first, new IsEqual<>(true));
+		MatcherAssert.assertThat(first.toString(), new IsEqual<>("second: 2"));
+	}
+	
+	@Test
+	void failuresAreThrown() {
+		final DumperBus.Dumper failing = writer -> {
+			writer.write("line\n");
+			throw new IOException("failed");
+		};
+		
+		Assertions.assertThrows(IOException.class, () -> lines(new DumperBus(failing)));
+		Assertions.assertThrows(IOException.class, () -> streamedLines(new DumperBus(failing), new ArrayList<>()));
+	}
+	
+	@Test
+	void streamedFailuresAreThrown() {
+		final List<String> expected = largeLines();
+		final DumperBus.Dumper failing = writer -> {
+			source(expected).dump(writer);
+			throw new IOException("source failed");
+		};
+		
+		final IOException source = Assertions.assertThrows(IOException.class,
+		  () -> streamedLines(new DumperBus(failing, 1), new ArrayList<>()));
+		MatcherAssert.assertThat(source.getMessage(), new IsEqual<>("source failed"));
+		
+		final IOException consumer = Assertions.assertThrows(IOException.class, () -> new DumperBus(source(expected), 1).dump(bus -> {
+			for(int i = 0; i < 10; i++)
+				bus.awaitLine();
+			
+			throw new IOException("consumer failed");
+		}));
+		MatcherAssert.assertThat(consumer.getMessage(), new IsEqual<>("consumer failed"));
+	}
+}
@@ -0,0 +1,82 @@
+package ontey.api.config.yaml.utils;
+
+import ontey.api.config.util.NumberUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.function.Function;
+
+public class NumberUtilsTest {
+	
+	private static final List<String> SAMPLES = List.of(
+	  "", "+", "-", "0", "-0", "+7", "42", "-128", "-129", "127", "128", "32767", "32768",
+	  "2147483647", "2147483648", "-2147483648", "-2147483649",
+	  "9223372036854775807", "9223372036854775808", "-9223372036854775808", "-9223372036854775809",
+	  "123456789012345678901234567890", "١٢٣", "1_000", "0x10", " 5", "5 ", "1.", ".5", ".", "1.5",
+	  "-1.5e10", "1e", "1e+", "1E-3", "1.5f", "2d", "NaN", "-Infinity", "Infinityx", "0x1p3", "0x1.8P-1",
+	  "0x1", "1.2.3", "e5", "abc", "1,5"
+	);
+	
+	@Test
+	void isInteger() {
+		for(var sample : SAMPLES)
+			MatcherAssert.assertThat(sample, NumberUtils.isInteger(sample), new IsEqual<>(parses(sample, BigInteger::new)));
+	}
+	
+	@Test
+	void isDecimal() {
+		for(var sample : SAMPLES)
+			MatcherAssert.assertThat(sample, NumberUtils.isDecimal(sample), new IsEqual<>(parses(sample, BigDecimal::new)));
+	}
+	
+	@Test
+	void isFloatingPoint() {
+		for(var sample : SAMPLES)
+			MatcherAssert.assertThat(sample, NumberUtils.isFloatingPoint(sample), new IsEqual<>(parses(sample, Double::parseDouble)));
+	}
+	
+	@Test
+	void parseInteger() {
+		for(var sample : SAMPLES) {
+			Number expected = null;
+			
+			for(Function<String, Number> parser : List.<Function<String, Number>>of(Byte::parseByte, Short::parseShort, Integer::parseInt, Long::parseLong, BigInteger::new))
+				if(expected == null && parses(sample, parser))
+					expected = parser.apply(sample);
+			
+			MatcherAssert.assertThat(sample, NumberUtils.parseInteger(sample), new IsEqual<>(expected));
+		}
+	}
+	
+	@Test
+	void parsePrimitives() {
+		for(var sample : SAMPLES) {
+			MatcherAssert.assertThat(sample, NumberUtils.parseInt(sample), new IsEqual<>(parses(sample, Integer::parseInt) ? Integer.parseInt(sample) : null));
+			MatcherAssert.assertThat(sample, NumberUtils.parseLong(sample), new IsEqual<>(parses(sample, Long::parseLong) ? Long.parseLong(sample) : null));
+			MatcherAssert.assertThat(sample, NumberUtils.parseDouble(sample), new IsEqual<>(parses(sample, Double::parseDouble) ? Double.parseDouble(sample) : null));
+		}
+	}
+	
+	@Test
+	void parseNumber() {
+		MatcherAssert.assertThat(NumberUtils.parseNumber("5"), new IsEqual<>((byte) 5));
+		MatcherAssert.assertThat(NumberUtils.parseNumber("1000"), new IsEqual<>((short) 1000));
+		MatcherAssert.assertThat(NumberUtils.parseNumber("1.5"), new IsEqual<>(1.5f));
+		MatcherAssert.assertThat(NumberUtils.parseNumber("1.5.5"), new IsEqual<>(null));
+		MatcherAssert.assertThat(NumberUtils.parseNumber("five"), new IsEqual<>(null));
+		MatcherAssert.assertThat(NumberUtils.parseNumber(null), new IsEqual<>(null));
+	}
+	
+	private static boolean parses(String s, Function<String, ?> parser) {
+		try {
+			parser.apply(s);
+			return true;
+		} catch(NumberFormatException e) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package ontey.api.config.yaml.utils;
+
+import ontey.api.config.util.ValueCodec;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+class ValueCodecTest {
+	
+	private static byte[] write(ValueCodec codec, Object value) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		codec.write(new DataOutputStream(bytes), value);
+		return bytes.toByteArray();
+	}
+	
+	@Test
+	void boxedPrimitives() throws IOException {
+		final ValueCodec codec = new ValueCodec();
+		final List<Object> values = List.of(1, 2L, 3.5, 4.5f, (short) 5, (byte) 6, 'c', true, false);
+		
+		for(final Object value : values) {
+			final Object read = codec.read(new DataInputStream(new ByteArrayInputStream(write(codec, value))));
+			
+			MatcherAssert.assertThat(read, new IsEqual<>(value));
+			MatcherAssert.assertThat(read.getClass(), new IsEqual<>(value.getClass()));
+		}
+	}
+	
+	@Test
+	void nestedValues() throws IOException {
+		final ValueCodec codec = new ValueCodec();
+		final Map<Object, Object> value = new LinkedHashMap<>();
+		value.put("list", List.of(1.5f, 'x', "text", new BigInteger("12345678901234567890")));
+		value.put("set", new LinkedHashSet<>(List.of((short) 1, (byte) 2)));
+		value.put("date", new Date(1000));
+		value.put("none", null);
+		
+		final Object read = codec.read(ValueCodec.input(ByteBuffer.wrap(write(codec, value))));
+		
+		MatcherAssert.assertThat(read, new IsEqual<>(value));
+	}
+	
+	@Test
+	void unsupportedValues() {
+		final ValueCodec codec = new ValueCodec();
+		
+		Assertions.assertThrows(NotSerializableException.class, () -> write(codec, new Object()));
+		Assertions.assertThrows(StreamCorruptedException.class, () -> codec.read(ValueCodec.input(ByteBuffer.wrap(new byte[] {ValueCodec.EXTENSION}))));
+	}
+}
@@ -3,82 +3,73 @@ package ontey.api.command.config;
 import lombok.Builder;
 import lombok.NonNull;
 import ontey.api.command.ConfigCommand;
-import ontey.api.config.Config;
+import ontey.api.config.ConfigDefault;
+import ontey.api.config.ConfigKey;
 import ontey.api.config.ConfigSection;
-import ontey.api.config.yaml.file.YamlConfig;
+import ontey.api.config.serialization.ConfigSerialization;
 import ontey.api.serialization.CombinedConfigSerializable;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnknownNullability;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * A command configuration for {@link ConfigCommand}s.
+ * <br>
+ * It is serialized by its components, missing aliases and options are empty and a missing {@code enabled} is true.
  */
 
 @Builder
 public record CommandConfig(
   @NonNull String name,
-  @NonNull List<@NonNull String> aliases,
+  List<@NonNull String> aliases,
   @Nullable String description,
   @Nullable String permission,
-  boolean consoleOnly,
-  @NonNull Map<@NonNull String, ? extends @UnknownNullability Object> options,
-  boolean enabled
+  @ConfigKey("console-only") boolean consoleOnly,
+  Map<@NonNull String, ? extends @UnknownNullability Object> options,
+  @ConfigDefault("true") boolean enabled
 ) implements CombinedConfigSerializable {
 	
+	public CommandConfig {
+		if(aliases == null)
+			aliases = List.of();
+		
+		if(options == null)
+			options = Map.of();
+	}
+	
 	/**
-	 * Creates a new {@link ConfigSection} for the {@code input} and deserializes it into a {@link CommandConfig} using {@link #deserialize(ConfigSection)}
+	 * Deserializes the {@code input} into a {@link CommandConfig} by its components.
+	 * <br>
+	 * Bukkit needs this method, {@link ConfigSerialization} uses it as well.
 	 *
-	 * @return A new {@link CommandConfig} based on the values of the given {@link ConfigSection}.
-	 * @throws IllegalStateException If the section does not contain a field named {@code name} which can be converted to a String
+	 * @return A new {@link CommandConfig} based on the given values.
+	 * @throws IllegalStateException If the input does not contain a field named {@code name}
 	 */
 	
 	public static @NonNull CommandConfig deserialize(@NonNull Map<@NonNull String, @Nullable Object> input) throws IllegalStateException {
-		Config config = new YamlConfig();
-		for(var entry : input.entrySet())
-			config.set(entry.getKey(), entry.getValue());
+		if(input.get("name") == null)
+			throw new IllegalStateException("Input does not have a name field, can't convert to CommandConfig");
 		
-		return deserialize(config);
+		return ConfigSerialization.deserializeRecord(CommandConfig.class, input);
 	}
 	
 	/**
-	 * Deserializes the given {@link ConfigSection} into a {@link CommandConfig}
+	 * Deserializes the given {@link ConfigSection} into a {@link CommandConfig} by its components.
 	 *
 	 * @return A new {@link CommandConfig} based on the values of the given {@link ConfigSection}.
-	 * @throws IllegalStateException If the section does not contain a field named {@code name} which can be converted to a String
+	 * @throws IllegalStateException If the section does not contain a field named {@code name}
 	 */
 	
 	public static @NonNull CommandConfig deserialize(ConfigSection section) throws IllegalStateException {
-		String name = section.getString("name");
-		
-		if(name == null)
+		if(section.get("name") == null)
 			throw new IllegalStateException("Section does not have a name field, can't convert to CommandConfig");
 		
-		List<String> aliases = section.getStringList("aliases");
-		String description = section.getString("description");
-		String permission = section.getString("permission");
-		boolean consoleOnly = section.getBoolean("console-only");
-		var optionsSection = section.getSection("options");
-		Map<String, ?> options = optionsSection != null ? section.getMapValues(true) : Map.of();
-		boolean enabled = section.getBoolean("enabled", true);
-		
-		return new CommandConfig(name, aliases, description, permission, consoleOnly, options, enabled);
+		return ConfigSerialization.deserializeRecord(CommandConfig.class, section);
 	}
 	
 	public @NonNull Map<@NonNull String, @Nullable Object> serialize() {
-		Map<String, Object> out = new HashMap<>(7);
-		
-		out.put("name", name);
-		out.put("aliases", aliases);
-		out.put("permission", permission);
-		out.put("description", description);
-		out.put("console-only", consoleOnly);
-		out.put("options", options);
-		out.put("enabled", enabled);
-		
-		return out;
+		return ConfigSerialization.serializeRecord(this);
 	}
 }
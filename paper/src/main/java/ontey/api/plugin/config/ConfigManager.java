@@ -4,13 +4,22 @@ import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import ontey.api.check.Checker;
 import ontey.api.config.yaml.file.YamlFile;
+import ontey.api.config.yaml.file.YamlFileBatch;
+import ontey.api.config.yaml.file.YamlStore;
+import ontey.api.config.yaml.file.YamlFileWatcher;
 import ontey.api.plugin.OnteyPlugin;
 import org.intellij.lang.annotations.Pattern;
 import org.jetbrains.annotations.ApiStatus;
+import org.slf4j.Logger;
 
 import java.io.File;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 @RequiredArgsConstructor(onConstructor_ = @ApiStatus.Internal)
 public class ConfigManager {
@@ -19,10 +28,16 @@ public class ConfigManager {
 	
 	private final File dataFolder;
 	
+	private final Logger logger;
+	
 	private final Map<String, YamlFile> configs = new HashMap<>();
 	
+	private YamlFileWatcher watcher;
+	
+	private Executor reloadExecutor;
+	
 	public ConfigManager(OnteyPlugin plugin) {
-		this(plugin.getDataFolder());
+		this(plugin.getDataFolder(), plugin.getSLF4JLogger());
 	}
 	
 	@NonNull
@@ -52,7 +67,14 @@ public class ConfigManager {
 	public YamlFile registerConfig(@NonNull @IdentifierPattern String identifier, @NonNull YamlFile config) {
 		Checker.checkArgument(identifier.matches(IDENTIFIER_PATTERN), "Invalid identifier '" + identifier + "'");
 		
-		configs.put(identifier, config);
+		var previous = configs.put(identifier, config);
+		
+		if(watcher != null) {
+			if(previous != null)
+				watcher.unwatch(previous);
+			
+			watch(config);
+		}
 		
 		return config;
 	}
@@ -68,6 +90,236 @@ public class ConfigManager {
 		return registerConfig(name, config);
 	}
 	
+	/**
+	 * Loads and registers all files matching a glob in a directory of the data folder, parsing them in parallel on
+	 * as many threads as there are processors.
+	 *
+	 * @see #loadDirectory(String, String, int)
+	 */
+	
+	public YamlFileBatch.Result loadDirectory(@NonNull String path, @NonNull String glob) throws IOException {
+		return loadDirectory(path, glob, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Loads and registers all files matching a glob in a directory of the data folder, parsing them in parallel,
+	 * see {@link YamlFileBatch}.
+	 * <br>
+	 * The identifier of a file is its path relative to the data folder without the extension, with {@code .}
+	 * separating the directories, such as {@code players.notch} for {@code players/notch.yml}.
+	 * No file is registered until all of them have been parsed. Files that fail to load, or whose identifier is
+	 * invalid or ambiguous, are not registered and are reported in the result and the log without stopping the others.
+	 * An identifier is ambiguous if several files map to it, such as {@code a/b.yml} and {@code a.b.yml}, or if it is
+	 * registered for another file.
+	 *
+	 * @param path the directory, relative to the data folder
+	 * @param glob the glob the paths relative to the directory must match, such as {@code *.yml}, or {@code **.yml}
+	 *             to include subdirectories
+	 * @param parallelism the maximum number of files to parse at once
+	 * @return the registered files, the failures and the time it took
+	 * @throws IOException if the directory cannot be listed
+	 */
+	
+	@SuppressWarnings("PatternValidation")
+	public YamlFileBatch.Result loadDirectory(@NonNull String path, @NonNull String glob, int parallelism) throws IOException {
+		var root = dataFolder.toPath();
+		var directory = root.resolve(path);
+		var matcher = directory.getFileSystem().getPathMatcher("glob:" + glob);
+		var identifiers = new LinkedHashMap<YamlFile, String>();
+		var claimants = new HashMap<String, List<YamlFile>>();
+		var invalid = new LinkedHashMap<YamlFile, Exception>();
+		
+		try(var files = Files.walk(directory)) {
+			for(var file : files.filter(Files::isRegularFile).filter(file -> matcher.matches(directory.relativize(file))).sorted().toList()) {
+				var config = new YamlFile(file.toFile());
+				var identifier = identifierOf(root.relativize(file));
+				var registered = configs.get(identifier);
+				
+				if(!identifier.matches(IDENTIFIER_PATTERN))
+					invalid.put(config, new IllegalArgumentException("Invalid identifier '" + identifier + "'"));
+				else if(registered != null && !isFile(registered, file))
+					invalid.put(config, new IllegalArgumentException("Identifier '" + identifier + "' is already registered for "
+					  + registered.getConfigurationFile()));
+				else {
+					identifiers.put(config, identifier);
+					claimants.computeIfAbsent(identifier, ignored -> new ArrayList<>()).add(config);
+				}
+			}
+		}
+		
+		for(var entry : claimants.entrySet()) {
+			if(entry.getValue().size() < 2)
+				continue;
+			
+			var paths = entry.getValue().stream().map(config -> root.relativize(config.getConfigurationFile().toPath()).toString()).toList();
+			
+			for(var config : entry.getValue()) {
+				identifiers.remove(config);
+				invalid.put(config, new IllegalArgumentException("Ambiguous identifier '" + entry.getKey() + "' of " + paths));
+			}
+		}
+		
+		var result = YamlFileBatch.load(identifiers.keySet(), parallelism);
+		
+		for(var config : result.succeeded())
+			registerConfig(identifiers.get(config), config);
+		
+		if(!invalid.isEmpty()) {
+			invalid.putAll(result.failures());
+			result = new YamlFileBatch.Result(result.succeeded(), Collections.unmodifiableMap(invalid), result.threads(),
+			  result.busyNanos(), result.elapsedNanos());
+		}
+		
+		result.failures().forEach((config, e) -> logger.warn("Could not load config {}", config.getConfigurationFile(), e));
+		logger.info("Loaded {} from {}", result, directory);
+		
+		return result;
+	}
+	
+	private static boolean isFile(YamlFile config, Path file) {
+		var configFile = config.getConfigurationFile();
+		
+		return configFile != null && configFile.toPath().toAbsolutePath().normalize().equals(file.toAbsolutePath().normalize());
+	}
+	
+	private static String identifierOf(Path relative) {
+		var identifier = relative.toString().replace(relative.getFileSystem().getSeparator(), ".");
+		var extension = identifier.lastIndexOf('.');
+		
+		return extension > identifier.length() - relative.getFileName().toString().length()
+		  ? identifier.substring(0, extension)
+		  : identifier;
+	}
+	
+	/**
+	 * Reloads the registered configs whose files have changed, on as many threads as there are processors.
+	 *
+	 * @see #reloadAll(int)
+	 */
+	
+	public YamlFileBatch.Result reloadAll() {
+		return reloadAll(Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Reloads the registered configs whose files have changed since they were last loaded or saved, or that have
+	 * been changed without saving them, parsing them in parallel, see {@link YamlFileBatch#reload(Collection, int)}.
+	 * <br>
+	 * Configs whose files still have the same contents are not parsed again and keep their sections, so references
+	 * to them and anything computed from them remain valid. Configs that fail to reload are reported in the result and
+	 * the log without stopping the others.
+	 *
+	 * @param parallelism the maximum number of configs to check or parse at once
+	 * @return the reloaded configs, the failures and the time it took
+	 */
+	
+	public YamlFileBatch.Result reloadAll(int parallelism) {
+		var result = YamlFileBatch.reload(configs.values(), parallelism);
+		
+		result.failures().forEach((config, e) -> logger.warn("Could not reload config {}", config.getConfigurationFile(), e));
+		logger.info("Reloaded {}, {} unchanged", result, configs.size() - result.size());
+		
+		return result;
+	}
+	
+	/**
+	 * Saves the registered configs that have been changed, writing {@link YamlFileBatch#DEFAULT_SAVE_PARALLELISM}
+	 * of them at once.
+	 *
+	 * @see #saveAll(int)
+	 */
+	
+	public YamlFileBatch.Result saveAll() {
+		return saveAll(Math.max(YamlFileBatch.DEFAULT_SAVE_PARALLELISM, Runtime.getRuntime().availableProcessors()));
+	}
+	
+	/**
+	 * Saves the registered configs that have been changed, or don't exist yet, serializing and writing them in
+	 * parallel, see {@link YamlFileBatch#save(Collection, int)}.
+	 * <br>
+	 * This must be called from the thread modifying the configs, usually on disable. Configs that fail to save keep
+	 * their changes and are reported in the result and the log without stopping the others.
+	 *
+	 * @param parallelism the maximum number of configs to serialize and write at once
+	 * @return the saved configs, the failures and the time it took
+	 */
+	
+	public YamlFileBatch.Result saveAll(int parallelism) {
+		var result = YamlFileBatch.save(configs.values(), parallelism);
+		
+		result.failures().forEach((config, e) -> logger.warn("Could not save config {}", config.getConfigurationFile(), e));
+		
+		if(result.size() > 0)
+			logger.info("Saved {}", result);
+		
+		return result;
+	}
+	
+	/**
+	 * Creates a {@link YamlStore} of a file per key in a directory of the data folder, such as the data of players,
+	 * keeping at most {@code capacity} of them loaded.
+	 * <br>
+	 * The store is not registered, close it when the plugin is disabled to save its changed files.
+	 *
+	 * @param path the directory, relative to the data folder
+	 * @param naming gets the file name of a key, without extension
+	 * @param capacity the maximum number of loaded files
+	 * @param <K> the type of the keys
+	 * @return the store
+	 */
+	
+	public <K> YamlStore<K> createStore(@NonNull String path, @NonNull Function<? super K, String> naming, int capacity) {
+		return new YamlStore<>(dataFolder.toPath().resolve(path), naming, capacity);
+	}
+	
+	/**
+	 * Reloads the registered configs when they are changed on disk, see {@link YamlFileWatcher}.
+	 * Configs registered afterwards are watched as well.
+	 * Calling this again returns the same watcher, which keeps reloading on the first executor until {@link #stopWatching()}.
+	 *
+	 * @param reloadExecutor the executor to reload the configs on, usually the main thread executor of the server
+	 * @return the watcher, to listen to reloads
+	 * @throws IOException if the watcher could not be created
+	 * @throws IllegalStateException if the configs are already watched with another executor
+	 */
+	
+	public YamlFileWatcher watch(@NonNull Executor reloadExecutor) throws IOException {
+		if(watcher == null) {
+			watcher = new YamlFileWatcher(reloadExecutor);
+			this.reloadExecutor = reloadExecutor;
+			
+			for(var config : configs.values())
+				watch(config);
+		} else if(this.reloadExecutor != reloadExecutor)
+			throw new IllegalStateException("The configs are already watched with another executor, stop watching them first");
+		
+		return watcher;
+	}
+	
+	/**
+	 * Stops reloading the registered configs when they are changed on disk.
+	 */
+	
+	public void stopWatching() throws IOException {
+		if(watcher == null)
+			return;
+		
+		watcher.close();
+		watcher = null;
+		reloadExecutor = null;
+	}
+	
+	private void watch(YamlFile config) {
+		if(config.getConfigurationFile() == null)
+			return;
+		
+		try {
+			watcher.watch(config);
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
 	@Pattern(IDENTIFIER_PATTERN)
 	public @interface IdentifierPattern {
 	